@@ -0,0 +1,59 @@
+package org.ofdrw.bench;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+
+/**
+ * 基准测试入口
+ * <p>
+ * 支持JMH的全部命令行参数，未指定结果格式与结果文件时，
+ * 以JSON格式输出到当前目录的 {@value #DEFAULT_RESULT}，便于持续跟踪各版本的性能变化。
+ * <p>
+ * 示例：
+ * <pre>
+ * java -jar target/benchmarks.jar                         运行全部基准测试
+ * java -jar target/benchmarks.jar Reader -p pages=100     仅运行读取相关测试，文档为100页
+ * java -jar target/benchmarks.jar -rff result.json        指定结果文件
+ * </pre>
+ *
+ * @author agent
+ * @since 2026-10-17 14:46:13
+ */
+public final class BenchMain {
+
+    /**
+     * 默认结果文件
+     */
+    public static final String DEFAULT_RESULT = "jmh-result.json";
+
+    private BenchMain() {
+    }
+
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException, IOException {
+        CommandLineOptions cmd = new CommandLineOptions(args);
+        if (cmd.shouldHelp()) {
+            cmd.showHelp();
+            return;
+        }
+        if (cmd.shouldList() || cmd.shouldListWithParams() || cmd.shouldListProfilers() || cmd.shouldListResultFormats()) {
+            // 列表类命令交由JMH默认入口处理
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+        ChainedOptionsBuilder builder = new OptionsBuilder().parent(cmd);
+        if (!cmd.getResultFormat().hasValue()) {
+            builder.resultFormat(ResultFormatType.JSON);
+        }
+        if (!cmd.getResult().hasValue()) {
+            builder.result(DEFAULT_RESULT);
+        }
+        new Runner(builder.build()).run();
+    }
+}
@@ -0,0 +1,111 @@
+package org.ofdrw.bench;
+
+import org.bouncycastle.jcajce.provider.digest.SM3;
+import org.dom4j.DocumentException;
+import org.dom4j.Element;
+import org.ofdrw.pkg.container.VirtualContainer;
+import org.ofdrw.pkg.tool.ElemCup;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipFile;
+
+/**
+ * 虚拟容器刷新基准测试
+ * <p>
+ * 将测试文档第一页的页面内容复制为大量页面，每次调用前全部加载到虚拟容器并修改其中一页，
+ * 加载耗时不计入结果。
+ *
+ * @author agent
+ * @since 2026-10-17 19:05:12
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContainerBenchmark {
+
+    /**
+     * 页面内容文件
+     */
+    @State(Scope.Benchmark)
+    public static class FilesState {
+
+        /**
+         * 页面内容文件数
+         */
+        @Param("1000")
+        public int contents;
+
+        Path dir;
+
+        @Setup(Level.Trial)
+        public void setup(DocState doc) throws IOException {
+            dir = doc.dir.resolve("container");
+            try (ZipFile zip = new ZipFile(doc.file.toFile());
+                 InputStream in = zip.getInputStream(zip.getEntry("Doc_0/Pages/Page_0/Content.xml"))) {
+                Path first = Files.createDirectories(dir.resolve("Page_0")).resolve("Content.xml");
+                Files.copy(in, first);
+                for (int i = 1; i < contents; i++) {
+                    Files.copy(first, Files.createDirectories(dir.resolve("Page_" + i)).resolve("Content.xml"));
+                }
+            }
+        }
+    }
+
+    /**
+     * 已经加载所有页面内容并修改了其中一页的容器
+     * <p>
+     * 刷新后容器缓存被清空，因此每次调用前重新加载。
+     */
+    @State(Scope.Thread)
+    public static class LoadedState {
+
+        VirtualContainer root;
+
+        List<Element> pages;
+
+        /**
+         * 写入的属性值，保证每次都产生修改
+         */
+        int seq;
+
+        @Setup(Level.Invocation)
+        public void setup(FilesState files) throws IOException, DocumentException {
+            root = new VirtualContainer(files.dir);
+            pages = new ArrayList<>(files.contents);
+            for (int i = 0; i < files.contents; i++) {
+                pages.add(root.obtainContainer("Page_" + i, VirtualContainer::new).getObj("Content.xml"));
+            }
+            pages.get(files.contents / 2).addAttribute("BenchSeq", Integer.toString(seq++));
+        }
+    }
+
+    /**
+     * 刷新容器，仅写入修改过的文件
+     */
+    @Benchmark
+    public void flushOneChanged(LoadedState state) throws IOException {
+        state.root.flush();
+    }
+
+    /**
+     * 序列化所有页面内容并计算摘要，与 {@link #flushOneChanged(LoadedState)} 对照
+     * <p>
+     * 即通过比较摘要判断文件是否修改所需的开销。
+     */
+    @Benchmark
+    public void dumpAndDigestAll(LoadedState state, Blackhole bh) throws IOException {
+        for (Element page : state.pages) {
+            bh.consume(new SM3.Digest().digest(ElemCup.dump(page)));
+        }
+    }
+}
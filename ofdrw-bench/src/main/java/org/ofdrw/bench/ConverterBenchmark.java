@@ -0,0 +1,294 @@
+package org.ofdrw.bench;
+
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfPage;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import org.apache.commons.io.output.NullOutputStream;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.ofdrw.converter.ImageMaker;
+import org.ofdrw.converter.ItextMaker;
+import org.ofdrw.converter.PdfboxMaker;
+import org.ofdrw.reader.ImageCache;
+import org.ofdrw.reader.OFDReader;
+import org.ofdrw.reader.PageInfo;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 文档转换基准测试
+ * <p>
+ * 文档与转换器在每轮测试开始时创建，每次调用转换一页，依次循环所有页面，
+ * 结果为单页转换耗时。各转换器使用独立的状态，仅创建被测转换器。
+ * <p>
+ * iText、PDFBox 转换依赖转换器内置的默认字体（fonts/simsun.ttf），
+ * 缺少该字体时仅对应的测试在准备阶段失败。
+ *
+ * @author agent
+ * @since 2026-10-17 14:46:13
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConverterBenchmark {
+
+    /**
+     * 打开的文档与页面游标
+     */
+    @State(Scope.Thread)
+    public static class PageState {
+        OFDReader reader;
+        List<PageInfo> pages;
+        private int cursor = 0;
+
+        @Setup(Level.Trial)
+        public void open(DocState doc) throws IOException {
+            reader = new OFDReader(doc.file);
+            pages = reader.getPageList();
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws IOException {
+            reader.close();
+        }
+
+        /**
+         * @return 下一个待转换页面的索引，从0起
+         */
+        int nextPage() {
+            int i = cursor;
+            cursor = (cursor + 1) % pages.size();
+            return i;
+        }
+    }
+
+    /**
+     * 转换器内置的默认字体
+     */
+    private static final String DEFAULT_FONT = "fonts/simsun.ttf";
+
+    /**
+     * 检查转换器内置的默认字体是否存在
+     *
+     * @param converter 转换器名称
+     */
+    static void requireDefaultFont(String converter) {
+        if (ConverterBenchmark.class.getClassLoader().getResource(DEFAULT_FONT) == null) {
+            throw new IllegalStateException(converter + " 转换需要转换器内置的默认字体 " + DEFAULT_FONT
+                    + "，请确认 ofdrw-converter 打包时包含该字体");
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ItextState {
+        PdfDocument pdf;
+        ItextMaker maker;
+
+        @Setup(Level.Trial)
+        public void setup(PageState s) throws IOException {
+            requireDefaultFont("iText");
+            pdf = new PdfDocument(new PdfWriter(NullOutputStream.NULL_OUTPUT_STREAM));
+            maker = new ItextMaker(s.reader);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            if (pdf != null) {
+                pdf.close();
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class PdfboxState {
+        PDDocument pdf;
+        PdfboxMaker maker;
+
+        @Setup(Level.Trial)
+        public void setup(PageState s) throws IOException {
+            requireDefaultFont("PDFBox");
+            pdf = new PDDocument();
+            maker = new PdfboxMaker(s.reader, pdf);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            if (pdf != null) {
+                pdf.close();
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ImageState {
+        /**
+         * 图片转换分辨率（像素/毫米）
+         */
+        @Param("5")
+        public double ppm;
+
+        ImageMaker maker;
+
+        @Setup(Level.Trial)
+        public void setup(PageState s) {
+            maker = new ImageMaker(s.reader, ppm);
+        }
+    }
+
+    /**
+     * 并行渲染所有页面使用的线程池
+     */
+    @State(Scope.Benchmark)
+    public static class RenderAllState {
+        /**
+         * 渲染线程数
+         */
+        @Param({"1", "4", "8"})
+        public int threads;
+
+        OFDReader reader;
+        ImageMaker maker;
+        ExecutorService executor;
+
+        @Setup(Level.Trial)
+        public void setup(DocState doc) throws IOException {
+            reader = new OFDReader(doc.file);
+            maker = new ImageMaker(reader, 5);
+            executor = Executors.newFixedThreadPool(threads);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            executor.shutdown();
+            reader.close();
+        }
+    }
+
+    /**
+     * 图片缓存设置
+     * <p>
+     * 测试文档每页使用相同的图片。
+     */
+    @State(Scope.Benchmark)
+    public static class ImageCacheState {
+        /**
+         * 图片缓存容量（字节），0表示不缓存
+         */
+        @Param({"0", "67108864"})
+        public long cacheBytes;
+
+        OFDReader reader;
+        ImageMaker maker;
+        ImageCache cache;
+
+        @Setup(Level.Trial)
+        public void setup(DocState doc) throws IOException {
+            reader = new OFDReader(doc.file);
+            cache = reader.getResMgt().getImageCache();
+            cache.setMaxBytes(cacheBytes);
+            maker = new ImageMaker(reader, 5);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            reader.close();
+        }
+    }
+
+    /**
+     * 高分辨率渲染
+     */
+    @State(Scope.Thread)
+    public static class HiResState {
+        /**
+         * 渲染分辨率（像素/毫米），默认约600DPI
+         */
+        @Param("23.6")
+        public double hiResPpm;
+
+        /**
+         * 图块边长（像素）
+         */
+        static final int TILE_SIZE = 512;
+
+        ImageMaker maker;
+
+        @Setup(Level.Trial)
+        public void setup(PageState s) {
+            maker = new ImageMaker(s.reader, hiResPpm);
+        }
+    }
+
+    /**
+     * 使用iText转换一页为PDF
+     */
+    @Benchmark
+    public PdfPage itextPage(PageState s, ItextState itext) throws IOException {
+        PdfPage page = itext.maker.makePage(itext.pdf, s.pages.get(s.nextPage()));
+        // 写出已完成的页面，避免页面在内存中累积
+        page.flush();
+        return page;
+    }
+
+    /**
+     * 使用PDFBox转换一页为PDF
+     */
+    @Benchmark
+    public PDPage pdfboxPage(PageState s, PdfboxState pdfbox) throws IOException {
+        PDPage page = pdfbox.maker.makePage(s.pages.get(s.nextPage()));
+        pdfbox.pdf.removePage(page);
+        return page;
+    }
+
+    /**
+     * 渲染一页为图片
+     */
+    @Benchmark
+    public BufferedImage imagePage(PageState s, ImageState image) {
+        return image.maker.makePage(s.nextPage());
+    }
+
+    /**
+     * 使用线程池并行渲染所有页面为图片
+     */
+    @Benchmark
+    public List<BufferedImage> renderAll(RenderAllState state) {
+        return state.maker.renderAll(state.executor);
+    }
+
+    /**
+     * 渲染所有页面为图片，每次调用前清空图片缓存
+     */
+    @Benchmark
+    public void renderImageCache(ImageCacheState state, Blackhole bh) {
+        state.cache.clear();
+        for (int i = 0; i < state.maker.pageSize(); i++) {
+            bh.consume(state.maker.makePage(i));
+        }
+    }
+
+    /**
+     * 以高分辨率渲染第一页为整页图片
+     */
+    @Benchmark
+    public BufferedImage hiResPage(HiResState state) {
+        return state.maker.makePage(0);
+    }
+
+    /**
+     * 以高分辨率分块渲染第一页，与 {@link #hiResPage(HiResState)} 对照内存分配
+     */
+    @Benchmark
+    public void hiResTiles(HiResState state, Blackhole bh) throws IOException {
+        state.maker.makeTiles(0, HiResState.TILE_SIZE, (col, row, region, tile) -> bh.consume(tile));
+    }
+}
@@ -0,0 +1,176 @@
+package org.ofdrw.bench;
+
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.cert.X509v3CertificateBuilder;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateConverter;
+import org.bouncycastle.cert.jcajce.JcaX509v3CertificateBuilder;
+import org.bouncycastle.crypto.CryptoException;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.bouncycastle.operator.ContentSigner;
+import org.bouncycastle.operator.OperatorCreationException;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+import org.dom4j.DocumentException;
+import org.ofdrw.crypto.OFDDecryptor;
+import org.ofdrw.crypto.OFDEncryptor;
+import org.ofdrw.crypto.decryptor.UserPasswordDecryptor;
+import org.ofdrw.crypto.enryptor.UserPasswordEncryptor;
+import org.ofdrw.crypto.integrity.GMProtectSigner;
+import org.ofdrw.crypto.integrity.GMProtectVerifier;
+import org.ofdrw.crypto.integrity.OFDIntegrity;
+import org.ofdrw.crypto.integrity.OFDIntegrityVerifier;
+import org.ofdrw.gm.cert.PKCGenerate;
+import org.ofdrw.reader.OFDReader;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.cert.X509Certificate;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 文档加密与完整性保护基准测试
+ * <p>
+ * 测试文档追加大量随机内容的资源文件，分别测试解压到工作目录后处理（普通模式）
+ * 与直接读写压缩包条目（流式模式）的耗时。
+ *
+ * @author agent
+ * @since 2026-10-17 18:31:20
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CryptoBenchmark {
+
+    /**
+     * 是否使用流式处理
+     */
+    @Param({"false", "true"})
+    public boolean streaming;
+
+    /**
+     * 完整性保护使用的签名密钥与已经保护的文档
+     * <p>
+     * 签名证书为临时生成的SM2自签名证书
+     */
+    @State(Scope.Benchmark)
+    public static class IntegrityState {
+        GMProtectSigner signer;
+
+        /**
+         * 已经完整性保护的文档
+         */
+        Path file;
+
+        @Setup(Level.Trial)
+        public void setup(PackageState pkg) throws GeneralSecurityException, IOException, OperatorCreationException, DocumentException {
+            KeyPair kp = PKCGenerate.GenerateKeyPair();
+            X500Name subject = PKCGenerate.TestND();
+            long now = System.currentTimeMillis();
+            X509v3CertificateBuilder builder = new JcaX509v3CertificateBuilder(subject, BigInteger.ONE,
+                    new Date(now - 86400_000L), new Date(now + 86400_000L), subject, kp.getPublic());
+            ContentSigner contentSigner = new JcaContentSignerBuilder("SM3withSM2")
+                    .setProvider(new BouncyCastleProvider()).build(kp.getPrivate());
+            X509Certificate cert = new JcaX509CertificateConverter()
+                    .setProvider(new BouncyCastleProvider()).getCertificate(builder.build(contentSigner));
+            signer = new GMProtectSigner(kp.getPrivate(), cert);
+            file = pkg.file.resolveSibling("protected.ofd");
+            try (OFDIntegrity integrity = new OFDIntegrity(pkg.file, file, true)) {
+                integrity.protect(signer);
+            }
+            if (!new OFDIntegrityVerifier(true).integrity(file, new GMProtectVerifier())) {
+                throw new IllegalStateException("完整性保护后的文档校验失败");
+            }
+        }
+    }
+
+    /**
+     * 已经使用口令加密的文档
+     */
+    @State(Scope.Benchmark)
+    public static class EncryptedState {
+        /**
+         * 加密后的文档
+         */
+        Path file;
+
+        @Setup(Level.Trial)
+        public void setup(PackageState pkg) throws IOException, CryptoException, GeneralSecurityException {
+            file = pkg.file.resolveSibling("decrypt-src.ofd");
+            try (OFDEncryptor encryptor = new OFDEncryptor(pkg.file, file)) {
+                encryptor.addUser(new UserPasswordEncryptor("777", "12345678"));
+                encryptor.encrypt();
+            }
+        }
+    }
+
+    /**
+     * 使用口令加密文档
+     *
+     * @return 加密后文档的字节数
+     */
+    @Benchmark
+    public long encrypt(PackageState pkg) throws IOException, CryptoException, GeneralSecurityException {
+        Path out = pkg.file.resolveSibling("encrypted.ofd");
+        try (OFDEncryptor encryptor = new OFDEncryptor(pkg.file, out, streaming)) {
+            encryptor.addUser(new UserPasswordEncryptor("777", "12345678"));
+            encryptor.encrypt();
+        }
+        return Files.size(out);
+    }
+
+    /**
+     * 完整性保护
+     *
+     * @return 保护后文档的字节数
+     */
+    @Benchmark
+    public long protect(PackageState pkg, IntegrityState state) throws IOException, GeneralSecurityException {
+        Path out = pkg.file.resolveSibling("integrity.ofd");
+        try (OFDIntegrity integrity = new OFDIntegrity(pkg.file, out, streaming)) {
+            integrity.protect(state.signer);
+        }
+        return Files.size(out);
+    }
+
+    /**
+     * 完整性校验
+     *
+     * @return 校验结果
+     */
+    @Benchmark
+    public boolean verify(IntegrityState state) throws IOException, GeneralSecurityException, DocumentException {
+        return new OFDIntegrityVerifier(streaming).integrity(state.file, new GMProtectVerifier());
+    }
+
+    /**
+     * 解密文档并读取第一页
+     * <p>
+     * 普通模式完整解密到文件后读取；流式模式读取时解密，仅解密第一页用到的文件。
+     */
+    @Benchmark
+    public void decryptRead(EncryptedState state, Blackhole bh) throws IOException, CryptoException, GeneralSecurityException {
+        if (streaming) {
+            try (OFDReader reader = OFDDecryptor.openReader(state.file, new UserPasswordDecryptor("777", "12345678"))) {
+                bh.consume(reader.getPage(1));
+            }
+            return;
+        }
+        Path out = state.file.resolveSibling("decrypted.ofd");
+        try (OFDDecryptor decryptor = new OFDDecryptor(state.file)) {
+            decryptor.decrypt(new UserPasswordDecryptor("777", "12345678"));
+            decryptor.saveTo(out);
+        }
+        try (OFDReader reader = new OFDReader(out)) {
+            bh.consume(reader.getPage(1));
+        }
+    }
+}
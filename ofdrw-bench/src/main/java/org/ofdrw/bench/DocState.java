@@ -0,0 +1,66 @@
+package org.ofdrw.bench;
+
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * 基准测试输入文档
+ * <p>
+ * 每轮测试（Trial）开始前按参数通过 {@link Fixtures} 生成文档，结束后删除。
+ * 参数可通过命令行 {@code -p pages=100} 等方式调整。
+ *
+ * @author agent
+ * @since 2026-10-17 14:46:13
+ */
+@State(Scope.Benchmark)
+public class DocState {
+
+    /**
+     * 页数
+     */
+    @Param("10")
+    public int pages;
+
+    /**
+     * 每页文字对象数
+     */
+    @Param("100")
+    public int texts;
+
+    /**
+     * 每页图片数
+     */
+    @Param("2")
+    public int images;
+
+    /**
+     * 字体数
+     */
+    @Param("3")
+    public int fonts;
+
+    /**
+     * 工作目录
+     */
+    public Path dir;
+
+    /**
+     * 生成的文档
+     */
+    public Path file;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        dir = Files.createTempDirectory("ofdrw-bench");
+        file = Fixtures.generate(dir.resolve("fixture.ofd"), pages, texts, images, fonts);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(dir.toFile());
+    }
+}
@@ -0,0 +1,198 @@
+package org.ofdrw.bench;
+
+import org.apache.commons.io.IOUtils;
+import org.ofdrw.font.Font;
+import org.ofdrw.font.FontName;
+import org.ofdrw.layout.OFDDoc;
+import org.ofdrw.layout.PageLayout;
+import org.ofdrw.layout.VirtualPage;
+import org.ofdrw.layout.element.Img;
+import org.ofdrw.layout.element.Paragraph;
+import org.ofdrw.layout.element.Position;
+import org.ofdrw.layout.element.Span;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * 基准测试文档生成器
+ * <p>
+ * 生成页数、每页文字对象数、每页图片数、字体数可控的OFD文档，
+ * 使各基准测试的输入规模固定，结果在不同版本间可比较。
+ * <p>
+ * 每页的文字对象按4列网格排列，其中每 {@link #KEYWORD_EVERY} 个文字对象含有关键字 {@link #KEYWORD}；
+ * 图片为程序生成的PNG图片，所有页面引用同一组图片；字体在 {@link FontName} 中循环选取。
+ *
+ * @author agent
+ * @since 2026-10-17 14:46:13
+ */
+public final class Fixtures {
+
+    /**
+     * 文档中的关键字
+     */
+    public static final String KEYWORD = "合同编号";
+
+    /**
+     * 每隔多少个文字对象出现一次关键字
+     */
+    public static final int KEYWORD_EVERY = 10;
+
+    /**
+     * 文字对象网格最少列数
+     * <p>
+     * 文字对象较多时按比例增加列数，避免行高过小导致文字无法排入
+     */
+    private static final int COLUMNS = 4;
+
+    private static final String[] WORDS = {
+            "甲方", "乙方", "金额", "日期", "签章", "备注", "OFD", "Reader", "Writer", "2026"
+    };
+
+    private Fixtures() {
+    }
+
+    /**
+     * 生成基准测试文档
+     * <p>
+     * 图片文件生成在输出文件所在目录。
+     *
+     * @param out    输出文件路径
+     * @param pages  页数，大于0
+     * @param texts  每页文字对象数
+     * @param images 每页图片数
+     * @param fonts  使用的字体数，1 ~ {@link FontName} 枚举数量
+     * @return 输出文件路径
+     * @throws IOException 文件读写异常
+     */
+    public static Path generate(Path out, int pages, int texts, int images, int fonts) throws IOException {
+        if (pages <= 0) {
+            throw new IllegalArgumentException("页数(pages)必须大于0");
+        }
+        if (texts < 0 || images < 0) {
+            throw new IllegalArgumentException("文字对象数(texts)与图片数(images)不能小于0");
+        }
+        final FontName[] fontNames = FontName.values();
+        if (fonts <= 0 || fonts > fontNames.length) {
+            throw new IllegalArgumentException("字体数(fonts)超出范围 1~" + fontNames.length);
+        }
+        out = out.toAbsolutePath();
+        final Path dir = out.getParent();
+        Files.createDirectories(dir);
+
+        Path[] imgFiles = new Path[images];
+        for (int i = 0; i < images; i++) {
+            imgFiles[i] = dir.resolve("fixture-img-" + i + ".png");
+            ImageIO.write(image(i), "png", imgFiles[i].toFile());
+        }
+
+        final PageLayout layout = PageLayout.A4();
+        final double width = layout.getWidth();
+        final double height = layout.getHeight();
+        final int columns = Math.max(COLUMNS, (int) Math.ceil(Math.sqrt(texts / 25.0)));
+        final double colWidth = (width - 20) / columns;
+        final int rows = Math.max(1, (texts + columns - 1) / columns);
+        // 图片占用页面下方的区域，文字占用上方
+        final double textArea = images > 0 ? (height - 20) * 0.7 : height - 20;
+        final double rowHeight = textArea / rows;
+        final double fontSize = Math.min(4, rowHeight * 0.7);
+        // 行高不足时缩小行间距（默认2mm）
+        final double lineSpace = Math.min(2, (rowHeight - fontSize) * 0.9);
+
+        try (OFDDoc doc = new OFDDoc(out)) {
+            int seq = 0;
+            for (int p = 0; p < pages; p++) {
+                VirtualPage vPage = new VirtualPage(layout);
+                for (int i = 0; i < texts; i++, seq++) {
+                    Font font = fontNames[seq % fonts].font();
+                    String text = (seq % KEYWORD_EVERY == 0 ? KEYWORD : WORDS[seq % WORDS.length]) + seq;
+                    Paragraph para = new Paragraph(colWidth, rowHeight);
+                    para.setLineSpace(lineSpace);
+                    para.add(new Span(font, fontSize, text));
+                    para.setPosition(Position.Absolute)
+                            .setX(10 + (i % columns) * colWidth)
+                            .setY(10 + (i / columns) * rowHeight);
+                    vPage.add(para);
+                }
+                if (images > 0) {
+                    final double imgWidth = (width - 20) / images;
+                    final double imgHeight = (height - 20) - textArea;
+                    for (int i = 0; i < images; i++) {
+                        Img img = new Img(imgWidth, imgHeight, imgFiles[i]);
+                        img.setPosition(Position.Absolute)
+                                .setX(10 + i * imgWidth)
+                                .setY(10 + textArea);
+                        vPage.add(img);
+                    }
+                }
+                doc.addVPage(vPage);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * 复制文档并追加资源文件
+     * <p>
+     * 资源文件内容为随机数据（无法压缩），大小在 8KB ~ 128KB 之间，
+     * 用于测试包内文件数量较多、体积较大时的加密、完整性保护等按文件处理的流程。
+     *
+     * @param src       源文档
+     * @param out       输出文件路径
+     * @param resources 追加的资源文件数
+     * @return 输出文件路径
+     * @throws IOException 文件读写异常
+     */
+    public static Path appendResources(Path src, Path out, int resources) throws IOException {
+        if (resources < 0) {
+            throw new IllegalArgumentException("资源文件数(resources)不能小于0");
+        }
+        final Random random = new Random(resources);
+        try (ZipInputStream zin = new ZipInputStream(Files.newInputStream(src));
+             ZipOutputStream zout = new ZipOutputStream(Files.newOutputStream(out))) {
+            ZipEntry entry;
+            while ((entry = zin.getNextEntry()) != null) {
+                zout.putNextEntry(new ZipEntry(entry.getName()));
+                IOUtils.copy(zin, zout);
+                zout.closeEntry();
+            }
+            for (int i = 0; i < resources; i++) {
+                zout.putNextEntry(new ZipEntry("Doc_0/Res/bench_res_" + i + ".bin"));
+                byte[] bin = new byte[8 * 1024 + random.nextInt(120 * 1024)];
+                random.nextBytes(bin);
+                zout.write(bin);
+                zout.closeEntry();
+            }
+        }
+        return out;
+    }
+
+    /**
+     * 生成测试图片，不同序号的图片内容不同
+     *
+     * @param index 图片序号
+     * @return 图片
+     */
+    private static BufferedImage image(int index) {
+        final int w = 400, h = 300;
+        BufferedImage img = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = img.createGraphics();
+        try {
+            g.setPaint(new GradientPaint(0, 0, new Color(0x3366CC + index * 0x1F2F3F), w, h, Color.WHITE));
+            g.fillRect(0, 0, w, h);
+            g.setColor(Color.RED);
+            g.drawOval(w / 4, h / 4, w / 2, h / 2);
+        } finally {
+            g.dispose();
+        }
+        return img;
+    }
+}
@@ -0,0 +1,64 @@
+package org.ofdrw.bench;
+
+import org.ofdrw.layout.OFDDoc;
+import org.ofdrw.layout.element.Paragraph;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 流式布局基准测试
+ * <p>
+ * 向文档中连续添加大量段落，由布局引擎分页并生成文档（输出到内存）。
+ *
+ * @author agent
+ * @since 2026-10-17 14:46:13
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LayoutBenchmark {
+
+    /**
+     * 段落数
+     */
+    @Param("1000")
+    public int paragraphs;
+
+    private String[] texts;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        texts = new String[paragraphs];
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < paragraphs; i++) {
+            sb.setLength(0);
+            // 段落长度在1~4行之间变化
+            for (int j = 0, len = 20 + (i % 4) * 40; j < len; j++) {
+                sb.append(j % 7 == 0 ? ' ' : (char) ('甲' + (i + j) % 64));
+            }
+            texts[i] = sb.toString();
+        }
+    }
+
+    /**
+     * 布局段落流并生成文档
+     *
+     * @return 生成文档的字节数
+     */
+    @Benchmark
+    public int layoutParagraphs() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (OFDDoc doc = new OFDDoc(out)) {
+            for (String text : texts) {
+                doc.add(new Paragraph(text));
+            }
+        }
+        return out.size();
+    }
+}
@@ -0,0 +1,88 @@
+package org.ofdrw.bench;
+
+import org.ofdrw.tool.merge.OFDMerger;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 文档合并基准测试
+ * <p>
+ * 将测试文档与自身合并为一份双倍页数的文档，以及合并大量同一来源的文档（如 发票）的第一页，
+ * 分别测试普通模式与流式模式。
+ *
+ * @author agent
+ * @since 2026-10-17 14:46:13
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MergeBenchmark {
+
+    /**
+     * 是否使用流式合并
+     */
+    @Param({"false", "true"})
+    public boolean streaming;
+
+    /**
+     * 同一来源的大量文档，每份文档都是独立的文件
+     */
+    @State(Scope.Benchmark)
+    public static class SourcesState {
+
+        /**
+         * 文档份数
+         */
+        @Param("200")
+        public int copies;
+
+        Path[] sources;
+
+        @Setup(Level.Trial)
+        public void setup(DocState doc) throws IOException {
+            Path dir = Files.createDirectories(doc.dir.resolve("merge-src"));
+            sources = new Path[copies];
+            for (int i = 0; i < copies; i++) {
+                sources[i] = Files.copy(doc.file, dir.resolve("copy_" + i + ".ofd"));
+            }
+        }
+    }
+
+    /**
+     * 合并两份文档
+     *
+     * @return 合并后文档的字节数
+     */
+    @Benchmark
+    public long merge(DocState doc) throws IOException {
+        Path out = doc.dir.resolve("merged.ofd");
+        try (OFDMerger merger = new OFDMerger(out, streaming)) {
+            merger.add(doc.file);
+            merger.add(doc.file);
+        }
+        return Files.size(out);
+    }
+
+    /**
+     * 合并大量文档的第一页
+     *
+     * @return 合并后文档的字节数
+     */
+    @Benchmark
+    public long mergeMany(DocState doc, SourcesState state) throws IOException {
+        Path out = doc.dir.resolve("merged-many.ofd");
+        try (OFDMerger merger = new OFDMerger(out, streaming)) {
+            for (Path src : state.sources) {
+                merger.add(src, 1);
+            }
+        }
+        return Files.size(out);
+    }
+}
@@ -0,0 +1,35 @@
+package org.ofdrw.bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * 含大量资源文件的测试文档
+ * <p>
+ * 在 {@link DocState} 生成的文档中通过 {@link Fixtures#appendResources(Path, Path, int)} 追加随机内容的资源文件，
+ * 用于加密、完整性保护、签名验证等按包内文件处理的流程，文件与 {@link DocState} 的工作目录一同删除。
+ *
+ * @author agent
+ * @since 2026-10-17 18:31:20
+ */
+@State(Scope.Benchmark)
+public class PackageState {
+
+    /**
+     * 追加的资源文件数
+     */
+    @Param("400")
+    public int resources;
+
+    /**
+     * 追加了资源文件的文档
+     */
+    public Path file;
+
+    @Setup(Level.Trial)
+    public void setup(DocState doc) throws IOException {
+        file = Fixtures.appendResources(doc.file, doc.dir.resolve("resources.ofd"), resources);
+    }
+}
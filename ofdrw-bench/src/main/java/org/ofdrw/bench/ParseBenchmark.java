@@ -0,0 +1,164 @@
+package org.ofdrw.bench;
+
+import org.apache.commons.io.IOUtils;
+import org.dom4j.DocumentException;
+import org.dom4j.Element;
+import org.ofdrw.converter.utils.PathCache;
+import org.ofdrw.core.basicType.ST_Array;
+import org.ofdrw.core.graph.pathObj.PathData;
+import org.ofdrw.pkg.tool.ElemCup;
+import org.ofdrw.pkg.tool.SAXReaderFactory;
+import org.ofdrw.reader.DeltaTool;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.awt.geom.Path2D;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipFile;
+
+/**
+ * 基础类型计算与XML解析基准测试
+ * <p>
+ * 渲染与文字定位过程中对每个图元都会执行的变换矩阵乘法、字符间距展开、路径解析，
+ * 以及读取文档时对每个XML文件都会执行的反序列化。
+ *
+ * @author agent
+ * @since 2026-10-17 18:52:40
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParseBenchmark {
+
+    /**
+     * XML解析使用的文件内容与解析器复用设置
+     * <p>
+     * 解析测试文档的 Document.xml，文件较小，解析器的创建开销占比较大。
+     */
+    @State(Scope.Benchmark)
+    public static class XmlState {
+
+        /**
+         * 是否按线程复用解析器
+         */
+        @Param({"false", "true"})
+        public boolean reuse;
+
+        byte[] bin;
+
+        @Setup(Level.Trial)
+        public void setup(DocState doc) throws IOException {
+            try (ZipFile zip = new ZipFile(doc.file.toFile());
+                 InputStream in = zip.getInputStream(zip.getEntry("Doc_0/Document.xml"))) {
+                bin = IOUtils.toByteArray(in);
+            }
+            SAXReaderFactory.setReuse(reuse);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            SAXReaderFactory.setReuse(true);
+        }
+    }
+
+    /**
+     * 矢量密集的路径（类似地图、CAD导出的折线与曲线）
+     */
+    @State(Scope.Benchmark)
+    public static class PathState {
+
+        /**
+         * 路径线段数
+         */
+        @Param("2000")
+        public int segments;
+
+        String abbreviatedData;
+
+        /**
+         * 不缓存的路径缓存，每次调用都完整解析并构造路径
+         */
+        PathCache noCache;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            Random random = new Random(segments);
+            StringBuilder sb = new StringBuilder("M 10.5 20.25");
+            for (int i = 0; i < segments; i++) {
+                if (i % 5 == 4) {
+                    sb.append(String.format(Locale.ROOT, " B %.3f %.3f %.3f %.3f %.3f %.3f",
+                            random.nextDouble() * 210, random.nextDouble() * 297,
+                            random.nextDouble() * 210, random.nextDouble() * 297,
+                            random.nextDouble() * 210, random.nextDouble() * 297));
+                } else {
+                    sb.append(String.format(Locale.ROOT, " L %.3f %.3f", random.nextDouble() * 210, random.nextDouble() * 297));
+                }
+            }
+            abbreviatedData = sb.append(" C").toString();
+            noCache = new PathCache(0);
+        }
+    }
+
+    ST_Array ctm;
+
+    ST_Array move;
+
+    ST_Array delta;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        ctm = ST_Array.getInstance("0.35 0 0 0.35 12.5 40.25");
+        move = ST_Array.getInstance("1 0 0 1 3.5 0");
+        delta = ST_Array.getInstance("3.175 3.175 g 20 3.528 1.764 3.528 3.528 g 8 4.233 3.175");
+    }
+
+    /**
+     * 变换矩阵乘法
+     */
+    @Benchmark
+    public ST_Array mtxMul() {
+        return move.mtxMul(ctm);
+    }
+
+    /**
+     * 展开字符间距（含 g 压缩格式）
+     */
+    @Benchmark
+    public double[] expandDelta() {
+        return DeltaTool.expandDelta(delta);
+    }
+
+    /**
+     * 反序列化XML文件
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Element elemInject(XmlState state) throws DocumentException {
+        return ElemCup.inject(new ByteArrayInputStream(state.bin), "Document.xml");
+    }
+
+    /**
+     * 解析路径数据
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public PathData pathParse(PathState state) {
+        return PathData.parse(state.abbreviatedData);
+    }
+
+    /**
+     * 解析路径数据并构造AWT路径，即渲染时未命中路径缓存的开销
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Path2D pathPath2D(PathState state) {
+        return state.noCache.getPath2D(state.abbreviatedData);
+    }
+}
@@ -0,0 +1,266 @@
+package org.ofdrw.bench;
+
+import org.dom4j.DocumentException;
+import org.ofdrw.reader.ContentExtractor;
+import org.ofdrw.core.basicType.ST_Box;
+import org.ofdrw.pkg.tool.SAXReaderFactory;
+import org.ofdrw.reader.OFDReader;
+import org.ofdrw.reader.PageInfo;
+import org.ofdrw.reader.keyword.KeywordExtractor;
+import org.ofdrw.reader.keyword.KeywordPosition;
+import org.ofdrw.reader.keyword.TextIndex;
+import org.ofdrw.reader.spatial.IndexedObject;
+import org.ofdrw.reader.spatial.PageIndex;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.awt.geom.Rectangle2D;
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 文档读取基准测试
+ * <p>
+ * 每次调用均从打开文档开始，包含解压与文档结构解析的耗时。
+ *
+ * @author agent
+ * @since 2026-10-17 14:46:13
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReaderBenchmark {
+
+    /**
+     * XML解析器复用设置
+     */
+    @State(Scope.Benchmark)
+    public static class ReuseState {
+
+        /**
+         * 是否按线程复用解析器
+         */
+        @Param({"false", "true"})
+        public boolean reuse;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            SAXReaderFactory.setReuse(reuse);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            SAXReaderFactory.setReuse(true);
+        }
+    }
+
+    /**
+     * 多关键字检索使用的关键字
+     * <p>
+     * 关键字为从第一页文字中依次截取的两个字符。
+     */
+    @State(Scope.Benchmark)
+    public static class KeywordsState {
+
+        /**
+         * 关键字数量
+         */
+        @Param("50")
+        public int keywords;
+
+        String[] words;
+
+        @Setup(Level.Trial)
+        public void setup(DocState doc) throws IOException, DocumentException {
+            final String text;
+            try (OFDReader reader = new OFDReader(doc.file)) {
+                text = TextIndex.build(reader).getPageText(1);
+            }
+            words = new String[keywords];
+            for (int i = 0; i < keywords; i++) {
+                int s = (i * 7) % Math.max(1, text.length() - 3);
+                words[i] = text.substring(s, s + 2);
+            }
+        }
+    }
+
+    /**
+     * 空间索引测试使用的页面与查询区域
+     * <p>
+     * 文档只打开一次，仅测试索引的构造与查询，页面对象数量通过 {@code texts} 参数调整。
+     */
+    @State(Scope.Benchmark)
+    public static class IndexState {
+
+        /**
+         * 每次调用的查询次数
+         */
+        static final int QUERIES = 1000;
+
+        OFDReader reader;
+
+        PageInfo pageInfo;
+
+        PageIndex index;
+
+        Rectangle2D[] rects;
+
+        @Setup(Level.Trial)
+        public void setup(DocState doc) throws IOException {
+            reader = new OFDReader(doc.file);
+            pageInfo = reader.getPageInfo(1);
+            index = PageIndex.build(pageInfo, null);
+            ST_Box size = pageInfo.getSize();
+            Random random = new Random(3);
+            rects = new Rectangle2D[QUERIES];
+            for (int i = 0; i < QUERIES; i++) {
+                rects[i] = new Rectangle2D.Double(random.nextDouble() * size.getWidth(),
+                        random.nextDouble() * size.getHeight(), 20, 20);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            reader.close();
+        }
+    }
+
+    /**
+     * 打开文档并解析所有页面
+     */
+    @Benchmark
+    public void openAndGetPage(DocState doc, Blackhole bh) throws IOException {
+        try (OFDReader reader = new OFDReader(doc.file)) {
+            final int n = reader.getNumberOfPages();
+            for (int i = 1; i <= n; i++) {
+                bh.consume(reader.getPage(i));
+            }
+        }
+    }
+
+    /**
+     * 按需解压打开文档并解析第一页，即打开大量小文档（如 发票）时每份文档的处理
+     */
+    @Benchmark
+    public void openFirstPage(DocState doc, ReuseState state, Blackhole bh) throws IOException {
+        try (OFDReader reader = new OFDReader(doc.file, true)) {
+            bh.consume(reader.getPage(1).getContent());
+        }
+    }
+
+    /**
+     * 抽取文档中所有文字
+     */
+    @Benchmark
+    public List<String> extractAll(DocState doc) throws IOException {
+        try (OFDReader reader = new OFDReader(doc.file)) {
+            return new ContentExtractor(reader).extractAll();
+        }
+    }
+
+    /**
+     * 按需解压并流式抽取文档中所有文字
+     * <p>
+     * 与 {@link #extractAll(DocState)} 对比DOM解析与流式解析，
+     * 内存分配可通过 {@code -prof gc} 查看。
+     */
+    @Benchmark
+    public List<String> extractAllStreaming(DocState doc) throws IOException {
+        try (OFDReader reader = new OFDReader(doc.file, true)) {
+            return new ContentExtractor(reader, null, true).extractAll();
+        }
+    }
+
+    /**
+     * 查找关键字位置
+     */
+    @Benchmark
+    public List<KeywordPosition> keyword(DocState doc) throws IOException, DocumentException {
+        try (OFDReader reader = new OFDReader(doc.file)) {
+            return KeywordExtractor.getKeyWordPositionList(reader, Fixtures.KEYWORD);
+        }
+    }
+
+    /**
+     * 构造页面空间索引
+     */
+    @Benchmark
+    public PageIndex pageIndexBuild(IndexState state) {
+        return PageIndex.build(state.pageInfo, null);
+    }
+
+    /**
+     * 通过空间索引进行区域查询
+     *
+     * @return 命中的对象总数
+     */
+    @Benchmark
+    public long pageIndexQuery(IndexState state) {
+        long hits = 0;
+        for (Rectangle2D rect : state.rects) {
+            hits += state.index.query(rect).size();
+        }
+        return hits;
+    }
+
+    /**
+     * 遍历页面所有对象进行区域查询，与 {@link #pageIndexQuery(IndexState)} 对照
+     *
+     * @return 命中的对象总数
+     */
+    @Benchmark
+    public long pageIndexScan(IndexState state) {
+        long hits = 0;
+        List<IndexedObject> objects = state.index.getObjects();
+        for (Rectangle2D rect : state.rects) {
+            for (IndexedObject o : objects) {
+                if (o.intersects(rect)) {
+                    hits++;
+                }
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * 查找距离指定位置最近的文字对象
+     */
+    @Benchmark
+    public void nearestText(IndexState state, Blackhole bh) {
+        for (Rectangle2D rect : state.rects) {
+            bh.consume(state.index.nearestText(rect.getX(), rect.getY()));
+        }
+    }
+
+    /**
+     * 逐个查找多个关键字的位置
+     *
+     * @return 命中的位置总数
+     */
+    @Benchmark
+    public int keywordEach(DocState doc, KeywordsState state) throws IOException, DocumentException {
+        int hits = 0;
+        try (OFDReader reader = new OFDReader(doc.file)) {
+            for (String keyword : state.words) {
+                hits += KeywordExtractor.getKeyWordPositionList(reader, keyword).size();
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * 构造文字索引后一次检索多个关键字，与 {@link #keywordEach(DocState, KeywordsState)} 对照
+     *
+     * @return 命中的位置总数
+     */
+    @Benchmark
+    public int textIndexSearch(DocState doc, KeywordsState state) throws IOException, DocumentException {
+        try (OFDReader reader = new OFDReader(doc.file)) {
+            return TextIndex.build(reader).search(state.words).size();
+        }
+    }
+}
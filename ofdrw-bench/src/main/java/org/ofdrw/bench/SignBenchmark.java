@@ -0,0 +1,160 @@
+package org.ofdrw.bench;
+
+import org.apache.commons.io.FileUtils;
+import org.bouncycastle.jcajce.provider.digest.SM3;
+import org.ofdrw.gm.cert.PKCGenerate;
+import org.ofdrw.reader.OFDReader;
+import org.ofdrw.sign.FileDigestEngine;
+import org.ofdrw.sign.OFDSigner;
+import org.ofdrw.sign.SignMode;
+import org.ofdrw.sign.signContainer.DigitalSignContainer;
+import org.ofdrw.sign.verify.OFDValidator;
+import org.ofdrw.sign.verify.container.DigitalValidateContainer;
+import org.ofdrw.sign.verify.exceptions.OFDVerifyException;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 数字签名基准测试
+ * <p>
+ * 使用临时生成的SM2密钥对文档进行电子签名（不含印章），签名文档输出到内存；
+ * 验证含大量资源文件的已签名文档；以及签名前对大量包内文件计算杂凑值。
+ *
+ * @author agent
+ * @since 2026-10-17 14:46:13
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SignBenchmark {
+
+    private PrivateKey prvKey;
+
+    /**
+     * 待计算杂凑值的文件（类似含大量图片的OFD包中的资源文件）
+     */
+    @State(Scope.Benchmark)
+    public static class FilesState {
+        /**
+         * 文件数，文件内容为随机数据，大小在 8KB ~ 64KB 之间
+         */
+        @Param("1000")
+        public int files;
+
+        /**
+         * 并行计算的文件数量
+         */
+        @Param({"1", "4"})
+        public int parallelism;
+
+        Path dir;
+        List<Path> list;
+        FileDigestEngine engine;
+
+        @Setup(Level.Trial)
+        public void setup() throws IOException {
+            dir = Files.createTempDirectory("ofdrw-bench-digest");
+            Random random = new Random(files);
+            list = new ArrayList<>(files);
+            for (int i = 0; i < files; i++) {
+                byte[] bin = new byte[8 * 1024 + random.nextInt(56 * 1024)];
+                random.nextBytes(bin);
+                list.add(Files.write(dir.resolve("image_" + i + ".png"), bin));
+            }
+            engine = new FileDigestEngine(new SM3.Digest(), parallelism);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            FileUtils.deleteDirectory(dir.toFile());
+        }
+    }
+
+    /**
+     * 已签名的含大量资源文件的文档
+     */
+    @State(Scope.Benchmark)
+    public static class SignedState {
+        /**
+         * 是否按需解压（直接从压缩包中读取并计算杂凑值）
+         */
+        @Param({"false", "true"})
+        public boolean lazy;
+
+        Path file;
+        PublicKey pubKey;
+
+        @Setup(Level.Trial)
+        @SuppressWarnings("deprecation")
+        public void setup(PackageState pkg) throws GeneralSecurityException, IOException {
+            KeyPair kp = PKCGenerate.GenerateKeyPair();
+            pubKey = kp.getPublic();
+            file = pkg.file.resolveSibling("signed.ofd");
+            try (OFDReader reader = new OFDReader(pkg.file);
+                 OFDSigner signer = new OFDSigner(reader, file)) {
+                signer.setSignMode(SignMode.ContinueSign);
+                signer.setSignContainer(new DigitalSignContainer(kp.getPrivate()));
+                signer.exeSign();
+            }
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws GeneralSecurityException {
+        prvKey = PKCGenerate.GenerateKeyPair().getPrivate();
+    }
+
+    /**
+     * 打开文档、签名并生成签名后的文档
+     *
+     * @return 签名文档的字节数
+     */
+    @Benchmark
+    @SuppressWarnings("deprecation")
+    public int exeSign(DocState doc) throws IOException, GeneralSecurityException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (OFDReader reader = new OFDReader(doc.file);
+             OFDSigner signer = new OFDSigner(reader, out)) {
+            signer.setSignMode(SignMode.ContinueSign);
+            signer.setSignContainer(new DigitalSignContainer(prvKey));
+            signer.exeSign();
+        }
+        return out.size();
+    }
+
+    /**
+     * 打开文档并验证签名
+     */
+    @Benchmark
+    @SuppressWarnings("deprecation")
+    public void validate(SignedState state) throws OFDVerifyException, IOException, GeneralSecurityException {
+        try (OFDReader reader = new OFDReader(state.file, state.lazy);
+             OFDValidator validator = new OFDValidator(reader)) {
+            validator.setValidator(new DigitalValidateContainer(state.pubKey));
+            validator.exeValidate();
+        }
+    }
+
+    /**
+     * 计算所有文件的杂凑值
+     */
+    @Benchmark
+    public List<byte[]> digest(FilesState state) throws IOException {
+        return state.engine.digest(state.list);
+    }
+}
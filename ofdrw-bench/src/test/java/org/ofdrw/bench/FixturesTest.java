@@ -0,0 +1,71 @@
+package org.ofdrw.bench;
+
+import org.dom4j.DocumentException;
+import org.junit.jupiter.api.Test;
+import org.ofdrw.core.basicStructure.pageObj.Page;
+import org.ofdrw.core.basicStructure.pageObj.layer.CT_Layer;
+import org.ofdrw.core.basicStructure.pageObj.layer.PageBlockType;
+import org.ofdrw.core.basicStructure.pageObj.layer.block.ImageObject;
+import org.ofdrw.core.basicStructure.pageObj.layer.block.TextObject;
+import org.ofdrw.reader.ContentExtractor;
+import org.ofdrw.reader.OFDReader;
+import org.ofdrw.reader.keyword.KeywordExtractor;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.zip.ZipFile;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 基准测试文档生成测试
+ *
+ * @author agent
+ * @since 2026-10-17 14:46:13
+ */
+class FixturesTest {
+
+    /**
+     * 生成的文档规模与参数一致
+     */
+    @Test
+    void generate() throws IOException, DocumentException {
+        Path out = Paths.get("target/FixturesTest/fixture.ofd");
+        long start = System.currentTimeMillis();
+        Fixtures.generate(out, 3, 40, 2, 3);
+        System.out.printf(">> 生成文档耗时: %dms%n", System.currentTimeMillis() - start);
+
+        try (OFDReader reader = new OFDReader(out)) {
+            assertEquals(3, reader.getNumberOfPages());
+            for (int i = 1; i <= 3; i++) {
+                Page page = reader.getPage(i);
+                int texts = 0, images = 0;
+                for (CT_Layer layer : page.getContent().getLayers()) {
+                    for (PageBlockType block : layer.getPageBlocks()) {
+                        if (block instanceof TextObject) {
+                            texts++;
+                        } else if (block instanceof ImageObject) {
+                            images++;
+                        }
+                    }
+                }
+                assertEquals(40, texts);
+                assertEquals(2, images);
+            }
+            assertEquals(120, new ContentExtractor(reader).extractAll().size());
+            // 每10个文字对象中有1个关键字
+            assertEquals(12, KeywordExtractor.getKeyWordPositionList(reader, Fixtures.KEYWORD).size());
+        }
+        // 追加资源文件后文档仍可读取
+        Path res = Fixtures.appendResources(out, Paths.get("target/FixturesTest/resources.ofd"), 5);
+        try (ZipFile zip = new ZipFile(res.toFile())) {
+            assertNotNull(zip.getEntry("Doc_0/Res/bench_res_4.bin"));
+        }
+        try (OFDReader reader = new OFDReader(res)) {
+            assertEquals(3, reader.getNumberOfPages());
+        }
+        assertThrows(IllegalArgumentException.class, () -> Fixtures.generate(out, 0, 1, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> Fixtures.generate(out, 1, 1, 1, 100));
+    }
+}
@@ -8,6 +8,7 @@ import org.ofdrw.converter.font.TrueTypeFont;
 import org.ofdrw.converter.point.Tuple2;
 import org.ofdrw.converter.utils.CommonUtil;
 import org.ofdrw.converter.utils.MatrixUtils;
+import org.ofdrw.converter.utils.PathCache;
 import org.ofdrw.converter.utils.StringUtils;
 import org.ofdrw.core.annotation.pageannot.Annot;
 import org.ofdrw.core.annotation.pageannot.Appearance;
@@ -18,8 +19,6 @@ import org.ofdrw.core.basicType.ST_Array;
 import org.ofdrw.core.basicType.ST_Box;
 import org.ofdrw.core.basicType.ST_RefID;
 import org.ofdrw.core.compositeObj.CT_VectorG;
-import org.ofdrw.core.graph.pathObj.AbbreviatedData;
-import org.ofdrw.core.graph.pathObj.OptVal;
 import org.ofdrw.core.pageDescription.CT_GraphicUnit;
 import org.ofdrw.core.pageDescription.color.color.CT_Color;
 import org.ofdrw.core.pageDescription.color.colorSpace.CT_ColorSpace;
@@ -29,6 +28,7 @@ import org.ofdrw.core.signatures.appearance.StampAnnot;
 import org.ofdrw.core.text.CT_CGTransform;
 import org.ofdrw.core.text.TextCode;
 import org.ofdrw.core.text.font.CT_Font;
+import org.ofdrw.reader.DeltaTool;
 import org.ofdrw.reader.OFDReader;
 import org.ofdrw.reader.PageInfo;
 import org.ofdrw.reader.ResourceManage;
@@ -44,11 +44,16 @@ import java.awt.*;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.GeneralPath;
 import java.awt.geom.Path2D;
+import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
 
 /**
  * AWT设备转换类
@@ -90,6 +95,21 @@ public abstract class AWTMaker {
      */
     private final Map<String, FontWrapper<TrueTypeFont>> fontCache = new HashMap<>();
 
+    /**
+     * 文档中的电子印章（首次使用时加载）
+     */
+    private List<StampAnnotEntity> stampAnnots;
+
+    /**
+     * 印章图像缓存，签章信息与解析后的印章图像映射
+     */
+    private final Map<StampAnnotEntity, BufferedImage> stampImages = new IdentityHashMap<>();
+
+    /**
+     * 文档中的注释（首次使用时加载）
+     */
+    private List<AnnotionEntity> annotationEntities;
+
     /**
      * 创建图片转换对象实例
      * <p>
@@ -131,9 +151,93 @@ public abstract class AWTMaker {
         return pages.size();
     }
 
-    private void writeStampAnnot(Graphics2D graphics, StampAnnotEntity stampAnnotVo, StampAnnot stampAnnot) {
+    /**
+     * 使用线程池并行渲染所有页面
+     * <p>
+     * 同一个转换对象可以被多个页面渲染任务同时使用，
+     * 返回结果按照页码顺序排列。
+     *
+     * @param executor 线程池，由调用者负责关闭
+     * @param render   单页渲染方法，参数为页码（从0起）
+     * @param <T>      渲染结果类型
+     * @return 按页码排序的渲染结果
+     * @throws GeneralConvertException 任意页面渲染失败或渲染被中断
+     */
+    protected <T> List<T> renderAll(ExecutorService executor, IntFunction<T> render) {
+        if (executor == null) {
+            throw new IllegalArgumentException("线程池(executor)为空");
+        }
+        final List<Future<T>> futures = new ArrayList<>(pageSize());
+        for (int i = 0; i < pageSize(); i++) {
+            final int pageIndex = i;
+            futures.add(executor.submit(() -> render.apply(pageIndex)));
+        }
+        final List<T> res = new ArrayList<>(futures.size());
+        try {
+            for (Future<T> future : futures) {
+                res.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(f -> f.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new GeneralConvertException("页面渲染被中断", e);
+        } catch (ExecutionException e) {
+            futures.forEach(f -> f.cancel(true));
+            Throwable cause = e.getCause();
+            if (cause instanceof GeneralConvertException) {
+                throw (GeneralConvertException) cause;
+            }
+            throw new GeneralConvertException("页面渲染异常", cause);
+        }
+        return res;
+    }
+
+    /**
+     * 获取文档中的电子印章
+     * <p>
+     * 解析过程会改变OFD解析器的资源定位器状态，因此以解析器为锁
+     *
+     * @return 电子印章列表
+     */
+    private List<StampAnnotEntity> getStampAnnots() {
+        synchronized (reader) {
+            if (stampAnnots == null) {
+                stampAnnots = reader.getStampAnnots();
+            }
+            return stampAnnots;
+        }
+    }
+
+    /**
+     * 获取文档中的注释
+     *
+     * @return 注释列表
+     */
+    private List<AnnotionEntity> getAnnotationEntities() {
+        synchronized (reader) {
+            if (annotationEntities == null) {
+                annotationEntities = reader.getAnnotationEntities();
+            }
+            return annotationEntities;
+        }
+    }
+
+    /**
+     * 获取印章图像
+     * <p>
+     * 同一印章出现在多个页面时只解码（或渲染）一次。
+     *
+     * @param stampAnnotVo 签章信息
+     * @return 印章图像，无法解析时返还null
+     * @throws IOException 印章图像解析异常
+     */
+    private BufferedImage getStampImage(StampAnnotEntity stampAnnotVo) throws IOException {
+        synchronized (stampImages) {
+            if (stampImages.containsKey(stampAnnotVo)) {
+                return stampImages.get(stampAnnotVo);
+            }
+        }
         BufferedImage stampImage = null;
-        graphics = (Graphics2D) graphics.create();
         try (ByteArrayInputStream inputStream = stampAnnotVo.getImageStream()) {
             if (stampAnnotVo.getImgType().equals("ofd")) {
                 ImageMaker imageMaker = new ImageMaker(new OFDReader(inputStream), ppm);
@@ -146,11 +250,21 @@ public abstract class AWTMaker {
             } else {
                 stampImage = ImageIO.read(inputStream);
             }
-            if (stampImage != null) {
-                if (config.clearStampBackground) {
-                    stampImage = ImageUtils.clearWhiteBackground(stampImage, config.stampBackgroundGray);
-                }
+        }
+        if (stampImage != null && config.clearStampBackground) {
+            stampImage = ImageUtils.clearWhiteBackground(stampImage, config.stampBackgroundGray);
+        }
+        synchronized (stampImages) {
+            stampImages.put(stampAnnotVo, stampImage);
+        }
+        return stampImage;
+    }
 
+    private void writeStampAnnot(Graphics2D graphics, StampAnnotEntity stampAnnotVo, StampAnnot stampAnnot, Matrix matrix) {
+        graphics = (Graphics2D) graphics.create();
+        try {
+            BufferedImage stampImage = getStampImage(stampAnnotVo);
+            if (stampImage != null) {
                 ST_Box stBox = stampAnnot.getBoundary();
                 ST_Box clip = stampAnnot.getClip();
                 Matrix m = MatrixUtils.base();
@@ -162,6 +276,9 @@ public abstract class AWTMaker {
                 m = MatrixUtils.scale(m, fx, fy);
                 // 首先平移到指定位置
                 m = MatrixUtils.move(m, stBox.getTopLeftX(), stBox.getTopLeftY());
+                if (matrix != null) {
+                    m = m.mtimes(matrix);
+                }
                 // 缩放适应
                 m = MatrixUtils.scale(m, ppm, ppm);
 
@@ -169,6 +286,9 @@ public abstract class AWTMaker {
                     Matrix m1 = MatrixUtils.base();
                     m1 = MatrixUtils.scale(m1, fx, fy);
                     m1 = MatrixUtils.move(m1, stBox.getTopLeftX() + clip.getTopLeftX(), stBox.getTopLeftY() + clip.getTopLeftY());
+                    if (matrix != null) {
+                        m1 = m1.mtimes(matrix);
+                    }
                     m1 = MatrixUtils.scale(m1, ppm, ppm);
                     graphics.setClip((int) m1.getAsDouble(2, 0), (int) m1.getAsDouble(2, 1),
                             (int) (stampImage.getWidth() * m1.getAsDouble(0, 0) * (clip.getWidth() / stBox.getWidth())),
@@ -202,37 +322,87 @@ public abstract class AWTMaker {
      * @param matrix   变换矩阵
      */
     protected void writePage(Graphics2D graphics, PageInfo pageInfo, Matrix matrix) {
+        writePage(graphics, pageInfo, matrix, null);
+    }
+
+    /**
+     * 绘制页面中位于可见区域内的对象
+     * <p>
+     * 开启剪裁（{@link Config#isClip()}）时，外接矩形变换后与可见区域不相交的文字、图片、路径对象不会被绘制。
+     *
+     * @param graphics 图形操作上下文
+     * @param pageInfo 页面信息
+     * @param matrix   变换矩阵，可以为null
+     * @param visible  可见区域（像素），null表示不剔除对象
+     */
+    protected void writePage(Graphics2D graphics, PageInfo pageInfo, Matrix matrix, Rectangle2D visible) {
         // 获取页面内容出现的所有图层，包含模板页（所有页面均按照定义ZOrder排列）
         final List<CT_Layer> layerList = pageInfo.getAllLayer();
         for (CT_Layer layer : layerList) {
-            writeContent(graphics, layer, null, matrix);
+            writeContent(graphics, layer, null, matrix, visible);
         }
 
         final String pageId = pageInfo.getId().toString();
         // 绘制电子印章图片
-        for (StampAnnotEntity stampAnnotEntity : reader.getStampAnnots()) {
+        for (StampAnnotEntity stampAnnotEntity : getStampAnnots()) {
             List<StampAnnot> stampAnnots = stampAnnotEntity.getStampAnnots();
             for (StampAnnot stampAnnot : stampAnnots) {
-                if (stampAnnot.getPageRef().toString().equals(pageId)) {
-                    writeStampAnnot(graphics, stampAnnotEntity, stampAnnot);
+                if (stampAnnot.getPageRef().toString().equals(pageId)
+                        && !outside(stampAnnot.getBoundary(), matrix, visible)) {
+                    writeStampAnnot(graphics, stampAnnotEntity, stampAnnot, matrix);
                 }
             }
         }
 
         // 绘制注解对象
-        for (AnnotionEntity annotionEntity : reader.getAnnotationEntities()) {
+        for (AnnotionEntity annotionEntity : getAnnotationEntities()) {
             if (pageId.equals(annotionEntity.getPageId()) && null != annotionEntity.getAnnots()) {
                 for (Annot annot : annotionEntity.getAnnots()) {
                     Appearance appearance = annot.getAppearance();
-                    writeContent(graphics, appearance, null, null);
+                    writeContent(graphics, appearance, null, matrix, visible);
                 }
             }
         }
 
     }
 
+    /**
+     * 判断对象是否位于可见区域之外
+     * <p>
+     * 外接矩形的外扩范围与绘制时的剪裁区域一致，未开启剪裁时对象可能超出外接矩形，不做判断。
+     *
+     * @param boundary     对象外接矩形
+     * @param parentMatrix 父级变换矩阵，可以为null
+     * @param visible      可见区域（像素），可以为null
+     * @return true - 对象不可见，无需绘制
+     */
+    private boolean outside(ST_Box boundary, Matrix parentMatrix, Rectangle2D visible) {
+        if (visible == null || boundary == null || !config.clip) {
+            return false;
+        }
+        Matrix m = MatrixUtils.base();
+        if (parentMatrix != null) {
+            m = m.mtimes(parentMatrix);
+        }
+        m = MatrixUtils.scale(m, ppm, ppm);
+        final double x0 = boundary.getTopLeftX();
+        final double y0 = boundary.getTopLeftY() - 1;
+        final double x1 = boundary.getTopLeftX() + boundary.getWidth() + 2;
+        final double y1 = boundary.getTopLeftY() + boundary.getHeight() + 2;
+        double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE;
+        double maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+        for (double[] p : new double[][]{{x0, y0}, {x1, y0}, {x0, y1}, {x1, y1}}) {
+            Tuple2<Double, Double> t = MatrixUtils.pointTransform(m, p[0], p[1]);
+            minX = Math.min(minX, t.getFirst());
+            maxX = Math.max(maxX, t.getFirst());
+            minY = Math.min(minY, t.getSecond());
+            maxY = Math.max(maxY, t.getSecond());
+        }
+        return !visible.intersects(minX, minY, maxX - minX, maxY - minY);
+    }
+
 
-    private void writeContent(Graphics2D graphics, CT_PageBlock pageBlock, List<CT_DrawParam> drawParams, Matrix parentMatrix) {
+    private void writeContent(Graphics2D graphics, CT_PageBlock pageBlock, List<CT_DrawParam> drawParams, Matrix parentMatrix, Rectangle2D visible) {
         graphics = (Graphics2D) graphics.create();
         try {
             if (drawParams == null) drawParams = new ArrayList<>();
@@ -256,6 +426,13 @@ public abstract class AWTMaker {
                         drawParams = addDrawParams(drawParams, (CT_GraphicUnit) object);
                     }
 
+                    if (object instanceof TextObject || object instanceof ImageObject || object instanceof PathObject) {
+                        // 剔除可见区域外的对象
+                        if (outside(((CT_GraphicUnit) object).getBoundary(), parentMatrix, visible)) {
+                            continue;
+                        }
+                    }
+
                     if (object instanceof TextObject) {
                         TextObject textObject = (TextObject) object;
                         writeText(graphics, textObject, drawParams, parentMatrix);
@@ -267,10 +444,10 @@ public abstract class AWTMaker {
                         writePath(graphics, pathObject, drawParams, parentMatrix);
                     } else if (object instanceof CompositeObject) {
                         CompositeObject compositeObject = (CompositeObject) object;
-                        writeComposite(graphics, compositeObject, drawParams, parentMatrix);
+                        writeComposite(graphics, compositeObject, drawParams, parentMatrix, visible);
                     } else if (object instanceof CT_PageBlock) {
                         CT_PageBlock block = (CT_PageBlock) object;
-                        writeContent(graphics, block, drawParams, parentMatrix);
+                        writeContent(graphics, block, drawParams, parentMatrix, visible);
                     } else if (object instanceof CT_Layer) {
                         CT_Layer layer = (CT_Layer) object;
                         ST_RefID drawParamRef = layer.getDrawParam();
@@ -278,7 +455,7 @@ public abstract class AWTMaker {
                             CT_DrawParam ctDrawParam = resourceManage.getDrawParam(drawParamRef.getRefId().toString());
                             drawParams.add(ctDrawParam);
                         }
-                        writeContent(graphics, layer, drawParams, parentMatrix);
+                        writeContent(graphics, layer, drawParams, parentMatrix, visible);
                     }
                 } catch (Exception e) {
                     logger.warn("PageBlock无法渲染:", e);
@@ -289,7 +466,7 @@ public abstract class AWTMaker {
         }
     }
 
-    private void writeComposite(Graphics2D graphics, CompositeObject compositeObject, List<CT_DrawParam> drawParams, Matrix parentMatrix) {
+    private void writeComposite(Graphics2D graphics, CompositeObject compositeObject, List<CT_DrawParam> drawParams, Matrix parentMatrix, Rectangle2D visible) {
         ST_RefID refID = compositeObject.getResourceID();
         if (refID == null) return;
 
@@ -307,7 +484,7 @@ public abstract class AWTMaker {
         }
         m = m.mtimes(parentMatrix);
 
-        writeContent(graphics, vectorG.getContent(), drawParams, m);
+        writeContent(graphics, vectorG.getContent(), drawParams, m, visible);
     }
 
     /*
@@ -503,8 +680,8 @@ public abstract class AWTMaker {
              *
              * 特别的：待绘制字形序列 与 字形偏移量 一一对应
              */
-            List<Double> deltaX = parseDelta(textCode.getDeltaX());
-            List<Double> deltaY = parseDelta(textCode.getDeltaY());
+            final double[] deltaX = DeltaTool.expandDelta(textCode.getDeltaX());
+            final double[] deltaY = DeltaTool.expandDelta(textCode.getDeltaY());
             Double x = textCode.getX();
             // 如果X或Y不出现，则采用上一个TextCode的X或Y值
             if (x == null && previousX != null) {
@@ -526,21 +703,21 @@ public abstract class AWTMaker {
                 int deltaOffset = drawOffset - 1;
                 if (deltaOffset >= 0) {
                     // 非第一个字符需要添加字符偏移量
-                    if (deltaX.size() > 0) {
+                    if (deltaX.length > 0) {
                         // 计算X偏移量
-                        if (deltaOffset < deltaX.size()) {
-                            x += deltaX.get(deltaOffset);
+                        if (deltaOffset < deltaX.length) {
+                            x += deltaX[deltaOffset];
                         } else {
                             // 如果deltaX 数组长度不及字符长度，使用deltaX数组的最后一个数值作为剩余字符的偏移量，防止其错位打印。
-                            x += deltaX.get(deltaX.size() - 1);
+                            x += deltaX[deltaX.length - 1];
                         }
                     }
-                    if (deltaY.size() > 0) {
+                    if (deltaY.length > 0) {
                         // 计算Y偏移量
-                        if (deltaOffset < deltaY.size()) {
-                            y += deltaY.get(deltaOffset);
+                        if (deltaOffset < deltaY.length) {
+                            y += deltaY[deltaOffset];
                         } else {
-                            y += deltaY.get(deltaY.size() - 1);
+                            y += deltaY[deltaY.length - 1];
                         }
                     }
                 }
@@ -619,15 +796,18 @@ public abstract class AWTMaker {
         }
 
         String key = String.format("%s_%s_%s", ctFont.getFamilyName(), ctFont.getFontName(), ctFont.getFontFile());
-        if (fontCache.containsKey(key)) {
-            // 命中缓存，直接返还已经缓存的字体对象
-            return fontCache.get(key);
-        }
-        // 加载字体
-        FontWrapper<TrueTypeFont> trueTypeFont = FontLoader.getInstance().loadFontSimilar(this.reader.getResourceLocator(), ctFont);
-        // 更新缓存 即便 trueTypeFont 也设置，不存在字体时(null)重复加载问题。
-        fontCache.put(key, trueTypeFont);
-        return trueTypeFont;
+        // 字体加载使用了解析器的资源定位器，多页面并行渲染时需要互斥
+        synchronized (reader) {
+            if (fontCache.containsKey(key)) {
+                // 命中缓存，直接返还已经缓存的字体对象
+                return fontCache.get(key);
+            }
+            // 加载字体
+            FontWrapper<TrueTypeFont> trueTypeFont = FontLoader.getInstance().loadFontSimilar(this.reader.getResourceLocator(), ctFont);
+            // 更新缓存 即便 trueTypeFont 也设置，不存在字体时(null)重复加载问题。
+            fontCache.put(key, trueTypeFont);
+            return trueTypeFont;
+        }
     }
 
     private Matrix renderBoundaryAndSetClip(Graphics2D graphics, ST_Box boundary, Matrix parentMatrix) {
@@ -664,36 +844,8 @@ public abstract class AWTMaker {
     }
 
     private Path2D buildPath(String abbreviatedData) {
-        // Path 压缩格式解析
-        LinkedList<OptVal> optValArr = AbbreviatedData.parse(abbreviatedData);
-        Path2D path = new Path2D.Double();
-        path.moveTo(0, 0);
-        for (OptVal optVal : optValArr) {
-            double[] arr = optVal.expectValues();
-            switch (optVal.opt) {
-                case "S":
-                case "M":
-                    path.moveTo(arr[0], arr[1]);
-                    break;
-                case "L":
-                    path.lineTo(arr[0], arr[1]);
-                    break;
-                case "Q":
-                    path.quadTo(arr[0], arr[1], arr[2], arr[3]);
-                    break;
-                case "B":
-                    path.curveTo(arr[0], arr[1], arr[2], arr[3], arr[4], arr[5]);
-                    break;
-                case "A":
-                    // path.append(new
-                    // Arc2D.Double(Double.valueOf(s[i+1]),Double.valueOf(s[i+2]),Double.valueOf(s[i+3]),Double.valueOf(s[i+4]),Double.valueOf(s[i+5]),Double.valueOf(s[i+3]),-1),true);
-                    break;
-                case "C":
-                    path.closePath();
-                    break;
-            }
-        }
-        return path;
+        // Path 压缩格式解析，解析结果在转换器间共享
+        return PathCache.getInstance().getPath2D(abbreviatedData);
     }
 
     private Double getLineWidth(CT_GraphicUnit graphicUnit, List<CT_DrawParam> drawParams) {
@@ -781,24 +933,10 @@ public abstract class AWTMaker {
     }
 
     public static List<Double> parseDelta(ST_Array array) {
-        if (array == null) return new ArrayList<>(0);
-        List<Double> arr = new ArrayList<>();
-
-        int i = 0;
-        while (i < array.size()) {
-            String current = array.getArray().get(i);
-            if ("g".equals(current)) {
-                int num = Integer.parseInt(array.getArray().get(i + 1));
-                Double delta = Double.valueOf(array.getArray().get(i + 2));
-                for (int j = 1; j <= num; j++) {
-                    arr.add(delta);
-                }
-                i += 3;
-            } else {
-                Double delta = Double.valueOf(current);
-                arr.add(delta);
-                i++;
-            }
+        final double[] delta = DeltaTool.expandDelta(array);
+        List<Double> arr = new ArrayList<>(delta.length);
+        for (double d : delta) {
+            arr.add(d);
         }
         return arr;
     }
@@ -1,7 +1,10 @@
 package org.ofdrw.converter;
 
 import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfPage;
 import com.itextpdf.kernel.pdf.PdfWriter;
+import org.apache.commons.io.output.CloseShieldOutputStream;
+import org.apache.pdfbox.io.MemoryUsageSetting;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.ofdrw.reader.OFDReader;
 import org.ofdrw.reader.PageInfo;
@@ -32,6 +35,18 @@ public class ConvertHelper {
         iText, PDFBox
     }
 
+    /**
+     * PDFBox转换时默认允许使用的最大主存字节数（16MB）
+     */
+    public static final long DEFAULT_MAX_MAIN_MEMORY = 16L * 1024 * 1024;
+
+    /**
+     * PDFBox转换时允许使用的最大主存字节数
+     * <p>
+     * 超出部分使用临时文件作为缓冲区，等于0时表示仅使用临时文件，小于0时表示仅使用主存
+     */
+    private static long MaxMainMemory = DEFAULT_MAX_MAIN_MEMORY;
+
     /**
      * 使用iText作为转换实现
      */
@@ -46,8 +61,82 @@ public class ConvertHelper {
         lib = Lib.PDFBox;
     }
 
+    /**
+     * 设置 PDFBox转换时允许使用的最大主存字节数
+     * <p>
+     * 转换过程中超出该大小的数据将写入临时文件，用于限制大文档转换时的内存占用，
+     * 默认为 {@link #DEFAULT_MAX_MAIN_MEMORY}。
+     * <p>
+     * iText转换实现中页面在转换完成后将直接写入输出流，不受该参数影响
+     *
+     * @param bytes 最大主存字节数，等于0时表示仅使用临时文件，小于0时表示仅使用主存（不产生临时文件）
+     */
+    public static void setMaxMainMemory(long bytes) {
+        MaxMainMemory = bytes;
+    }
+
+    /**
+     * 获取 PDFBox文档的内存使用策略
+     *
+     * @return 内存使用策略
+     */
+    private static MemoryUsageSetting memoryUsageSetting() {
+        if (MaxMainMemory < 0) {
+            return MemoryUsageSetting.setupMainMemoryOnly();
+        }
+        if (MaxMainMemory == 0) {
+            return MemoryUsageSetting.setupTempFileOnly();
+        }
+        return MemoryUsageSetting.setupMixed(MaxMainMemory);
+    }
+
+    /**
+     * 打开PDF输出流
+     * <p>
+     * 外部传入的输出流不会在转换结束后关闭
+     *
+     * @param output PDF输出流，支持OutputStream、Path、File、String（文件路径）
+     * @return 输出流
+     * @throws IOException 文件创建失败
+     */
+    private static OutputStream openSink(Object output) throws IOException {
+        if (output instanceof OutputStream) {
+            // 外部输出流由调用者负责关闭
+            return new CloseShieldOutputStream((OutputStream) output);
+        } else if (output instanceof File) {
+            return new BufferedOutputStream(new FileOutputStream((File) output));
+        } else if (output instanceof String) {
+            return new BufferedOutputStream(new FileOutputStream((String) output));
+        } else if (output instanceof Path) {
+            return new BufferedOutputStream(Files.newOutputStream((Path) output));
+        } else {
+            throw new IllegalArgumentException("不支持的输出格式(output)，仅支持OutputStream、Path、File、String");
+        }
+    }
+
+    /**
+     * 删除转换失败时生成的不完整文件
+     *
+     * @param output PDF输出流，支持OutputStream、Path、File、String（文件路径）
+     */
+    private static void deleteBrokenSink(Object output) {
+        File file = null;
+        if (output instanceof File) {
+            file = (File) output;
+        } else if (output instanceof String) {
+            file = new File((String) output);
+        } else if (output instanceof Path) {
+            file = ((Path) output).toFile();
+        }
+        if (file != null && file.exists() && !file.delete()) {
+            logger.warn("delete broken pdf failed: {}", file);
+        }
+    }
+
     /**
      * OFD转换PDF
+     * <p>
+     * 页面转换完成后直接写入输出流，不会在内存中缓存整个PDF文档。
      *
      * 不建议使用该方法，建议使用 {@link  #toPdf(Path, Path)} 系列明确参数方法。
      *
@@ -58,6 +147,7 @@ public class ConvertHelper {
      */
     public static void ofd2pdf(Object input, Object output) {
         OFDReader reader = null;
+        boolean sinkOpened = false;
         try {
             if (input instanceof InputStream) {
                 reader = new OFDReader((InputStream) input);
@@ -71,60 +161,55 @@ public class ConvertHelper {
                 throw new IllegalArgumentException("不支持的输入格式(input)，仅支持InputStream、Path、File、String");
             }
 
-            ByteArrayOutputStream bos = new ByteArrayOutputStream();
-            switch (lib) {
-                case iText: {
-                    try (PdfWriter pdfWriter = new PdfWriter(bos);
-                         PdfDocument pdfDocument = new PdfDocument(pdfWriter);) {
-                        long start;
-                        long end;
-                        int pageNum = 1;
-                        ItextMaker pdfMaker = new ItextMaker(reader);
-                        for (PageInfo pageInfo : reader.getPageList()) {
-                            start = System.currentTimeMillis();
-                            pdfMaker.makePage(pdfDocument, pageInfo);
-                            end = System.currentTimeMillis();
-                            logger.debug(String.format("page %d speed time %d", pageNum++, end - start));
+            try (OutputStream sink = openSink(output)) {
+                sinkOpened = true;
+                switch (lib) {
+                    case iText: {
+                        try (PdfWriter pdfWriter = new PdfWriter(sink);
+                             PdfDocument pdfDocument = new PdfDocument(pdfWriter);) {
+                            long start;
+                            long end;
+                            ItextMaker pdfMaker = new ItextMaker(reader);
+                            final int numberOfPages = reader.getNumberOfPages();
+                            for (int pageNum = 1; pageNum <= numberOfPages; pageNum++) {
+                                start = System.currentTimeMillis();
+                                PageInfo pageInfo = reader.getPageInfo(pageNum);
+                                PdfPage pdfPage = pdfMaker.makePage(pdfDocument, pageInfo);
+                                // 页面写入输出流并释放页面内容
+                                pdfPage.flush();
+                                reader.getResourceLocator().release(pageInfo.getPageAbsLoc());
+                                end = System.currentTimeMillis();
+                                logger.debug(String.format("page %d speed time %d", pageNum, end - start));
+                            }
                         }
+                        break;
                     }
-                    break;
-                }
-                case PDFBox: {
-                    try (PDDocument pdfDocument = new PDDocument();) {
-                        PdfboxMaker pdfMaker = new PdfboxMaker(reader, pdfDocument);
-                        long start = 0, end = 0, pageNum = 1;
-                        for (PageInfo pageInfo : reader.getPageList()) {
-                            start = System.currentTimeMillis();
-                            pdfMaker.makePage(pageInfo);
-                            end = System.currentTimeMillis();
-                            logger.debug(String.format("page %d speed time %d", pageNum++, end - start));
+                    case PDFBox: {
+                        try (PDDocument pdfDocument = new PDDocument(memoryUsageSetting());) {
+                            PdfboxMaker pdfMaker = new PdfboxMaker(reader, pdfDocument);
+                            long start = 0, end = 0;
+                            final int numberOfPages = reader.getNumberOfPages();
+                            for (int pageNum = 1; pageNum <= numberOfPages; pageNum++) {
+                                start = System.currentTimeMillis();
+                                PageInfo pageInfo = reader.getPageInfo(pageNum);
+                                pdfMaker.makePage(pageInfo);
+                                // 页面已转换，释放OFD页面对象
+                                reader.getResourceLocator().release(pageInfo.getPageAbsLoc());
+                                end = System.currentTimeMillis();
+                                logger.debug(String.format("page %d speed time %d", pageNum, end - start));
+                            }
+                            pdfDocument.save(sink);
                         }
-                        pdfDocument.save(bos);
                     }
                 }
             }
-
-            if (output instanceof OutputStream) {
-                bos.writeTo((OutputStream) output);
-            } else if (output instanceof File) {
-                try (FileOutputStream fileOutputStream = new FileOutputStream((File) output);) {
-                    bos.writeTo(fileOutputStream);
-                }
-            } else if (output instanceof String) {
-                try (FileOutputStream fileOutputStream = new FileOutputStream((String) output)) {
-                    bos.writeTo(fileOutputStream);
-                }
-            } else if (output instanceof Path) {
-                try(OutputStream out = Files.newOutputStream((Path) output)){
-                    bos.writeTo(out);
-                }
-            } else {
-                throw new IllegalArgumentException("不支持的输出格式(output)，仅支持OutputStream、Path、File、String");
-            }
         } catch (IllegalArgumentException e) {
             throw e;
         } catch (Exception e) {
             logger.error("convert to pdf failed", e);
+            if (sinkOpened) {
+                deleteBrokenSink(output);
+            }
             throw new GeneralConvertException(e);
         } finally {
             try {
@@ -224,7 +309,7 @@ public class ConvertHelper {
         PDDocument pdfDocument = null;
         try {
             reader = new OFDReader(unzippedPathRoot, deleteOnClose);
-            pdfDocument = new PDDocument();
+            pdfDocument = new PDDocument(memoryUsageSetting());
 
             PdfboxMaker pdfMaker = new PdfboxMaker(reader, pdfDocument);
             List<PageInfo> ofdPageVoList = reader.getPageList();
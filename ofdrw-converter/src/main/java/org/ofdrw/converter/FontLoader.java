@@ -60,6 +60,13 @@ public final class FontLoader {
 
     private boolean enableSimilarFontReplace = true;
 
+    /**
+     * 使用内存映射方式读取字体的文件大小阈值（字节）
+     * <p>
+     * 操作系统字体超过该大小时不再读入堆内存，小于0表示不使用内存映射
+     */
+    private static long MappedFontThreshold = 4 * 1024 * 1024;
+
     private FontLoader() {
     }
 
@@ -106,6 +113,34 @@ public final class FontLoader {
     }
 
 
+    /**
+     * 设置使用内存映射方式读取字体的文件大小阈值
+     * <p>
+     * 大型中文字体（如 simsun.ttc）采用内存映射后不占用堆内存，
+     * 多个JVM可以共享操作系统页缓存中的字体文件。
+     *
+     * @param threshold 文件大小阈值（字节），小于0表示不使用内存映射
+     */
+    public static void setMappedFontThreshold(long threshold) {
+        MappedFontThreshold = threshold;
+    }
+
+    /**
+     * 打开字体随机读取流
+     *
+     * @param file         字体文件
+     * @param allowMapping 是否允许使用内存映射，临时目录中的文件不应映射
+     * @return 字体随机读取流
+     * @throws IOException 文件读取异常
+     */
+    private static TTFDataStream openFontStream(File file, boolean allowMapping) throws IOException {
+        if (allowMapping && MappedFontThreshold >= 0 && file.length() > MappedFontThreshold) {
+            return new MappedTTFDataStream(file.toPath());
+        }
+        // 内存中不用主动关闭
+        return new MemoryTTFDataStream(new FileInputStream(file));
+    }
+
     /**
      * 获取字体加载器实例并加载程序
      *
@@ -399,8 +434,26 @@ public final class FontLoader {
      */
     public TrueTypeFont loadExternalFont(@NotNull String absPath, @Nullable String familyName, @Nullable String fontName) {
         try {
-            // 内存中不用主动关闭
-            TTFDataStream raf = new MemoryTTFDataStream(new FileInputStream(absPath));
+            // 操作系统字体在多次转换间共享，避免重复解析
+            return FontCache.getInstance().get("ttf", new File(absPath), fontName,
+                    () -> parseFont(absPath, fontName, true));
+        } catch (IOException e) {
+            log.info("字体 {},加载失败,原因:{}", absPath, e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * 解析字体文件（不使用缓存）
+     *
+     * @param absPath      字体操作系统绝对路径
+     * @param fontName     字体名，用于从字体集合中选择字体
+     * @param allowMapping 是否允许使用内存映射读取字体
+     * @return 字体或null
+     */
+    private TrueTypeFont parseFont(@NotNull String absPath, @Nullable String fontName, boolean allowMapping) {
+        try {
+            TTFDataStream raf = openFontStream(new File(absPath), allowMapping);
             int offset = absPath.toLowerCase().lastIndexOf('.');
             String suffix = offset == -1 ? ".ttf" : absPath.toLowerCase().substring(offset);
             switch (suffix) {
@@ -463,7 +516,8 @@ public final class FontLoader {
             if (fontFileLoc != null) {
                 // 通过资源加载器获取文件的绝对路径
                 String fontAbsPath = rl.getFile(ctFont.getFontFile()).toAbsolutePath().toString();
-                trueTypeFont = loadExternalFont(fontAbsPath, ctFont.getFamilyName(), ctFont.getFontName());
+                // 内嵌字体仅在当前文档中使用，不进入共享缓存
+                trueTypeFont = parseFont(fontAbsPath, ctFont.getFontName(), false);
             }
             if (trueTypeFont == null) {
                 // 无法从内部加载时，通过相似字体查找
@@ -507,7 +561,8 @@ public final class FontLoader {
                 // 无法从内部加载时，通过相似字体查找
                 String similarFontPath = getReplaceSimilarFontPath(ctFont.getFamilyName(), ctFont.getFontName());
                 if (similarFontPath != null) {
-                    buf = Files.readAllBytes(Paths.get(similarFontPath));
+                    buf = FontCache.getInstance().get("raw", new File(similarFontPath), null,
+                            () -> Files.readAllBytes(Paths.get(similarFontPath)));
                 }
             }
 
@@ -563,7 +618,7 @@ public final class FontLoader {
             // 尝试加载内嵌字体
             if (fontFileLoc != null) {
                 String fontAbsPath = rl.getFile(fontFileLoc).toAbsolutePath().toString();
-                fontProgram = getFontProgram(fontAbsPath);
+                fontProgram = getFontProgram(fontAbsPath, false);
             }
             // 尝试根据名字从操作系统加载字体
             if (fontProgram == null) {
@@ -574,7 +629,7 @@ public final class FontLoader {
                     hasReplace = true;
                     fontAbsPath = getReplaceSimilarFontPath(familyName, fontName);
                 }
-                fontProgram = getFontProgram(fontAbsPath);
+                fontProgram = getFontProgram(fontAbsPath, true);
             }
             // 前面两种加载机制都失效时，使用默认字体
             if (fontProgram == null) {
@@ -596,12 +651,22 @@ public final class FontLoader {
      * 如果无法加载则返回null
      *
      * @param fontAbsPath 字体路径
+     * @param cacheable   是否使用共享字体缓存，内嵌字体不应缓存
      * @return 字体对象
      */
-    private FontProgram getFontProgram(String fontAbsPath) {
+    private FontProgram getFontProgram(String fontAbsPath, boolean cacheable) {
         if (fontAbsPath == null) {
             return null;
         }
+        if (cacheable) {
+            try {
+                return FontCache.getInstance().get("itext", new File(fontAbsPath), null,
+                        () -> getFontProgram(fontAbsPath, false));
+            } catch (IOException e) {
+                log.info("字体加载失败 {} , {}", fontAbsPath, e.getMessage());
+                return null;
+            }
+        }
         FontProgram fontProgram = null;
         final String fileName = fontAbsPath.toLowerCase();
         // 统一读取到内存防止因为 FontProgram 解析异常关闭导致无法删除临时OFD文件的问题。
@@ -679,7 +744,7 @@ public final class FontLoader {
         String fileName = file.getName();
         int offset = fileName.lastIndexOf('.');
         String suffix = offset == -1 ? ".ttf" : fileName.substring(offset).toLowerCase();
-        try (TTFDataStream raf = new MemoryTTFDataStream(new FileInputStream(file))) {
+        try (TTFDataStream raf = openFontStream(file, true)) {
             switch (suffix) {
                 case ".otf":
                 case ".ttf": {
@@ -21,6 +21,13 @@ import org.slf4j.LoggerFactory;
 import java.io.BufferedWriter;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -36,6 +43,54 @@ import static org.ofdrw.converter.AWTMaker.parseDelta;
  */
 public class HtmlMaker {
 
+    /**
+     * HTML头部
+     */
+    private static final String HTML_HEAD = " <!DOCTYPE html>\n" +
+            "                <html lang=\"en\">\n" +
+            "                  <head>\n" +
+            "                    <meta charset=\"utf-8\">\n" +
+            "                    <meta http-equiv=\"X-UA-Compatible\" content=\"IE=edge\">\n" +
+            "                    <meta name=\"viewport\" content=\"width=device-width,initial-scale=1.0\">" +
+            "<title>文件预览</title>" +
+            "</head><body>";
+
+    /**
+     * 文字层容器
+     */
+    private static final String HTML_MAIN = "  <div class=\"main-section\"id=\"content\" ref=\"contentDiv\" @mousewheel=\"scrool\">";
+
+    /**
+     * HTML尾部与样式
+     */
+    private static final String HTML_TAIL = "</div></body></html>" +
+            "<style>" +
+            "            .svgWrapper {" +
+            "                margin: 0 auto;" +
+            "                left: 0;" +
+            "                right: 0;" +
+            "                text-align: center;" +
+            "                position: absolute;" +
+            "                z-index: 1" +
+            "            }" +
+            "            html," +
+            "            body {" +
+            "                margin: 0;" +
+            "                background: #808080;" +
+            "                height: 100%" +
+            "            }" +
+            "            .main-section {" +
+            "                padding-top: 20px;" +
+            "                display: flex;" +
+            "                flex-direction: column;" +
+            "                align-items: center;" +
+            "                justify-content: center;" +
+            "                background: #808080;" +
+            "                overflow: hidden;" +
+            "                position: relative;" +
+            "            }"+
+            "          </style>";
+
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
     private static Document doc;
@@ -48,6 +103,14 @@ public class HtmlMaker {
 
     private float scale;
 
+    /**
+     * 是否将每页SVG输出为单独的文件
+     * <p>
+     * 开启后SVG文件存放于HTML同目录下的“HTML文件名_files”目录，
+     * HTML中以延迟加载的图片引用各页SVG，浏览器仅在页面滚动到可见区域时加载。
+     */
+    private boolean splitPages = false;
+
 
     /**
      * 转HTML构造方法
@@ -57,9 +120,40 @@ public class HtmlMaker {
      * @param screenWidth 页面宽度，或者屏幕宽度
      */
     public HtmlMaker(OFDReader ofdReader, String outputFile, int screenWidth) {
+        this(ofdReader, outputFile, screenWidth, false);
+    }
+
+    /**
+     * 转HTML构造方法
+     *
+     * @param ofdReader   OFD输入文件
+     * @param outputFile  HTML输出文件路径
+     * @param screenWidth 页面宽度，或者屏幕宽度
+     * @param splitPages  是否将每页SVG输出为单独的文件，由HTML延迟加载
+     */
+    public HtmlMaker(OFDReader ofdReader, String outputFile, int screenWidth, boolean splitPages) {
         this.ofdReader = ofdReader;
         this.outputFile = outputFile;
         this.screenWidth = screenWidth;
+        this.splitPages = splitPages;
+    }
+
+    /**
+     * 设置是否将每页SVG输出为单独的文件
+     *
+     * @param splitPages true - 每页输出单独的SVG文件，由HTML延迟加载；false - SVG内嵌于HTML
+     * @return this
+     */
+    public HtmlMaker setSplitPages(boolean splitPages) {
+        this.splitPages = splitPages;
+        return this;
+    }
+
+    /**
+     * @return 是否将每页SVG输出为单独的文件
+     */
+    public boolean isSplitPages() {
+        return splitPages;
     }
 
     /**
@@ -80,75 +174,148 @@ public class HtmlMaker {
 
     /**
      * 开始转换
+     * <p>
+     * 逐页渲染并写入HTML输出文件
      */
     public void parse() {
+        try (Writer out = Files.newBufferedWriter(Paths.get(outputFile), StandardCharsets.UTF_8)) {
+            parse(out);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
 
-        long start;
-        long end;
-        int pageNum = 1;
+    /**
+     * 转换并将HTML写入输出流
+     * <p>
+     * 每页SVG渲染完成后立即写入，不在内存中保留已完成页面的渲染结果。
+     * 分页输出模式下SVG文件的存放位置由构造时提供的HTML输出文件路径决定。
+     *
+     * @param out 输出流，由调用者负责关闭
+     * @throws IOException 写入异常
+     */
+    public void parse(Writer out) throws IOException {
+        Path svgDir = null;
+        if (splitPages) {
+            if (outputFile == null) {
+                throw new IllegalArgumentException("分页输出SVG时HTML输出文件路径(outputFile)不能为空");
+            }
+            svgDir = svgDir(Paths.get(outputFile).toAbsolutePath());
+            Files.createDirectories(svgDir);
+        }
 
-        List<Element> pageDivs = new ArrayList<>();
+        long start;
+        final List<PageInfo> pageList = ofdReader.getPageList();
 
-        double paperWidth = 210;
-        double paperPixels = screenWidth;
+        SVGMaker svgMaker = new SVGMaker(ofdReader, svgPpm(pageList));
+        svgMaker.config.setDrawBoundary(false);
+        svgMaker.config.setClip(false);
 
-        List<ST_Box> boxs = new ArrayList<>();
-        for (PageInfo pageInfo : ofdReader.getPageList()) {
+        out.write(HTML_HEAD);
+        out.write("<div class=\"svgWrapper\"> ");
+        for (int i = 0; i < pageList.size(); i++) {
             start = System.currentTimeMillis();
-
-            ST_Box pageBox = pageInfo.getSize();
-            paperWidth = pageBox.getWidth();
-
-            scale = (float) Math.round(((screenWidth - 10) / pageBox.getWidth()) * 10) / 10;
-
-            int pageWidthPixel = (int) converterDpi(pageBox.getWidth());
-            int pageHeightPixel = (int) converterDpi(pageBox.getHeight());
-            paperPixels = pageWidthPixel;
-
-            ST_Box st_box = new ST_Box(0, 0, pageWidthPixel, pageHeightPixel);
-
-            boxs.add(st_box);
-
-            Element pageDiv = new Element();
-            pageDiv.setTagName("div");
-            pageDiv.setAttribute(
-                "style",
-                String.format(
-                    "margin-bottom: 20px;position: relative;width:%dpx;height:%dpx;;",
-                    pageWidthPixel, pageHeightPixel
-                )
-            );
-
-            List<Element> elements = makePage(pageInfo);
-
-            for (Element ele : elements) {
-                pageDiv.appendChild(ele);
+            ST_Box box = pixelBox(pageList.get(i).getSize());
+            out.write(svgItemStart(box));
+            if (svgDir != null) {
+                String name = (i + 1) + ".svg";
+                try (Writer svgOut = new OutputStreamWriter(Files.newOutputStream(svgDir.resolve(name)), StandardCharsets.UTF_8)) {
+                    svgMaker.makePage(i, svgOut);
+                }
+                out.write(String.format("<img loading=\"lazy\" src=\"%s/%s\" width=\"%d\" height=\"%d\"/>",
+                        urlEncode(svgDir.getFileName().toString()), name,
+                        box.getWidth().intValue(), box.getHeight().intValue()));
+            } else {
+                svgMaker.makePage(i, out);
             }
+            out.write("</div>");
+            logger.info(String.format("page %d svg speed time %d", i + 1, System.currentTimeMillis() - start));
+        }
+        out.write("</div>");
 
-            pageDivs.add(pageDiv);
-            end = System.currentTimeMillis();
-            logger.info(String.format("page %d speed time %d", pageNum++, end - start));
+        out.write(HTML_MAIN);
+        for (int i = 0; i < pageList.size(); i++) {
+            Element pageDiv = makePageDiv(pageList.get(i));
+            out.write(ofdElementToXmlNode(pageDiv, null).asXML());
         }
+        out.write(HTML_TAIL);
+        out.flush();
+    }
 
-        double ppm = paperPixels / paperWidth;
+    /**
+     * 获取分页输出时SVG文件的存放目录
+     *
+     * @param htmlFile HTML输出文件路径
+     * @return SVG文件目录
+     */
+    private static Path svgDir(Path htmlFile) {
+        String name = htmlFile.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        if (dot > 0) {
+            name = name.substring(0, dot);
+        }
+        return htmlFile.resolveSibling(name + "_files");
+    }
 
-        SVGMaker svgMaker = new SVGMaker(ofdReader, ppm);
-        svgMaker.config.setDrawBoundary(false);
-        svgMaker.config.setClip(false);
+    private static String urlEncode(String s) throws IOException {
+        return URLEncoder.encode(s, "UTF-8").replace("+", "%20");
+    }
 
-        List<String> svgs = new ArrayList<>();
-        for (int i = 0; i < svgMaker.pageSize(); i++) {
-            String svg = svgMaker.makePage(i);
-            svgs.add(svg);
-        }
+    /**
+     * 计算页面缩放比例，并返还页面像素尺寸
+     *
+     * @param pageBox 页面大小
+     * @return 页面像素尺寸
+     */
+    private ST_Box pixelBox(ST_Box pageBox) {
+        scale = (float) Math.round(((screenWidth - 10) / pageBox.getWidth()) * 10) / 10;
+        int pageWidthPixel = (int) converterDpi(pageBox.getWidth());
+        int pageHeightPixel = (int) converterDpi(pageBox.getHeight());
+        return new ST_Box(0, 0, pageWidthPixel, pageHeightPixel);
+    }
 
-        String ofdHtml = displayOfdDiv(pageDivs, svgs, boxs);
+    /**
+     * 计算SVG渲染使用的每毫米像素数，以最后一页的页面宽度为准
+     *
+     * @param pageList 页面列表
+     * @return 每毫米像素数
+     */
+    private double svgPpm(List<PageInfo> pageList) {
+        if (pageList.isEmpty()) {
+            return screenWidth / 210d;
+        }
+        ST_Box last = pageList.get(pageList.size() - 1).getSize();
+        return pixelBox(last).getWidth() / last.getWidth();
+    }
 
-        try {
-            writeToFile(outputFile, ofdHtml);
-        } catch (IOException e) {
-            e.printStackTrace();
+    /**
+     * 生成页面文字层
+     *
+     * @param pageInfo 页面信息
+     * @return 页面文字层
+     */
+    private Element makePageDiv(PageInfo pageInfo) {
+        ST_Box box = pixelBox(pageInfo.getSize());
+        Element pageDiv = new Element();
+        pageDiv.setTagName("div");
+        pageDiv.setAttribute(
+            "style",
+            String.format(
+                "margin-bottom: 20px;position: relative;width:%dpx;height:%dpx;;",
+                box.getWidth().intValue(), box.getHeight().intValue()
+            )
+        );
+        for (Element ele : makePage(pageInfo)) {
+            pageDiv.appendChild(ele);
         }
+        return pageDiv;
+    }
+
+    private static String svgItemStart(ST_Box box) {
+        return "<div style=\"margin:0 auto;margin-top: 20px;text-align:center;background:white;" +
+            "height:" + box.getHeight() + "px;" +
+            "width:" + box.getWidth() + "px;" +
+            "\" class=\"svgItem\">";
     }
 
     /**
@@ -175,97 +342,27 @@ public class HtmlMaker {
 
     }
 
+    /**
+     * 生成完整的HTML
+     * <p>
+     * 所有页面的渲染结果都保存在内存中，大文档请使用 {@link #parse(Writer)}
+     *
+     * @param pageDivs 各页文字层
+     * @param svgs     各页SVG
+     * @param boxs     各页像素尺寸
+     * @return HTML
+     */
     public String displayOfdDiv(List<Element> pageDivs, List<String> svgs, List<ST_Box> boxs) {
-
         StringBuilder sb = new StringBuilder();
-
-        String svgss = "";
+        sb.append(HTML_HEAD).append("<div class=\"svgWrapper\"> ");
         for (int i = 0; i < svgs.size(); i++) {
-            svgss = svgss +
-                "<div style=\"margin:0 auto;margin-top: 20px;text-align:center;background:white;" +
-                "height:" + boxs.get(i).getHeight() + "px;" +
-                "width:" + boxs.get(i).getWidth() + "px;" +
-                "\" class=\"svgItem\">" + svgs.get(i) + "</div>";
+            sb.append(svgItemStart(boxs.get(i))).append(svgs.get(i)).append("</div>");
         }
-
-
-        String title = "文件预览";
-        String htmlWrapper = "";
-        String prefix = " <!DOCTYPE html>\n" +
-            "                <html lang=\"en\">\n" +
-            "                  <head>\n" +
-            "                    <meta charset=\"utf-8\">\n" +
-            "                    <meta http-equiv=\"X-UA-Compatible\" content=\"IE=edge\">\n" +
-            "                    <meta name=\"viewport\" content=\"width=device-width,initial-scale=1.0\">";
-        String titleElement = "<title>" + title + "</title>";
-        String ele1 = "</head><body>";
-
-        String svgWrapper = "<div class=\"svgWrapper\"> " + svgss + "</div>";
-
-        String main = "  <div class=\"main-section\"id=\"content\" ref=\"contentDiv\" @mousewheel=\"scrool\">";
-
-        String ele2 = "</div></body></html>";
-        String style = "<style>" +
-            "            .svgWrapper {" +
-            "                margin: 0 auto;" +
-            "                left: 0;" +
-            "                right: 0;" +
-            "                text-align: center;" +
-            "                position: absolute;" +
-            "                z-index: 1" +
-            "            }" +
-            "            html," +
-            "            body {" +
-            "                margin: 0;" +
-            "                background: #808080;" +
-            "                height: 100%" +
-            "            }" +
-            "            .main-section {" +
-            "                padding-top: 20px;" +
-            "                display: flex;" +
-            "                flex-direction: column;" +
-            "                align-items: center;" +
-            "                justify-content: center;" +
-            "                background: #808080;" +
-            "                overflow: hidden;" +
-            "                position: relative;" +
-            "            }"+
-            "          </style>";
-        String js = "";
-//                """
-//                <script>
-//                window.onload = function(){
-//
-//                 var annots =  document.getElementsByClassName("ofd_annotation");
-//                 console.log(annots)
-//                 for(var i=0;i<annots.length;i++){
-//                      annots[i].onclick = function() { console.log(this) }
-//                 }
-//
-//                }
-//                </script>
-//                """;
-
-        StringBuilder divs = new StringBuilder();
+        sb.append("</div>").append(HTML_MAIN);
         for (Element div : pageDivs) {
-
-            org.dom4j.Element element = ofdElementToXmlNode(div, null);
-
-            divs.append(element.asXML());
-//            System.out.println(element.asXML());
+            sb.append(ofdElementToXmlNode(div, null).asXML());
         }
-
-        return sb.
-            append(prefix).
-            append(titleElement).
-            append(ele1).
-            append(svgWrapper).
-            append(main).
-            append(divs).
-            append(ele2).
-            append(style).
-            append(js)
-            .toString();
+        return sb.append(HTML_TAIL).toString();
     }
 
     private List<Element> renderLayer(List<CT_Layer> layerList) {
@@ -1,9 +1,16 @@
 package org.ofdrw.converter;
 
 import java.awt.Graphics2D;
+import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import org.ofdrw.converter.utils.CommonUtil;
+import org.ofdrw.converter.utils.MatrixUtils;
 import org.ofdrw.core.basicType.ST_Box;
 import org.ofdrw.reader.OFDReader;
 import org.ofdrw.reader.PageInfo;
@@ -11,6 +18,10 @@ import org.ofdrw.reader.tools.ImageUtils;
 
 /**
  * 图片转换类
+ * <p>
+ * 除整页渲染外，支持仅渲染页面中的指定区域（{@link #makeRegion(int, ST_Box)}），
+ * 以及将页面按固定大小的图块逐块渲染（{@link #makeTiles(int, int, TileSink)}），
+ * 适用于大幅面、高分辨率页面的预览与金字塔切片，内存占用只与区域或图块大小有关。
  *
  * @author qaqtutu
  * @since 2021-03-13 10:00:01
@@ -70,6 +81,149 @@ public class ImageMaker extends AWTMaker {
         return image;
     }
 
+    /**
+     * 图块接收器
+     */
+    @FunctionalInterface
+    public interface TileSink {
+        /**
+         * 接收渲染完成的图块
+         * <p>
+         * 返还后图块不再被使用，接收器需要在返还前完成图块的处理（如写入文件）。
+         *
+         * @param col    图块列号，从0起
+         * @param row    图块行号，从0起
+         * @param region 图块对应的页面区域，单位毫米（mm）
+         * @param tile   图块图片，位于页面右侧和底部边缘的图块可能小于图块大小
+         * @throws IOException 图块处理异常
+         */
+        void accept(int col, int row, ST_Box region, BufferedImage tile) throws IOException;
+    }
+
+    /**
+     * 渲染OFD页面中的指定区域为图片
+     * <p>
+     * 只绘制与区域相交的对象，图片大小为区域大小乘以每毫米像素数。
+     *
+     * @param pageIndex 页码，从0起
+     * @param region    页面区域，单位毫米（mm），坐标相对于页面左上角
+     * @return 渲染完成的图片
+     */
+    public BufferedImage makeRegion(int pageIndex, ST_Box region) {
+        if (region == null || region.getWidth() <= 0 || region.getHeight() <= 0) {
+            throw new IllegalArgumentException("渲染区域(region)为空或大小无效");
+        }
+        int widthPixel = (int) Math.max(1, Math.round(ppm * region.getWidth()));
+        int heightPixel = (int) Math.max(1, Math.round(ppm * region.getHeight()));
+        return renderRegion(getPageInfo(pageIndex), region.getTopLeftX(), region.getTopLeftY(), widthPixel, heightPixel);
+    }
+
+    /**
+     * 将OFD页面按固定大小的图块逐块渲染
+     * <p>
+     * 图块按行优先的顺序渲染，每个图块渲染完成后交由接收器处理，
+     * 同一时间只存在一个图块，内存占用与页面大小无关。
+     * <p>
+     * 图块与整页渲染结果的像素一一对应，列号为c、行号为r的图块对应整页图片中
+     * 左上角为 (c * tileSize, r * tileSize) 的区域。
+     *
+     * @param pageIndex 页码，从0起
+     * @param tileSize  图块边长（像素）
+     * @param sink      图块接收器
+     * @throws IOException 图块处理异常
+     */
+    public void makeTiles(int pageIndex, int tileSize, TileSink sink) throws IOException {
+        if (tileSize <= 0) {
+            throw new IllegalArgumentException("图块大小(tileSize)必须大于0");
+        }
+        if (sink == null) {
+            throw new IllegalArgumentException("图块接收器(sink)为空");
+        }
+        PageInfo pageInfo = getPageInfo(pageIndex);
+        ST_Box pageBox = pageInfo.getSize();
+        int pageWidthPixel = (int) Math.round(ppm * pageBox.getWidth());
+        int pageHeightPixel = (int) Math.round(ppm * pageBox.getHeight());
+
+        for (int row = 0, y = 0; y < pageHeightPixel; row++, y += tileSize) {
+            for (int col = 0, x = 0; x < pageWidthPixel; col++, x += tileSize) {
+                int w = Math.min(tileSize, pageWidthPixel - x);
+                int h = Math.min(tileSize, pageHeightPixel - y);
+                BufferedImage tile = renderRegion(pageInfo, x / ppm, y / ppm, w, h);
+                sink.accept(col, row, new ST_Box(x / ppm, y / ppm, w / ppm, h / ppm), tile);
+            }
+        }
+    }
+
+    /**
+     * 计算页面的图块行列数
+     *
+     * @param pageIndex 页码，从0起
+     * @param tileSize  图块边长（像素）
+     * @return [列数, 行数]
+     */
+    public int[] tileGrid(int pageIndex, int tileSize) {
+        if (tileSize <= 0) {
+            throw new IllegalArgumentException("图块大小(tileSize)必须大于0");
+        }
+        ST_Box pageBox = getPageInfo(pageIndex).getSize();
+        int pageWidthPixel = (int) Math.round(ppm * pageBox.getWidth());
+        int pageHeightPixel = (int) Math.round(ppm * pageBox.getHeight());
+        return new int[]{(pageWidthPixel + tileSize - 1) / tileSize, (pageHeightPixel + tileSize - 1) / tileSize};
+    }
+
+    /**
+     * 渲染页面区域
+     *
+     * @param pageInfo    页面信息
+     * @param x           区域左上角X坐标（mm）
+     * @param y           区域左上角Y坐标（mm）
+     * @param widthPixel  图片宽度
+     * @param heightPixel 图片高度
+     * @return 渲染完成的图片
+     */
+    private BufferedImage renderRegion(PageInfo pageInfo, double x, double y, int widthPixel, int heightPixel) {
+        BufferedImage image = createImage(widthPixel, heightPixel);
+        Graphics2D graphics = (Graphics2D) image.getGraphics();
+        try {
+            writePage(graphics, pageInfo, MatrixUtils.move(MatrixUtils.base(), -x, -y),
+                    new Rectangle(0, 0, widthPixel, heightPixel));
+        } finally {
+            graphics.dispose();
+        }
+        return image;
+    }
+
+    private PageInfo getPageInfo(int pageIndex) {
+        if (pageIndex < 0 || pageIndex >= pages.size()) {
+            throw new GeneralConvertException(String.format("%s 不是有效索引", pageIndex));
+        }
+        return pages.get(pageIndex);
+    }
+
+    /**
+     * 使用线程池并行渲染所有页面为图片
+     * <p>
+     * 同一个文档的所有页面共享字体、资源缓存，渲染速度随线程数提升
+     *
+     * @param executor 线程池，由调用者负责关闭
+     * @return 按页码排序的图片列表
+     * @throws GeneralConvertException 页面渲染异常
+     */
+    public List<BufferedImage> renderAll(ExecutorService executor) {
+        return renderAll(executor, this::makePage);
+    }
+
+    /**
+     * 按页码顺序逐页渲染图片
+     * <p>
+     * 页面在消费时才渲染，可以通过 {@link Stream#parallel()} 并行渲染
+     *
+     * @return 页面图片流
+     */
+    public Stream<BufferedImage> stream() {
+        return IntStream.range(0, pageSize()).mapToObj(this::makePage);
+    }
+
     /**
      * 创建图片
      *
@@ -2,7 +2,6 @@ package org.ofdrw.converter;
 
 import org.apache.batik.dom.GenericDOMImplementation;
 import org.apache.batik.svggen.SVGGraphics2D;
-import org.apache.batik.svggen.SVGGraphics2DIOException;
 import org.ofdrw.core.basicType.ST_Box;
 import org.ofdrw.reader.OFDReader;
 import org.ofdrw.reader.PageInfo;
@@ -10,10 +9,13 @@ import org.w3c.dom.DOMImplementation;
 import org.w3c.dom.Document;
 
 import java.awt.*;
-import java.io.ByteArrayOutputStream;
-import java.io.OutputStreamWriter;
-import java.io.UnsupportedEncodingException;
+import java.io.IOException;
+import java.io.StringWriter;
 import java.io.Writer;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 /**
  * SVG转换类
@@ -58,44 +60,65 @@ public class SVGMaker extends AWTMaker {
      * @return 渲染完成的SVG字符串
      */
     public String makePage(int pageIndex) {
+        StringWriter out = new StringWriter();
+        try {
+            makePage(pageIndex, out);
+            return out.toString();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    /**
+     * 渲染OFD页面为SVG并直接写入输出流
+     * <p>
+     * 与 {@link #makePage(int)} 相比不产生中间字符串，适用于逐页输出大量页面。
+     *
+     * @param pageIndex 页码，从0起
+     * @param out       输出流，由调用者负责关闭
+     * @throws IOException 写入异常
+     */
+    public void makePage(int pageIndex, Writer out) throws IOException {
         if (pageIndex < 0 || pageIndex >= pages.size()) {
             throw new GeneralConvertException(String.format("%s 不是有效索引", pageIndex));
         }
         PageInfo pageInfo = pages.get(pageIndex);
         ST_Box pageBox = pageInfo.getSize();
-        
+
         int pageWidthPixel = (int) Math.round(ppm * pageBox.getWidth());
         int pageHeightPixel = (int) Math.round(ppm * pageBox.getHeight());
 
         DOMImplementation domImpl = GenericDOMImplementation.getDOMImplementation();
-
-        // Create an instance of org.w3c.dom.Document.
-        String svgNS = "http://www.w3.org/2000/svg";
-        Document document = domImpl.createDocument(svgNS, "svg", null);
-
-        // Create an instance of the SVG Generator.
+        Document document = domImpl.createDocument("http://www.w3.org/2000/svg", "svg", null);
         SVGGraphics2D svgGenerator = new SVGGraphics2D(document);
         svgGenerator.setSVGCanvasSize(new Dimension(pageWidthPixel, pageHeightPixel));
 
         writePage(svgGenerator, pageInfo, null);
 
-        // Finally, stream out SVG to the standard output using
-        // UTF-8 encoding.
-        boolean useCSS = false; // we want to use CSS style attributes
+        svgGenerator.stream(out, false);
+    }
 
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        Writer out = null;
-        try {
-            out = new OutputStreamWriter(outputStream, "UTF-8");
-            svgGenerator.stream(out, useCSS);
-            return new String(outputStream.toByteArray());
-        } catch (UnsupportedEncodingException e) {
-            e.printStackTrace();
-        } catch (SVGGraphics2DIOException e) {
-            e.printStackTrace();
-        }
+    /**
+     * 使用线程池并行渲染所有页面为SVG
+     *
+     * @param executor 线程池，由调用者负责关闭
+     * @return 按页码排序的SVG字符串列表
+     * @throws GeneralConvertException 页面渲染异常
+     */
+    public List<String> renderAll(ExecutorService executor) {
+        return renderAll(executor, this::makePage);
+    }
 
-        return null;
+    /**
+     * 按页码顺序逐页渲染SVG
+     * <p>
+     * 页面在消费时才渲染，可以通过 {@link Stream#parallel()} 并行渲染
+     *
+     * @return SVG字符串流
+     */
+    public Stream<String> stream() {
+        return IntStream.range(0, pageSize()).mapToObj(this::makePage);
     }
 
     /**
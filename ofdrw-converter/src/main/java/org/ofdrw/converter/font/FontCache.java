@@ -0,0 +1,177 @@
+package org.ofdrw.converter.font;
+
+import org.ofdrw.reader.WeightedLruCache;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * 进程级字体缓存
+ * <p>
+ * 缓存已经解析的字体对象（及其内部已解析的字形数据），避免长时间运行的转换服务
+ * 在每次转换时重复读取、解析相同的字体文件。
+ * <p>
+ * 缓存以 字体文件路径 + 最后修改时间 + 文件大小 作为键，字体文件被替换后自动失效；
+ * 缓存容量以字节计（字体文件大小），超出容量时淘汰最近最少使用的字体，见 {@link WeightedLruCache}。
+ * <p>
+ * 该缓存线程安全。
+ *
+ * @author agent
+ * @since 2026-10-17 13:06:41
+ */
+public final class FontCache {
+
+    /**
+     * 默认缓存容量 256MB
+     */
+    public static final long DEFAULT_MAX_BYTES = 256L * 1024 * 1024;
+
+    private static final FontCache instance = new FontCache(DEFAULT_MAX_BYTES);
+
+    /**
+     * 缓存加载器
+     *
+     * @param <T> 缓存对象类型
+     */
+    @FunctionalInterface
+    public interface Loader<T> {
+        /**
+         * 加载对象
+         *
+         * @return 加载后的对象，null表示无法加载（不缓存）
+         * @throws IOException 加载异常
+         */
+        T load() throws IOException;
+    }
+
+    /**
+     * 缓存，容量以字节计（字体文件大小）
+     */
+    private final WeightedLruCache<String, Object> cache;
+
+    /**
+     * 创建字体缓存
+     *
+     * @param maxBytes 缓存容量（字节），小于等于0表示不缓存
+     */
+    public FontCache(long maxBytes) {
+        this.cache = new WeightedLruCache<>(maxBytes);
+    }
+
+    /**
+     * 获取进程级共享的字体缓存
+     *
+     * @return 字体缓存
+     */
+    public static FontCache getInstance() {
+        return instance;
+    }
+
+    /**
+     * 获取缓存对象，缓存不存在时通过加载器加载并缓存
+     * <p>
+     * 不同类型的对象（如 字体对象、字体文件字节）通过 kind 区分。
+     *
+     * @param kind      缓存对象种类
+     * @param file      字体文件
+     * @param qualifier 附加限定符，如集合字体中的字体名，可以为null
+     * @param loader    加载器
+     * @param <T>       缓存对象类型
+     * @return 缓存对象或null
+     * @throws IOException 加载异常
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String kind, File file, String qualifier, Loader<T> loader) throws IOException {
+        final long length = file.length();
+        final String key = kind + '|' + file.getAbsolutePath() + '|' + file.lastModified() + '|' + length + '|' + qualifier;
+        Object cached = cache.get(key);
+        if (cached != null) {
+            return (T) cached;
+        }
+        // 加载过程可能较慢，不持有锁
+        T value = loader.load();
+        if (value == null) {
+            return null;
+        }
+        // 其它线程已经完成加载时，使用已缓存的对象
+        return (T) cache.putIfAbsent(key, value, length);
+    }
+
+    /**
+     * 设置缓存容量
+     *
+     * @param maxBytes 缓存容量（字节），小于等于0表示不缓存
+     * @return this
+     */
+    public FontCache setMaxBytes(long maxBytes) {
+        cache.setMaxWeight(maxBytes);
+        return this;
+    }
+
+    /**
+     * 获取缓存容量
+     *
+     * @return 缓存容量（字节）
+     */
+    public long getMaxBytes() {
+        return cache.getMaxWeight();
+    }
+
+    /**
+     * 获取已使用的缓存容量
+     *
+     * @return 已使用容量（字节）
+     */
+    public long getUsedBytes() {
+        return cache.getWeight();
+    }
+
+    /**
+     * 获取缓存对象数量
+     *
+     * @return 缓存对象数量
+     */
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     * 清空缓存，统计数据保留
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    /**
+     * 获取缓存命中次数
+     *
+     * @return 命中次数
+     */
+    public long getHitCount() {
+        return cache.getHitCount();
+    }
+
+    /**
+     * 获取缓存未命中次数
+     *
+     * @return 未命中次数
+     */
+    public long getMissCount() {
+        return cache.getMissCount();
+    }
+
+    /**
+     * 获取缓存淘汰次数
+     *
+     * @return 淘汰次数
+     */
+    public long getEvictionCount() {
+        return cache.getEvictionCount();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("FontCache{size=%d, usedBytes=%d, maxBytes=%d, hits=%d, misses=%d, evictions=%d}",
+                size(), getUsedBytes(), getMaxBytes(), getHitCount(), getMissCount(), getEvictionCount());
+    }
+}
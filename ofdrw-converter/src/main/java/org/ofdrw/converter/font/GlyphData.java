@@ -35,6 +35,10 @@ public class GlyphData {
     private BoundingBox boundingBox = null;
     private short numberOfContours;
     private GlyfDescript glyphDescription = null;
+    /**
+     * 已生成的字形路径缓存
+     */
+    private volatile GeneralPath path = null;
 
     public GlyphData() {
         glyphDescription = new GlyfSimpleDescript();
@@ -106,11 +110,19 @@ public class GlyphData {
 
     /**
      * Returns the path of the glyph.
+     * <p>
+     * 路径在首次获取时生成并缓存，字体在多个文档间共享时可复用，
+     * 调用者不应修改返回的路径对象。
      *
      * @return the path
      */
     public GeneralPath getPath() {
-        return new GlyphRenderer(glyphDescription).getPath();
+        GeneralPath p = path;
+        if (p == null) {
+            p = new GlyphRenderer(glyphDescription).getPath();
+            path = p;
+        }
+        return p;
     }
 
     /**
@@ -0,0 +1,170 @@
+package org.ofdrw.converter.font;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 内存映射字体随机读取流
+ * <p>
+ * 通过只读的内存映射文件读取字体，字体数据不占用Java堆内存，
+ * 同一台机器上的多个JVM可以共享操作系统页缓存中的字体文件，
+ * 适用于 simsun.ttc 这类10~20MB的大型中文字体。
+ * <p>
+ * 注意：Java 8 没有公开的解除映射接口，{@link #close()} 仅释放对映射缓冲区的引用，
+ * 映射在缓冲区（包括 {@link #getOriginalData()} 返还的流）被垃圾回收后才真正解除，
+ * Windows下映射期间文件无法删除，因此不应用于临时目录中的字体文件（如OFD内嵌字体）。
+ *
+ * @author agent
+ * @since 2026-10-17 13:08:34
+ */
+public class MappedTTFDataStream extends TTFDataStream {
+
+    /**
+     * 只读映射缓冲区，关闭后为null
+     */
+    private ByteBuffer data;
+
+    /**
+     * 映射字体文件
+     *
+     * @param file 字体文件路径
+     * @throws IOException 文件读取异常或文件超过2GB
+     */
+    public MappedTTFDataStream(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("字体文件过大无法映射: " + file);
+            }
+            // 通道关闭后映射仍然有效
+            this.data = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        final ByteBuffer data = buffer();
+        if (!data.hasRemaining()) {
+            return -1;
+        }
+        return data.get() & 0xFF;
+    }
+
+    @Override
+    public long readLong() throws IOException {
+        final ByteBuffer data = buffer();
+        if (data.remaining() < 8) {
+            throw new EOFException();
+        }
+        return data.getLong();
+    }
+
+    @Override
+    public int readUnsignedShort() throws IOException {
+        final ByteBuffer data = buffer();
+        if (data.remaining() < 2) {
+            throw new EOFException();
+        }
+        return data.getShort() & 0xFFFF;
+    }
+
+    @Override
+    public short readSignedShort() throws IOException {
+        final ByteBuffer data = buffer();
+        if (data.remaining() < 2) {
+            throw new EOFException();
+        }
+        return data.getShort();
+    }
+
+    @Override
+    public void seek(long pos) throws IOException {
+        final ByteBuffer data = buffer();
+        if (pos < 0 || pos > data.limit()) {
+            throw new IOException("Illegal seek position: " + pos);
+        }
+        // 转换为Buffer调用，保持与Java 8的二进制兼容
+        ((Buffer) data).position((int) pos);
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        final ByteBuffer data = buffer();
+        if (!data.hasRemaining()) {
+            return -1;
+        }
+        int amountRead = Math.min(len, data.remaining());
+        data.get(b, off, amountRead);
+        return amountRead;
+    }
+
+    @Override
+    public long getCurrentPosition() throws IOException {
+        final ByteBuffer data = buffer();
+        return data.position();
+    }
+
+    @Override
+    public InputStream getOriginalData() throws IOException {
+        final ByteBuffer data = buffer();
+        final ByteBuffer src = data.duplicate();
+        ((Buffer) src).rewind();
+        return new InputStream() {
+            @Override
+            public int read() {
+                return src.hasRemaining() ? src.get() & 0xFF : -1;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                if (!src.hasRemaining()) {
+                    return -1;
+                }
+                int n = Math.min(len, src.remaining());
+                src.get(b, off, n);
+                return n;
+            }
+
+            @Override
+            public int available() {
+                return src.remaining();
+            }
+        };
+    }
+
+    @Override
+    public long getOriginalDataSize() {
+        final ByteBuffer data = this.data;
+        return data == null ? 0 : data.limit();
+    }
+
+    /**
+     * 释放对映射缓冲区的引用，关闭后不能再读取
+     * <p>
+     * 映射在缓冲区被垃圾回收后解除，见类说明。
+     */
+    @Override
+    public void close() throws IOException {
+        data = null;
+    }
+
+    /**
+     * 获取映射缓冲区
+     *
+     * @return 映射缓冲区
+     * @throws IOException 流已关闭
+     */
+    private ByteBuffer buffer() throws IOException {
+        final ByteBuffer data = this.data;
+        if (data == null) {
+            throw new IOException("字体数据流已关闭");
+        }
+        return data;
+    }
+}
@@ -267,15 +267,15 @@ public class TrueTypeFont implements GlyphDataProvider,FontDrawPathProvider {
         }
 
 
-        if (glyphs != null && glyphs[gid] != null) {
-            return glyphs[gid];
-        }
-
         GlyphData glyph;
 
         // PDFBOX-4219: synchronize on data because it is accessed by several threads
         // when PDFBox is accessing a standard 14 font for the first time
+        // 字体通过共享缓存在多个文档间使用，缓存的字形也在锁内读取以保证可见性
         synchronized (data) {
+            if (glyphs != null && glyphs[gid] != null) {
+                return glyphs[gid];
+            }
             // read a single glyph
 
             if (glyphOffsets[gid] == glyphOffsets[gid + 1]) {
@@ -314,7 +314,10 @@ public class TrueTypeFont implements GlyphDataProvider,FontDrawPathProvider {
     public GeneralPath getPath(int gid) throws IOException {
         // 存在CFF的时候采用CFF直接获取字形
         if (this.cffFont != null) {
-            return this.cffFont.getType2CharString(gid).getPath();
+            // CFF字形解析内部存在缓存，多页面并行渲染时需要同步
+            synchronized (this.cffFont) {
+                return this.cffFont.getType2CharString(gid).getPath();
+            }
         }
         return getGlyph(gid).getPath();
     }
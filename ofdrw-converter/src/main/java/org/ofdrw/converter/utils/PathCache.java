@@ -0,0 +1,233 @@
+package org.ofdrw.converter.utils;
+
+import org.ofdrw.core.graph.pathObj.PathData;
+import org.ofdrw.reader.WeightedLruCache;
+
+import java.awt.geom.Path2D;
+
+/**
+ * 进程级路径缓存
+ * <p>
+ * 缓存紧缩路径字符串解析后的 {@link PathData} 以及由其构造的 {@link Path2D}，
+ * 模板、印章等在多个页面、多次转换中重复出现的路径只需解析一次，
+ * 图片、SVG、PDF 等各类转换器共享同一份解析结果。
+ * <p>
+ * 缓存以紧缩路径字符串作为键，容量以字节计（估算值），超出容量时淘汰最近最少使用的路径，见 {@link WeightedLruCache}。
+ * <p>
+ * 该缓存线程安全。
+ *
+ * @author agent
+ * @since 2026-10-17 13:21:00
+ */
+public final class PathCache {
+
+    /**
+     * 默认缓存容量 32MB
+     */
+    public static final long DEFAULT_MAX_BYTES = 32L * 1024 * 1024;
+
+    private static final PathCache instance = new PathCache(DEFAULT_MAX_BYTES);
+
+    /**
+     * 缓存项
+     */
+    private static final class Entry {
+        final PathData data;
+        /**
+         * 延迟构造的AWT路径
+         */
+        volatile Path2D path;
+
+        Entry(PathData data) {
+            this.data = data;
+        }
+    }
+
+    /**
+     * 缓存，容量以字节计（估算值）
+     */
+    private final WeightedLruCache<String, Entry> cache;
+
+    /**
+     * 创建路径缓存
+     *
+     * @param maxBytes 缓存容量（字节），小于等于0表示不缓存
+     */
+    public PathCache(long maxBytes) {
+        this.cache = new WeightedLruCache<>(maxBytes, 64);
+    }
+
+    /**
+     * 获取进程级共享的路径缓存
+     *
+     * @return 路径缓存
+     */
+    public static PathCache getInstance() {
+        return instance;
+    }
+
+    /**
+     * 获取紧缩路径解析后的路径数据
+     *
+     * @param abbreviatedData 紧缩路径字符串
+     * @return 路径数据
+     */
+    public PathData getPathData(String abbreviatedData) {
+        return entry(abbreviatedData).data;
+    }
+
+    /**
+     * 获取紧缩路径对应的AWT路径
+     * <p>
+     * 返回的路径对象在线程间共享，调用者不应修改，需要修改时请复制。
+     *
+     * @param abbreviatedData 紧缩路径字符串
+     * @return AWT路径
+     */
+    public Path2D getPath2D(String abbreviatedData) {
+        Entry entry = entry(abbreviatedData);
+        Path2D path = entry.path;
+        if (path == null) {
+            // 并发时可能重复构造，结果相同，无需加锁
+            path = toPath2D(entry.data);
+            entry.path = path;
+        }
+        return path;
+    }
+
+    /**
+     * 获取缓存项，不存在时解析并缓存
+     *
+     * @param abbreviatedData 紧缩路径字符串
+     * @return 缓存项
+     */
+    private Entry entry(String abbreviatedData) {
+        final String key = abbreviatedData == null ? "" : abbreviatedData;
+        Entry entry = cache.get(key);
+        if (entry != null) {
+            return entry;
+        }
+        PathData data = PathData.parse(key);
+        // 字符串、操作数、操作符以及AWT路径（与操作数规模相当）
+        long bytes = key.length() * 2L + data.getCoords().length * 16L + data.size() * 2L;
+        return cache.putIfAbsent(key, new Entry(data), bytes);
+    }
+
+    /**
+     * 由路径数据构造AWT路径
+     * <p>
+     * 路径以 (0,0) 为起始点；圆弧（A）暂不支持，将被忽略。
+     *
+     * @param data 路径数据
+     * @return AWT路径
+     */
+    public static Path2D toPath2D(PathData data) {
+        final double[] c = data.getCoords();
+        Path2D path = new Path2D.Double(Path2D.WIND_NON_ZERO, data.size() + 1);
+        path.moveTo(0, 0);
+        int p = 0;
+        for (int i = 0; i < data.size(); i++) {
+            final byte op = data.getOp(i);
+            switch (op) {
+                case PathData.START:
+                case PathData.MOVE:
+                    path.moveTo(c[p], c[p + 1]);
+                    break;
+                case PathData.LINE:
+                    path.lineTo(c[p], c[p + 1]);
+                    break;
+                case PathData.QUAD:
+                    path.quadTo(c[p], c[p + 1], c[p + 2], c[p + 3]);
+                    break;
+                case PathData.CUBIC:
+                    path.curveTo(c[p], c[p + 1], c[p + 2], c[p + 3], c[p + 4], c[p + 5]);
+                    break;
+                case PathData.CLOSE:
+                    path.closePath();
+                    break;
+                default:
+                    break;
+            }
+            p += PathData.arity(op);
+        }
+        return path;
+    }
+
+    /**
+     * 设置缓存容量
+     *
+     * @param maxBytes 缓存容量（字节），小于等于0表示不缓存
+     * @return this
+     */
+    public PathCache setMaxBytes(long maxBytes) {
+        cache.setMaxWeight(maxBytes);
+        return this;
+    }
+
+    /**
+     * 获取缓存容量
+     *
+     * @return 缓存容量（字节）
+     */
+    public long getMaxBytes() {
+        return cache.getMaxWeight();
+    }
+
+    /**
+     * 获取已使用的缓存容量
+     *
+     * @return 已使用容量（字节）
+     */
+    public long getUsedBytes() {
+        return cache.getWeight();
+    }
+
+    /**
+     * 获取缓存路径数量
+     *
+     * @return 缓存路径数量
+     */
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     * 清空缓存，统计数据保留
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    /**
+     * 获取缓存命中次数
+     *
+     * @return 命中次数
+     */
+    public long getHitCount() {
+        return cache.getHitCount();
+    }
+
+    /**
+     * 获取缓存未命中次数
+     *
+     * @return 未命中次数
+     */
+    public long getMissCount() {
+        return cache.getMissCount();
+    }
+
+    /**
+     * 获取缓存淘汰次数
+     *
+     * @return 淘汰次数
+     */
+    public long getEvictionCount() {
+        return cache.getEvictionCount();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PathCache{size=%d, usedBytes=%d, maxBytes=%d, hits=%d, misses=%d, evictions=%d}",
+                size(), getUsedBytes(), getMaxBytes(), getHitCount(), getMissCount(), getEvictionCount());
+    }
+}
@@ -6,14 +6,12 @@ import org.ofdrw.converter.point.PathPoint;
 import org.ofdrw.converter.point.TextCodePoint;
 import org.ofdrw.core.basicType.ST_Array;
 import org.ofdrw.core.basicType.ST_Box;
-import org.ofdrw.core.graph.pathObj.AbbreviatedData;
-import org.ofdrw.core.graph.pathObj.OptVal;
+import org.ofdrw.core.graph.pathObj.PathData;
 import org.ofdrw.core.text.CT_CGTransform;
 import org.ofdrw.core.text.TextCode;
 import org.ofdrw.reader.DeltaTool;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
 
@@ -34,53 +32,56 @@ public class PointUtil {
      * @return 绘制点坐标序列
      */
     public static List<PathPoint> convertPathAbbreviatedDatatoPoint(String abbreviatedData) {
-        // 解析成各个操作符和操作数
-        final LinkedList<OptVal> optValArr = AbbreviatedData.parse(abbreviatedData);
-        List<PathPoint> pointList = new ArrayList<>();
-        for (OptVal optVal : optValArr) {
-            double[] array = optVal.expectValues();
-            switch (optVal.opt) {
-                case "M":
+        // 解析成各个操作符和操作数，解析结果在转换器间共享
+        final PathData data = PathCache.getInstance().getPathData(abbreviatedData);
+        final double[] c = data.getCoords();
+        List<PathPoint> pointList = new ArrayList<>(data.size());
+        int p = 0;
+        for (int i = 0; i < data.size(); i++) {
+            final byte op = data.getOp(i);
+            switch (op) {
+                case PathData.MOVE:
                     pointList.add(new PathPoint("M",
-                            (float) array[0], (float) array[1],
+                            (float) c[p], (float) c[p + 1],
                             0, 0,
                             0, 0));
                     break;
-                case "L":
+                case PathData.LINE:
                     pointList.add(new PathPoint("L",
-                            (float) array[0], (float) array[1],
+                            (float) c[p], (float) c[p + 1],
                             0, 0,
                             0, 0));
                     break;
-                case "C":
+                case PathData.CLOSE:
                     pointList.add(new PathPoint("C", 0, 0, 0, 0, 0, 0));
                     break;
-                case "S":
+                case PathData.START:
                     pointList.add(new PathPoint("S",
-                            (float) array[0], (float) array[1],
+                            (float) c[p], (float) c[p + 1],
                             0, 0,
                             0, 0));
                     break;
-                case "B":
+                case PathData.CUBIC:
                     pointList.add(new PathPoint("B",
-                            (float) array[0], (float) array[1],
-                            (float) array[2], (float) array[3],
-                            (float) array[4], (float) array[5]));
+                            (float) c[p], (float) c[p + 1],
+                            (float) c[p + 2], (float) c[p + 3],
+                            (float) c[p + 4], (float) c[p + 5]));
                     break;
-                case "Q":
+                case PathData.QUAD:
                     pointList.add(new PathPoint("Q",
-                            (float) array[0], (float) array[1],
-                            (float) array[2], (float) array[3],
+                            (float) c[p], (float) c[p + 1],
+                            (float) c[p + 2], (float) c[p + 3],
                             0, 0));
                     break;
-                case "A":
+                case PathData.ARC:
                     pointList.add(new PathPoint("A",
-                            (float) array[0], (float) array[1],
-                            (float) array[2], (float) array[3],
-                            (float) array[4], (float) array[5],
-                            (float) array[6]));
+                            (float) c[p], (float) c[p + 1],
+                            (float) c[p + 2], (float) c[p + 3],
+                            (float) c[p + 4], (float) c[p + 5],
+                            (float) c[p + 6]));
                     break;
             }
+            p += PathData.arity(op);
         }
         return pointList;
     }
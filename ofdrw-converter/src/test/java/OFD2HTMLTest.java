@@ -1,13 +1,26 @@
+import org.dom4j.DocumentException;
 import org.junit.jupiter.api.Test;
 import org.ofdrw.converter.ConvertHelper;
 import org.ofdrw.converter.FontLoader;
 import org.ofdrw.converter.GeneralConvertException;
+import org.ofdrw.converter.HtmlMaker;
+import org.ofdrw.core.basicStructure.doc.CT_CommonData;
+import org.ofdrw.core.basicStructure.doc.Document;
+import org.ofdrw.core.basicStructure.pageTree.Page;
+import org.ofdrw.core.basicStructure.pageTree.Pages;
 import org.ofdrw.reader.OFDReader;
 
 import java.io.IOException;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 
+import static org.junit.jupiter.api.Assertions.*;
+
 /**
  * OFD转换HTML
  *
@@ -34,4 +47,85 @@ public class OFD2HTMLTest {
             e.printStackTrace();
         }
     }
+
+    /**
+     * 逐页输出与分页输出SVG
+     */
+    @Test
+    public void convertHtmlStreaming() throws IOException {
+        Path ofdIn = Paths.get("src/test/resources/999.ofd");
+        Path htmlOut = Paths.get("target/999/999.html");
+        Path splitOut = Paths.get("target/999-split/999.html");
+        Files.createDirectories(htmlOut.getParent());
+        Files.createDirectories(splitOut.getParent());
+        try (OFDReader reader = new OFDReader(ofdIn)) {
+            StringWriter sw = new StringWriter();
+            new HtmlMaker(reader, htmlOut.toString(), 1000).parse(sw);
+            String html = sw.toString();
+            assertTrue(html.startsWith(" <!DOCTYPE html>"));
+            assertTrue(html.contains("<svg"));
+            assertTrue(html.endsWith("</style>"));
+
+            new HtmlMaker(reader, splitOut.toString(), 1000, true).parse();
+        }
+        String index = new String(Files.readAllBytes(splitOut), "UTF-8");
+        assertTrue(index.contains("<img loading=\"lazy\" src=\"999_files/1.svg\""));
+        assertFalse(index.contains("<svg xmlns:xlink"));
+        assertTrue(Files.size(Paths.get("target/999-split/999_files/1.svg")) > 0);
+        System.out.println(">> 生成文件位置: " + splitOut.toAbsolutePath());
+    }
+
+    /**
+     * 大文档转换峰值堆内存与耗时
+     * <p>
+     * 通过重复引用页面内容生成400页的文档，
+     * 对比在内存中生成完整HTML后写入文件与逐页输出、分页输出SVG，
+     * 首次转换包含JIT预热耗时
+     */
+    @Test
+    public void convertLargePeakHeap() throws IOException, DocumentException {
+        final int n = 400;
+        Path large = Paths.get("target/html-" + n + ".ofd");
+        try (OFDReader reader = new OFDReader(Paths.get("src/test/resources/999.ofd"))) {
+            Document document = reader.getOFDDir().obtainDocDefault().getDocument();
+            CT_CommonData commonData = document.getCommonData();
+            Pages pages = document.getPages();
+            Page first = pages.getPageByIndex(0);
+            // 部分样例未声明最大对象ID
+            long maxUnitID = commonData.getMaxUnitID() == null ? 10000 : commonData.getMaxUnitID().getId();
+            for (int i = pages.getSize(); i < n; i++) {
+                pages.addPage(new Page(++maxUnitID, first.getBaseLoc().toString()));
+            }
+            commonData.setMaxUnitID(maxUnitID);
+            reader.getOFDDir().jar(large);
+        }
+
+        for (String mode : new String[]{"逐页输出", "内存拼接", "逐页输出", "分页输出"}) {
+            System.gc();
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                pool.resetPeakUsage();
+            }
+            long start = System.currentTimeMillis();
+            try (OFDReader reader = new OFDReader(large)) {
+                Path out = Paths.get("target/html-" + n + "/" + mode + ".html");
+                Files.createDirectories(out.getParent());
+                HtmlMaker maker = new HtmlMaker(reader, out.toString(), 1000, mode.equals("分页输出"));
+                if (mode.equals("内存拼接")) {
+                    StringWriter sw = new StringWriter();
+                    maker.parse(sw);
+                    maker.writeToFile(out.toString(), sw.toString());
+                } else {
+                    maker.parse();
+                }
+            }
+            long peak = 0;
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getType() == MemoryType.HEAP) {
+                    peak += pool.getPeakUsage().getUsed();
+                }
+            }
+            System.out.printf(">> %s %d页 花费: %dms 峰值堆内存: %.2fMB%n",
+                    mode, n, System.currentTimeMillis() - start, peak / 1024.0 / 1024.0);
+        }
+    }
 }
@@ -1,8 +1,15 @@
+import org.dom4j.DocumentException;
 import org.junit.jupiter.api.Test;
 import org.ofdrw.converter.ConvertHelper;
 import org.ofdrw.converter.FontLoader;
 import org.ofdrw.converter.ImageMaker;
+import org.ofdrw.core.basicStructure.doc.CT_CommonData;
+import org.ofdrw.core.basicStructure.doc.Document;
+import org.ofdrw.core.basicStructure.pageTree.Page;
+import org.ofdrw.core.basicStructure.pageTree.Pages;
+import org.ofdrw.core.basicType.ST_Box;
 import org.ofdrw.reader.DLOFDReader;
+import org.ofdrw.reader.ImageCache;
 import org.ofdrw.reader.OFDReader;
 
 import javax.imageio.ImageIO;
@@ -12,6 +19,12 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 
 public class OFD2IMGTest {
@@ -63,4 +76,130 @@ public class OFD2IMGTest {
 
     }
 
+    /**
+     * 通过重复引用第一页的页面内容生成多页文档
+     *
+     * @param src   源文档
+     * @param out   生成的文档
+     * @param count 页数
+     */
+    private static void repeatPages(Path src, Path out, int count) throws IOException, DocumentException {
+        try (OFDReader reader = new OFDReader(src)) {
+            Document document = reader.getOFDDir().obtainDocDefault().getDocument();
+            CT_CommonData commonData = document.getCommonData();
+            Pages pages = document.getPages();
+            Page first = pages.getPageByIndex(0);
+            // 部分样例未声明最大对象ID
+            long maxUnitID = commonData.getMaxUnitID() == null ? 10000 : commonData.getMaxUnitID().getId();
+            for (int i = pages.getSize(); i < count; i++) {
+                pages.addPage(new Page(++maxUnitID, first.getBaseLoc().toString()));
+            }
+            commonData.setMaxUnitID(maxUnitID);
+            reader.getOFDDir().jar(out);
+        }
+    }
+
+    /**
+     * 并行渲染结果按页码排序，与逐页渲染一致
+     */
+    @Test
+    public void renderAll() throws IOException, DocumentException {
+        Path large = Paths.get("target/large-8.ofd");
+        repeatPages(Paths.get("src/test/resources/helloworld.ofd"), large, 8);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (OFDReader reader = new OFDReader(large)) {
+            ImageMaker imageMaker = new ImageMaker(reader, 5);
+            List<BufferedImage> images = imageMaker.renderAll(executor);
+            assertEquals(imageMaker.pageSize(), images.size());
+            for (int i = 0; i < images.size(); i++) {
+                BufferedImage expect = imageMaker.makePage(i);
+                assertEquals(expect.getWidth(), images.get(i).getWidth());
+                assertEquals(expect.getHeight(), images.get(i).getHeight());
+                assertTrue(diffRatio(expect, images.get(i), 0, 0) < 0.01);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * 多页含有同一张图片时，开启图片缓存后图片只加载一次，关闭缓存时不缓存
+     */
+    @Test
+    public void renderImageCache() throws IOException, DocumentException {
+        Path large = Paths.get("target/image-10.ofd");
+        repeatPages(Paths.get("src/test/resources/999.ofd"), large, 10);
+
+        long uncachedMiss = -1;
+        for (long maxBytes : new long[]{0, ImageCache.DEFAULT_MAX_BYTES}) {
+            try (OFDReader reader = new OFDReader(large)) {
+                ImageCache cache = reader.getResMgt().getImageCache();
+                cache.setMaxBytes(maxBytes);
+                ImageMaker imageMaker = new ImageMaker(reader, 5);
+                for (int i = 0; i < imageMaker.pageSize(); i++) {
+                    imageMaker.makePage(i);
+                }
+                System.out.printf(">> 缓存容量%d %s%n", maxBytes, cache);
+                if (maxBytes == 0) {
+                    assertEquals(0, cache.size());
+                    assertEquals(0, cache.getHitCount());
+                    uncachedMiss = cache.getMissCount();
+                } else {
+                    assertTrue(cache.getHitCount() > 0);
+                    assertTrue(cache.getMissCount() < uncachedMiss);
+                }
+            }
+        }
+    }
+
+    /**
+     * 分块渲染与区域渲染结果与整页渲染一致
+     */
+    @Test
+    public void renderTiles() throws IOException {
+        try (OFDReader reader = new OFDReader(Paths.get("src/test/resources/999.ofd"))) {
+            ImageMaker imageMaker = new ImageMaker(reader, 5);
+            BufferedImage full = imageMaker.makePage(0);
+
+            final int tileSize = 256;
+            int[] grid = imageMaker.tileGrid(0, tileSize);
+            BufferedImage stitched = new BufferedImage(full.getWidth(), full.getHeight(), BufferedImage.TYPE_INT_RGB);
+            AtomicInteger count = new AtomicInteger();
+            imageMaker.makeTiles(0, tileSize, (col, row, region, tile) -> {
+                count.incrementAndGet();
+                assertTrue(tile.getWidth() <= tileSize && tile.getHeight() <= tileSize);
+                stitched.getGraphics().drawImage(tile, col * tileSize, row * tileSize, null);
+            });
+            assertEquals(grid[0] * grid[1], count.get());
+            double diff = diffRatio(full, stitched, 0, 0);
+            System.out.printf(">> 图块 %dx%d 与整页差异像素比例: %.4f%%%n", grid[0], grid[1], diff * 100);
+            assertTrue(diff < 0.01);
+
+            // 页面中部区域
+            ST_Box region = new ST_Box(40, 30, 60, 40);
+            BufferedImage part = imageMaker.makeRegion(0, region);
+            assertEquals(300, part.getWidth());
+            assertEquals(200, part.getHeight());
+            diff = diffRatio(full, part, 200, 150);
+            System.out.printf(">> 区域与整页差异像素比例: %.4f%%%n", diff * 100);
+            assertTrue(diff < 0.01);
+            ImageIO.write(part, "PNG", new File("target/999-region.png"));
+        }
+    }
+
+    /**
+     * 计算图片与整页图片对应区域中不同像素的比例
+     */
+    private static double diffRatio(BufferedImage full, BufferedImage part, int offsetX, int offsetY) {
+        int diff = 0;
+        for (int y = 0; y < part.getHeight(); y++) {
+            for (int x = 0; x < part.getWidth(); x++) {
+                if ((full.getRGB(x + offsetX, y + offsetY) & 0xFFFFFF) != (part.getRGB(x, y) & 0xFFFFFF)) {
+                    diff++;
+                }
+            }
+        }
+        return (double) diff / (part.getWidth() * part.getHeight());
+    }
 }
@@ -1,11 +1,28 @@
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.dom4j.DocumentException;
 import org.junit.jupiter.api.Test;
 import org.ofdrw.converter.ConvertHelper;
 import org.ofdrw.converter.FontLoader;
 import org.ofdrw.converter.GeneralConvertException;
+import org.ofdrw.core.basicStructure.doc.CT_CommonData;
+import org.ofdrw.core.basicStructure.doc.Document;
+import org.ofdrw.core.basicStructure.pageTree.Page;
+import org.ofdrw.core.basicStructure.pageTree.Pages;
+import org.ofdrw.reader.OFDReader;
 
 import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
 public class OFD2PDFTest {
 
 
@@ -43,6 +60,60 @@ public class OFD2PDFTest {
         }
     }
 
+    /**
+     * 大文档转换峰值堆内存
+     * <p>
+     * 通过重复引用页面内容生成500页的文档，转换结果直接写入输出文件。
+     * 转换器依赖内置的默认字体（fonts/simsun.ttf），源码中未包含该字体时跳过。
+     */
+    @Test
+    public void convertLargePeakHeap() throws IOException, DocumentException {
+        assumeTrue(OFD2PDFTest.class.getClassLoader().getResource("fonts/simsun.ttf") != null,
+                "缺少转换器内置的默认字体 fonts/simsun.ttf");
+        final int total = 500;
+        Path large = Paths.get("target/large-500.ofd");
+        try (OFDReader reader = new OFDReader(Paths.get("src/test/resources/helloworld.ofd"))) {
+            Document document = reader.getOFDDir().obtainDocDefault().getDocument();
+            CT_CommonData commonData = document.getCommonData();
+            Pages pages = document.getPages();
+            Page first = pages.getPageByIndex(0);
+            long maxUnitID = commonData.getMaxUnitID().getId();
+            for (int i = 1; i < total; i++) {
+                pages.addPage(new Page(++maxUnitID, first.getBaseLoc().toString()));
+            }
+            commonData.setMaxUnitID(maxUnitID);
+            reader.getOFDDir().jar(large);
+        }
+
+        final ConvertHelper.Lib original = ConvertHelper.lib;
+        try {
+            for (ConvertHelper.Lib lib : ConvertHelper.Lib.values()) {
+                ConvertHelper.lib = lib;
+                Path out = Paths.get("target/large-500-" + lib + ".pdf");
+                System.gc();
+                for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                    pool.resetPeakUsage();
+                }
+                long start = System.currentTimeMillis();
+                ConvertHelper.toPdf(large, out);
+                long peak = 0;
+                for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                    if (pool.getType() == MemoryType.HEAP) {
+                        peak += pool.getPeakUsage().getUsed();
+                    }
+                }
+                System.out.printf(">> %s %d页 花费: %dms 峰值堆内存: %.2fMB\n",
+                        lib, total, System.currentTimeMillis() - start, peak / 1024.0 / 1024.0);
+
+                assertTrue(Files.exists(out));
+                try (PDDocument pdf = PDDocument.load(out.toFile())) {
+                    assertEquals(total, pdf.getNumberOfPages());
+                }
+            }
+        } finally {
+            ConvertHelper.lib = original;
+        }
+    }
 
 //    @Test
 //    public void itextGlyph() throws IOException {
@@ -0,0 +1,56 @@
+package org.ofdrw.converter.font;
+
+import org.junit.jupiter.api.Test;
+import org.ofdrw.converter.FontLoader;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author agent
+ * @since 2026-10-17 13:06:41
+ */
+class FontCacheTest {
+
+    @Test
+    void get() throws Exception {
+        File a = new File("src/test/resources/font_10.ttf");
+        File b = new File("src/test/resources/font_13132_0_edit.ttf");
+        // 容量仅能容纳一个较大的字体
+        FontCache cache = new FontCache(Math.max(a.length(), b.length()));
+
+        byte[] first = cache.get("raw", a, null, () -> Files.readAllBytes(a.toPath()));
+        byte[] second = cache.get("raw", a, null, () -> Files.readAllBytes(a.toPath()));
+        assertSame(first, second);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+
+        cache.get("raw", b, null, () -> Files.readAllBytes(b.toPath()));
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(b.length(), cache.getUsedBytes());
+        System.out.println(cache);
+    }
+
+    @Test
+    void loadExternalFont() {
+        String path = Paths.get("src/test/resources/font_13132_0_edit.ttf").toAbsolutePath().toString();
+        FontCache cache = FontCache.getInstance();
+        long hits = cache.getHitCount();
+
+        long start = System.nanoTime();
+        TrueTypeFont first = FontLoader.getInstance().loadExternalFont(path, null, null);
+        long miss = System.nanoTime() - start;
+        start = System.nanoTime();
+        TrueTypeFont second = FontLoader.getInstance().loadExternalFont(path, null, null);
+        long hit = System.nanoTime() - start;
+
+        assertNotNull(first);
+        assertSame(first, second);
+        assertEquals(hits + 1, cache.getHitCount());
+        System.out.printf(">> 首次加载: %.3fms 命中缓存: %.3fms %s%n", miss / 1e6, hit / 1e6, cache);
+    }
+}
@@ -0,0 +1,51 @@
+package org.ofdrw.converter.font;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.geom.GeneralPath;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author agent
+ * @since 2026-10-17 13:08:34
+ */
+class MappedTTFDataStreamTest {
+
+    @Test
+    void parse() throws Exception {
+        Path fontPath = Paths.get("src/test/resources/font_13132_0_edit.ttf");
+        TrueTypeFont memory = new TrueTypeFont().parse(new MemoryTTFDataStream(Files.newInputStream(fontPath)));
+        TrueTypeFont mapped = new TrueTypeFont().parse(new MappedTTFDataStream(fontPath));
+
+        assertEquals(memory.psName, mapped.psName);
+        for (char c : "你好世界Hello".toCharArray()) {
+            GeneralPath expect = memory.getUnicodeGlyph(c).getPath();
+            GeneralPath actual = mapped.getUnicodeGlyph(c).getPath();
+            assertEquals(expect.getBounds2D(), actual.getBounds2D());
+        }
+    }
+
+    @Test
+    void parseCFF() throws Exception {
+        Path fontPath = Paths.get("src/test/resources/type1_cff.otf");
+        TrueTypeFont memory = new TrueTypeFont().parse(new MemoryTTFDataStream(Files.newInputStream(fontPath)));
+        TrueTypeFont mapped = new TrueTypeFont().parse(new MappedTTFDataStream(fontPath));
+        assertEquals(memory.getFontMatrix(), mapped.getFontMatrix());
+    }
+
+    @Test
+    void close() throws Exception {
+        MappedTTFDataStream stream = new MappedTTFDataStream(Paths.get("src/test/resources/font_13132_0_edit.ttf"));
+        assertTrue(stream.getOriginalDataSize() > 0);
+        stream.read();
+        stream.close();
+        assertEquals(0, stream.getOriginalDataSize());
+        assertThrows(IOException.class, stream::read);
+        assertThrows(IOException.class, () -> stream.seek(0));
+    }
+}
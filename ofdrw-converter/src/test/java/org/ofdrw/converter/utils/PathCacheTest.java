@@ -0,0 +1,141 @@
+package org.ofdrw.converter.utils;
+
+import org.junit.jupiter.api.Test;
+import org.ofdrw.core.graph.pathObj.PathData;
+import org.ofdrw.core.graph.pathObj.OptVal;
+
+import java.awt.geom.Path2D;
+import java.awt.geom.PathIterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author agent
+ * @since 2026-10-17 13:21:00
+ */
+class PathCacheTest {
+
+    /**
+     * 生成矢量密集的路径（类似地图、CAD导出的折线与曲线）
+     *
+     * @param segments 线段数量
+     * @return 紧缩路径
+     */
+    static String pathHeavy(int segments) {
+        Random random = new Random(segments);
+        StringBuilder sb = new StringBuilder("M 10.5 20.25");
+        for (int i = 0; i < segments; i++) {
+            if (i % 5 == 4) {
+                sb.append(String.format(Locale.ROOT, " B %.3f %.3f %.3f %.3f %.3f %.3f",
+                        random.nextDouble() * 210, random.nextDouble() * 297,
+                        random.nextDouble() * 210, random.nextDouble() * 297,
+                        random.nextDouble() * 210, random.nextDouble() * 297));
+            } else {
+                sb.append(String.format(Locale.ROOT, " L %.3f %.3f", random.nextDouble() * 210, random.nextDouble() * 297));
+            }
+        }
+        return sb.append(" C").toString();
+    }
+
+    /**
+     * 改造前的解析方式（正则拆分 + 字符串操作数），用于对照
+     */
+    static Path2D legacyPath(String abbreviatedData) {
+        LinkedList<OptVal> optValArr = new LinkedList<>();
+        String opt = null;
+        List<String> values = new LinkedList<>();
+        for (String s : abbreviatedData.split("\\s+")) {
+            switch (s) {
+                case "S":
+                case "M":
+                case "L":
+                case "Q":
+                case "B":
+                case "A":
+                case "C":
+                    if (opt != null) {
+                        optValArr.add(new OptVal(opt, values));
+                        values.clear();
+                    }
+                    opt = s;
+                    break;
+                default:
+                    values.add(s);
+            }
+        }
+        if (opt != null) {
+            optValArr.add(new OptVal(opt, values));
+        }
+        Path2D path = new Path2D.Double();
+        path.moveTo(0, 0);
+        for (OptVal optVal : optValArr) {
+            double[] arr = optVal.expectValues();
+            switch (optVal.opt) {
+                case "S":
+                case "M":
+                    path.moveTo(arr[0], arr[1]);
+                    break;
+                case "L":
+                    path.lineTo(arr[0], arr[1]);
+                    break;
+                case "B":
+                    path.curveTo(arr[0], arr[1], arr[2], arr[3], arr[4], arr[5]);
+                    break;
+                case "C":
+                    path.closePath();
+                    break;
+            }
+        }
+        return path;
+    }
+
+    @Test
+    void getPath2D() {
+        String data = pathHeavy(1000);
+        PathCache cache = new PathCache(PathCache.DEFAULT_MAX_BYTES);
+        Path2D path = cache.getPath2D(data);
+        assertSame(path, cache.getPath2D(new String(data.toCharArray())));
+        assertEquals(1, cache.getHitCount());
+
+        // 与原有解析方式产生相同的路径
+        PathIterator expect = legacyPath(data).getPathIterator(null);
+        PathIterator actual = path.getPathIterator(null);
+        double[] a = new double[6];
+        double[] b = new double[6];
+        while (!expect.isDone()) {
+            assertFalse(actual.isDone());
+            assertEquals(expect.currentSegment(a), actual.currentSegment(b));
+            assertArrayEquals(a, b);
+            expect.next();
+            actual.next();
+        }
+        assertTrue(actual.isDone());
+
+        // 容量不足时淘汰
+        cache.setMaxBytes(1);
+        assertEquals(0, cache.size());
+        System.out.println(cache);
+    }
+
+    /**
+     * 容量为0时不缓存
+     */
+    @Test
+    void zeroCapacity() {
+        String[] pages = new String[5];
+        for (int i = 0; i < pages.length; i++) {
+            pages[i] = pathHeavy(200 + i);
+        }
+        PathCache cache = new PathCache(0);
+        for (String page : pages) {
+            assertFalse(cache.getPath2D(page).getBounds().isEmpty());
+            assertFalse(cache.getPath2D(page).getBounds().isEmpty());
+        }
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getHitCount());
+    }
+}
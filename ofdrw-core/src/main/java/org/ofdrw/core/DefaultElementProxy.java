@@ -1,7 +1,6 @@
 package org.ofdrw.core;
 
 import org.dom4j.*;
-import org.dom4j.tree.DefaultElement;
 
 import java.io.IOException;
 import java.io.Writer;
@@ -28,19 +27,19 @@ public abstract class DefaultElementProxy implements Element {
     }
 
     public DefaultElementProxy(String name) {
-        this.proxy = new DefaultElement(name);
+        this.proxy = new TrackedElement(name);
     }
 
     public DefaultElementProxy(QName qname) {
-        this.proxy = new DefaultElement(qname);
+        this.proxy = new TrackedElement(qname);
     }
 
     public DefaultElementProxy(QName qname, int attributeCount) {
-        this.proxy = new DefaultElement(qname, attributeCount);
+        this.proxy = new TrackedElement(qname, attributeCount);
     }
 
     public DefaultElementProxy(String name, Namespace namespace) {
-        this.proxy = new DefaultElement(name, namespace);
+        this.proxy = new TrackedElement(name, namespace);
     }
 
 
@@ -161,14 +161,20 @@ public class OFDElement extends DefaultElementProxy {
     public <R> List<R> getOFDElements(String name, Function<? super Element, ? extends R> mapper) {
         LinkedList<Element> c = new LinkedList<>();
 
-        List<Element> elements = this.elements(new OFDCommonQName(name));
+        final OFDCommonQName qName = new OFDCommonQName(name);
+        List<Element> elements = this.elements(qName);
         if (elements != null) {
             c.addAll(elements);
         }
         // 兼容命名空间缺失情况
+        // 按名称匹配的结果同样包含OFD命名空间下的元素，跳过已经加入的元素避免重复
         List<Element> noNameList = this.elements(name);
         if (noNameList != null) {
-            c.addAll(noNameList);
+            for (Element e : noNameList) {
+                if (!qName.equals(e.getQName())) {
+                    c.add(e);
+                }
+            }
         }
 
         if (c.isEmpty()) {
@@ -0,0 +1,112 @@
+package org.ofdrw.core;
+
+import org.dom4j.*;
+import org.dom4j.tree.DefaultAttribute;
+import org.dom4j.tree.DefaultCDATA;
+import org.dom4j.tree.DefaultComment;
+import org.dom4j.tree.DefaultText;
+
+/**
+ * 创建可追踪修改节点的文档工厂
+ * <p>
+ * 用于XML解析（{@code SAXReader#setDocumentFactory}）与OFD元素的创建，
+ * 创建的元素、属性、文本节点在修改时通知所属元素树，见 {@link TrackedElement}。
+ *
+ * @author agent
+ * @since 2026-10-17 13:34:33
+ */
+public class TrackedDocumentFactory extends DocumentFactory {
+
+    private static final TrackedDocumentFactory instance = new TrackedDocumentFactory();
+
+    /**
+     * 获取文档工厂单例
+     *
+     * @return 文档工厂
+     */
+    public static TrackedDocumentFactory getInstance() {
+        return instance;
+    }
+
+    @Override
+    public Element createElement(QName qname) {
+        return new TrackedElement(qname);
+    }
+
+    @Override
+    public Attribute createAttribute(Element owner, QName qname, String value) {
+        return new TrackedAttribute(qname, value);
+    }
+
+    @Override
+    public Text createText(String text) {
+        if (text == null) {
+            throw new IllegalArgumentException("Adding text to an XML document must not be null");
+        }
+        return new TrackedText(text);
+    }
+
+    @Override
+    public CDATA createCDATA(String text) {
+        return new TrackedCDATA(text);
+    }
+
+    @Override
+    public Comment createComment(String text) {
+        return new TrackedComment(text);
+    }
+
+    /**
+     * 可追踪修改的节点标记
+     */
+    interface Tracked {
+    }
+
+    static final class TrackedAttribute extends DefaultAttribute implements Tracked {
+        TrackedAttribute(QName qname, String value) {
+            super(qname, value);
+        }
+
+        @Override
+        public void setValue(String value) {
+            super.setValue(value);
+            TrackedElement.modified(getParent(), false);
+        }
+    }
+
+    static final class TrackedText extends DefaultText implements Tracked {
+        TrackedText(String text) {
+            super(text);
+        }
+
+        @Override
+        public void setText(String text) {
+            super.setText(text);
+            TrackedElement.modified(getParent(), false);
+        }
+    }
+
+    static final class TrackedCDATA extends DefaultCDATA implements Tracked {
+        TrackedCDATA(String text) {
+            super(text);
+        }
+
+        @Override
+        public void setText(String text) {
+            super.setText(text);
+            TrackedElement.modified(getParent(), false);
+        }
+    }
+
+    static final class TrackedComment extends DefaultComment implements Tracked {
+        TrackedComment(String text) {
+            super(text);
+        }
+
+        @Override
+        public void setText(String text) {
+            super.setText(text);
+            TrackedElement.modified(getParent(), false);
+        }
+    }
+}
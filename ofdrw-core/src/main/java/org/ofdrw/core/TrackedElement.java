@@ -0,0 +1,199 @@
+package org.ofdrw.core;
+
+import org.dom4j.*;
+import org.dom4j.tree.DefaultElement;
+
+import java.util.List;
+
+/**
+ * 可追踪修改的元素
+ * <p>
+ * 元素树中任意节点（元素、属性、文本）发生修改时，递增树根元素上的修改计数，
+ * 通过比较修改计数即可判断整棵元素树是否被修改，无需序列化后计算摘要。
+ * <p>
+ * 当树中加入了无法追踪修改的节点（如 通过其它 {@link DocumentFactory} 创建的元素）时，
+ * 树根元素将被标记为不可追踪，此时应认为元素树始终处于已修改状态。
+ * <p>
+ * 通过 {@link TrackedDocumentFactory} 创建的节点均可追踪修改。
+ *
+ * @author agent
+ * @since 2026-10-17 13:34:33
+ */
+public class TrackedElement extends DefaultElement {
+
+    /**
+     * 修改计数，仅树根元素上的计数有意义
+     */
+    private transient int modCount = 0;
+
+    /**
+     * 子树中是否含有无法追踪修改的节点
+     */
+    private transient boolean untracked = false;
+
+    public TrackedElement(String name) {
+        super(name);
+    }
+
+    public TrackedElement(QName qname) {
+        super(qname);
+    }
+
+    public TrackedElement(QName qname, int attributeCount) {
+        super(qname, attributeCount);
+    }
+
+    public TrackedElement(String name, Namespace namespace) {
+        super(name, namespace);
+    }
+
+    /**
+     * 获取修改计数
+     * <p>
+     * 仅树根元素上的计数反映整棵树的修改情况
+     *
+     * @return 修改计数
+     */
+    public int getModCount() {
+        return modCount;
+    }
+
+    /**
+     * 元素树的修改是否可以被追踪
+     *
+     * @return true - 可追踪；false - 子树中含有无法追踪修改的节点
+     */
+    public boolean isTrackable() {
+        return !untracked;
+    }
+
+    /**
+     * 获取元素树的修改计数
+     *
+     * @param root 树根元素（可以是代理对象）
+     * @return 修改计数，元素树无法追踪修改时返还 -1
+     */
+    public static int modCountOf(Element root) {
+        root = unwrap(root);
+        if (root instanceof TrackedElement && !((TrackedElement) root).untracked) {
+            return ((TrackedElement) root).modCount;
+        }
+        return -1;
+    }
+
+    @Override
+    protected DocumentFactory getDocumentFactory() {
+        // 保证子节点同样可以追踪修改
+        return TrackedDocumentFactory.getInstance();
+    }
+
+    @Override
+    protected void childAdded(Node node) {
+        super.childAdded(node);
+        modified(this, isForeign(node));
+    }
+
+    @Override
+    protected void childRemoved(Node node) {
+        super.childRemoved(node);
+        modified(this, false);
+    }
+
+    @Override
+    public void clearContent() {
+        super.clearContent();
+        modified(this, false);
+    }
+
+    @Override
+    public void setContent(List<Node> content) {
+        super.setContent(content);
+        boolean foreign = false;
+        if (content != null) {
+            for (Node node : content) {
+                foreign |= isForeign(node);
+            }
+        }
+        modified(this, foreign);
+    }
+
+    @Override
+    public void setAttributes(List<Attribute> attributes) {
+        super.setAttributes(attributes);
+        boolean foreign = false;
+        if (attributes != null) {
+            for (Attribute attribute : attributes) {
+                foreign |= isForeign(attribute);
+            }
+        }
+        modified(this, foreign);
+    }
+
+    @Override
+    public void setQName(QName qname) {
+        super.setQName(qname);
+        modified(this, false);
+    }
+
+    @Override
+    public void normalize() {
+        super.normalize();
+        modified(this, false);
+    }
+
+    /**
+     * 记录节点修改
+     * <p>
+     * 沿父节点找到树根元素并递增其修改计数
+     *
+     * @param from    发生修改的元素，可以为null
+     * @param foreign 是否加入了无法追踪修改的节点
+     */
+    static void modified(Element from, boolean foreign) {
+        Element e = from;
+        while (e != null) {
+            final Element self = unwrap(e);
+            if (foreign && self instanceof TrackedElement) {
+                ((TrackedElement) self).untracked = true;
+            }
+            final Element parent = e.getParent();
+            if (parent == null && self instanceof TrackedElement) {
+                ((TrackedElement) self).modCount++;
+            }
+            e = parent;
+        }
+    }
+
+    /**
+     * 判断节点是否无法追踪修改
+     *
+     * @param node 节点
+     * @return true - 无法追踪修改
+     */
+    private static boolean isForeign(Node node) {
+        if (node == null || node.isReadOnly()) {
+            return false;
+        }
+        if (node instanceof Element) {
+            final Element e = unwrap((Element) node);
+            return !(e instanceof TrackedElement) || ((TrackedElement) e).untracked;
+        }
+        if (node instanceof Attribute || node instanceof CharacterData) {
+            return !(node instanceof TrackedDocumentFactory.Tracked);
+        }
+        return false;
+    }
+
+    /**
+     * 获取代理对象所代理的元素
+     *
+     * @param e 元素
+     * @return 被代理的元素
+     */
+    private static Element unwrap(Element e) {
+        while (e instanceof DefaultElementProxy) {
+            e = ((DefaultElementProxy) e).getProxy();
+        }
+        return e;
+    }
+}
@@ -40,6 +40,71 @@ public abstract class STBase implements Serializable {
         }
     }
 
+    /**
+     * 可以被精确表示的10的幂，用于数字快速解析
+     */
+    private static final double[] POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20,
+            1e21, 1e22
+    };
+
+    /**
+     * 解析字符序列中的数字，不创建中间字符串
+     * <p>
+     * 有效数字不超过15位且不含指数的十进制数字直接计算（结果与 {@link Double#parseDouble(String)} 一致），
+     * 其余情况交由 {@link Double#parseDouble(String)} 处理。
+     *
+     * @param s     字符序列
+     * @param start 起始位置（含）
+     * @param end   结束位置（不含）
+     * @return 数字
+     * @throws NumberFormatException 无法解析为数字
+     */
+    public static double parseDouble(CharSequence s, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        boolean fast = i < end;
+        if (fast) {
+            char c = s.charAt(i);
+            if (c == '-' || c == '+') {
+                negative = c == '-';
+                i++;
+            }
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean dot = false;
+        boolean any = false;
+        for (; fast && i < end; i++) {
+            char c = s.charAt(i);
+            if (c >= '0' && c <= '9') {
+                any = true;
+                if (mantissa != 0 || c != '0') {
+                    digits++;
+                }
+                mantissa = mantissa * 10 + (c - '0');
+                if (dot) {
+                    scale++;
+                }
+                if (digits > 15) {
+                    fast = false;
+                }
+            } else if (c == '.' && !dot) {
+                dot = true;
+            } else {
+                fast = false;
+            }
+        }
+        if (fast && any && scale < POW10.length) {
+            // 尾数与10的幂均可被double精确表示，一次除法的结果是正确舍入的
+            double v = mantissa / POW10[scale];
+            return negative ? -v : v;
+        }
+        return Double.parseDouble(s.subSequence(start, end).toString());
+    }
+
     /**
      * 字符串转换Double
      *
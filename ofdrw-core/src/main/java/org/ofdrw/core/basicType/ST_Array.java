@@ -1,8 +1,9 @@
 package org.ofdrw.core.basicType;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 
 /**
  * 数组，以空格来分割元素。元素可以是除ST_Loc、
@@ -20,8 +21,103 @@ public class ST_Array extends STBase implements Cloneable {
 
     /**
      * 元素收容
+     * <p>
+     * 由数值构造（如 矩阵相乘的结果）时为null，在首次需要字符串形式时生成。
+     */
+    private List<String> array;
+
+    /**
+     * 元素的数值形式
+     * <p>
+     * 由字符串构造时延迟解析，存在无法解析为数字的元素（如 "g"、"#FF"）时为null。
+     */
+    private transient double[] values;
+
+    /**
+     * 数值形式对应的元素版本，-1 表示数值形式未解析
      */
-    private List<String> array = new ArrayList<>();
+    private transient long valuesStamp = -1;
+
+    /**
+     * 记录修改版本的元素列表
+     * <p>
+     * {@link #getArray()} 返回的列表可能被外部修改，通过版本判断数值缓存是否仍然有效。
+     */
+    private static final class Elements extends ArrayList<String> {
+        private int sets = 0;
+
+        Elements(int initialCapacity) {
+            super(initialCapacity);
+        }
+
+        Elements(Collection<String> c) {
+            super(c);
+        }
+
+        @Override
+        public String set(int index, String element) {
+            // 替换元素不改变 modCount，单独计数
+            sets++;
+            return super.set(index, element);
+        }
+
+        @Override
+        public List<String> subList(int fromIndex, int toIndex) {
+            // ArrayList 的子列表直接写入底层数组，替换元素时需要同样计数
+            return new SubList(super.subList(fromIndex, toIndex));
+        }
+
+        /**
+         * @return 列表版本，列表发生任何修改后改变
+         */
+        long stamp() {
+            return ((long) modCount << 32) | (sets & 0xFFFFFFFFL);
+        }
+
+        /**
+         * 替换元素时计数的子列表视图
+         * <p>
+         * 结构修改由底层子列表同步到 modCount
+         */
+        private final class SubList extends AbstractList<String> implements RandomAccess {
+            private final List<String> view;
+
+            SubList(List<String> view) {
+                this.view = view;
+            }
+
+            @Override
+            public String get(int index) {
+                return view.get(index);
+            }
+
+            @Override
+            public int size() {
+                return view.size();
+            }
+
+            @Override
+            public String set(int index, String element) {
+                sets++;
+                return view.set(index, element);
+            }
+
+            @Override
+            public void add(int index, String element) {
+                view.add(index, element);
+            }
+
+            @Override
+            public String remove(int index) {
+                return view.remove(index);
+            }
+
+            @Override
+            public List<String> subList(int fromIndex, int toIndex) {
+                return new SubList(view.subList(fromIndex, toIndex));
+            }
+        }
+    }
 
     /**
      * 获取一个单位矩阵变换参数
@@ -48,30 +144,46 @@ public class ST_Array extends STBase implements Cloneable {
      * @return 相乘后的结果矩阵
      */
     public ST_Array mtxMul(ST_Array array) {
-        if (this.array.size() != 6 || array.size() != 6) {
+        if (this.size() != 6 || array.size() != 6) {
             throw new IllegalArgumentException("矩阵乘法数组规模必须 6元素(a b c d e f)");
         }
-        double[][] a = this.toMtx();
-        double[][] b = array.toMtx();
-
-        double[][] res = new double[3][3];
+        final double[] a = this.mtxValues();
+        final double[] b = array.mtxValues();
+        /*
+         * a b 0
+         * c d 0
+         * e f 1
+         */
+        return new ST_Array(new double[]{
+                a[0] * b[0] + a[1] * b[2],
+                a[0] * b[1] + a[1] * b[3],
+                a[2] * b[0] + a[3] * b[2],
+                a[2] * b[1] + a[3] * b[3],
+                a[4] * b[0] + a[5] * b[2] + b[4],
+                a[4] * b[1] + a[5] * b[3] + b[5]
+        });
+    }
 
-        for (int k = 0; k < 3; k++) {
-            for (int i = 0; i < 3; i++) {
-                for (int j = 0; j < 3; j++) {
-                    res[i][j] += a[i][k] * b[k][j];
-                }
+    /**
+     * 获取矩阵的6个元素 (a b c d e f)
+     *
+     * @return 矩阵元素
+     * @throws NumberFormatException 元素无法解析为数字
+     */
+    private double[] mtxValues() {
+        if (size() != 6) {
+            throw new IllegalArgumentException("矩阵数组必须有 6个元素");
+        }
+        double[] v = numbers();
+        if (v == null) {
+            v = new double[6];
+            for (int i = 0; i < 6; i++) {
+                v[i] = Double.parseDouble(array.get(i));
             }
         }
-
-        return new ST_Array(
-                fmt(res[0][0]), fmt(res[0][1]),
-                fmt(res[1][0]), fmt(res[1][1]),
-                fmt(res[2][0]), fmt(res[2][1])
-        );
+        return v;
     }
 
-
     /**
      * 获取 ST_Array 实例如果参数非法则返还null
      *
@@ -82,7 +194,72 @@ public class ST_Array extends STBase implements Cloneable {
         if (arrStr == null || arrStr.trim().length() == 0) {
             return null;
         }
-        return new ST_Array(arrStr.trim().split("\\s+"));
+        // 一次扫描完成拆分与数值解析
+        final int len = arrStr.length();
+        Elements elements = new Elements(8);
+        double[] values = new double[8];
+        boolean numeric = true;
+        int i = 0;
+        while (i < len) {
+            while (i < len && isWhitespace(arrStr.charAt(i))) {
+                i++;
+            }
+            if (i >= len) {
+                break;
+            }
+            int start = i;
+            while (i < len && !isWhitespace(arrStr.charAt(i))) {
+                i++;
+            }
+            if (numeric) {
+                try {
+                    if (elements.size() == values.length) {
+                        values = Arrays.copyOf(values, values.length * 2);
+                    }
+                    values[elements.size()] = parseDouble(arrStr, start, i);
+                } catch (NumberFormatException e) {
+                    numeric = false;
+                }
+            }
+            elements.add(arrStr.substring(start, i));
+        }
+        ST_Array res = new ST_Array();
+        res.array = elements;
+        res.values = numeric ? Arrays.copyOf(values, elements.size()) : null;
+        res.valuesStamp = elements.stamp();
+        return res;
+    }
+
+    /**
+     * 由数值创建数组
+     * <p>
+     * 数值以原始精度参与计算，仅在序列化为字符串时按 {@link STBase#fmt(double)} 格式化。
+     *
+     * @param values 数值
+     */
+    private ST_Array(double[] values) {
+        this.values = values;
+        this.valuesStamp = 0;
+    }
+
+    /**
+     * 判断参数是否全部为字符串形式与 {@link STBase#fmt(double)} 一致的数字
+     *
+     * @param arr 参数
+     * @return true - 全部为 Double、Integer、Long、Short、Byte
+     */
+    private static boolean allNumeric(Serializable[] arr) {
+        for (Serializable item : arr) {
+            if (!(item instanceof Double || item instanceof Integer || item instanceof Long
+                    || item instanceof Short || item instanceof Byte)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f' || c == '\u000B';
     }
 
     public ST_Array(Serializable... arr) {
@@ -91,7 +268,17 @@ public class ST_Array extends STBase implements Cloneable {
             throw new IllegalArgumentException("参数不能为空");
         }
 
-        array = new ArrayList<>(arr.length);
+        if (arr.length > 0 && allNumeric(arr)) {
+            // 全部为数字时以原始精度保存，字符串形式延迟生成
+            values = new double[arr.length];
+            for (int i = 0; i < arr.length; i++) {
+                values[i] = ((Number) arr[i]).doubleValue();
+            }
+            valuesStamp = 0;
+            return;
+        }
+
+        array = new Elements(arr.length);
 
         for (Serializable item : arr) {
             if (item instanceof String || item == null) {
@@ -112,14 +299,54 @@ public class ST_Array extends STBase implements Cloneable {
 
 
     public ST_Array add(String item) {
-        this.array.add(item);
+        this.getArray().add(item);
         return this;
     }
 
     public List<String> getArray() {
+        if (array == null) {
+            Elements elements = new Elements(values.length);
+            for (double v : values) {
+                elements.add(fmt(v));
+            }
+            array = elements;
+            valuesStamp = elements.stamp();
+        }
         return array;
     }
 
+    /**
+     * 获取元素的数值形式
+     * <p>
+     * 数值在元素未被修改前缓存，返回内部数组，调用者不应修改。
+     *
+     * @return 数值，存在无法解析为数字的元素时返回null
+     */
+    private double[] numbers() {
+        if (array == null) {
+            return values;
+        }
+        final long stamp = array instanceof Elements ? ((Elements) array).stamp() : -1;
+        if (stamp != -1 && stamp == valuesStamp) {
+            return values;
+        }
+        double[] res = new double[array.size()];
+        try {
+            for (int i = 0; i < res.length; i++) {
+                String item = array.get(i);
+                res[i] = parseDouble(item, 0, item.length());
+            }
+        } catch (NumberFormatException | NullPointerException e) {
+            res = null;
+        }
+        if (stamp != -1) {
+            // 外部设置的列表无法感知修改，不缓存
+            values = res;
+            valuesStamp = stamp;
+        }
+        return res;
+    }
+
     /**
      * 获取期待长度的字符串数组
      * <p>
@@ -129,6 +356,7 @@ public class ST_Array extends STBase implements Cloneable {
      * @return 字符串数组
      */
     public String[] expectStrArr(int expectCount) {
+        final List<String> array = getArray();
         String[] res = new String[expectCount];
         for (int i = 0; i < expectCount; i++) {
             if (i < array.size()) {
@@ -146,6 +374,14 @@ public class ST_Array extends STBase implements Cloneable {
      * @return 浮点数组
      */
     public Double[] toDouble() {
+        final double[] v = numbers();
+        if (v != null) {
+            Double[] res = new Double[v.length];
+            for (int i = 0; i < v.length; i++) {
+                res[i] = v[i];
+            }
+            return res;
+        }
         return this.array.stream()
                 .map(STBase::toDouble)
                 .toArray(Double[]::new);
@@ -157,7 +393,7 @@ public class ST_Array extends STBase implements Cloneable {
      * @return 整形数组
      */
     public Integer[] toInt() {
-        return this.array.stream()
+        return this.getArray().stream()
                 .map(STBase::toInt)
                 .toArray(Integer[]::new);
     }
@@ -165,6 +401,8 @@ public class ST_Array extends STBase implements Cloneable {
 
     public ST_Array setArray(List<String> array) {
         this.array = array;
+        this.values = null;
+        this.valuesStamp = -1;
         return this;
     }
 
@@ -174,7 +412,7 @@ public class ST_Array extends STBase implements Cloneable {
      * @return 数组长度
      */
     public int size() {
-        return this.array.size();
+        return array == null ? values.length : array.size();
     }
 
     /**
@@ -187,17 +425,18 @@ public class ST_Array extends STBase implements Cloneable {
             throw new IllegalArgumentException("矩阵数组必须有 9个元素");
         }
 
+        final double[] v = mtxValues();
         double[][] mtx = new double[3][3];
-        mtx[0][0] = Double.parseDouble(array.get(0));
-        mtx[0][1] = Double.parseDouble(array.get(1));
+        mtx[0][0] = v[0];
+        mtx[0][1] = v[1];
         mtx[0][2] = 0;
 
-        mtx[1][0] = Double.parseDouble(array.get(2));
-        mtx[1][1] = Double.parseDouble(array.get(3));
+        mtx[1][0] = v[2];
+        mtx[1][1] = v[3];
         mtx[1][2] = 0;
 
-        mtx[2][0] = Double.parseDouble(array.get(4));
-        mtx[2][1] = Double.parseDouble(array.get(5));
+        mtx[2][0] = v[4];
+        mtx[2][1] = v[5];
         mtx[2][2] = 1;
 
         return mtx;
@@ -222,6 +461,13 @@ public class ST_Array extends STBase implements Cloneable {
      * @return 数字
      */
     public Double get(int index) {
+        final double[] v = numbers();
+        if (v != null) {
+            if (index < 0 || index >= v.length) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + v.length);
+            }
+            return v[index];
+        }
         final String s = array.get(index);
         return Double.parseDouble(s);
     }
@@ -235,7 +481,7 @@ public class ST_Array extends STBase implements Cloneable {
      * @return 数字
      */
     public Integer getInt(int index) {
-        final String s = array.get(index);
+        final String s = getArray().get(index);
         if (s.startsWith("#")) {
             // 16进制数字
             return Integer.parseInt(s.substring(1), 16);
@@ -254,8 +500,9 @@ public class ST_Array extends STBase implements Cloneable {
      */
     public int[] expectIntArr(int len) {
         int[] res = new int[len];
+        final int size = size();
         for (int i = 0; i < len; i++) {
-            if (i >= array.size()) {
+            if (i >= size) {
                 // 防止越界
                 break;
             }
@@ -279,6 +526,11 @@ public class ST_Array extends STBase implements Cloneable {
      */
     public double[] expectArr(int len) {
         double[] res = new double[len];
+        final double[] v = numbers();
+        if (v != null) {
+            System.arraycopy(v, 0, res, 0, Math.min(len, v.length));
+            return res;
+        }
         for (int i = 0; i < len; i++) {
             if (i >= array.size()) {
                 // 防止越界
@@ -295,9 +547,17 @@ public class ST_Array extends STBase implements Cloneable {
 
     @Override
     public ST_Array clone() {
+        if (array == null) {
+            return new ST_Array(values.clone());
+        }
         ST_Array res = new ST_Array();
-        for (String item : this.array) {
-            res.add(item);
+        Elements elements = new Elements(this.array);
+        res.array = elements;
+        // 元素相同，数值缓存可以共享（数值缓存不会被修改）
+        final double[] v = numbers();
+        if (v != null) {
+            res.values = v;
+            res.valuesStamp = elements.stamp();
         }
         return res;
     }
@@ -305,9 +565,23 @@ public class ST_Array extends STBase implements Cloneable {
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
+        if (array == null) {
+            for (double v : values) {
+                sb.append(' ').append(fmt(v));
+            }
+            return sb.toString().trim();
+        }
         for (String item : array) {
             sb.append(' ').append(item);
         }
         return sb.toString().trim();
     }
+
+    /**
+     * 序列化前生成字符串形式，保持序列化格式不变
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        getArray();
+        out.defaultWriteObject();
+    }
 }
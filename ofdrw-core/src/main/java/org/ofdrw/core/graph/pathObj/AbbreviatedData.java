@@ -4,6 +4,7 @@ import org.dom4j.Element;
 import org.ofdrw.core.OFDElement;
 import org.ofdrw.core.basicType.ST_Pos;
 
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -46,40 +47,39 @@ public class AbbreviatedData extends OFDElement implements Cloneable {
      * 数组中的两个元素间多个空格将会被理解成一个空格。
      * <p>
      * 无法解析转换的数字将会被当做0
+     * <p>
+     * 仅需要绘制路径时，推荐使用 {@link PathData#parse(CharSequence)}。
      *
      * @param dataStr 紧缩字符串
      * @return 数据队列
      */
     public static LinkedList<OptVal> parse(String dataStr) {
+        LinkedList<OptVal> res = new LinkedList<>();
         if (dataStr == null || dataStr.length() == 0) {
-            return new LinkedList<>();
+            return res;
         }
-        String[] arr = dataStr.split("\\s+");
-        LinkedList<OptVal> res = new LinkedList<>();
+        PathData.Scanner scanner = new PathData.Scanner(dataStr);
         String opt = null;
-        List<String> values = new LinkedList<>();
-        for (String s : arr) {
-            switch (s) {
-                case "S":
-                case "M":
-                case "L":
-                case "Q":
-                case "B":
-                case "A":
-                case "C":
-                    if (opt != null) {
-                        res.add(new OptVal(opt, values));
-                        values.clear();
-                        opt = null;
-                    }
-                    opt = s;
-                    break;
-                default:
-                    values.add(s);
+        double[] values = new double[8];
+        int n = 0;
+        while (scanner.next()) {
+            byte op = scanner.op();
+            if (op != 0) {
+                if (opt != null) {
+                    res.add(new OptVal(opt, Arrays.copyOf(values, n)));
+                }
+                opt = String.valueOf((char) op);
+                n = 0;
+            } else if (opt != null) {
+                // 第一个操作符之前的操作数被忽略
+                if (n == values.length) {
+                    values = Arrays.copyOf(values, n * 2);
+                }
+                values[n++] = scanner.value();
             }
         }
         if (opt != null) {
-            res.add(new OptVal(opt, values));
+            res.add(new OptVal(opt, Arrays.copyOf(values, n)));
         }
         return res;
     }
@@ -0,0 +1,265 @@
+package org.ofdrw.core.graph.pathObj;
+
+import org.ofdrw.core.basicType.STBase;
+
+import java.util.Arrays;
+
+/**
+ * 紧凑的图形轮廓数据
+ * <p>
+ * 将紧缩路径字符串（如 "M 10 10 L 20 20 C"）一次扫描解析为
+ * 操作符序列（byte[]）与操作数序列（double[]），解析过程中不产生中间字符串与对象，
+ * 适用于渲染时反复读取路径的场景。
+ * <p>
+ * 每个操作符的操作数数量固定（见 {@link #arity(byte)}），操作数不足时补0，多余的操作数被忽略，
+ * 第一个操作符之前的操作数被忽略，无法解析的数字被当做0。
+ * <p>
+ * 遍历方式：
+ * <pre>{@code
+ * double[] c = data.getCoords();
+ * int p = 0;
+ * for (int i = 0; i < data.size(); i++) {
+ *     byte op = data.getOp(i);
+ *     // 使用 c[p] ~ c[p + arity(op) - 1]
+ *     p += PathData.arity(op);
+ * }
+ * }</pre>
+ * <p>
+ * 对象创建后不可变，可以在线程间共享。
+ *
+ * @author agent
+ * @since 2026-10-17 13:21:00
+ */
+public final class PathData {
+
+    /**
+     * 定义自绘制图形边线的起始点 S x y
+     */
+    public static final byte START = 'S';
+    /**
+     * 移动到指定点 M x y
+     */
+    public static final byte MOVE = 'M';
+    /**
+     * 线段 L x y
+     */
+    public static final byte LINE = 'L';
+    /**
+     * 二次贝塞尔曲线 Q x1 y1 x2 y2
+     */
+    public static final byte QUAD = 'Q';
+    /**
+     * 三次贝塞尔曲线 B x1 y1 x2 y2 x3 y3
+     */
+    public static final byte CUBIC = 'B';
+    /**
+     * 圆弧 A rx ry angle large sweep x y
+     */
+    public static final byte ARC = 'A';
+    /**
+     * 闭合 SubPath C
+     */
+    public static final byte CLOSE = 'C';
+
+    /**
+     * 操作符序列
+     */
+    private final byte[] ops;
+
+    /**
+     * 操作数序列
+     */
+    private final double[] coords;
+
+    private PathData(byte[] ops, double[] coords) {
+        this.ops = ops;
+        this.coords = coords;
+    }
+
+    /**
+     * 解析紧缩路径字符串
+     *
+     * @param dataStr 紧缩路径字符串，可以为null
+     * @return 路径数据
+     */
+    public static PathData parse(CharSequence dataStr) {
+        if (dataStr == null || dataStr.length() == 0) {
+            return new PathData(new byte[0], new double[0]);
+        }
+        // 按每个操作数至少2个字符估算容量，不足时扩容
+        byte[] ops = new byte[16];
+        double[] coords = new double[Math.max(16, dataStr.length() / 2)];
+        int opSize = 0;
+        int coordSize = 0;
+        // 当前操作符剩余可写入的操作数数量
+        int remain = 0;
+
+        final Scanner scanner = new Scanner(dataStr);
+        while (scanner.next()) {
+            byte op = scanner.op();
+            if (op != 0) {
+                // 上一个操作符操作数不足的部分补0（数组默认值即为0）
+                coordSize += remain;
+                final int n = arity(op);
+                if (opSize == ops.length) {
+                    ops = Arrays.copyOf(ops, opSize * 2);
+                }
+                if (coordSize + n > coords.length) {
+                    coords = Arrays.copyOf(coords, Math.max(coords.length * 2, coordSize + n));
+                }
+                ops[opSize++] = op;
+                remain = n;
+            } else if (remain > 0) {
+                coords[coordSize++] = scanner.value();
+                remain--;
+            }
+        }
+        coordSize += remain;
+        return new PathData(
+                opSize == ops.length ? ops : Arrays.copyOf(ops, opSize),
+                coordSize == coords.length ? coords : Arrays.copyOf(coords, coordSize));
+    }
+
+    /**
+     * 获取操作符的操作数数量
+     *
+     * @param op 操作符
+     * @return 操作数数量，未知操作符返回0
+     */
+    public static int arity(byte op) {
+        switch (op) {
+            case START:
+            case MOVE:
+            case LINE:
+                return 2;
+            case QUAD:
+                return 4;
+            case CUBIC:
+                return 6;
+            case ARC:
+                return 7;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * 获取操作符数量
+     *
+     * @return 操作符数量
+     */
+    public int size() {
+        return ops.length;
+    }
+
+    /**
+     * 获取指定位置的操作符
+     *
+     * @param index 操作符序号
+     * @return 操作符
+     */
+    public byte getOp(int index) {
+        return ops[index];
+    }
+
+    /**
+     * 获取全部操作数
+     * <p>
+     * 为了避免复制，返回内部数组，调用者不应修改。
+     *
+     * @return 操作数序列
+     */
+    public double[] getCoords() {
+        return coords;
+    }
+
+    /**
+     * 解析数字
+     *
+     * @param s     字符序列
+     * @param start 起始位置（含）
+     * @param end   结束位置（不含）
+     * @return 数字，无法解析时返回0
+     */
+    static double parseNumber(CharSequence s, int start, int end) {
+        try {
+            return STBase.parseDouble(s, start, end);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * 紧缩路径词法扫描器
+     * <p>
+     * 以空白字符（与正则 \s 一致）分隔，单个字符的 S M L Q B A C 为操作符，其余为操作数。
+     */
+    static final class Scanner {
+        private final CharSequence s;
+        private final int length;
+        private int pos = 0;
+        private int start;
+        private int end;
+
+        Scanner(CharSequence s) {
+            this.s = s;
+            this.length = s.length();
+        }
+
+        /**
+         * 移动到下一个词
+         *
+         * @return true - 存在下一个词；false - 已经结束
+         */
+        boolean next() {
+            while (pos < length && isWhitespace(s.charAt(pos))) {
+                pos++;
+            }
+            if (pos >= length) {
+                return false;
+            }
+            start = pos;
+            while (pos < length && !isWhitespace(s.charAt(pos))) {
+                pos++;
+            }
+            end = pos;
+            return true;
+        }
+
+        /**
+         * 获取当前词对应的操作符
+         *
+         * @return 操作符，当前词不是操作符时返回0
+         */
+        byte op() {
+            if (end - start != 1) {
+                return 0;
+            }
+            switch (s.charAt(start)) {
+                case 'S':
+                case 'M':
+                case 'L':
+                case 'Q':
+                case 'B':
+                case 'A':
+                case 'C':
+                    return (byte) s.charAt(start);
+                default:
+                    return 0;
+            }
+        }
+
+        /**
+         * 获取当前词的数值
+         *
+         * @return 数值，无法解析时返回0
+         */
+        double value() {
+            return parseNumber(s, start, end);
+        }
+
+        private static boolean isWhitespace(char c) {
+            return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f' || c == '\u000B';
+        }
+    }
+}
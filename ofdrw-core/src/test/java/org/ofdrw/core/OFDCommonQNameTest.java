@@ -56,4 +56,19 @@ class OFDCommonQNameTest {
             assertFalse(elements.isEmpty());
         });
     }
-}
\ No newline at end of file
+
+    /**
+     * 按名称获取元素时，OFD命名空间下的元素与命名空间缺失的元素均只出现一次
+     */
+    @Test
+    public void testGetOFDElements() {
+        String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?><ofd:Pages xmlns:ofd=\"http://www.ofdspec.org/2016\">" +
+                "<ofd:Page ID=\"1\"/><ofd:Page ID=\"2\"/><Page ID=\"3\"/></ofd:Pages>";
+        TestTool.validateWithXML(xml, root -> {
+            List<OFDElement> pages = new OFDElement(root).getOFDElements("Page", OFDElement::new);
+            assertEquals(3, pages.size());
+            assertEquals("1", pages.get(0).attributeValue("ID"));
+            assertEquals("3", pages.get(2).attributeValue("ID"));
+        });
+    }
+}
@@ -0,0 +1,70 @@
+package org.ofdrw.core;
+
+import org.dom4j.Document;
+import org.dom4j.Element;
+import org.dom4j.io.SAXReader;
+import org.dom4j.tree.DefaultElement;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author agent
+ * @since 2026-10-17 13:34:33
+ */
+class TrackedElementTest {
+
+    private static final String XML = "<ofd:Page xmlns:ofd=\"http://www.ofdspec.org/2016\"><ofd:Content><ofd:Layer ID=\"2\">" +
+            "<ofd:TextObject ID=\"4\"><ofd:TextCode X=\"0\" Y=\"3\">OFD</ofd:TextCode></ofd:TextObject>" +
+            "</ofd:Layer></ofd:Content></ofd:Page>";
+
+    private static Element parse() throws Exception {
+        SAXReader reader = SAXReader.createDefault();
+        reader.setDocumentFactory(TrackedDocumentFactory.getInstance());
+        Document doc = reader.read(new StringReader(XML));
+        return doc.getRootElement();
+    }
+
+    @Test
+    void modCountOf() throws Exception {
+        Element root = parse();
+        assertTrue(root instanceof TrackedElement);
+        int stamp = TrackedElement.modCountOf(root);
+        assertTrue(stamp >= 0);
+
+        Element textCode = root.element("Content").element("Layer").element("TextObject").element("TextCode");
+        // 读取不改变计数
+        textCode.attributeValue("X");
+        textCode.getText();
+        assertEquals(stamp, TrackedElement.modCountOf(root));
+
+        // 修改深层节点的属性
+        textCode.addAttribute("X", "1");
+        assertNotEquals(stamp, stamp = TrackedElement.modCountOf(root));
+        // 修改文本
+        textCode.setText("OFD R&W");
+        assertNotEquals(stamp, stamp = TrackedElement.modCountOf(root));
+        // 通过代理对象添加元素，再修改新添加的元素
+        OFDElement layer = new OFDElement(root.element("Content").element("Layer"));
+        OFDElement path = new OFDElement("PathObject");
+        layer.add(path);
+        assertNotEquals(stamp, stamp = TrackedElement.modCountOf(root));
+        path.addAttribute("ID", "5");
+        assertNotEquals(stamp, stamp = TrackedElement.modCountOf(root));
+        // 删除元素
+        layer.remove(path);
+        assertNotEquals(stamp, TrackedElement.modCountOf(root));
+    }
+
+    @Test
+    void foreign() throws Exception {
+        Element root = parse();
+        Element foreign = new DefaultElement("Foreign");
+        root.add(foreign);
+        // 加入无法追踪修改的元素后视为始终修改
+        assertEquals(-1, TrackedElement.modCountOf(root));
+        assertFalse(((TrackedElement) root).isTrackable());
+    }
+}
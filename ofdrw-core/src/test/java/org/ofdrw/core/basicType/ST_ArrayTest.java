@@ -44,4 +44,44 @@ class ST_ArrayTest {
         ST_Array b = new ST_Array(1, 0.2, 3);
         assertArrayEquals(b.expectArr(4), new double[]{1, 0.2, 3, 0});
     }
-}
\ No newline at end of file
+
+    @Test
+    void numbers() {
+        ST_Array a = ST_Array.getInstance(" 1  0.5\t-2 ");
+        assertEquals(3, a.size());
+        assertEquals(0.5, a.get(1));
+        // 通过字符串列表修改后数值同步更新
+        a.getArray().set(1, "3");
+        assertEquals(3.0, a.get(1));
+        a.add("7");
+        assertArrayEquals(new double[]{1, 3, -2, 7}, a.expectArr(4));
+        assertEquals("1 3 -2 7", a.toString());
+        // 通过子列表修改后数值同步更新
+        a.getArray().subList(1, 3).set(0, "4");
+        assertEquals(4.0, a.get(1));
+        a.getArray().subList(0, 4).subList(2, 4).set(1, "8");
+        assertArrayEquals(new double[]{1, 4, -2, 8}, a.expectArr(4));
+        a.getArray().subList(0, 2).replaceAll(e -> "5");
+        assertArrayEquals(new double[]{5, 5, -2, 8}, a.expectArr(4));
+
+        ST_Array delta = ST_Array.getInstance("g 3 1.5 2");
+        assertEquals("g", delta.getArray().get(0));
+        assertThrows(NumberFormatException.class, () -> delta.get(0));
+        assertEquals(1.5, delta.get(2));
+    }
+
+    @Test
+    void mtxMulPrecision() {
+        double r = Math.toRadians(30);
+        ST_Array rotate = new ST_Array(Math.cos(r), Math.sin(r), -Math.sin(r), Math.cos(r), 0, 0);
+        ST_Array m = ST_Array.unitCTM();
+        for (int i = 0; i < 12; i++) {
+            m = m.mtxMul(rotate);
+        }
+        // 旋转12次30°回到原位，中间结果不再被格式化为2位小数
+        assertEquals(1, m.get(0), 1e-9);
+        assertEquals(0, m.get(1), 1e-9);
+        // 序列化格式保持不变
+        assertEquals("0.87 0.50 -0.50 0.87 0 0", rotate.toString());
+    }
+}
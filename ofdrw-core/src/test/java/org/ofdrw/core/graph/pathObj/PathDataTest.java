@@ -0,0 +1,50 @@
+package org.ofdrw.core.graph.pathObj;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author agent
+ * @since 2026-10-17 13:21:00
+ */
+class PathDataTest {
+
+    @Test
+    void parse() {
+        PathData data = PathData.parse("M 50 50 L 250.5 -50\tB 1 2 3 4 5 6\n C");
+        assertEquals(4, data.size());
+        assertEquals(PathData.MOVE, data.getOp(0));
+        assertEquals(PathData.LINE, data.getOp(1));
+        assertEquals(PathData.CUBIC, data.getOp(2));
+        assertEquals(PathData.CLOSE, data.getOp(3));
+        assertArrayEquals(new double[]{50, 50, 250.5, -50, 1, 2, 3, 4, 5, 6}, data.getCoords());
+
+        // 操作数不足补0，多余忽略，无法解析当做0
+        data = PathData.parse("  10 M 1 L 1 2 3 Q NN 2 3 4");
+        assertEquals(3, data.size());
+        assertArrayEquals(new double[]{1, 0, 1, 2, 0, 2, 3, 4}, data.getCoords());
+
+        assertEquals(0, PathData.parse(null).size());
+        assertEquals(0, PathData.parse("   ").size());
+    }
+
+    @Test
+    void parseNumber() {
+        String[] cases = {"0", "-0", "+1", "1.", ".5", "-.25", "0.1", "123.456", "3.14159265358979",
+                "0.30000000000000004", "1e3", "-2.5E-3", "12345678901234567890", "0.000000000000000000000001"};
+        for (String s : cases) {
+            assertEquals(Double.parseDouble(s), PathData.parseNumber(s, 0, s.length()), s);
+        }
+        assertEquals(0, PathData.parseNumber("-", 0, 1));
+        assertEquals(0, PathData.parseNumber("1.2.3", 0, 5));
+
+        Random random = new Random(7);
+        for (int i = 0; i < 100000; i++) {
+            String s = String.format("%." + random.nextInt(8) + "f", (random.nextDouble() - 0.5) * 2000);
+            assertEquals(Double.parseDouble(s), PathData.parseNumber(s, 0, s.length()), s);
+        }
+    }
+}
@@ -5,6 +5,7 @@ import org.ofdrw.core.basicType.ST_Loc;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.function.Predicate;
 
 /**
  * 文件在容器中的路径
@@ -69,12 +70,29 @@ public class ContainerPath {
      * @throws IOException 文件操作异常
      */
     public static ContainerPath newDatFile(String cAbs, Path parent) throws IOException {
-        if (cAbs.charAt(0) != '/') {
-            cAbs = '/' + cAbs;
-        }
         if (Files.notExists(parent)) {
             Files.createDirectories(parent);
         }
+        final String encPath = newDatPath(cAbs, (p) -> Files.exists(parent.resolve(ST_Loc.getInstance(p).getFileName())));
+        final Path resPath = parent.resolve(ST_Loc.getInstance(encPath).getFileName());
+        // 创建文件
+        Files.createFile(resPath);
+        return new ContainerPath(encPath, resPath);
+    }
+
+    /**
+     * 生成 后缀为.dat 的容器内路径（不创建文件）
+     * <p>
+     * 命名规则与 {@link #newDatFile(String, Path)} 一致，用于直接写入压缩包的场景。
+     *
+     * @param cAbs   容器内绝对路径
+     * @param exists 判断容器内路径是否已经被占用
+     * @return 加密文件的容器内绝对路径
+     */
+    public static String newDatPath(String cAbs, Predicate<String> exists) {
+        if (cAbs.charAt(0) != '/') {
+            cAbs = '/' + cAbs;
+        }
         final ST_Loc containerLoc = ST_Loc.getInstance(cAbs);
         // 获取文件名
         String originalName = containerLoc.getFileName();
@@ -83,17 +101,14 @@ public class ContainerPath {
         if (off != -1) {
             name = originalName.substring(0, off);
         }
-        String encFileName = name.toLowerCase() + ".dat";
-        Path resPath = parent.resolve(encFileName);
+        final String parent = containerLoc.parent();
+        String encPath = parent + "/" + name.toLowerCase() + ".dat";
         int cnt = 1;
         // 输出加密文件命名规则 原文件名全小写 + .dat 后缀，如果重复，那么在文件名后面增加后缀
-        while (Files.exists(resPath)) {
-            encFileName = name.toLowerCase() + "_" + cnt + ".dat";
-            resPath = parent.resolve(encFileName);
+        while (exists.test(encPath)) {
+            encPath = parent + "/" + name.toLowerCase() + "_" + cnt + ".dat";
             cnt++;
         }
-        // 创建文件
-        Files.createFile(resPath);
-        return new ContainerPath(containerLoc.parent() + "/" + encFileName, resPath);
+        return encPath;
     }
 }
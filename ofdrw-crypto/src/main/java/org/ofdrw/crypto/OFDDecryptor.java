@@ -0,0 +1,357 @@
+package org.ofdrw.crypto;
+
+import org.apache.commons.io.FileUtils;
+import org.bouncycastle.crypto.CryptoException;
+import org.bouncycastle.crypto.engines.SM4Engine;
+import org.bouncycastle.crypto.io.CipherInputStream;
+import org.bouncycastle.crypto.modes.CBCBlockCipher;
+import org.bouncycastle.crypto.paddings.PKCS7Padding;
+import org.bouncycastle.crypto.paddings.PaddedBufferedBlockCipher;
+import org.bouncycastle.crypto.params.KeyParameter;
+import org.bouncycastle.crypto.params.ParametersWithIV;
+import org.dom4j.DocumentException;
+import org.jetbrains.annotations.NotNull;
+import org.ofdrw.core.basicType.ST_Loc;
+import org.ofdrw.core.crypto.encryt.*;
+import org.ofdrw.crypto.decryptor.UserFEKDecryptor;
+import org.ofdrw.pkg.container.OFDDir;
+import org.ofdrw.pkg.container.ZipSink;
+import org.ofdrw.pkg.container.ZipSource;
+import org.ofdrw.pkg.tool.ElemCup;
+import org.ofdrw.pkg.tool.OutputFiles;
+import org.ofdrw.reader.OFDReader;
+import org.ofdrw.reader.ZipUtil;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.util.*;
+
+/**
+ * OFD解密器
+ * <p>
+ * 通过ZIP中央目录打开加密的OFD文件，解密文件加密密钥与明密文映射表后，
+ * 包内文件在被读取时才通过SM4-CBC解密流逐块解密，不预先解密整个文档，也不写入临时文件。
+ * <p>
+ * 使用方式：
+ * <pre>{@code
+ * try (OFDReader reader = OFDDecryptor.openReader(src, new UserPasswordDecryptor("777", "12345678"))) {
+ *     Page page = reader.getPage(1);
+ * }
+ * }</pre>
+ * <p>
+ * 目前支持由 {@link OFDEncryptor} 生成的加密范围为全部（All）的加密文档，
+ * 存在多次加密时使用最后一次的加密描述信息。
+ *
+ * @author agent
+ * @since 2026-10-17 14:01:27
+ */
+public class OFDDecryptor implements Closeable {
+
+    /**
+     * 压缩包随机访问数据源
+     */
+    private final ZipSource zipSource;
+
+    /**
+     * 工作目录
+     */
+    private final Path workDir;
+
+    /**
+     * 文件解密密钥参数，解密完成前为null
+     */
+    private ParametersWithIV keyParam;
+
+    /**
+     * 解密过程中使用的包内文件（解密入口文件、密钥描述文件、明密文映射表）
+     * <p>
+     * 这些文件不属于解密后的文档
+     */
+    private final Set<String> cryptoFiles = new HashSet<>();
+
+    /**
+     * 数据源是否已经交由解析器管理
+     */
+    private boolean handedOver;
+
+    /**
+     * 是否已经关闭
+     */
+    private boolean closed;
+
+    /**
+     * 打开加密的OFD文件
+     * <p>
+     * 仅读取ZIP中央目录，不解压任何文件
+     *
+     * @param ofdFile 加密的OFD文件路径
+     * @throws IOException 文件读取异常或文件不是一个合法的ZIP文件
+     */
+    public OFDDecryptor(@NotNull Path ofdFile) throws IOException {
+        if (ofdFile == null || Files.notExists(ofdFile)) {
+            throw new IllegalArgumentException("文件位置(ofdFile)不正确");
+        }
+        this.workDir = Files.createTempDirectory("ofd-tmp-");
+        try {
+            this.zipSource = new ZipSource(ofdFile, workDir, ZipUtil.getMaxSize());
+        } catch (IOException e) {
+            FileUtils.deleteQuietly(workDir.toFile());
+            throw e;
+        }
+    }
+
+    /**
+     * 文档是否经过加密
+     *
+     * @return true - 存在解密入口文件；false - 未加密
+     */
+    public boolean isEncrypted() {
+        return zipSource.exist("/" + OFDDir.EncryptionsFileName);
+    }
+
+    /**
+     * 使用用户解密器解密文件加密密钥与明密文映射表
+     * <p>
+     * 完成后包内文件以明文路径访问，在读取时解密
+     *
+     * @param user 用户解密器
+     * @return this
+     * @throws IOException              文件读取异常
+     * @throws CryptoException          没有匹配的用户或解密异常
+     * @throws GeneralSecurityException 密钥解析异常
+     */
+    public OFDDecryptor decrypt(@NotNull UserFEKDecryptor user) throws IOException, CryptoException, GeneralSecurityException {
+        if (user == null) {
+            throw new IllegalArgumentException("用户解密器(user)为空");
+        }
+        if (keyParam != null) {
+            throw new IllegalStateException("文档已经完成解密");
+        }
+        if (!isEncrypted()) {
+            throw new CryptoException("文档未加密，缺少解密入口文件 " + OFDDir.EncryptionsFileName);
+        }
+        // a) 读取解密入口文件，获取最后一次的加密描述信息
+        final Encryptions encryptions = new Encryptions(readXML("/" + OFDDir.EncryptionsFileName));
+        final List<CT_EncryptInfo> infos = encryptions.getEncryptInfos();
+        if (infos.isEmpty()) {
+            throw new CryptoException("解密入口文件中不存在加密描述信息");
+        }
+        final CT_EncryptInfo encryptInfo = infos.get(infos.size() - 1);
+        final String seedLoc = absLoc(encryptInfo.getDecryptSeedLoc());
+        final String entriesMapLoc = absLoc(encryptInfo.getEntriesMapLoc());
+        if (seedLoc == null || entriesMapLoc == null) {
+            throw new CryptoException("加密描述信息缺少密钥描述文件或明密文映射表路径");
+        }
+        // b) 在密钥描述文件中找到用户，解密文件加密对称密钥
+        final DecyptSeed seed = new DecyptSeed(readXML(seedLoc));
+        UserInfo userInfo = null;
+        for (UserInfo item : seed.getUserInfos()) {
+            if (user.match(item)) {
+                userInfo = item;
+                break;
+            }
+        }
+        if (userInfo == null) {
+            throw new CryptoException("密钥描述文件中没有与解密器匹配的用户");
+        }
+        final byte[] fek = user.decrypt(userInfo);
+        final byte[] iv = userInfo.getIVValue();
+        final ParametersWithIV param = new ParametersWithIV(new KeyParameter(fek), iv);
+
+        // c) 解密明密文映射表
+        final EncryptEntries entries;
+        try (InputStream in = decryptStream(zipSource.open(entriesMapLoc), param)) {
+            entries = new EncryptEntries(ElemCup.inject(in));
+        } catch (DocumentException e) {
+            throw new CryptoException("明密文映射表无法解析，密钥可能不正确", e);
+        }
+        // d) 明文路径映射到密文条目，读取时解密
+        final ZipSource.EntryDecoder decoder = (pkgPath, raw) -> decryptStream(raw, param);
+        for (EncryptEntry entry : entries.getEncryptEntries()) {
+            final String path = absLoc(entry.getPathA());
+            final String ePath = absLoc(entry.getEPath());
+            if (path == null || ePath == null) {
+                continue;
+            }
+            zipSource.remap(path, ePath, decoder);
+        }
+        cryptoFiles.add("/" + OFDDir.EncryptionsFileName);
+        cryptoFiles.add(seedLoc);
+        cryptoFiles.add(entriesMapLoc);
+        this.keyParam = param;
+        return this;
+    }
+
+    /**
+     * 打开包内文件的明文流
+     * <p>
+     * 流的关闭由调用者负责
+     *
+     * @param path 包内绝对路径，如 /Doc_0/Document.xml
+     * @return 明文输入流
+     * @throws IOException 文件不存在或读取异常
+     */
+    public InputStream open(@NotNull String path) throws IOException {
+        checkDecrypted();
+        return zipSource.open(path);
+    }
+
+    /**
+     * 获取解密后文档的包内文件路径
+     *
+     * @return 包内绝对路径集合（有序）
+     */
+    public SortedSet<String> entryNames() {
+        checkDecrypted();
+        SortedSet<String> res = new TreeSet<>(zipSource.entryNames());
+        res.removeAll(cryptoFiles);
+        return res;
+    }
+
+    /**
+     * 获取解析器
+     * <p>
+     * 解析器读取文件时解密，不会预先解密整个文档。
+     * <p>
+     * 数据源交由解析器管理，关闭解析器时释放，解密器不可再使用。
+     *
+     * @return OFD解析器
+     */
+    public OFDReader getReader() {
+        checkDecrypted();
+        handedOver = true;
+        return new OFDReader(zipSource);
+    }
+
+    /**
+     * 将解密后的文档保存到文件
+     * <p>
+     * 逐个文件解密并直接写入压缩包，不解压到工作目录。
+     * 压缩包先写入目标位置同目录下的临时文件，全部解密成功后再移动到目标位置，
+     * 解密失败时不会在目标位置留下不完整的文档。
+     *
+     * @param dest 解密后的OFD文件路径
+     * @throws IOException 文件读写异常
+     */
+    public void saveTo(@NotNull Path dest) throws IOException {
+        checkDecrypted();
+        if (dest == null) {
+            throw new IllegalArgumentException("解密后文件位置(dest)为空");
+        }
+        if (dest.getParent() != null) {
+            Files.createDirectories(dest.getParent());
+        }
+        final Path tmp = OutputFiles.createTemp(dest);
+        boolean success = false;
+        try (ZipSink sink = new ZipSink(tmp)) {
+            for (String name : entryNames()) {
+                try (InputStream in = zipSource.open(name)) {
+                    sink.putStream(name, in);
+                }
+            }
+            sink.close();
+            OutputFiles.replace(tmp, dest);
+            success = true;
+        } finally {
+            if (!success) {
+                Files.deleteIfExists(tmp);
+            }
+        }
+    }
+
+    /**
+     * 打开加密的OFD文件并获取解析器
+     *
+     * @param ofdFile 加密的OFD文件路径
+     * @param user    用户解密器
+     * @return OFD解析器，文件在被读取时解密
+     * @throws IOException              文件读取异常
+     * @throws CryptoException          没有匹配的用户或解密异常
+     * @throws GeneralSecurityException 密钥解析异常
+     */
+    public static OFDReader openReader(@NotNull Path ofdFile, @NotNull UserFEKDecryptor user) throws IOException, CryptoException, GeneralSecurityException {
+        OFDDecryptor decryptor = new OFDDecryptor(ofdFile);
+        try {
+            return decryptor.decrypt(user).getReader();
+        } catch (IOException | CryptoException | GeneralSecurityException | RuntimeException e) {
+            decryptor.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 包装为解密流
+     * <p>
+     * 每个流使用独立的分块密码，可以在多个线程中同时读取不同的文件
+     *
+     * @param in    密文输入流
+     * @param param 文件加密密钥参数
+     * @return 明文输入流
+     */
+    private static InputStream decryptStream(InputStream in, ParametersWithIV param) {
+        PaddedBufferedBlockCipher blockCipher =
+                new PaddedBufferedBlockCipher(new CBCBlockCipher(new SM4Engine()), new PKCS7Padding());
+        blockCipher.init(false, param);
+        return new CipherInputStream(in, blockCipher);
+    }
+
+    /**
+     * 读取包内XML文件
+     *
+     * @param path 包内绝对路径
+     * @return 根元素
+     * @throws IOException 文件不存在或解析异常
+     */
+    private org.dom4j.Element readXML(String path) throws IOException {
+        try (InputStream in = zipSource.open(path)) {
+            return ElemCup.inject(in);
+        } catch (DocumentException e) {
+            throw new IOException("无法解析文件 " + path, e);
+        }
+    }
+
+    /**
+     * 转换为包内绝对路径
+     *
+     * @param loc 路径
+     * @return 包内绝对路径，路径为空时返还null
+     */
+    private static String absLoc(ST_Loc loc) {
+        if (loc == null || loc.getLoc() == null || loc.getLoc().isEmpty()) {
+            return null;
+        }
+        String path = loc.getLoc().replace('\\', '/');
+        return path.startsWith("/") ? path : "/" + path;
+    }
+
+    private void checkDecrypted() {
+        if (closed || handedOver) {
+            throw new IllegalStateException("解密器已经关闭");
+        }
+        if (keyParam == null) {
+            throw new IllegalStateException("请先调用 #decrypt 解密文档");
+        }
+    }
+
+    /**
+     * 关闭解密器
+     * <p>
+     * 未交由解析器管理时，关闭数据源并删除工作目录
+     *
+     * @throws IOException 工作区删除异常
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (handedOver) {
+            return;
+        }
+        zipSource.close();
+        FileUtils.deleteQuietly(workDir.toFile());
+    }
+}
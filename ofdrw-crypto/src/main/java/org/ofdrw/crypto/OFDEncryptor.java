@@ -5,11 +5,13 @@ import org.bouncycastle.crypto.CipherParameters;
 import org.bouncycastle.crypto.CryptoException;
 import org.bouncycastle.crypto.InvalidCipherTextException;
 import org.bouncycastle.crypto.engines.SM4Engine;
+import org.bouncycastle.crypto.io.CipherInputStream;
 import org.bouncycastle.crypto.modes.CBCBlockCipher;
 import org.bouncycastle.crypto.paddings.PKCS7Padding;
 import org.bouncycastle.crypto.paddings.PaddedBufferedBlockCipher;
 import org.bouncycastle.crypto.params.KeyParameter;
 import org.bouncycastle.crypto.params.ParametersWithIV;
+import org.dom4j.DocumentException;
 import org.dom4j.Element;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -19,7 +21,11 @@ import org.ofdrw.core.signatures.sig.Parameters;
 import org.ofdrw.crypto.enryptor.UserFEKEncryptor;
 import org.ofdrw.gv.GlobalVar;
 import org.ofdrw.pkg.container.OFDDir;
+import org.ofdrw.pkg.container.ZipSink;
+import org.ofdrw.pkg.container.ZipSource;
 import org.ofdrw.pkg.tool.ElemCup;
+import org.ofdrw.pkg.tool.OutputFiles;
+import org.ofdrw.pkg.tool.WorkerPool;
 import org.ofdrw.reader.ZipUtil;
 
 import java.io.*;
@@ -28,12 +34,15 @@ import java.nio.file.Path;
 import java.security.GeneralSecurityException;
 import java.security.SecureRandom;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.*;
 import java.util.stream.Collectors;
 
 /**
  * OFD加密器
+ * <p>
+ * 流式加密模式（见 {@link #OFDEncryptor(Path, Path, boolean)}）下，直接从源文件的ZIP条目读取明文，
+ * 多个线程使用各自的SM4分块密码并行加密，密文直接写入目标压缩包，明文不会写入磁盘。
  *
  * @author 权观宇
  * @since 2021-07-13 18:10:12
@@ -41,11 +50,45 @@ import java.util.stream.Collectors;
 public class OFDEncryptor implements Closeable {
 
 
+    /**
+     * 大于该大小的文件在写出线程中边读取边加密，不在内存中缓存密文
+     */
+    private static final long MAX_BUFFERED_SIZE = 8 * 1024 * 1024;
+
+    /**
+     * 流式加密读写缓冲区大小
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * 操作名称，用于异常信息
+     */
+    private static final String ACTION = "文件加密";
+
     /**
      * OFD虚拟容器根目录
+     * <p>
+     * 流式加密模式下为null
      */
     private final OFDDir ofdDir;
 
+    /**
+     * 源文件压缩包数据源
+     * <p>
+     * 仅在流式加密模式下存在
+     */
+    private ZipSource zipSource;
+
+    /**
+     * 流式加密的并行度（同时加密的文件数量）
+     */
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * 流式加密使用的线程池，为null时使用共享线程池
+     */
+    private Executor executor;
+
     /**
      * 加密后文件输出位置
      */
@@ -104,6 +147,23 @@ public class OFDEncryptor implements Closeable {
      * @throws IOException IO操作异常
      */
     public OFDEncryptor(@NotNull Path ofdFile, @NotNull Path dest) throws IOException {
+        this(ofdFile, dest, false);
+    }
+
+    /**
+     * 创建OFD加密器
+     * <p>
+     * 流式加密模式下，打开时只读取ZIP中央目录，加密时从源文件的条目中读取明文，
+     * 并行加密后直接写入目标压缩包，不会在磁盘上解压任何明文文件。
+     * <p>
+     * 流式加密模式下 {@link ContainerFileFilter} 得到的文件绝对路径仅用于标识，文件并不存在。
+     *
+     * @param ofdFile   待加密的OFD文件路径
+     * @param dest      加密后的OFD路径
+     * @param streaming 是否使用流式加密，true - 流式加密；false - 解压到工作目录后加密
+     * @throws IOException IO操作异常
+     */
+    public OFDEncryptor(@NotNull Path ofdFile, @NotNull Path dest, boolean streaming) throws IOException {
         if (ofdFile == null || Files.notExists(ofdFile)) {
             throw new IllegalArgumentException("文件位置(ofdFile)不正确");
         }
@@ -112,14 +172,52 @@ public class OFDEncryptor implements Closeable {
         }
         this.dest = dest;
         this.workDir = Files.createTempDirectory("ofd-tmp-");
-        // 解压文档，到临时的工作目录
-        ZipUtil.unZipFiles(ofdFile.toFile(), this.workDir.toAbsolutePath() + File.separator);
+        if (streaming) {
+            try {
+                // 读取ZIP中央目录，工作目录中仅创建目录结构
+                this.zipSource = new ZipSource(ofdFile, workDir, ZipUtil.getMaxSize());
+            } catch (IOException e) {
+                FileUtils.deleteQuietly(workDir.toFile());
+                throw e;
+            }
+            this.ofdDir = null;
+        } else {
+            // 解压文档，到临时的工作目录
+            ZipUtil.unZipFiles(ofdFile.toFile(), this.workDir.toAbsolutePath() + File.separator);
+            this.ofdDir = new OFDDir(workDir.toAbsolutePath());
+        }
         this.userEncryptorList = new ArrayList<>(3);
-        this.ofdDir = new OFDDir(workDir.toAbsolutePath());
         this.random = new SecureRandom();
         this.blockCipher = new PaddedBufferedBlockCipher(new CBCBlockCipher(new SM4Engine()), new PKCS7Padding());
     }
 
+    /**
+     * 设置流式加密的并行度（同时加密的文件数量）
+     * <p>
+     * 默认值：可用处理器数量
+     *
+     * @param parallelism 并行度，小于等于1时在调用线程中加密
+     * @return this
+     */
+    public OFDEncryptor setParallelism(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+        return this;
+    }
+
+    /**
+     * 设置流式加密使用的线程池
+     * <p>
+     * 默认使用共享的有界线程池（{@link WorkerPool}，线程数量不超过可用处理器数量），
+     * 加密器不会关闭传入的线程池。
+     *
+     * @param executor 线程池，为null时使用共享线程池
+     * @return this
+     */
+    public OFDEncryptor setExecutor(Executor executor) {
+        this.executor = executor;
+        return this;
+    }
+
     /**
      * 添加加密用户
      *
@@ -178,9 +276,13 @@ public class OFDEncryptor implements Closeable {
         if (this.userEncryptorList.isEmpty()) {
             throw new IllegalArgumentException("没有可用加密用户(UserFEKEncryptor)");
         }
-        if (!Files.exists(this.dest)) {
+        if (!Files.exists(this.dest) && this.dest.getParent() != null) {
             Files.createDirectories(this.dest.getParent());
         }
+        if (this.zipSource != null) {
+            encryptToZip();
+            return this;
+        }
         // 获取 解密入口文件对象。
         final Encryptions encryptions = this.ofdDir.obtainEncryptions();
         // 获取新的加密标识符：内最大 加密标识符 + 1
@@ -217,6 +319,251 @@ public class OFDEncryptor implements Closeable {
                 .setID(id)
                 .setExtendParams(new ExtendParams());
         // f) 根据加密方案，对文件加密对称密钥进行密钥包装或非对称加密生成文件对称加密的包装密钥；
+        addUserInfos(decyptSeedObj, fek, iv);
+        // h) 组装密钥描述文件，并写入ZIP包。
+        ElemCup.dump(decyptSeedObj, decryptseedCp.getAbs());
+
+        // 执行打包程序
+        this.ofdDir.jar(dest);
+        return this;
+    }
+
+    /**
+     * 流式加密
+     * <p>
+     * 按照包内路径顺序处理每个文件：待加密的文件提交到加密线程，
+     * 每个线程使用独立的分块密码与缓冲区加密，密文按照提交顺序以不压缩的方式写入目标压缩包；
+     * 同时处理中的文件数量有限，内存占用不随文件数量增长。
+     *
+     * @throws IOException              IO操作异常
+     * @throws CryptoException          加密异常
+     * @throws GeneralSecurityException 证书解析异常
+     */
+    private void encryptToZip() throws IOException, CryptoException, GeneralSecurityException {
+        final String encryptionsPath = "/" + OFDDir.EncryptionsFileName;
+        // 获取 解密入口文件对象，源文件中已经存在时追加
+        Encryptions encryptions = new Encryptions();
+        if (zipSource.exist(encryptionsPath)) {
+            try (InputStream in = zipSource.open(encryptionsPath)) {
+                encryptions = new Encryptions(ElemCup.inject(in));
+            } catch (DocumentException e) {
+                throw new IOException("无法解析解密入口文件", e);
+            }
+        }
+        final String id = Integer.toString(encryptions.maxID() + 1);
+
+        // a) 生成用于ZIP包内文件加密的对称密钥
+        int blockSize = blockCipher.getBlockSize();
+        byte[] fek = new byte[blockSize];
+        byte[] iv = new byte[blockSize];
+        random.nextBytes(fek);
+        random.nextBytes(iv);
+        final ParametersWithIV keyParam = new ParametersWithIV(new KeyParameter(fek), iv);
+
+        // 包内文件（有序），已占用的路径用于生成不重复的密文文件名
+        final TreeSet<String> names = new TreeSet<>(zipSource.entryNames());
+        names.remove(encryptionsPath);
+        final Set<String> occupied = new HashSet<>(zipSource.entryNames());
+
+        final EncryptEntries encryptEntries = new EncryptEntries();
+        encryptEntries.setID(id);
+        // 分块密码与缓冲区在任务之间复用，数量不超过同时执行的任务数量
+        final ConcurrentLinkedQueue<PaddedBufferedBlockCipher> ciphers = new ConcurrentLinkedQueue<>();
+        final ConcurrentLinkedQueue<byte[]> buffers = new ConcurrentLinkedQueue<>();
+        final Executor pool = WorkerPool.pool(executor, parallelism);
+        // 先写入目标位置同目录下的临时文件：加密失败时不留下不完整的文件，目标与源文件相同时也不会在读取过程中破坏源文件
+        final Path tmp = OutputFiles.createTemp(dest);
+        boolean success = false;
+        // 处理中的文件，按照提交顺序写出
+        try (WorkerPool.OrderedWindow<Entry> window = new WorkerPool.OrderedWindow<>(pool, parallelism * 2);
+             ZipSink sink = new ZipSink(tmp)) {
+            for (String path : names) {
+                final Path abs = workDir.resolve(path.substring(1));
+                final boolean toBeEnc = cfFilter == null || cfFilter.filter(path, abs);
+                Callable<Entry> task;
+                if (!toBeEnc) {
+                    // 不需要加密的文件原样写出
+                    task = () -> new Entry(path, null, null, 0, false);
+                } else {
+                    final String ePath = ContainerPath.newDatPath(path, occupied::contains);
+                    occupied.add(ePath);
+                    // b) 使用步骤 a)生成的文件加密对称密钥加密包内文件并写入ZIP包内；
+                    encryptEntries.addEncryptEntry(path, ePath);
+                    final long size = zipSource.size(path);
+                    if (size < 0 || size > MAX_BUFFERED_SIZE) {
+                        // 大文件在写出时边读取边加密
+                        task = () -> new Entry(path, ePath, null, 0, true);
+                    } else {
+                        task = () -> {
+                            PaddedBufferedBlockCipher cipher = ciphers.poll();
+                            byte[] buf = buffers.poll();
+                            if (cipher == null) {
+                                cipher = new PaddedBufferedBlockCipher(new CBCBlockCipher(new SM4Engine()), new PKCS7Padding());
+                            }
+                            if (buf == null) {
+                                buf = new byte[BUFFER_SIZE];
+                            }
+                            try {
+                                byte[] bin = encryptEntry(cipher, keyParam, path, (int) size, buf);
+                                return new Entry(path, ePath, bin, bin.length, false);
+                            } finally {
+                                ciphers.add(cipher);
+                                buffers.add(buf);
+                            }
+                        };
+                    }
+                }
+                window.submit(task);
+                while (window.isFull()) {
+                    write(sink, window.next(ACTION, CryptoException.class), keyParam);
+                }
+            }
+            while (!window.isEmpty()) {
+                write(sink, window.next(ACTION, CryptoException.class), keyParam);
+            }
+
+            // d) 组装明密文映射表文件，加密后写入ZIP包。
+            final String entriesMapPath = ContainerPath.newDatPath("/entriesmap.dat", occupied::contains);
+            occupied.add(entriesMapPath);
+            final byte[] mapBin = ElemCup.dump(encryptEntries);
+            final PaddedBufferedBlockCipher cipher = new PaddedBufferedBlockCipher(new CBCBlockCipher(new SM4Engine()), new PKCS7Padding());
+            cipher.init(true, keyParam);
+            byte[] mapEnc = new byte[cipher.getOutputSize(mapBin.length)];
+            int n = cipher.processBytes(mapBin, 0, mapBin.length, mapEnc, 0);
+            n += cipher.doFinal(mapEnc, n);
+            sink.putStored(entriesMapPath, mapEnc, 0, n);
+
+            // e) 组装加密入口文件
+            CT_EncryptInfo encryptInfo = newEncryptInfo(id);
+            encryptions.addEncryptInfo(encryptInfo);
+            encryptInfo.setEncryptScope("All");
+            final String decryptSeedPath = ContainerPath.newDatPath("/decryptseed", occupied::contains);
+            occupied.add(decryptSeedPath);
+            encryptInfo.setDecryptSeedLoc(decryptSeedPath);
+            encryptInfo.setEntriesMapLoc(entriesMapPath);
+            DecyptSeed decyptSeedObj = new DecyptSeed()
+                    .setID(id)
+                    .setExtendParams(new ExtendParams());
+            // f) 加密 文件加密对称密钥
+            addUserInfos(decyptSeedObj, fek, iv);
+            // h) 组装密钥描述文件，并写入ZIP包。
+            sink.putStream(decryptSeedPath, new ByteArrayInputStream(ElemCup.dump(decyptSeedObj)));
+            sink.putObj(encryptionsPath, encryptions);
+            sink.close();
+            OutputFiles.replace(tmp, dest);
+            success = true;
+        } finally {
+            if (!success) {
+                Files.deleteIfExists(tmp);
+            }
+        }
+    }
+
+    /**
+     * 写出处理完成的文件
+     *
+     * @param sink     目标压缩包
+     * @param entry    文件处理结果
+     * @param keyParam 加密密钥
+     * @throws IOException     IO异常
+     * @throws CryptoException 加密异常
+     */
+    private void write(ZipSink sink, Entry entry, CipherParameters keyParam) throws IOException, CryptoException {
+        if (entry.ePath == null) {
+            try (InputStream in = zipSource.open(entry.path)) {
+                sink.putStream(entry.path, in);
+            }
+        } else if (entry.stream) {
+            PaddedBufferedBlockCipher cipher = new PaddedBufferedBlockCipher(new CBCBlockCipher(new SM4Engine()), new PKCS7Padding());
+            cipher.init(true, keyParam);
+            try (InputStream in = new CipherInputStream(zipSource.open(entry.path), cipher)) {
+                sink.putStream(entry.ePath, in);
+            }
+        } else {
+            sink.putStored(entry.ePath, entry.data, 0, entry.len);
+        }
+    }
+
+    /**
+     * 读取并加密包内文件
+     *
+     * @param cipher   分块密码（线程独占）
+     * @param keyParam 加密密钥
+     * @param path     包内绝对路径
+     * @param size     文件大小
+     * @param buffIn   读取缓冲区
+     * @return 密文
+     * @throws IOException                IO异常
+     * @throws InvalidCipherTextException 加密运算异常
+     */
+    private byte[] encryptEntry(PaddedBufferedBlockCipher cipher, CipherParameters keyParam,
+                                String path, int size, byte[] buffIn) throws IOException, InvalidCipherTextException {
+        cipher.init(true, keyParam);
+        byte[] out = new byte[cipher.getOutputSize(size)];
+        int n = 0;
+        int len;
+        try (InputStream in = zipSource.open(path)) {
+            while ((len = in.read(buffIn)) != -1) {
+                int need = n + cipher.getUpdateOutputSize(len);
+                if (need > out.length) {
+                    out = Arrays.copyOf(out, Math.max(need, out.length * 2));
+                }
+                n += cipher.processBytes(buffIn, 0, len, out, n);
+            }
+        }
+        int need = n + cipher.getOutputSize(0);
+        if (need > out.length) {
+            out = Arrays.copyOf(out, need);
+        }
+        n += cipher.doFinal(out, n);
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+
+    /**
+     * 流式加密中的文件处理结果
+     */
+    private static final class Entry {
+        /**
+         * 明文包内路径
+         */
+        final String path;
+        /**
+         * 密文包内路径，不需要加密时为null
+         */
+        final String ePath;
+        /**
+         * 密文
+         */
+        final byte[] data;
+        /**
+         * 密文长度
+         */
+        final int len;
+        /**
+         * 是否在写出时边读取边加密
+         */
+        final boolean stream;
+
+        Entry(String path, String ePath, byte[] data, int len, boolean stream) {
+            this.path = path;
+            this.ePath = ePath;
+            this.data = data;
+            this.len = len;
+            this.stream = stream;
+        }
+    }
+
+    /**
+     * 使用每个加密用户加密 文件加密对称密钥，添加到密钥描述文件
+     *
+     * @param decyptSeedObj 密钥描述文件
+     * @param fek           文件加密对称密钥
+     * @param iv            加密向量
+     * @throws CryptoException          加密异常
+     * @throws IOException              IO异常
+     * @throws GeneralSecurityException 证书解析异常
+     */
+    private void addUserInfos(DecyptSeed decyptSeedObj, byte[] fek, byte[] iv) throws CryptoException, IOException, GeneralSecurityException {
         String encryptCaseId = null;
         for (UserFEKEncryptor fekEncryptor : userEncryptorList) {
             if (encryptCaseId == null) {
@@ -237,12 +584,6 @@ public class OFDEncryptor implements Closeable {
             decyptSeedObj.addUserInfo(userInfo);
             // g) 如果电子文件访问者为多人，则重复 7.3.4 的步骤 e)；
         }
-        // h) 组装密钥描述文件，并写入ZIP包。
-        ElemCup.dump(decyptSeedObj, decryptseedCp.getAbs());
-
-        // 执行打包程序
-        this.ofdDir.jar(dest);
-        return this;
     }
 
     /**
@@ -432,6 +773,9 @@ public class OFDEncryptor implements Closeable {
             return;
         }
         closed = true;
+        if (zipSource != null) {
+            zipSource.close();
+        }
         if (workDir != null && Files.exists(workDir)) {
             try {
                 FileUtils.deleteDirectory(workDir.toFile());
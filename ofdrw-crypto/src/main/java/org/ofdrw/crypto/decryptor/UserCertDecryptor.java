@@ -0,0 +1,113 @@
+package org.ofdrw.crypto.decryptor;
+
+import org.bouncycastle.crypto.CryptoException;
+import org.bouncycastle.crypto.engines.SM2Engine;
+import org.bouncycastle.crypto.params.ECPrivateKeyParameters;
+import org.bouncycastle.jcajce.provider.asymmetric.util.ECUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.ofdrw.core.crypto.encryt.UserInfo;
+import org.ofdrw.gm.sm2strut.SM2Cipher;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.security.PrivateKey;
+import java.security.cert.Certificate;
+import java.util.Arrays;
+
+/**
+ * OFD用户证书解密器
+ * <p>
+ * 与 {@link org.ofdrw.crypto.enryptor.UserCertEncryptor} 相对，
+ * 使用证书对应的SM2私钥解密文件加密密钥。
+ *
+ * @author agent
+ * @since 2026-10-17 14:01:27
+ */
+public class UserCertDecryptor implements UserFEKDecryptor {
+    /**
+     * 用户名称
+     */
+    private final String username;
+
+    /**
+     * 用户私钥
+     */
+    private final PrivateKey privateKey;
+
+    /**
+     * 用户证书DER编码，为null时不比较证书
+     */
+    private final byte[] certBin;
+
+    /**
+     * OFD用户证书解密器
+     *
+     * @param username    用户名称
+     * @param certificate 用户数字证书，用于匹配用户信息，可以为null
+     * @param privateKey  证书对应的私钥
+     * @throws GeneralSecurityException 证书编码异常
+     */
+    public UserCertDecryptor(@NotNull String username, @Nullable Certificate certificate, @NotNull PrivateKey privateKey) throws GeneralSecurityException {
+        if (username == null || username.isEmpty()) {
+            throw new IllegalArgumentException("用户名称(username)为空");
+        }
+        if (privateKey == null) {
+            throw new IllegalArgumentException("用户私钥(privateKey)为空");
+        }
+        this.username = username;
+        this.privateKey = privateKey;
+        this.certBin = certificate == null ? null : certificate.getEncoded();
+    }
+
+    /**
+     * OFD用户证书解密器
+     *
+     * @param username   用户名称
+     * @param privateKey 证书对应的私钥
+     * @throws GeneralSecurityException 证书编码异常
+     */
+    public UserCertDecryptor(@NotNull String username, @NotNull PrivateKey privateKey) throws GeneralSecurityException {
+        this(username, null, privateKey);
+    }
+
+    /**
+     * 用户名称一致并且是证书加密的用户，提供证书时要求证书一致
+     *
+     * @param userInfo 用户信息
+     * @return true - 可以解密；false - 不可解密
+     */
+    @Override
+    public boolean match(@NotNull UserInfo userInfo) {
+        if (!username.equals(userInfo.getUserName())) {
+            return false;
+        }
+        final byte[] userCert = userInfo.getUserCert();
+        if (userCert == null) {
+            return false;
+        }
+        return certBin == null || Arrays.equals(certBin, userCert);
+    }
+
+    /**
+     * 解密 文件加密密钥
+     *
+     * @param userInfo 用户信息（包含加密的文件加密密钥）
+     * @return 文件加密密钥
+     * @throws CryptoException          解密过程运行异常，如 私钥不匹配
+     * @throws IOException              密文结构解析异常
+     * @throws GeneralSecurityException 私钥解析异常
+     */
+    @Override
+    public byte[] decrypt(@NotNull UserInfo userInfo) throws CryptoException, IOException, GeneralSecurityException {
+        final byte[] wk = userInfo.getEncryptedWK();
+        if (wk == null) {
+            throw new CryptoException("用户信息中缺少加密的文件加密密钥");
+        }
+        final ECPrivateKeyParameters keyParameters = (ECPrivateKeyParameters) ECUtil.generatePrivateKeyParameter(privateKey);
+        final SM2Engine engine = new SM2Engine(SM2Engine.Mode.C1C3C2);
+        engine.init(false, keyParameters);
+        final byte[] c1c3c2 = SM2Cipher.getInstance(wk).convertC1C3C2();
+        return engine.processBlock(c1c3c2, 0, c1c3c2.length);
+    }
+}
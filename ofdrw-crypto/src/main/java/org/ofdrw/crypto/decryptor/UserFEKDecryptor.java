@@ -0,0 +1,39 @@
+package org.ofdrw.crypto.decryptor;
+
+import org.bouncycastle.crypto.CryptoException;
+import org.jetbrains.annotations.NotNull;
+import org.ofdrw.core.crypto.encryt.UserInfo;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+
+/**
+ * 用户 文件加密密钥 解密器 User File Encrypt Key Decryptor
+ * <p>
+ * 与 {@link org.ofdrw.crypto.enryptor.UserFEKEncryptor} 相对，
+ * 用于从 {@link UserInfo} 中解密得到文件加密对称密钥。
+ *
+ * @author agent
+ * @since 2026-10-17 14:01:27
+ */
+public interface UserFEKDecryptor {
+
+    /**
+     * 判断用户信息是否属于该解密器
+     *
+     * @param userInfo 用户信息
+     * @return true - 可以解密；false - 不可解密
+     */
+    boolean match(@NotNull UserInfo userInfo);
+
+    /**
+     * 解密 文件加密密钥
+     *
+     * @param userInfo 用户信息（包含加密的文件加密密钥）
+     * @return 文件加密密钥（File Encrypt Key）
+     * @throws CryptoException          解密过程运行异常，如 口令错误
+     * @throws IOException              IO操作异常
+     * @throws GeneralSecurityException 密钥解析异常
+     */
+    byte[] decrypt(@NotNull UserInfo userInfo) throws CryptoException, IOException, GeneralSecurityException;
+}
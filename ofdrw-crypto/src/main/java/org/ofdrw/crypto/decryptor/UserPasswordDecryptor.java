@@ -0,0 +1,93 @@
+package org.ofdrw.crypto.decryptor;
+
+import org.bouncycastle.crypto.CryptoException;
+import org.bouncycastle.crypto.engines.SM4Engine;
+import org.bouncycastle.crypto.modes.CBCBlockCipher;
+import org.bouncycastle.crypto.paddings.PKCS7Padding;
+import org.bouncycastle.crypto.paddings.PaddedBufferedBlockCipher;
+import org.bouncycastle.crypto.params.KeyParameter;
+import org.bouncycastle.crypto.params.ParametersWithIV;
+import org.bouncycastle.jcajce.provider.digest.SM3;
+import org.jetbrains.annotations.NotNull;
+import org.ofdrw.core.crypto.encryt.UserInfo;
+import org.ofdrw.gm.support.KDF;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * OFD用户口令解密器
+ * <p>
+ * 与 {@link org.ofdrw.crypto.enryptor.UserPasswordEncryptor} 相对，
+ * 使用相同的密钥派生规则（GB/T 32918.3-2016 5.4.3 密钥派生函数）由口令得到密钥，解密文件加密密钥。
+ *
+ * @author agent
+ * @since 2026-10-17 14:01:27
+ */
+public class UserPasswordDecryptor implements UserFEKDecryptor {
+    /**
+     * 用户名称
+     */
+    private final String username;
+
+    /**
+     * 由密钥派生函数 KDF派生的加密密钥
+     */
+    private final byte[] fKek;
+
+    /**
+     * OFD用户口令解密器
+     *
+     * @param username 用户名称
+     * @param password 加密口令
+     */
+    public UserPasswordDecryptor(@NotNull String username, @NotNull String password) {
+        if (username == null || username.isEmpty()) {
+            throw new IllegalArgumentException("用户名称(username)为空");
+        }
+        if (password == null || password.isEmpty()) {
+            throw new IllegalArgumentException("加密口令(password)为空");
+        }
+        this.username = username;
+        this.fKek = KDF.extend(new SM3.Digest(), password.getBytes(StandardCharsets.UTF_8), 16);
+    }
+
+    /**
+     * 用户名称一致，并且不是证书加密的用户
+     *
+     * @param userInfo 用户信息
+     * @return true - 可以解密；false - 不可解密
+     */
+    @Override
+    public boolean match(@NotNull UserInfo userInfo) {
+        return username.equals(userInfo.getUserName()) && userInfo.getUserCert() == null;
+    }
+
+    /**
+     * 解密 文件加密密钥
+     *
+     * @param userInfo 用户信息（包含加密的文件加密密钥）
+     * @return 文件加密密钥
+     * @throws CryptoException 口令错误或数据损坏
+     */
+    @Override
+    public byte[] decrypt(@NotNull UserInfo userInfo) throws CryptoException {
+        final byte[] wk = userInfo.getEncryptedWK();
+        final byte[] iv = userInfo.getIVValue();
+        if (wk == null || iv == null) {
+            throw new CryptoException("用户信息中缺少加密的文件加密密钥或IV");
+        }
+        final PaddedBufferedBlockCipher blockCipher =
+                new PaddedBufferedBlockCipher(new CBCBlockCipher(new SM4Engine()), new PKCS7Padding());
+        blockCipher.init(false, new ParametersWithIV(new KeyParameter(fKek), iv));
+        byte[] buffOut = new byte[blockCipher.getOutputSize(wk.length)];
+        int n = blockCipher.processBytes(wk, 0, wk.length, buffOut, 0);
+        try {
+            n += blockCipher.doFinal(buffOut, n);
+        } catch (CryptoException e) {
+            throw new CryptoException("口令错误，无法解密文件加密密钥", e);
+        }
+        byte[] fek = new byte[n];
+        System.arraycopy(buffOut, 0, fek, 0, n);
+        return fek;
+    }
+}
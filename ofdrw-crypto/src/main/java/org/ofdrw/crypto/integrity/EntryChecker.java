@@ -0,0 +1,111 @@
+package org.ofdrw.crypto.integrity;
+
+import org.ofdrw.pkg.container.ZipSource;
+import org.ofdrw.pkg.tool.WorkerPool;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.zip.CRC32;
+
+/**
+ * 包内文件校验工具
+ * <p>
+ * 直接读取ZIP条目计算CRC32并与中央目录中的记录比较，用于在不解压文档的情况下发现意外损坏或被截断的文件。
+ * <p>
+ * CRC32不是密码学杂凑，修改内容的同时更新中央目录记录即可通过校验，
+ * 因此不能用于发现被有意替换内容的文件，防篡改依赖完整性保护文件的数字签名。
+ * <p>
+ * 多个文件由线程池并行校验，每个任务使用独立的缓冲区，缓冲区在一次校验的任务之间复用，校验结束后释放。
+ * 未指定线程池时使用共享的有界线程池（{@link WorkerPool}）。
+ *
+ * @author agent
+ * @since 2026-10-17 14:13:23
+ */
+final class EntryChecker {
+
+    /**
+     * 读取缓冲区大小
+     */
+    static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * 操作名称，用于异常信息
+     */
+    static final String ACTION = "文件校验";
+
+    private EntryChecker() {
+    }
+
+    /**
+     * 并行校验包内文件
+     *
+     * @param zipSource   压缩包数据源
+     * @param names       待校验的包内绝对路径
+     * @param executor    线程池，为null时使用共享线程池
+     * @param parallelism 并行数量
+     * @return 第一个校验失败的文件路径，全部通过时返还null
+     * @throws IOException 文件读取异常
+     */
+    static String check(ZipSource zipSource, Collection<String> names, Executor executor, int parallelism) throws IOException {
+        final Executor pool = WorkerPool.pool(executor, Math.min(parallelism, names.size()));
+        // 缓冲区在任务之间复用，数量不超过同时执行的任务数量
+        final ConcurrentLinkedQueue<byte[]> buffers = new ConcurrentLinkedQueue<>();
+        try (WorkerPool.OrderedWindow<String> window = new WorkerPool.OrderedWindow<>(pool, parallelism * 2)) {
+            for (String name : names) {
+                window.submit(() -> {
+                    long crc;
+                    try (InputStream in = zipSource.open(name)) {
+                        crc = crc(in, null, buffers);
+                    }
+                    return crc == zipSource.crc(name) ? null : name;
+                });
+                while (window.isFull()) {
+                    String invalid = window.next(ACTION);
+                    if (invalid != null) {
+                        return invalid;
+                    }
+                }
+            }
+            while (!window.isEmpty()) {
+                String invalid = window.next(ACTION);
+                if (invalid != null) {
+                    return invalid;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 读取流至末尾并计算CRC32
+     *
+     * @param in      输入流，流的关闭由调用者负责
+     * @param out     同时写入的输出流，可以为null
+     * @param buffers 可复用的缓冲区，读取期间取出一个缓冲区，读取结束后放回
+     * @return CRC32校验值
+     * @throws IOException 读写异常
+     */
+    static long crc(InputStream in, OutputStream out, ConcurrentLinkedQueue<byte[]> buffers) throws IOException {
+        byte[] buf = buffers.poll();
+        if (buf == null) {
+            buf = new byte[BUFFER_SIZE];
+        }
+        try {
+            final CRC32 crc = new CRC32();
+            int len;
+            while ((len = in.read(buf)) != -1) {
+                crc.update(buf, 0, len);
+                if (out != null) {
+                    out.write(buf, 0, len);
+                }
+            }
+            return crc.getValue();
+        } finally {
+            buffers.add(buf);
+        }
+    }
+}
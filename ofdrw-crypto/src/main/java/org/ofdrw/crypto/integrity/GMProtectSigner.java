@@ -66,9 +66,21 @@ public class GMProtectSigner implements ProtectSigner {
      */
     @Override
     public byte[] digestThenSign(Path tbs) throws GeneralSecurityException, IOException {
+        return digestThenSign(Files.readAllBytes(tbs));
+    }
+
+    /**
+     * 根据 GM/T 0099  OFD完整性保护协议 执行完整性保护 7.4.3 中的 c) d) 步骤
+     *
+     * @param raw 待签名文件内容
+     * @return 签名值应符合“GB/T 35275”标准
+     * @throws GeneralSecurityException 安全计算异常
+     * @throws IOException              签名值编码异常
+     */
+    @Override
+    public byte[] digestThenSign(byte[] raw) throws GeneralSecurityException, IOException {
         // 杂凑算法采用SM3时，遵循《GB/32905》
         MessageDigest md = new SM3.Digest();
-        final byte[] raw = Files.readAllBytes(tbs);
         md.update(raw);
         // 计算完整性保护文件的杂凑值,作为待签名原文。
         final byte[] plaintext = md.digest();
@@ -38,7 +38,20 @@ public class GMProtectVerifier implements ProtectVerifier {
      */
     @Override
     public boolean digestThenVerify(Path ofdEntriesXmlPath, byte[] signedValue) throws GeneralSecurityException, IOException {
-        final byte[] tbs = Files.readAllBytes(ofdEntriesXmlPath);
+        return digestThenVerify(Files.readAllBytes(ofdEntriesXmlPath), signedValue);
+    }
+
+    /**
+     * 根据 GM/T 0099  OFD完整性保护协议 执行完整性保护 7.4.6 b) c) 步骤
+     *
+     * @param tbs         防夹带文件内容
+     * @param signedValue 待验证的签名值
+     * @return 签名值验证结果
+     * @throws GeneralSecurityException 安全计算异常
+     * @throws IOException              签名值解析异常
+     */
+    @Override
+    public boolean digestThenVerify(byte[] tbs, byte[] signedValue) throws GeneralSecurityException, IOException {
         // 验证签名
         final VerifyInfo verifyInfo = GBT35275Validate.validate("SM3withSm2", tbs, signedValue);
         return verifyInfo.result;
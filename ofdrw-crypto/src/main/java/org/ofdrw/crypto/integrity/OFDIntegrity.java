@@ -8,12 +8,14 @@ import org.ofdrw.core.integrity.FileList;
 import org.ofdrw.core.integrity.OFDEntries;
 import org.ofdrw.gv.GlobalVar;
 import org.ofdrw.pkg.container.OFDDir;
+import org.ofdrw.pkg.container.ZipSink;
+import org.ofdrw.pkg.container.ZipSource;
 import org.ofdrw.pkg.tool.ElemCup;
+import org.ofdrw.pkg.tool.OutputFiles;
+import org.ofdrw.pkg.tool.WorkerPool;
 import org.ofdrw.reader.ZipUtil;
 
-import java.io.Closeable;
-import java.io.File;
-import java.io.IOException;
+import java.io.*;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -21,20 +23,60 @@ import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.security.GeneralSecurityException;
 import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.ZipException;
 
 /**
  * OFD完整性保护协议实现
+ * <p>
+ * 流式模式（见 {@link #OFDIntegrity(Path, Path, boolean)}）下，由源文件ZIP中央目录得到包内文件列表，
+ * 包内文件由多个线程并行读取并校验CRC32后按顺序直接写入目标压缩包，不解压到磁盘。
  *
  * @author 权观宇
  * @since 2021-08-17 19:41:53
  */
 public class OFDIntegrity implements Closeable {
+
+    /**
+     * 大于该大小的文件在写出线程中边读取边校验，不在内存中缓存
+     */
+    private static final long MAX_BUFFERED_SIZE = 8 * 1024 * 1024;
+
+    /**
+     * 签名值文件包内路径
+     */
+    private static final String SignedValueLoc = "/signedvalue.dat";
+
     /**
      * OFD虚拟容器根目录
+     * <p>
+     * 流式模式下为null
      */
     private OFDDir ofdDir;
 
+    /**
+     * 源文件压缩包数据源
+     * <p>
+     * 仅在流式模式下存在
+     */
+    private ZipSource zipSource;
+
+    /**
+     * 流式模式下读取校验包内文件的并行数量
+     */
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * 流式模式下读取校验包内文件的线程池，为null时使用共享线程池
+     */
+    private Executor executor;
+
     /**
      * 加密后文件输出位置
      */
@@ -52,6 +94,18 @@ public class OFDIntegrity implements Closeable {
     private AtomicInteger idProvider;
 
     public OFDIntegrity(@NotNull Path ofdFile, @NotNull Path dest) throws IOException {
+        this(ofdFile, dest, false);
+    }
+
+    /**
+     * 创建完整性保护对象
+     *
+     * @param ofdFile   待保护的OFD文件
+     * @param dest      完整性保护文件输出位置
+     * @param streaming true - 流式模式，直接读取源文件ZIP条目并写入目标压缩包，不解压；false - 解压到工作目录后保护
+     * @throws IOException 文件读取异常
+     */
+    public OFDIntegrity(@NotNull Path ofdFile, @NotNull Path dest, boolean streaming) throws IOException {
         if (ofdFile == null || Files.notExists(ofdFile)) {
             throw new IllegalArgumentException("待保护文件位置(ofdFile)不正确");
         }
@@ -61,11 +115,46 @@ public class OFDIntegrity implements Closeable {
         idProvider = new AtomicInteger(0);
         this.dest = dest;
         this.workDir = Files.createTempDirectory("ofd-tmp-");
+        if (streaming) {
+            try {
+                this.zipSource = new ZipSource(ofdFile, workDir, ZipUtil.getMaxSize());
+            } catch (IOException e) {
+                FileUtils.deleteQuietly(workDir.toFile());
+                throw e;
+            }
+            return;
+        }
         // 解压文档，到临时的工作目录
         ZipUtil.unZipFiles(ofdFile.toFile(), this.workDir.toAbsolutePath() + File.separator);
         this.ofdDir = new OFDDir(workDir.toAbsolutePath());
     }
 
+    /**
+     * 设置流式模式下读取校验包内文件的并行数量
+     * <p>
+     * 默认为CPU核心数
+     *
+     * @param parallelism 并行数量，小于等于1时在当前线程中处理
+     * @return this
+     */
+    public OFDIntegrity setParallelism(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+        return this;
+    }
+
+    /**
+     * 设置流式模式下读取校验包内文件的线程池
+     * <p>
+     * 默认使用共享的有界线程池（{@link WorkerPool}，线程数量不超过CPU核心数），不会关闭传入的线程池。
+     *
+     * @param executor 线程池，为null时使用共享线程池
+     * @return this
+     */
+    public OFDIntegrity setExecutor(Executor executor) {
+        this.executor = executor;
+        return this;
+    }
+
     /**
      * 对文件实行完整性保护
      * <p>
@@ -86,8 +175,12 @@ public class OFDIntegrity implements Closeable {
                 .setVersion(GlobalVar.Version)
                 .setCreationDate(LocalDateTime.now());
 
-        ofdEntries.setSignedValueLoc(ST_Loc.getInstance("/signedvalue.dat"))
+        ofdEntries.setSignedValueLoc(ST_Loc.getInstance(SignedValueLoc))
                 .setFileList(fileList);
+        if (zipSource != null) {
+            protectToZip(signer, ofdEntries, fileList);
+            return;
+        }
 
         Path ofdEntriesPath = this.workDir.resolve("OFDEntries.xml");
         Path signedValuePath = this.workDir.resolve("signedvalue.dat");
@@ -120,6 +213,125 @@ public class OFDIntegrity implements Closeable {
         this.ofdDir.jar(dest);
     }
 
+    /**
+     * 流式完整性保护
+     * <p>
+     * 文件列表由中央目录得到；包内文件提交到校验线程读取并校验CRC32，按照提交顺序写入目标压缩包，
+     * 同时处理中的文件数量有限，内存占用不随文件数量增长。
+     *
+     * @param signer     签名实现
+     * @param ofdEntries 完整性保护描述
+     * @param fileList   防止夹带文件列表
+     * @throws IOException              IO操作异常或包内文件损坏
+     * @throws GeneralSecurityException 密码运算相关问题
+     */
+    private void protectToZip(ProtectSigner signer, OFDEntries ofdEntries, FileList fileList) throws IOException, GeneralSecurityException {
+        final String ofdEntriesLoc = "/" + OFDDir.OFDEntriesFileName;
+        // a) 确认文件包内的所有文件，旧的完整性保护文件将被替换
+        final TreeSet<String> names = new TreeSet<>(zipSource.entryNames());
+        names.remove(ofdEntriesLoc);
+        names.remove(SignedValueLoc);
+        // b) 组装 签名完整性保护文件
+        for (String name : names) {
+            fileList.addFile(String.valueOf(idProvider.incrementAndGet()), name);
+        }
+        final byte[] ofdEntriesBin = ElemCup.dump(ofdEntries);
+        // c) d) 计算完整性保护文件的杂凑值并进行数字签名
+        final byte[] signature = signer.digestThenSign(ofdEntriesBin);
+
+        final Executor pool = WorkerPool.pool(executor, parallelism);
+        // 处理中的文件，按照提交顺序写出
+        final ArrayDeque<String> windowNames = new ArrayDeque<>();
+        // 读取缓冲区在任务之间复用，数量不超过同时执行的任务数量
+        final ConcurrentLinkedQueue<byte[]> buffers = new ConcurrentLinkedQueue<>();
+        // 先写入目标位置同目录下的临时文件：失败时不留下不完整的文件，目标与源文件相同时也不会在读取过程中破坏源文件
+        final Path tmp = OutputFiles.createTemp(dest);
+        boolean success = false;
+        try (WorkerPool.OrderedWindow<byte[]> window = new WorkerPool.OrderedWindow<>(pool, parallelism * 2);
+             ZipSink sink = new ZipSink(tmp)) {
+            for (String name : names) {
+                final long size = zipSource.size(name);
+                if (size < 0 || size > MAX_BUFFERED_SIZE) {
+                    // 大文件在写出时边读取边校验
+                    window.submit(() -> null);
+                } else {
+                    window.submit(() -> readChecked(name, (int) size, buffers));
+                }
+                windowNames.add(name);
+                while (window.isFull()) {
+                    write(sink, windowNames.poll(), window.next(EntryChecker.ACTION));
+                }
+            }
+            while (!window.isEmpty()) {
+                write(sink, windowNames.poll(), window.next(EntryChecker.ACTION));
+            }
+            // e) 将完整性保护文件与签名值写入包内
+            sink.putStream(ofdEntriesLoc, new ByteArrayInputStream(ofdEntriesBin));
+            sink.putStored(SignedValueLoc, signature, 0, signature.length);
+            sink.close();
+            OutputFiles.replace(tmp, dest);
+            success = true;
+        } finally {
+            if (!success) {
+                Files.deleteIfExists(tmp);
+            }
+        }
+    }
+
+    /**
+     * 读取包内文件并校验CRC32
+     *
+     * @param name    包内绝对路径
+     * @param size    文件大小
+     * @param buffers 可复用的读取缓冲区
+     * @return 文件内容
+     * @throws IOException 读取异常或文件损坏
+     */
+    private byte[] readChecked(String name, int size, ConcurrentLinkedQueue<byte[]> buffers) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(size);
+        final long crc;
+        try (InputStream in = zipSource.open(name)) {
+            crc = EntryChecker.crc(in, out, buffers);
+        }
+        checkCrc(name, crc);
+        return out.toByteArray();
+    }
+
+    /**
+     * 写出处理完成的文件
+     *
+     * @param sink   目标压缩包
+     * @param name 包内绝对路径
+     * @param bin  文件内容，为null时在写出时读取
+     * @throws IOException IO异常或文件损坏
+     */
+    private void write(ZipSink sink, String name, byte[] bin) throws IOException {
+        if (bin != null) {
+            sink.putStream(name, new ByteArrayInputStream(bin));
+            return;
+        }
+        final long crc;
+        try (InputStream in = zipSource.open(name)) {
+            CheckedInputStream checked = new CheckedInputStream(in, new CRC32());
+            sink.putStream(name, checked);
+            crc = checked.getChecksum().getValue();
+        }
+        checkCrc(name, crc);
+    }
+
+    /**
+     * 比较中央目录中记录的CRC32
+     *
+     * @param name 包内绝对路径
+     * @param crc  计算得到的CRC32
+     * @throws IOException 文件损坏
+     */
+    private void checkCrc(String name, long crc) throws IOException {
+        if (crc != zipSource.crc(name)) {
+            throw new ZipException("包内文件 [ " + name + " ] CRC校验失败，文件可能已经损坏");
+        }
+    }
+
 
     /**
      * 请务必在程序结束时调用该方法释放
@@ -134,6 +346,9 @@ public class OFDIntegrity implements Closeable {
             return;
         }
         closed = true;
+        if (zipSource != null) {
+            zipSource.close();
+        }
         if (workDir != null && Files.exists(workDir)) {
             try {
                 FileUtils.deleteDirectory(workDir.toFile());
@@ -1,34 +1,94 @@
 package org.ofdrw.crypto.integrity;
 
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
 import org.dom4j.DocumentException;
 import org.dom4j.Element;
-import org.ofdrw.core.Holder;
 import org.ofdrw.core.basicType.ST_Loc;
 import org.ofdrw.core.integrity.FileList;
 import org.ofdrw.core.integrity.OFDEntries;
 import org.ofdrw.pkg.container.OFDDir;
+import org.ofdrw.pkg.container.ZipSource;
 import org.ofdrw.pkg.tool.ElemCup;
 import org.ofdrw.reader.ZipUtil;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.*;
 import java.security.GeneralSecurityException;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 /**
  * OFD完整性协议校验
  * <p>
  * 协议遵循《GB/T 0099》 7.4.6 校验流程
+ * <p>
+ * 流式模式（见 {@link #OFDIntegrityVerifier(boolean)}）下不解压文档：
+ * 完整性保护文件与签名值直接从ZIP条目读取，夹带与缺失文件由中央目录判断，
+ * 并由多个线程并行读取包内文件校验CRC32，发现意外损坏或被截断的文件。
+ * CRC32不能发现被有意替换内容的文件，防篡改依赖完整性保护文件的签名值验证。
  *
  * @author 权观宇
  * @since 2021-08-23 19:44:54
  */
 public class OFDIntegrityVerifier {
 
+    /**
+     * 是否使用流式模式
+     */
+    private final boolean streaming;
+
+    /**
+     * 流式模式下校验包内文件的并行数量
+     */
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * 流式模式下校验包内文件的线程池，为null时使用共享线程池
+     */
+    private Executor executor;
+
     public OFDIntegrityVerifier() {
+        this(false);
+    }
+
+    /**
+     * 创建OFD完整性校验器
+     *
+     * @param streaming true - 流式模式，直接读取ZIP条目校验，不解压；false - 解压到临时目录后校验
+     */
+    public OFDIntegrityVerifier(boolean streaming) {
+        this.streaming = streaming;
+    }
+
+    /**
+     * 设置流式模式下校验包内文件的并行数量
+     * <p>
+     * 默认为CPU核心数
+     *
+     * @param parallelism 并行数量，小于等于1时在当前线程中校验
+     * @return this
+     */
+    public OFDIntegrityVerifier setParallelism(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+        return this;
+    }
+
+    /**
+     * 设置流式模式下校验包内文件的线程池
+     * <p>
+     * 默认使用共享的有界线程池（{@link org.ofdrw.pkg.tool.WorkerPool}，线程数量不超过CPU核心数），校验器不会关闭传入的线程池。
+     *
+     * @param executor 线程池，为null时使用共享线程池
+     * @return this
+     */
+    public OFDIntegrityVerifier setExecutor(Executor executor) {
+        this.executor = executor;
+        return this;
     }
 
     /**
@@ -36,7 +96,7 @@ public class OFDIntegrityVerifier {
      *
      * @param in       待校验的OFD文件路径
      * @param verifier 签名值验证器
-     * @return 校验结果：true - 文件完整且没有夹带；false - 文件存在夹带
+     * @return 校验结果：true - 文件完整且没有夹带；false - 文件存在夹带或缺失
      * @throws IOException              文件不存在或IO操作异常
      * @throws GeneralSecurityException 安全计算异常
      * @throws DocumentException        无法解析文档内容，可能是文件格式不正确
@@ -49,6 +109,9 @@ public class OFDIntegrityVerifier {
             throw new IllegalArgumentException("签名值验证器(verifier)为空");
         }
 
+        if (streaming) {
+            return integrityZip(in, verifier);
+        }
         Path workDir = null;
         try {
             workDir = Files.createTempDirectory("ofd-tmp-");
@@ -68,7 +131,9 @@ public class OFDIntegrityVerifier {
             // 调用杂凑算法计算完整性保护文件得到杂凑值，进行签名验证
             boolean integrity = verifier.digestThenVerify(ofdEntriesPath, signedValue);
             // 为了保证没有而外夹带的文件还需要，根据文件表和示例包内的文件进行对比
-            boolean hasExtraFile = checkNoExtraFile(ofdDir, ofdEntries);
+            final Set<String> pkgFiles = new HashSet<>();
+            ofdDir.walk(((pkgAbsPath, path) -> pkgFiles.add(pkgAbsPath)));
+            boolean hasExtraFile = checkNoExtraFile(pkgFiles, ofdEntries);
             return integrity && hasExtraFile;
         } finally {
             if (workDir != null) {
@@ -79,48 +144,96 @@ public class OFDIntegrityVerifier {
     }
 
     /**
-     * 检查是否存在 防止夹带文件列表 中存在的夹带文件
+     * 流式执行OFD的完整性校验流程
      *
-     * @param ofdDir     OFD容器
+     * @param in       待校验的OFD文件路径
+     * @param verifier 签名值验证器
+     * @return 校验结果：true - 文件完整且没有夹带；false - 文件存在夹带、缺失或CRC32校验不通过
+     * @throws IOException              文件不存在或IO操作异常
+     * @throws GeneralSecurityException 安全计算异常
+     * @throws DocumentException        无法解析文档内容，可能是文件格式不正确
+     */
+    private boolean integrityZip(Path in, ProtectVerifier verifier) throws IOException, GeneralSecurityException, DocumentException {
+        final Path workDir = Files.createTempDirectory("ofd-tmp-");
+        try (ZipSource zipSource = new ZipSource(in, workDir, ZipUtil.getMaxSize())) {
+            // a) 读取完整性保护描述文件
+            // 此处如果文件不存在会抛出FNE异常
+            final byte[] ofdEntriesBin = readAll(zipSource, "/" + OFDDir.OFDEntriesFileName);
+            OFDEntries ofdEntries = new OFDEntries(ElemCup.inject(new ByteArrayInputStream(ofdEntriesBin)));
+            // b) c) 调用杂凑算法计算完整性保护文件得到杂凑值，进行签名验证
+            final byte[] signedValue = readAll(zipSource, absLoc(ofdEntries.getSignedValueLoc()));
+            if (!verifier.digestThenVerify(ofdEntriesBin, signedValue)) {
+                return false;
+            }
+            // 根据中央目录检查夹带与缺失的文件
+            if (!checkNoExtraFile(zipSource.entryNames(), ofdEntries)) {
+                return false;
+            }
+            // 并行校验包内文件内容
+            return EntryChecker.check(zipSource, zipSource.entryNames(), executor, parallelism) == null;
+        } finally {
+            // 删除用于校验的临时目录
+            FileUtils.deleteDirectory(workDir.toFile());
+        }
+    }
+
+    /**
+     * 读取包内文件
+     *
+     * @param zipSource 压缩包数据源
+     * @param path      包内绝对路径
+     * @return 文件内容
+     * @throws IOException 文件不存在或读取异常
+     */
+    private static byte[] readAll(ZipSource zipSource, String path) throws IOException {
+        try (InputStream in = zipSource.open(path)) {
+            return IOUtils.toByteArray(in);
+        }
+    }
+
+    /**
+     * 检查是否存在 防止夹带文件列表 中存在的夹带文件，以及列表中的文件是否缺失
+     *
+     * @param pkgFiles   包内所有文件的绝对路径
      * @param ofdEntries 完整性保护描述对象
-     * @return true - 没有夹带; false - 存在夹带
+     * @return true - 没有夹带且没有缺失; false - 存在夹带或缺失
      */
-    private boolean checkNoExtraFile(OFDDir ofdDir, OFDEntries ofdEntries) throws IOException {
+    private boolean checkNoExtraFile(Set<String> pkgFiles, OFDEntries ofdEntries) {
         final FileList fileList = ofdEntries.getFileList();
         // 建立文件MAP 用于检查映射情况
         Set<String> pkgFileSet = new HashSet<>();
-        fileList.getFiles().forEach((f) -> {
-            String loc = f.getFileLoc().toString();
-            if (loc.charAt(0) != '/') {
-                loc = String.format("/%s", loc);
-            }
-            pkgFileSet.add(loc);
-        });
-        // 签名值文件也加入 Set中用于检查
-        final ST_Loc signedValueLoc = ofdEntries.getSignedValueLoc();
-        String loc = signedValueLoc.toString();
-        if (loc.charAt(0) != '/') {
-            loc = String.format("/%s", loc);
+        fileList.getFiles().forEach((f) -> pkgFileSet.add(absLoc(f.getFileLoc())));
+        // 列表中的文件不在包内，文件缺失
+        if (!pkgFiles.containsAll(pkgFileSet)) {
+            return false;
         }
-        pkgFileSet.add(loc);
-
-        Holder<String> invalidFileLocHolder = new Holder<>(null);
+        // 签名值文件也加入 Set中用于检查
+        pkgFileSet.add(absLoc(ofdEntries.getSignedValueLoc()));
         // 遍历包内出现的所有文件
-        ofdDir.walk(((pkgAbsPath, path) -> {
+        for (String pkgAbsPath : pkgFiles) {
             // 忽略防止夹带文件本身
-            if ("/OFDEntries.xml".equals(pkgAbsPath)){
-                return true;
+            if ("/OFDEntries.xml".equals(pkgAbsPath)) {
+                continue;
             }
-             boolean exist = pkgFileSet.contains(pkgAbsPath);
-            if (!exist) {
+            if (!pkgFileSet.contains(pkgAbsPath)) {
                 // 文件不在 完整性保护文件列表中，那么认为是发生了文件的夹带
-                invalidFileLocHolder.value = pkgAbsPath;
-                // 停止文件的继续遍历
                 return false;
             }
-            return true;
-        }));
-        // 如果非法文件路径为空表示没有出现夹带情况
-        return invalidFileLocHolder.value == null;
+        }
+        return true;
+    }
+
+    /**
+     * 转换为包内绝对路径
+     *
+     * @param loc 路径
+     * @return 以 / 开头的包内绝对路径
+     */
+    private static String absLoc(ST_Loc loc) {
+        String path = loc.toString();
+        if (path.charAt(0) != '/') {
+            path = String.format("/%s", path);
+        }
+        return path;
     }
 }
@@ -1,6 +1,7 @@
 package org.ofdrw.crypto.integrity;
 
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.security.GeneralSecurityException;
 
@@ -24,4 +25,25 @@ public interface ProtectSigner {
      * @throws IOException IO读写异常
      */
     byte[] digestThenSign(Path tbs) throws GeneralSecurityException, IOException;
+
+    /**
+     * 根据 GM/T 0099  OFD完整性保护协议 执行完整性保护 7.4.3 中的 c) d) 步骤
+     * <p>
+     * 用于不解压文档的完整性保护流程，默认实现将待签名内容写入临时文件后调用 {@link #digestThenSign(Path)}，
+     * 实现者可以覆盖该方法直接对内存中的内容签名。
+     *
+     * @param tbs 待签名文件内容
+     * @return 签名值应符合“GB/T 35275”标准
+     * @throws GeneralSecurityException 安全计算异常
+     * @throws IOException IO读写异常
+     */
+    default byte[] digestThenSign(byte[] tbs) throws GeneralSecurityException, IOException {
+        Path tmp = Files.createTempFile("ofd-entries-", ".xml");
+        try {
+            Files.write(tmp, tbs);
+            return digestThenSign(tmp);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
 }
@@ -1,6 +1,7 @@
 package org.ofdrw.crypto.integrity;
 
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.security.GeneralSecurityException;
 
@@ -28,4 +29,26 @@ public interface ProtectVerifier {
      * @throws IOException              IO读写异常
      */
     boolean digestThenVerify(Path ofdEntriesXmlPath,byte[] signedValue) throws GeneralSecurityException, IOException;
+
+    /**
+     * 根据 GM/T 0099  OFD完整性保护协议 执行完整性保护 7.4.6 b) c) 步骤
+     * <p>
+     * 用于不解压文档的校验流程，默认实现将防夹带文件内容写入临时文件后调用 {@link #digestThenVerify(Path, byte[])}，
+     * 实现者可以覆盖该方法直接验证内存中的内容。
+     *
+     * @param ofdEntriesXml 防夹带文件内容
+     * @param signedValue   待验证的签名值
+     * @return 签名值验证结果
+     * @throws GeneralSecurityException 安全计算异常
+     * @throws IOException              IO读写异常
+     */
+    default boolean digestThenVerify(byte[] ofdEntriesXml, byte[] signedValue) throws GeneralSecurityException, IOException {
+        Path tmp = Files.createTempFile("ofd-entries-", ".xml");
+        try {
+            Files.write(tmp, ofdEntriesXml);
+            return digestThenVerify(tmp, signedValue);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
 }
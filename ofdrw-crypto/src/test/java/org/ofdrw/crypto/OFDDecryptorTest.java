@@ -0,0 +1,192 @@
+package org.ofdrw.crypto;
+
+import org.bouncycastle.crypto.CryptoException;
+import org.junit.jupiter.api.Test;
+import org.ofdrw.crypto.decryptor.UserCertDecryptor;
+import org.ofdrw.crypto.decryptor.UserPasswordDecryptor;
+import org.ofdrw.crypto.enryptor.UserCertEncryptor;
+import org.ofdrw.crypto.enryptor.UserPasswordEncryptor;
+import org.ofdrw.gm.cert.PEMLoader;
+import org.ofdrw.reader.OFDReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.PrivateKey;
+import java.security.cert.Certificate;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author agent
+ * @since 2026-10-17 14:01:27
+ */
+class OFDDecryptorTest {
+
+    private static final Path src = Paths.get("src/test/resources/hello.ofd");
+
+    @Test
+    void decryptPassword() throws Exception {
+        Path enc = Paths.get("target/hello-dec-pwd.ofd");
+        try (OFDEncryptor encryptor = new OFDEncryptor(src, enc)) {
+            encryptor.addUser(new UserPasswordEncryptor("777", "12345678"));
+            encryptor.encrypt();
+        }
+        try (OFDReader reader = OFDDecryptor.openReader(enc, new UserPasswordDecryptor("777", "12345678"))) {
+            assertEquals(2, reader.getNumberOfPages());
+            assertNotNull(reader.getPage(1));
+            // 读取时解密，没有文件写入工作目录
+            assertEquals(0, reader.getZipSource().getWrittenBytes());
+        }
+        // 明文与原文一致
+        try (OFDDecryptor decryptor = new OFDDecryptor(enc);
+             ZipFile origin = new ZipFile(src.toFile())) {
+            assertTrue(decryptor.isEncrypted());
+            decryptor.decrypt(new UserPasswordDecryptor("777", "12345678"));
+            assertFalse(decryptor.entryNames().contains("/Encryptions.xml"));
+            for (String name : new String[]{"/OFD.xml", "/Doc_0/Pages/Page_0/Content.xml"}) {
+                try (InputStream in = decryptor.open(name);
+                     InputStream expect = origin.getInputStream(origin.getEntry(name.substring(1)))) {
+                    assertArrayEquals(readAll(expect), readAll(in));
+                }
+            }
+        }
+        // 口令错误
+        try (OFDDecryptor decryptor = new OFDDecryptor(enc)) {
+            assertThrows(CryptoException.class, () -> decryptor.decrypt(new UserPasswordDecryptor("777", "87654321")));
+        }
+        // 用户不存在
+        try (OFDDecryptor decryptor = new OFDDecryptor(enc)) {
+            assertThrows(CryptoException.class, () -> decryptor.decrypt(new UserPasswordDecryptor("888", "12345678")));
+        }
+    }
+
+    @Test
+    void decryptCert() throws Exception {
+        Path enc = Paths.get("target/hello-dec-cert.ofd");
+        Path out = Paths.get("target/hello-dec-cert-plain.ofd");
+        final Certificate certificate = PEMLoader.loadCert(Paths.get("src/test/resources", "sign_cert.pem"));
+        final PrivateKey privateKey = PEMLoader.loadPrivateKey(Paths.get("src/test/resources", "sign_key.pem"));
+        try (OFDEncryptor encryptor = new OFDEncryptor(src, enc)) {
+            encryptor.addUser(new UserCertEncryptor("777", certificate));
+            encryptor.encrypt();
+        }
+        try (OFDDecryptor decryptor = new OFDDecryptor(enc)) {
+            decryptor.decrypt(new UserCertDecryptor("777", certificate, privateKey));
+            decryptor.saveTo(out);
+        }
+        try (OFDReader reader = new OFDReader(out)) {
+            assertEquals(2, reader.getNumberOfPages());
+        }
+        System.out.println(">> " + out.toAbsolutePath());
+    }
+
+    /**
+     * 包内密文损坏时保存失败，不在目标位置留下不完整的文档
+     */
+    @Test
+    void saveToCorrupt() throws Exception {
+        Path enc = Paths.get("target/hello-dec-corrupt-enc.ofd");
+        Path corrupt = Paths.get("target/hello-dec-corrupt.ofd");
+        Path out = Paths.get("target/hello-dec-corrupt-plain.ofd").toAbsolutePath();
+        Files.deleteIfExists(out);
+        try (OFDEncryptor encryptor = new OFDEncryptor(src, enc, true)) {
+            encryptor.addUser(new UserPasswordEncryptor("777", "12345678"));
+            encryptor.encrypt();
+        }
+        // 截断页面内容的密文，使其长度不是分组长度的整数倍
+        try (ZipInputStream zin = new ZipInputStream(Files.newInputStream(enc));
+             ZipOutputStream zout = new ZipOutputStream(Files.newOutputStream(corrupt))) {
+            ZipEntry entry;
+            while ((entry = zin.getNextEntry()) != null) {
+                byte[] bin = readAll(zin);
+                if (entry.getName().startsWith("Doc_0/Pages/Page_0/") && bin.length > 16) {
+                    bin = Arrays.copyOf(bin, bin.length - 5);
+                }
+                zout.putNextEntry(new ZipEntry(entry.getName()));
+                zout.write(bin);
+                zout.closeEntry();
+            }
+        }
+        try (OFDDecryptor decryptor = new OFDDecryptor(corrupt)) {
+            decryptor.decrypt(new UserPasswordDecryptor("777", "12345678"));
+            assertThrows(IOException.class, () -> decryptor.saveTo(out));
+        }
+        assertFalse(Files.exists(out));
+        try (Stream<Path> files = Files.list(out.getParent())) {
+            assertFalse(files.anyMatch(f -> f.getFileName().toString().startsWith(out.getFileName().toString())));
+        }
+    }
+
+    /**
+     * 含资源的加密文档，只读取一个页面：
+     * 读取时解密的数据量小于完整解密的数据量
+     */
+    @Test
+    void readOnePage() throws Exception {
+        Path plain = Paths.get("target/dec-large.ofd");
+        Path enc = Paths.get("target/dec-large-enc.ofd");
+        Random random = new Random(300);
+        try (ZipInputStream zin = new ZipInputStream(Files.newInputStream(src));
+             ZipOutputStream zout = new ZipOutputStream(Files.newOutputStream(plain))) {
+            ZipEntry entry;
+            while ((entry = zin.getNextEntry()) != null) {
+                zout.putNextEntry(new ZipEntry(entry.getName()));
+                copy(zin, zout);
+                zout.closeEntry();
+            }
+            for (int i = 0; i < 20; i++) {
+                zout.putNextEntry(new ZipEntry("Doc_0/Res/image_" + i + ".png"));
+                byte[] bin = new byte[8 * 1024 + random.nextInt(120 * 1024)];
+                random.nextBytes(bin);
+                zout.write(bin);
+                zout.closeEntry();
+            }
+        }
+        try (OFDEncryptor encryptor = new OFDEncryptor(plain, enc)) {
+            encryptor.addUser(new UserPasswordEncryptor("777", "12345678"));
+            encryptor.encrypt();
+        }
+        Path tmp = Paths.get("target/dec-large-plain.ofd");
+        try (OFDDecryptor decryptor = new OFDDecryptor(enc)) {
+            decryptor.decrypt(new UserPasswordDecryptor("777", "12345678"));
+            decryptor.saveTo(tmp);
+        }
+        try (OFDReader reader = new OFDReader(tmp)) {
+            assertNotNull(reader.getPage(1));
+        }
+
+        long decrypted;
+        try (OFDReader reader = OFDDecryptor.openReader(enc, new UserPasswordDecryptor("777", "12345678"))) {
+            assertNotNull(reader.getPage(1));
+            decrypted = reader.getZipSource().getInflatedBytes();
+        }
+        System.out.printf(">> 完整解密 %.1fKB | 读取时解密: %.1fKB%n", Files.size(tmp) / 1024d, decrypted / 1024d);
+        assertTrue(decrypted > 0);
+        assertTrue(decrypted < Files.size(tmp));
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        java.io.ByteArrayOutputStream out = new java.io.ByteArrayOutputStream();
+        copy(in, out);
+        return out.toByteArray();
+    }
+
+    private static void copy(InputStream in, OutputStream out) throws IOException {
+        byte[] buf = new byte[8192];
+        int len;
+        while ((len = in.read(buf)) != -1) {
+            out.write(buf, 0, len);
+        }
+    }
+}
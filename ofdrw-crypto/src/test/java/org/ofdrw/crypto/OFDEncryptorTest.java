@@ -10,10 +10,12 @@ import org.bouncycastle.crypto.params.ParametersWithIV;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.junit.jupiter.api.Test;
+import org.ofdrw.crypto.decryptor.UserPasswordDecryptor;
 import org.ofdrw.crypto.enryptor.UserCertEncryptor;
 import org.ofdrw.crypto.enryptor.UserFEKEncryptor;
 import org.ofdrw.crypto.enryptor.UserPasswordEncryptor;
 import org.ofdrw.gm.cert.PEMLoader;
+import org.ofdrw.reader.OFDReader;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -21,9 +23,17 @@ import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.security.GeneralSecurityException;
 import java.security.SecureRandom;
 import java.security.cert.Certificate;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.ZipFile;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * @author 权观宇
@@ -91,4 +101,93 @@ class OFDEncryptorTest {
         }
         System.out.println(">> " + out.toAbsolutePath());
     }
-}
\ No newline at end of file
+
+    @Test
+    void encryptStreaming() throws Exception {
+        Path src = Paths.get("src/test/resources/hello.ofd");
+        Path out = Paths.get("target/hello-enc-streaming.ofd");
+        try (OFDEncryptor ofdEncryptor = new OFDEncryptor(src, out, true)) {
+            ofdEncryptor.addUser(new UserPasswordEncryptor("777", "12345678"));
+            ofdEncryptor.encrypt();
+        }
+        // 加密后的文档可以被解密读取
+        try (OFDReader reader = OFDDecryptor.openReader(out, new UserPasswordDecryptor("777", "12345678"))) {
+            assertEquals(2, reader.getNumberOfPages());
+            assertNotNull(reader.getPage(2));
+        }
+        // 包内不存在明文文件
+        try (ZipFile zip = new ZipFile(out.toFile())) {
+            assertNull(zip.getEntry("OFD.xml"));
+            assertNotNull(zip.getEntry("ofd.dat"));
+            assertNotNull(zip.getEntry("Encryptions.xml"));
+        }
+        System.out.println(">> " + out.toAbsolutePath());
+    }
+
+    /**
+     * 使用调用者提供的线程池流式加密，加密过程本身运行在池中唯一的线程上时不会死锁
+     */
+    @Test
+    void encryptStreamingExecutor() throws Exception {
+        Path src = Paths.get("src/test/resources/hello.ofd");
+        Path out = Paths.get("target/hello-enc-streaming-executor.ofd");
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> {
+                try (OFDEncryptor ofdEncryptor = new OFDEncryptor(src, out, true)) {
+                    ofdEncryptor.setExecutor(executor).setParallelism(4);
+                    ofdEncryptor.addUser(new UserPasswordEncryptor("777", "12345678"));
+                    ofdEncryptor.encrypt();
+                }
+                return null;
+            }).get(60, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        try (OFDReader reader = OFDDecryptor.openReader(out, new UserPasswordDecryptor("777", "12345678"))) {
+            assertEquals(2, reader.getNumberOfPages());
+            assertNotNull(reader.getPage(2));
+        }
+    }
+
+    /**
+     * 流式加密覆盖源文件，源文件在读取完成前不会被破坏
+     */
+    @Test
+    void encryptStreamingInPlace() throws Exception {
+        Path out = Paths.get("target/hello-enc-in-place.ofd");
+        Files.copy(Paths.get("src/test/resources/hello.ofd"), out, StandardCopyOption.REPLACE_EXISTING);
+        try (OFDEncryptor ofdEncryptor = new OFDEncryptor(out, out, true)) {
+            ofdEncryptor.addUser(new UserPasswordEncryptor("777", "12345678"));
+            ofdEncryptor.encrypt();
+        }
+        try (OFDReader reader = OFDDecryptor.openReader(out, new UserPasswordDecryptor("777", "12345678"))) {
+            assertEquals(2, reader.getNumberOfPages());
+            assertNotNull(reader.getPage(2));
+        }
+    }
+
+    /**
+     * 流式加密失败时不在目标位置留下文件
+     */
+    @Test
+    void encryptStreamingFailed() throws Exception {
+        Path src = Paths.get("src/test/resources/hello.ofd");
+        Path out = Paths.get("target/hello-enc-failed.ofd").toAbsolutePath();
+        Files.deleteIfExists(out);
+        try (OFDEncryptor ofdEncryptor = new OFDEncryptor(src, out, true)) {
+            ofdEncryptor.addUser(new UserPasswordEncryptor("777", "12345678"));
+            ofdEncryptor.setContainerFileFilter((path, abs) -> {
+                if (path.contains("Page_1")) {
+                    throw new IllegalStateException("加密失败");
+                }
+                return true;
+            });
+            assertThrows(IllegalStateException.class, ofdEncryptor::encrypt);
+        }
+        assertFalse(Files.exists(out));
+        try (Stream<Path> files = Files.list(out.getParent())) {
+            assertFalse(files.anyMatch(f -> f.getFileName().toString().startsWith(out.getFileName().toString())));
+        }
+    }
+}
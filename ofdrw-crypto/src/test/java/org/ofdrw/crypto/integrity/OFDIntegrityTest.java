@@ -1,5 +1,6 @@
 package org.ofdrw.crypto.integrity;
 
+import org.apache.commons.io.IOUtils;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
 import org.junit.jupiter.api.Test;
 import org.ofdrw.crypto.OFDEncryptor;
@@ -7,13 +8,22 @@ import org.ofdrw.crypto.enryptor.UserFEKEncryptor;
 import org.ofdrw.crypto.enryptor.UserPasswordEncryptor;
 import org.ofdrw.gm.cert.PEMLoader;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.security.GeneralSecurityException;
 import java.security.PrivateKey;
 import java.security.Security;
 import java.security.cert.Certificate;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -52,4 +62,86 @@ class OFDIntegrityTest {
         // 5. 关闭对象，清除临时文件 try()
         System.out.println(">> " + out.toAbsolutePath());
     }
-}
\ No newline at end of file
+
+    /**
+     * 流式完整性保护：不解压文档，直接写入目标压缩包
+     */
+    @Test
+    void protectStreaming() throws Exception {
+        Path src = Paths.get("src/test/resources/hello.ofd");
+        Path out = Paths.get("target/hello-integrity-streaming.ofd");
+        final PrivateKey privateKey = PEMLoader.loadPrivateKey(Paths.get("src/test/resources", "sign_key.pem"));
+        final Certificate certificate = PEMLoader.loadCert(Paths.get("src/test/resources", "sign_cert.pem"));
+        try (OFDIntegrity ofdIntegrity = new OFDIntegrity(src, out, true)) {
+            ofdIntegrity.protect(new GMProtectSigner(privateKey, certificate));
+        }
+        // 两种校验模式都应通过
+        assertTrue(new OFDIntegrityVerifier().integrity(out, new GMProtectVerifier()));
+        assertTrue(new OFDIntegrityVerifier(true).integrity(out, new GMProtectVerifier()));
+        System.out.println(">> " + out.toAbsolutePath());
+    }
+
+    /**
+     * 流式完整性保护覆盖源文件
+     */
+    @Test
+    void protectStreamingInPlace() throws Exception {
+        Path out = Paths.get("target/hello-integrity-in-place.ofd");
+        Files.copy(Paths.get("src/test/resources/hello.ofd"), out, StandardCopyOption.REPLACE_EXISTING);
+        final PrivateKey privateKey = PEMLoader.loadPrivateKey(Paths.get("src/test/resources", "sign_key.pem"));
+        final Certificate certificate = PEMLoader.loadCert(Paths.get("src/test/resources", "sign_cert.pem"));
+        try (OFDIntegrity ofdIntegrity = new OFDIntegrity(out, out, true)) {
+            ofdIntegrity.protect(new GMProtectSigner(privateKey, certificate));
+        }
+        assertTrue(new OFDIntegrityVerifier(true).integrity(out, new GMProtectVerifier()));
+    }
+
+    /**
+     * 包内文件损坏时流式完整性保护失败，不在目标位置留下文件
+     */
+    @Test
+    void protectStreamingCorrupt() throws Exception {
+        Path src = Paths.get("target/hello-integrity-corrupt-src.ofd");
+        Path out = Paths.get("target/hello-integrity-corrupt.ofd").toAbsolutePath();
+        Files.deleteIfExists(out);
+        // 以不压缩的方式写入附加文件，然后修改其内容使CRC32不匹配
+        final byte[] marker = "OFDRW-INTEGRITY-CORRUPT".getBytes(StandardCharsets.US_ASCII);
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        try (ZipInputStream zin = new ZipInputStream(Files.newInputStream(Paths.get("src/test/resources/hello.ofd")));
+             ZipOutputStream zout = new ZipOutputStream(bout)) {
+            ZipEntry entry;
+            while ((entry = zin.getNextEntry()) != null) {
+                zout.putNextEntry(new ZipEntry(entry.getName()));
+                IOUtils.copy(zin, zout);
+                zout.closeEntry();
+            }
+            CRC32 crc = new CRC32();
+            crc.update(marker);
+            ZipEntry stored = new ZipEntry("Doc_0/Attachs/corrupt.txt");
+            stored.setMethod(ZipEntry.STORED);
+            stored.setSize(marker.length);
+            stored.setCrc(crc.getValue());
+            zout.putNextEntry(stored);
+            zout.write(marker);
+            zout.closeEntry();
+        }
+        byte[] bin = bout.toByteArray();
+        for (int i = 0; i <= bin.length - marker.length; i++) {
+            if (bin[i] == marker[0] && new String(bin, i, marker.length, StandardCharsets.US_ASCII).equals("OFDRW-INTEGRITY-CORRUPT")) {
+                bin[i] = 'X';
+                break;
+            }
+        }
+        Files.write(src, bin);
+
+        final PrivateKey privateKey = PEMLoader.loadPrivateKey(Paths.get("src/test/resources", "sign_key.pem"));
+        final Certificate certificate = PEMLoader.loadCert(Paths.get("src/test/resources", "sign_cert.pem"));
+        try (OFDIntegrity ofdIntegrity = new OFDIntegrity(src, out, true)) {
+            assertThrows(IOException.class, () -> ofdIntegrity.protect(new GMProtectSigner(privateKey, certificate)));
+        }
+        assertFalse(Files.exists(out));
+        try (Stream<Path> files = Files.list(out.getParent())) {
+            assertFalse(files.anyMatch(f -> f.getFileName().toString().startsWith(out.getFileName().toString())));
+        }
+    }
+}
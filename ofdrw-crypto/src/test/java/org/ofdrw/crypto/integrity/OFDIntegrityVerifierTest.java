@@ -4,9 +4,19 @@ import org.dom4j.DocumentException;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.security.GeneralSecurityException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -34,4 +44,80 @@ class OFDIntegrityVerifierTest {
         assertTrue(integrity);
     }
 
-}
\ No newline at end of file
+    /**
+     * 流式完整性验证
+     */
+    @Test
+    void integrityStreaming() throws GeneralSecurityException, IOException, DocumentException {
+        Path in = Paths.get("src/test/resources/hello-integrity.ofd");
+        final boolean integrity = new OFDIntegrityVerifier(true).integrity(in, new GMProtectVerifier());
+        System.out.println(">> OFD完整性校验(流式): " + integrity);
+        assertTrue(integrity);
+    }
+
+    /**
+     * 使用调用者提供的线程池校验，校验本身运行在池中唯一的线程上时不会死锁
+     */
+    @Test
+    void integrityStreamingExecutor() throws Exception {
+        Path in = Paths.get("src/test/resources/hello-integrity.ofd");
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            boolean integrity = executor.submit(() -> new OFDIntegrityVerifier(true)
+                    .setExecutor(executor)
+                    .setParallelism(4)
+                    .integrity(in, new GMProtectVerifier())).get(60, TimeUnit.SECONDS);
+            assertTrue(integrity);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 夹带文件与缺失文件
+     */
+    @Test
+    void extraAndMissing() throws Exception {
+        Path in = Paths.get("src/test/resources/hello-integrity.ofd");
+        Path extra = Paths.get("target/hello-integrity-extra.ofd");
+        Path missing = Paths.get("target/hello-integrity-missing.ofd");
+        rewrite(in, extra, (name) -> true, "Doc_0/Res/extra.png", new byte[]{1, 2, 3});
+        rewrite(in, missing, (name) -> !name.endsWith("Content.xml"), null, null);
+        for (boolean streaming : new boolean[]{false, true}) {
+            OFDIntegrityVerifier verifier = new OFDIntegrityVerifier(streaming);
+            assertFalse(verifier.integrity(extra, new GMProtectVerifier()));
+            assertFalse(verifier.integrity(missing, new GMProtectVerifier()));
+        }
+    }
+
+    /**
+     * 复制压缩包，可以过滤与追加条目
+     */
+    private static void rewrite(Path src, Path dest, Predicate<String> filter, String addName, byte[] addBin) throws IOException {
+        try (ZipInputStream zin = new ZipInputStream(Files.newInputStream(src));
+             ZipOutputStream zout = new ZipOutputStream(Files.newOutputStream(dest))) {
+            ZipEntry entry;
+            while ((entry = zin.getNextEntry()) != null) {
+                if (!filter.test(entry.getName())) {
+                    continue;
+                }
+                zout.putNextEntry(new ZipEntry(entry.getName()));
+                copy(zin, zout);
+                zout.closeEntry();
+            }
+            if (addName != null) {
+                zout.putNextEntry(new ZipEntry(addName));
+                zout.write(addBin);
+                zout.closeEntry();
+            }
+        }
+    }
+
+    private static void copy(InputStream in, OutputStream out) throws IOException {
+        byte[] buf = new byte[8192];
+        int len;
+        while ((len = in.read(buf)) != -1) {
+            out.write(buf, 0, len);
+        }
+    }
+}
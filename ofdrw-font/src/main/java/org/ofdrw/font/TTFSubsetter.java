@@ -0,0 +1,593 @@
+package org.ofdrw.font;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * TrueType 字体子集化
+ * <p>
+ * 根据文档中实际使用的字符生成只包含对应字形的字体，
+ * 用于减小嵌入OFD文档的字体文件大小。
+ * <p>
+ * 子集化保持字形索引（GID）不变：未使用的字形在 glyf 表中数据长度为0，
+ * 重写 glyf、loca、cmap 表（hmtx 随字形索引保持有效），
+ * 并删除位图字形、排版特性等与绘制无关的表。
+ * <p>
+ * 仅支持基于 glyf 表的 TrueType 字体（ttf），
+ * 集合字体（ttc）以及CFF字体（otf）在构造时抛出异常，应使用完整字体。
+ *
+ * @author agent
+ * @since 2026-10-17 13:14:52
+ */
+public class TTFSubsetter {
+
+    /**
+     * 子集字体中保留的表（glyf、loca、cmap 重新生成）
+     */
+    private static final Set<String> KEEP_TABLES = new HashSet<>(Arrays.asList(
+            "head", "hhea", "maxp", "hmtx", "name", "OS/2", "post",
+            "cvt ", "fpgm", "prep", "gasp", "vhea", "vmtx"));
+
+    /**
+     * 复合字形组件标志
+     */
+    private static final int ARG_1_AND_2_ARE_WORDS = 0x0001;
+    private static final int WE_HAVE_A_SCALE = 0x0008;
+    private static final int MORE_COMPONENTS = 0x0020;
+    private static final int WE_HAVE_AN_X_AND_Y_SCALE = 0x0040;
+    private static final int WE_HAVE_A_TWO_BY_TWO = 0x0080;
+
+    /**
+     * 字体数据
+     */
+    private final ByteBuffer data;
+
+    /**
+     * 表目录
+     * <p>
+     * KEY: 表名称，VALUE: {偏移量, 长度}
+     */
+    private final Map<String, int[]> tables = new TreeMap<>();
+
+    /**
+     * 字形数量
+     */
+    private final int numGlyphs;
+
+    /**
+     * loca 表是否为长偏移量格式
+     */
+    private final boolean longLoca;
+
+    /**
+     * cmap 格式4子表位置，-1 表示不存在
+     */
+    private int cmap4 = -1;
+
+    /**
+     * cmap 格式12子表位置，-1 表示不存在
+     */
+    private int cmap12 = -1;
+
+    /**
+     * 使用到的字符（Unicode码点）
+     */
+    private final Set<Integer> codePoints = new TreeSet<>();
+
+    /**
+     * 解析字体
+     *
+     * @param font 字体文件数据
+     * @throws IOException 字体格式不支持或字体数据损坏
+     */
+    public TTFSubsetter(byte[] font) throws IOException {
+        if (font == null || font.length < 12) {
+            throw new IOException("字体数据不完整");
+        }
+        this.data = ByteBuffer.wrap(font);
+        int version = data.getInt(0);
+        // 0x00010000 或 'true'
+        if (version != 0x00010000 && version != 0x74727565) {
+            throw new IOException("仅支持glyf格式的TrueType字体");
+        }
+        int numTables = u16(4);
+        for (int i = 0; i < numTables; i++) {
+            int rec = 12 + 16 * i;
+            if (rec + 16 > font.length) {
+                throw new IOException("字体表目录不完整");
+            }
+            String tag = new String(font, rec, 4, StandardCharsets.ISO_8859_1);
+            int offset = data.getInt(rec + 8);
+            int length = data.getInt(rec + 12);
+            if (offset < 0 || length < 0 || (long) offset + length > font.length) {
+                throw new IOException("字体表 [" + tag + "] 超出文件范围");
+            }
+            tables.put(tag, new int[]{offset, length});
+        }
+        for (String required : new String[]{"head", "hhea", "maxp", "hmtx", "loca", "glyf", "cmap"}) {
+            if (!tables.containsKey(required)) {
+                throw new IOException("字体中缺少 " + required + " 表");
+            }
+        }
+        this.numGlyphs = u16(tables.get("maxp")[0] + 4);
+        this.longLoca = data.getShort(tables.get("head")[0] + 50) != 0;
+        findCmap();
+    }
+
+    /**
+     * 加入使用到的字符
+     *
+     * @param text 文字内容
+     * @return this
+     */
+    public TTFSubsetter add(CharSequence text) {
+        if (text != null) {
+            text.codePoints().forEach(codePoints::add);
+        }
+        return this;
+    }
+
+    /**
+     * 加入使用到的字符
+     *
+     * @param codePoint Unicode码点
+     * @return this
+     */
+    public TTFSubsetter add(int codePoint) {
+        codePoints.add(codePoint);
+        return this;
+    }
+
+    /**
+     * 查询字符对应的字形索引
+     *
+     * @param codePoint Unicode码点
+     * @return 字形索引，不存在时返回0
+     */
+    public int getGlyphId(int codePoint) {
+        int gid = 0;
+        if (cmap12 != -1) {
+            gid = lookup12(codePoint);
+        } else if (cmap4 != -1 && codePoint <= 0xFFFF) {
+            gid = lookup4(codePoint);
+        }
+        return gid < numGlyphs ? gid : 0;
+    }
+
+    /**
+     * 字体中是否含有字符对应的字形数据
+     * <p>
+     * 空白字符等没有轮廓的字形返回false
+     *
+     * @param codePoint Unicode码点
+     * @return true - 存在字形数据
+     */
+    public boolean hasGlyph(int codePoint) {
+        int gid = getGlyphId(codePoint);
+        return gid != 0 && glyphOffset(gid + 1) > glyphOffset(gid);
+    }
+
+    /**
+     * 是否为可以子集化的字体，即基于 glyf 表的 TrueType 字体
+     * <p>
+     * 仅检查文件头与表目录，不校验字体数据的完整性
+     *
+     * @param font 字体文件数据
+     * @return true - 可以子集化；false - 集合字体（ttc）、CFF字体（otf）等
+     */
+    public static boolean isTrueType(byte[] font) {
+        if (font == null || font.length < 12) {
+            return false;
+        }
+        ByteBuffer buf = ByteBuffer.wrap(font);
+        int version = buf.getInt(0);
+        if (version != 0x00010000 && version != 0x74727565) {
+            return false;
+        }
+        int numTables = buf.getShort(4) & 0xFFFF;
+        for (int i = 0; i < numTables && 12 + 16 * i + 4 <= font.length; i++) {
+            if ("glyf".equals(new String(font, 12 + 16 * i, 4, StandardCharsets.ISO_8859_1))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 生成子集字体
+     *
+     * @return 子集字体数据
+     * @throws IOException 字体数据损坏
+     */
+    public byte[] build() throws IOException {
+        // 字符到字形的映射，0号字形(.notdef)始终保留
+        TreeMap<Integer, Integer> mapping = new TreeMap<>();
+        TreeSet<Integer> glyphs = new TreeSet<>();
+        glyphs.add(0);
+        for (int cp : codePoints) {
+            int gid = getGlyphId(cp);
+            if (gid != 0) {
+                mapping.put(cp, gid);
+                glyphs.add(gid);
+            }
+        }
+        addCompositeComponents(glyphs);
+
+        Map<String, byte[]> out = new TreeMap<>();
+        // glyf & loca
+        int glyf = tables.get("glyf")[0];
+        ByteArrayOutputStream glyfOut = new ByteArrayOutputStream();
+        int[] newOffsets = new int[numGlyphs + 1];
+        for (int gid = 0; gid < numGlyphs; gid++) {
+            newOffsets[gid] = glyfOut.size();
+            if (!glyphs.contains(gid)) {
+                continue;
+            }
+            int start = glyphOffset(gid);
+            int end = glyphOffset(gid + 1);
+            if (end > start) {
+                if (glyf + end > data.limit()) {
+                    throw new IOException("字形 " + gid + " 超出文件范围");
+                }
+                glyfOut.write(data.array(), glyf + start, end - start);
+                while (glyfOut.size() % 4 != 0) {
+                    glyfOut.write(0);
+                }
+            }
+        }
+        newOffsets[numGlyphs] = glyfOut.size();
+        boolean newLongLoca = glyfOut.size() > 0x1FFFE;
+        ByteBuffer loca = ByteBuffer.allocate((numGlyphs + 1) * (newLongLoca ? 4 : 2));
+        for (int off : newOffsets) {
+            if (newLongLoca) {
+                loca.putInt(off);
+            } else {
+                loca.putShort((short) (off / 2));
+            }
+        }
+        out.put("glyf", glyfOut.toByteArray());
+        out.put("loca", loca.array());
+        out.put("cmap", buildCmap(mapping));
+
+        for (Map.Entry<String, int[]> kv : tables.entrySet()) {
+            String tag = kv.getKey();
+            if (!KEEP_TABLES.contains(tag)) {
+                continue;
+            }
+            byte[] table = Arrays.copyOfRange(data.array(), kv.getValue()[0], kv.getValue()[0] + kv.getValue()[1]);
+            if (tag.equals("head")) {
+                ByteBuffer head = ByteBuffer.wrap(table);
+                // checkSumAdjustment 在输出时重新计算
+                head.putInt(8, 0);
+                head.putShort(50, (short) (newLongLoca ? 1 : 0));
+            } else if (tag.equals("post") && table.length >= 32) {
+                // 使用 3.0 版本，不保存所有字形名称
+                table = Arrays.copyOf(table, 32);
+                ByteBuffer.wrap(table).putInt(0, 0x00030000);
+            }
+            out.put(tag, table);
+        }
+        return write(out);
+    }
+
+    /**
+     * 加入复合字形引用的组件字形
+     *
+     * @param glyphs 字形集合
+     */
+    private void addCompositeComponents(TreeSet<Integer> glyphs) {
+        int glyf = tables.get("glyf")[0];
+        Deque<Integer> queue = new ArrayDeque<>(glyphs);
+        while (!queue.isEmpty()) {
+            int gid = queue.pop();
+            int start = glyphOffset(gid);
+            int end = glyphOffset(gid + 1);
+            if (end - start < 10 || glyf + end > data.limit()) {
+                continue;
+            }
+            int p = glyf + start;
+            if (data.getShort(p) >= 0) {
+                // 简单字形
+                continue;
+            }
+            p += 10;
+            int flags;
+            do {
+                flags = u16(p);
+                int component = u16(p + 2);
+                p += 4;
+                p += (flags & ARG_1_AND_2_ARE_WORDS) != 0 ? 4 : 2;
+                if ((flags & WE_HAVE_A_SCALE) != 0) {
+                    p += 2;
+                } else if ((flags & WE_HAVE_AN_X_AND_Y_SCALE) != 0) {
+                    p += 4;
+                } else if ((flags & WE_HAVE_A_TWO_BY_TWO) != 0) {
+                    p += 8;
+                }
+                if (component < numGlyphs && glyphs.add(component)) {
+                    queue.push(component);
+                }
+            } while ((flags & MORE_COMPONENTS) != 0 && p + 4 <= glyf + end);
+        }
+    }
+
+    /**
+     * 生成cmap表
+     * <p>
+     * 基本多文种平面使用格式4子表，包含辅助平面字符或格式4无法容纳时增加格式12子表
+     *
+     * @param mapping 字符到字形的映射
+     * @return cmap表
+     */
+    private static byte[] buildCmap(TreeMap<Integer, Integer> mapping) {
+        // 连续字符且连续字形合并为一段：{起始字符, 结束字符, 起始字形}
+        List<int[]> groups = new ArrayList<>();
+        for (Map.Entry<Integer, Integer> kv : mapping.entrySet()) {
+            int cp = kv.getKey();
+            int gid = kv.getValue();
+            int[] last = groups.isEmpty() ? null : groups.get(groups.size() - 1);
+            if (last != null && last[1] + 1 == cp && last[2] + (cp - last[0]) == gid
+                    && (last[1] > 0xFFFF) == (cp > 0xFFFF)) {
+                last[1] = cp;
+            } else {
+                groups.add(new int[]{cp, cp, gid});
+            }
+        }
+        List<int[]> bmp = new ArrayList<>();
+        boolean supplementary = false;
+        for (int[] g : groups) {
+            if (g[1] <= 0xFFFF) {
+                bmp.add(g);
+            } else {
+                supplementary = true;
+            }
+        }
+        int segCount = bmp.size() + 1;
+        byte[] format4 = null;
+        if (16 + 8 * segCount <= 0xFFFF) {
+            format4 = buildFormat4(bmp);
+        }
+        byte[] format12 = (supplementary || format4 == null) ? buildFormat12(groups) : null;
+
+        int numTables = (format4 != null ? 2 : 0) + (format12 != null ? 2 : 0);
+        int headerSize = 4 + 8 * numTables;
+        int off4 = headerSize;
+        int off12 = headerSize + (format4 != null ? format4.length : 0);
+        ByteBuffer cmap = ByteBuffer.allocate(off12 + (format12 != null ? format12.length : 0));
+        cmap.putShort((short) 0).putShort((short) numTables);
+        // 编码记录按照 平台ID、编码ID 排序
+        if (format4 != null) {
+            cmap.putShort((short) 0).putShort((short) 3).putInt(off4);
+        }
+        if (format12 != null) {
+            cmap.putShort((short) 0).putShort((short) 4).putInt(off12);
+        }
+        if (format4 != null) {
+            cmap.putShort((short) 3).putShort((short) 1).putInt(off4);
+        }
+        if (format12 != null) {
+            cmap.putShort((short) 3).putShort((short) 10).putInt(off12);
+        }
+        if (format4 != null) {
+            cmap.put(format4);
+        }
+        if (format12 != null) {
+            cmap.put(format12);
+        }
+        return cmap.array();
+    }
+
+    /**
+     * 生成格式4子表
+     *
+     * @param segments 字符段
+     * @return 子表
+     */
+    private static byte[] buildFormat4(List<int[]> segments) {
+        int segCount = segments.size() + 1;
+        int length = 16 + 8 * segCount;
+        int entrySelector = 31 - Integer.numberOfLeadingZeros(segCount);
+        int searchRange = 2 * (1 << entrySelector);
+        ByteBuffer b = ByteBuffer.allocate(length);
+        b.putShort((short) 4).putShort((short) length).putShort((short) 0)
+                .putShort((short) (segCount * 2)).putShort((short) searchRange)
+                .putShort((short) entrySelector).putShort((short) (segCount * 2 - searchRange));
+        for (int[] s : segments) {
+            b.putShort((short) s[1]);
+        }
+        b.putShort((short) 0xFFFF);
+        // reservedPad
+        b.putShort((short) 0);
+        for (int[] s : segments) {
+            b.putShort((short) s[0]);
+        }
+        b.putShort((short) 0xFFFF);
+        for (int[] s : segments) {
+            b.putShort((short) (s[2] - s[0]));
+        }
+        b.putShort((short) 1);
+        for (int i = 0; i < segCount; i++) {
+            b.putShort((short) 0);
+        }
+        return b.array();
+    }
+
+    /**
+     * 生成格式12子表
+     *
+     * @param groups 字符段
+     * @return 子表
+     */
+    private static byte[] buildFormat12(List<int[]> groups) {
+        ByteBuffer b = ByteBuffer.allocate(16 + 12 * groups.size());
+        b.putShort((short) 12).putShort((short) 0).putInt(b.capacity()).putInt(0).putInt(groups.size());
+        for (int[] g : groups) {
+            b.putInt(g[0]).putInt(g[1]).putInt(g[2]);
+        }
+        return b.array();
+    }
+
+    /**
+     * 输出字体文件
+     *
+     * @param out 表名称与表数据
+     * @return 字体文件
+     */
+    private static byte[] write(Map<String, byte[]> out) {
+        int numTables = out.size();
+        int entrySelector = 31 - Integer.numberOfLeadingZeros(numTables);
+        int searchRange = 16 * (1 << entrySelector);
+        int size = 12 + 16 * numTables;
+        for (byte[] t : out.values()) {
+            size += (t.length + 3) & ~3;
+        }
+        ByteBuffer b = ByteBuffer.allocate(size);
+        b.putInt(0x00010000).putShort((short) numTables).putShort((short) searchRange)
+                .putShort((short) entrySelector).putShort((short) (numTables * 16 - searchRange));
+        int offset = 12 + 16 * numTables;
+        int headOffset = -1;
+        for (Map.Entry<String, byte[]> kv : out.entrySet()) {
+            byte[] t = kv.getValue();
+            if (kv.getKey().equals("head")) {
+                headOffset = offset;
+            }
+            b.put(kv.getKey().getBytes(StandardCharsets.ISO_8859_1))
+                    .putInt((int) checksum(t)).putInt(offset).putInt(t.length);
+            offset += (t.length + 3) & ~3;
+        }
+        for (byte[] t : out.values()) {
+            b.put(t);
+            ((Buffer) b).position((b.position() + 3) & ~3);
+        }
+        if (headOffset != -1) {
+            b.putInt(headOffset + 8, (int) (0xB1B0AFBAL - checksum(b.array())));
+        }
+        return b.array();
+    }
+
+    /**
+     * 计算表校验和（按4字节无符号整数累加）
+     *
+     * @param t 表数据
+     * @return 校验和
+     */
+    private static long checksum(byte[] t) {
+        long sum = 0;
+        for (int i = 0; i < t.length; i += 4) {
+            long v = 0;
+            for (int j = 0; j < 4; j++) {
+                v = (v << 8) | (i + j < t.length ? t[i + j] & 0xFF : 0);
+            }
+            sum = (sum + v) & 0xFFFFFFFFL;
+        }
+        return sum;
+    }
+
+    /**
+     * 查找可用的cmap子表
+     */
+    private void findCmap() {
+        int cmap = tables.get("cmap")[0];
+        int num = u16(cmap + 2);
+        for (int i = 0; i < num; i++) {
+            int rec = cmap + 4 + 8 * i;
+            int platform = u16(rec);
+            int encoding = u16(rec + 2);
+            int sub = cmap + data.getInt(rec + 4);
+            if (sub < 0 || sub + 2 > data.limit()) {
+                continue;
+            }
+            int format = u16(sub);
+            boolean unicode = platform == 0 || (platform == 3 && (encoding == 1 || encoding == 10));
+            if (!unicode) {
+                continue;
+            }
+            if (format == 12 && cmap12 == -1) {
+                cmap12 = sub;
+            } else if (format == 4 && cmap4 == -1) {
+                cmap4 = sub;
+            }
+        }
+    }
+
+    /**
+     * 通过格式4子表查询字形
+     *
+     * @param c 字符
+     * @return 字形索引
+     */
+    private int lookup4(int c) {
+        int segCountX2 = u16(cmap4 + 6);
+        int endCodes = cmap4 + 14;
+        int startCodes = endCodes + segCountX2 + 2;
+        int idDeltas = startCodes + segCountX2;
+        int idRangeOffsets = idDeltas + segCountX2;
+        for (int i = 0; i < segCountX2; i += 2) {
+            int end = u16(endCodes + i);
+            if (c > end) {
+                continue;
+            }
+            int start = u16(startCodes + i);
+            if (c < start) {
+                return 0;
+            }
+            int delta = u16(idDeltas + i);
+            int rangeOffset = u16(idRangeOffsets + i);
+            if (rangeOffset == 0) {
+                return (c + delta) & 0xFFFF;
+            }
+            int addr = idRangeOffsets + i + rangeOffset + 2 * (c - start);
+            if (addr + 2 > data.limit()) {
+                return 0;
+            }
+            int gid = u16(addr);
+            return gid == 0 ? 0 : (gid + delta) & 0xFFFF;
+        }
+        return 0;
+    }
+
+    /**
+     * 通过格式12子表查询字形
+     *
+     * @param c 字符
+     * @return 字形索引
+     */
+    private int lookup12(int c) {
+        int numGroups = data.getInt(cmap12 + 12);
+        int lo = 0;
+        int hi = numGroups - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int g = cmap12 + 16 + 12 * mid;
+            long start = data.getInt(g) & 0xFFFFFFFFL;
+            long end = data.getInt(g + 4) & 0xFFFFFFFFL;
+            if (c < start) {
+                hi = mid - 1;
+            } else if (c > end) {
+                lo = mid + 1;
+            } else {
+                return (int) (data.getInt(g + 8) + (c - start));
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * 字形在glyf表中的偏移量
+     *
+     * @param gid 字形索引
+     * @return 偏移量
+     */
+    private int glyphOffset(int gid) {
+        int loca = tables.get("loca")[0];
+        return longLoca ? data.getInt(loca + 4 * gid) : u16(loca + 2 * gid) * 2;
+    }
+
+    private int u16(int pos) {
+        return data.getShort(pos) & 0xFFFF;
+    }
+}
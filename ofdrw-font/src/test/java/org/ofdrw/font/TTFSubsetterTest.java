@@ -0,0 +1,39 @@
+package org.ofdrw.font;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author agent
+ * @since 2026-10-17 13:14:52
+ */
+class TTFSubsetterTest {
+
+    @Test
+    void build() throws Exception {
+        byte[] full = Files.readAllBytes(Paths.get("src/test/resources/font_13132_0_edit.ttf"));
+        String text = "你好世界 Hello OFD";
+        TTFSubsetter src = new TTFSubsetter(full);
+
+        byte[] subset = src.add(text).build();
+        System.out.printf(">> 完整字体: %d bytes 子集字体: %d bytes%n", full.length, subset.length);
+        assertTrue(subset.length < full.length);
+
+        // 子集字体保持字形索引不变，未使用的字符不再映射
+        TTFSubsetter dst = new TTFSubsetter(subset);
+        text.codePoints().forEach(cp -> assertEquals(src.getGlyphId(cp), dst.getGlyphId(cp)));
+        int unused = "码".codePointAt(0);
+        if (src.getGlyphId(unused) != 0) {
+            assertEquals(0, dst.getGlyphId(unused));
+        }
+    }
+
+    @Test
+    void unsupported() {
+        assertThrows(java.io.IOException.class, () -> new TTFSubsetter(new byte[]{'t', 't', 'c', 'f', 0, 0, 0, 0, 0, 0, 0, 0}));
+    }
+}
@@ -40,15 +40,21 @@ public class GBT35275Validate {
      */
     public static VerifyInfo validate(String alg, byte[] tbsContent, byte[] signedValue)
             throws GeneralSecurityException {
-        ContentInfo contentInfo = ContentInfo.getInstance(signedValue);
-        if (contentInfo == null) {
-            throw new IllegalArgumentException("无法解析ContentInfo结构");
-        }
-        if (!OIDs.signedData.equals(contentInfo.getContentType())) {
-            throw new IllegalArgumentException("非法的签名数据类型，类型：" + contentInfo.getContentType());
+        final ASN1Sequence seq = ASN1Sequence.getInstance(signedValue);
+        SignedData signedData;
+        if (seq.size() > 0 && seq.getObjectAt(0) instanceof ASN1Integer) {
+            // [兼容] 未经ContentInfo包装的SignedData，如 完整性保护签名值
+            signedData = SignedData.getInstance(seq);
+        } else {
+            ContentInfo contentInfo = ContentInfo.getInstance(seq);
+            if (contentInfo == null) {
+                throw new IllegalArgumentException("无法解析ContentInfo结构");
+            }
+            if (!OIDs.signedData.equals(contentInfo.getContentType())) {
+                throw new IllegalArgumentException("非法的签名数据类型，类型：" + contentInfo.getContentType());
+            }
+            signedData = SignedData.getInstance(contentInfo.getContent());
         }
-
-        SignedData signedData = SignedData.getInstance(contentInfo.getContent());
         if (signedData == null) {
             throw new IllegalArgumentException("无法解析签名值格式，不符 GBT35275");
         }
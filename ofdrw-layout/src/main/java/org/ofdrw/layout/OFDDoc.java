@@ -24,6 +24,8 @@ import org.ofdrw.layout.exception.DocReadException;
 import org.ofdrw.layout.handler.RenderFinishHandler;
 import org.ofdrw.pkg.container.DocDir;
 import org.ofdrw.pkg.container.OFDDir;
+import org.ofdrw.pkg.container.ZipSink;
+import org.ofdrw.pkg.tool.OutputFiles;
 import org.ofdrw.reader.OFDReader;
 import org.ofdrw.reader.PageInfo;
 import org.ofdrw.reader.ResourceLocator;
@@ -144,6 +146,13 @@ public class OFDDoc implements Closeable {
      */
     private RenderFinishHandler renderingEndHandler;
 
+    /**
+     * 是否以流式方式打包
+     * <p>
+     * true 表示页面解析完成后直接写入OFD文件，不经过工作区
+     */
+    private boolean streamPack = false;
+
 
     /**
      * 在指定路径位置上创建一个OFD文件
@@ -254,6 +263,41 @@ public class OFDDoc implements Closeable {
         return this;
     }
 
+    /**
+     * 设置是否对嵌入的字体进行子集化
+     * <p>
+     * 默认关闭。开启时仅嵌入文档中实际使用的字形，可以大幅减小文档体积，
+     * 无法子集化的字体（如 ttc、otf）仍然嵌入完整字体。
+     *
+     * @param enable true - 子集化；false - 嵌入完整字体（默认）
+     * @return this
+     */
+    public OFDDoc setFontSubset(boolean enable) {
+        prm.setFontSubset(enable);
+        return this;
+    }
+
+    /**
+     * 设置是否以流式方式打包OFD文件
+     * <p>
+     * 开启后每个页面在解析完成后直接写入OFD文件（压缩包条目）并从内存中释放，
+     * 不再写入工作区后再次打包，仅 Document.xml、PublicRes.xml、OFD.xml 等
+     * 描述文件以及资源文件在关闭文档时写入，适用于大量页面的文档生成。
+     * <p>
+     * 开启后页面在 {@link #onRenderFinish(RenderFinishHandler)} 回调中已经不可访问，
+     * 仅在创建新文档时可用。
+     *
+     * @param enable true - 流式打包；false - 通过工作区打包（默认）
+     * @return this
+     */
+    public OFDDoc setStreamPack(boolean enable) {
+        if (enable && reader != null) {
+            throw new IllegalStateException("修改模式下不支持流式打包");
+        }
+        this.streamPack = enable;
+        return this;
+    }
+
     /**
      * 初始化OFD虚拟容器
      */
@@ -554,6 +598,10 @@ public class OFDDoc implements Closeable {
             closed = true;
         }
 
+        ZipSink sink = null;
+        // 流式打包写入文件时使用的临时文件，生成成功后移动到输出位置
+        Path sinkTmp = null;
+        boolean success = false;
         try {
             if (!streamQueue.isEmpty()) {
                 /*
@@ -578,8 +626,21 @@ public class OFDDoc implements Closeable {
             // 虚拟页面布局
             if (!vPageList.isEmpty()) {
                 DocDir docDefault = ofdDir.obtainDocDefault();
+                if (streamPack) {
+                    // 流式打包，页面解析完成后直接写入OFD文件
+                    if (outPath != null) {
+                        // 先写入输出位置同目录下的临时文件，避免失败时留下不完整的OFD文件
+                        sinkTmp = OutputFiles.createTemp(outPath);
+                        sink = new ZipSink(sinkTmp);
+                    } else if (outStream != null) {
+                        sink = new ZipSink(outStream);
+                    } else {
+                        throw new IllegalArgumentException("OFD文档输出地址错误或没有设置输出流");
+                    }
+                }
                 // 创建虚拟页面解析引擎，并持有文档上下文。
-                VPageParseEngine parseEngine = new VPageParseEngine(pageLayout, docDefault, prm, MaxUnitID);
+                VPageParseEngine parseEngine = new VPageParseEngine(pageLayout, docDefault, prm, MaxUnitID)
+                        .setZipSink(sink);
                 // 解析虚拟页面
                 parseEngine.process(vPageList);
             }
@@ -594,22 +655,45 @@ public class OFDDoc implements Closeable {
                 // 执行渲染结束回调函数
                 renderingEndHandler.handle(MaxUnitID, ofdDir, operateDocDir.getIndex());
             }
+            // 写入子集化后的字体文件
+            prm.flushFonts();
             // 设置最大对象ID
             cdata.setMaxUnitID(MaxUnitID.get());
             // final. 执行打包程序
-            if (outPath != null) {
+            if (sink != null) {
+                // 页面已经写入，写入剩余的描述文件与资源
+                ofdDir.jar(sink);
+                sink.close();
+                if (sinkTmp != null) {
+                    OutputFiles.replace(sinkTmp, outPath);
+                }
+            } else if (outPath != null) {
                 ofdDir.jar(outPath.toAbsolutePath());
             } else if (outStream != null) {
                 ofdDir.jar(outStream);
             } else {
                 throw new IllegalArgumentException("OFD文档输出地址错误或没有设置输出流");
             }
+            success = true;
         } finally {
-            if (reader != null) {
-                reader.close();
-            } else if (ofdDir != null) {
-                // 清除在生成OFD过程中的工作区产生的文件
-                ofdDir.clean();
+            try {
+                if (sink != null && !success) {
+                    try {
+                        sink.close();
+                    } finally {
+                        // 生成失败，删除不完整的临时文件
+                        if (sinkTmp != null) {
+                            Files.deleteIfExists(sinkTmp);
+                        }
+                    }
+                }
+            } finally {
+                if (reader != null) {
+                    reader.close();
+                } else if (ofdDir != null) {
+                    // 清除在生成OFD过程中的工作区产生的文件
+                    ofdDir.clean();
+                }
             }
         }
     }
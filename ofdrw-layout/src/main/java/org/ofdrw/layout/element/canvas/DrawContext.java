@@ -649,7 +649,7 @@ public class DrawContext implements Closeable {
         Font font = state.font.getFont();
         Double fontSize = state.font.getFontSize();
 
-        ST_ID id = resManager.addFont(font);
+        ST_ID id = resManager.addFont(font, text);
 
         // 新建字体对象
         TextObject txtObj = new CT_Text()
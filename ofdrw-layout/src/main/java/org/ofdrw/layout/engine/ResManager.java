@@ -14,13 +14,17 @@ import org.ofdrw.core.pageDescription.color.colorSpace.CT_ColorSpace;
 import org.ofdrw.core.pageDescription.drawParam.CT_DrawParam;
 import org.ofdrw.core.text.font.CT_Font;
 import org.ofdrw.font.Font;
+import org.ofdrw.font.TTFSubsetter;
 import org.ofdrw.pkg.container.DocDir;
+import org.ofdrw.pkg.container.VirtualContainer;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.HashMap;
-import java.util.Map;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -74,6 +78,40 @@ public class ResManager {
      */
     private Map<String, OFDElement> cache;
 
+    /**
+     * 是否对嵌入的字体进行子集化
+     * <p>
+     * 默认关闭，开启后仅嵌入文档中实际使用的字形
+     */
+    private boolean fontSubset = false;
+
+    /**
+     * 使用各字体绘制的字符（Unicode码点）
+     * <p>
+     * KEY: 字体全名，每次加入字体时都会记录，包括字体已经存在于缓存或文档中的情况
+     */
+    private Map<String, Set<Integer>> usedChars = new HashMap<>();
+
+    /**
+     * 需要完整嵌入的字体全名，即通过 {@link #addFont(Font)} 加入、无法得知绘制文字的字体
+     */
+    private Set<String> fullFonts = new HashSet<>();
+
+    /**
+     * 字体全名对应的字体文件，取首次提供的字体文件
+     */
+    private Map<String, Path> fontFiles = new HashMap<>();
+
+    /**
+     * 新加入文档、等待在 {@link #flushFonts()} 时子集化写入的字体全名
+     */
+    private Set<String> pendingFonts = new LinkedHashSet<>();
+
+    /**
+     * 编辑文档时文档中已有的字体全名
+     */
+    private Set<String> docFonts = new HashSet<>();
+
     private ResManager() {
     }
 
@@ -110,6 +148,7 @@ public class ResManager {
                     }
                     // 加入缓存防止重复加入
                     cache.put(completeFontName, item);
+                    docFonts.add(completeFontName);
                 });
             }
         } catch (FileNotFoundException e) {
@@ -119,16 +158,201 @@ public class ResManager {
         }
     }
 
+    /**
+     * 设置是否对嵌入的字体进行子集化
+     * <p>
+     * 开启时字体文件在 {@link #flushFonts()} 时才写入文档，
+     * 仅包含通过 {@link #addFont(Font, String)} 记录的字符。
+     *
+     * @param enable true - 子集化；false - 嵌入完整字体（默认）
+     * @return this
+     */
+    public ResManager setFontSubset(boolean enable) {
+        this.fontSubset = enable;
+        return this;
+    }
+
     /**
      * 增加字体资源
      * <p>
      * 如果字体已经被加入，那么不会重复加入
+     * <p>
+     * 由于无法得知该字体绘制的文字，字体文件将完整嵌入，
+     * 渲染文字时请使用 {@link #addFont(Font, String)}。
      *
      * @param font 字体描述对象
      * @return 字体的对象ID
      * @throws IOException 文件复制异常
      */
     public ST_ID addFont(Font font) throws IOException {
+        ST_ID id = addFont(font, null);
+        fullFonts.add(font.getCompleteFontName());
+        return id;
+    }
+
+    /**
+     * 增加字体资源，并记录使用该字体绘制的文字
+     * <p>
+     * 如果字体已经被加入，那么不会重复加入，但仍然记录绘制的文字，
+     * 保证子集化后的字体以及编辑文档时已经嵌入的字体包含这些文字的字形。
+     *
+     * @param font 字体描述对象
+     * @param text 使用该字体绘制的文字，用于字体子集化
+     * @return 字体的对象ID
+     * @throws IOException 文件复制异常
+     */
+    public ST_ID addFont(Font font, String text) throws IOException {
+        ST_ID id = registerFont(font);
+        String name = font.getCompleteFontName();
+        Path fontFile = font.getFontFile();
+        if (fontFile != null) {
+            fontFiles.putIfAbsent(name, fontFile.toAbsolutePath());
+        }
+        if (text != null) {
+            Set<Integer> chars = usedChars.computeIfAbsent(name, k -> new HashSet<>());
+            text.codePoints().forEach(chars::add);
+        }
+        return id;
+    }
+
+    /**
+     * 将等待嵌入的字体写入文档
+     * <p>
+     * 开启子集化时生成仅包含使用字形的字体文件，
+     * 无法子集化的字体（如 ttc、otf）嵌入完整字体文件。
+     * <p>
+     * 开启子集化并编辑文档时，若文档中已经嵌入的字体缺少新加入文字的字形（如 之前生成的子集字体），
+     * 那么使用提供的字体文件替换已嵌入的字体；未开启子集化时不检查已嵌入的字体。
+     * <p>
+     * 在文档打包前调用。
+     *
+     * @throws IOException 文件读写异常或字体数据损坏
+     */
+    public void flushFonts() throws IOException {
+        // 多个字体全名可能使用同一个字体文件，合并使用的字符，null表示完整嵌入
+        Map<Path, Set<Integer>> files = new LinkedHashMap<>();
+        for (String name : pendingFonts) {
+            Path fontFile = fontFiles.get(name);
+            Set<Integer> chars = fullFonts.contains(name) ? null : usedChars.getOrDefault(name, Collections.emptySet());
+            if (!files.containsKey(fontFile)) {
+                files.put(fontFile, chars == null ? null : new HashSet<>(chars));
+            } else if (files.get(fontFile) != null) {
+                if (chars == null) {
+                    files.put(fontFile, null);
+                } else {
+                    files.get(fontFile).addAll(chars);
+                }
+            }
+        }
+        for (Map.Entry<Path, Set<Integer>> kv : files.entrySet()) {
+            Path fontFile = kv.getKey();
+            Set<Integer> chars = kv.getValue();
+            Path target = Paths.get(docDir.obtainRes().getSysAbsPath(), fontFile.getFileName().toString());
+            byte[] subset = null;
+            if (chars != null && Files.notExists(target)) {
+                byte[] data = Files.readAllBytes(fontFile);
+                // 无法子集化的字体格式嵌入完整字体
+                if (TTFSubsetter.isTrueType(data)) {
+                    TTFSubsetter subsetter = new TTFSubsetter(data);
+                    chars.forEach(subsetter::add);
+                    subset = subsetter.build();
+                }
+            }
+            if (subset != null) {
+                Files.write(target, subset);
+            } else {
+                docDir.addResource(fontFile);
+            }
+        }
+        pendingFonts.clear();
+
+        // 编辑文档时文档中已有的字体，仅在开启子集化时检查（已嵌入的字体可能是之前生成的子集字体）
+        if (fontSubset) {
+            for (Map.Entry<String, Set<Integer>> kv : usedChars.entrySet()) {
+                String name = kv.getKey();
+                OFDElement cached = cache.get(name);
+                Path fontFile = fontFiles.get(name);
+                if (!docFonts.contains(name) || !(cached instanceof CT_Font) || fontFile == null) {
+                    continue;
+                }
+                Path embedded = embeddedFontFile((CT_Font) cached);
+                if (embedded != null && !covers(embedded, kv.getValue())) {
+                    Files.copy(fontFile, embedded, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+        }
+        usedChars.clear();
+        fullFonts.clear();
+    }
+
+    /**
+     * 获取文档中已嵌入的字体文件
+     *
+     * @param ctFont 字体描述
+     * @return 字体文件，字体没有嵌入文件或文件不存在时返回null
+     * @throws IOException 文件读取异常
+     */
+    private Path embeddedFontFile(CT_Font ctFont) throws IOException {
+        ST_Loc loc = ctFont.getFontFile();
+        if (loc == null) {
+            return null;
+        }
+        String path = loc.getLoc();
+        VirtualContainer vc;
+        if (path.startsWith("/")) {
+            // 相对于OFD根目录的绝对路径
+            vc = docDir.getParent();
+        } else {
+            vc = docDir;
+            ST_Loc base = pubRes().getBaseLoc();
+            if (base != null) {
+                path = base.getLoc() + "/" + path;
+            }
+        }
+        String[] parts = path.split("/");
+        try {
+            for (int i = 0; i < parts.length - 1; i++) {
+                if (parts[i].isEmpty() || ".".equals(parts[i])) {
+                    continue;
+                }
+                vc = vc.getContainer(parts[i], VirtualContainer::new);
+            }
+            return vc.getFile(parts[parts.length - 1]);
+        } catch (FileNotFoundException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 字体文件是否包含所有字符的映射
+     *
+     * @param fontFile 字体文件
+     * @param chars    字符
+     * @return true - 包含；无法解析的字体格式（如 ttc、otf）视为包含
+     * @throws IOException 文件读取异常或字体数据损坏
+     */
+    private static boolean covers(Path fontFile, Set<Integer> chars) throws IOException {
+        byte[] data = Files.readAllBytes(fontFile);
+        if (!TTFSubsetter.isTrueType(data)) {
+            return true;
+        }
+        TTFSubsetter font = new TTFSubsetter(data);
+        for (int c : chars) {
+            if (!Character.isWhitespace(c) && font.getGlyphId(c) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 注册字体资源
+     *
+     * @param font 字体描述对象
+     * @return 字体的对象ID
+     * @throws IOException 文件复制异常
+     */
+    private ST_ID registerFont(Font font) throws IOException {
         Res resMenu = pubRes();
 
         // 获取字体全名
@@ -169,8 +393,14 @@ public class ResManager {
                 }
             }
             if (fontFile != null) {
-                // 将字体文件加入到文档容器中
-                docDir.addResource(fontFile);
+                if (fontSubset) {
+                    // 字体文件在打包前根据使用的字符子集化后加入
+                    fontFiles.putIfAbsent(completeFontName, fontFile.toAbsolutePath());
+                    pendingFonts.add(completeFontName);
+                } else {
+                    // 将字体文件加入到文档容器中
+                    docDir.addResource(fontFile);
+                }
             }
             // 把字体加入到字体清单中
             fonts.addFont(ctFont);
@@ -14,8 +14,11 @@ import org.ofdrw.layout.engine.render.*;
 import org.ofdrw.pkg.container.DocDir;
 import org.ofdrw.pkg.container.PageDir;
 import org.ofdrw.pkg.container.PagesDir;
+import org.ofdrw.pkg.container.ZipSink;
 
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -57,6 +60,13 @@ public class VPageParseEngine {
      */
     private ResManager resManager;
 
+    /**
+     * 压缩包写出目标（可选）
+     * <p>
+     * 设置后页面在解析完成后直接写入压缩包，并从容器中释放
+     */
+    private ZipSink zipSink;
+
     /**
      * 创建虚拟页面解析器
      *
@@ -87,6 +97,20 @@ public class VPageParseEngine {
         }
     }
 
+    /**
+     * 设置压缩包写出目标
+     * <p>
+     * 设置后每个页面在解析完成后直接写入压缩包，不再写入工作区，
+     * 页面对象随后从容器中释放，因此无法再通过容器读取已经写出的页面。
+     *
+     * @param zipSink 压缩包写出目标，null表示页面保留在容器中
+     * @return this
+     */
+    public VPageParseEngine setZipSink(ZipSink zipSink) {
+        this.zipSink = zipSink;
+        return this;
+    }
+
     /**
      * 解析序列页面队列为OFD页面
      *
@@ -115,6 +139,14 @@ public class VPageParseEngine {
                 }
                 // 解析虚拟页面，并加入到容器中
                 convertPageContent(virtualPage, pageDir);
+                if (zipSink != null) {
+                    // 页面已经完成，直接写入压缩包并释放
+                    try {
+                        pageDir.flushTo(zipSink);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("页面写入OFD压缩包失败", e);
+                    }
+                }
             }
         }
     }
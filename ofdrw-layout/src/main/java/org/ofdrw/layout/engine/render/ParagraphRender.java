@@ -103,7 +103,7 @@ public class ParagraphRender {
                 // 将字体加入到资源中
                 ST_ID id = null;
                 try {
-                    id = resManager.addFont(s.getFont());
+                    id = resManager.addFont(s.getFont(), s.getText());
                 } catch (IOException ex) {
                     throw new RenderException("渲染异常，字体复制失败：" + ex.getMessage(), ex);
                 }
@@ -22,21 +22,30 @@ import org.ofdrw.core.graph.tight.CT_Region;
 import org.ofdrw.core.text.TextCode;
 import org.ofdrw.font.Font;
 import org.ofdrw.font.FontName;
+import org.ofdrw.font.TTFSubsetter;
 import org.ofdrw.layout.edit.AdditionVPage;
 import org.ofdrw.layout.edit.Annotation;
 import org.ofdrw.layout.edit.Attachment;
 import org.ofdrw.layout.element.*;
 import org.ofdrw.layout.element.canvas.Canvas;
+import org.ofdrw.layout.element.canvas.FontSetting;
 import org.ofdrw.pkg.container.DocDir;
 import org.ofdrw.pkg.container.OFDDir;
 import org.ofdrw.pkg.container.PageDir;
 import org.ofdrw.reader.OFDReader;
 
+import java.io.ByteArrayOutputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDate;
+import java.util.Enumeration;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -47,6 +56,193 @@ import static org.junit.jupiter.api.Assertions.*;
  * @since 2020-03-22 11:38:48
  */
 class OFDDocTest {
+    /**
+     * 字体子集化与完整嵌入字体的文档大小和生成时间对比
+     */
+    @Test
+    void fontSubset() throws IOException {
+        Path fontFile = Paths.get("../ofdrw-font/src/test/resources/font_13132_0_edit.ttf");
+        // 交替执行两轮，第一轮包含JVM预热时间
+        for (boolean subset : new boolean[]{false, true, false, true}) {
+            Path path = Paths.get("target/FontSubset_" + subset + ".ofd").toAbsolutePath();
+            long start = System.currentTimeMillis();
+            try (OFDDoc ofdDoc = new OFDDoc(path)) {
+                ofdDoc.setFontSubset(subset);
+                Font font = new Font("font_13132_0_edit", fontFile);
+                Paragraph p = new Paragraph().add(new Span(font, 8d, "Hello OFD Reader & Writer!"));
+                ofdDoc.add(p);
+                VirtualPage vPage = new VirtualPage(ofdDoc.getPageLayout());
+                Canvas canvas = new Canvas(200d, 50d, ctx -> {
+                    ctx.setFont(new FontSetting(8, font));
+                    ctx.fillText("Receipt No.0123456789", 10, 20);
+                });
+                canvas.setPosition(Position.Absolute).setX(5d).setY(45d);
+                vPage.add(canvas);
+                ofdDoc.addVPage(vPage);
+            }
+            System.out.printf(">> 子集化: %s 文档大小: %d bytes 花费: %dms%n",
+                    subset, path.toFile().length(), System.currentTimeMillis() - start);
+            byte[] embedded = embeddedFont(path, "Doc_0/Res/font_13132_0_edit.ttf");
+            if (subset) {
+                assertTrue(embedded.length < Files.size(fontFile));
+                assertGlyphs(embedded, "Hello OFD Reader & Writer!", "Receipt No.0123456789");
+            } else {
+                assertArrayEquals(Files.readAllBytes(fontFile), embedded);
+            }
+        }
+    }
+
+    /**
+     * 编辑已子集化的文档时，新增文字使用的字形也应写入字体文件
+     */
+    @Test
+    void fontSubsetEdit() throws IOException {
+        Path fontFile = Paths.get("../ofdrw-font/src/test/resources/font_13132_0_edit.ttf");
+        Path src = Paths.get("target/FontSubsetEdit_src.ofd").toAbsolutePath();
+        Path out = Paths.get("target/FontSubsetEdit_out.ofd").toAbsolutePath();
+        Font font = new Font("font_13132_0_edit", fontFile);
+        try (OFDDoc ofdDoc = new OFDDoc(src)) {
+            ofdDoc.setFontSubset(true);
+            ofdDoc.add(new Paragraph().add(new Span(font, 8d, "Hello")));
+        }
+        assertFalse(new TTFSubsetter(embeddedFont(src, "Doc_0/Res/font_13132_0_edit.ttf")).hasGlyph('W'));
+
+        try (OFDReader reader = new OFDReader(src);
+             OFDDoc ofdDoc = new OFDDoc(reader, out)) {
+            ofdDoc.setFontSubset(true);
+            AdditionVPage avp = ofdDoc.getAVPage(1);
+            Paragraph p = new Paragraph().add(new Span(font, 8d, "World 2024"));
+            p.setPosition(Position.Absolute).setX(20d).setY(60d).setWidth(100d);
+            avp.add(p);
+        }
+        assertGlyphs(embeddedFont(out, "Doc_0/Res/font_13132_0_edit.ttf"), "Hello", "World 2024");
+    }
+
+    /**
+     * 未开启子集化时编辑文档，不检查也不替换文档中已经嵌入的字体
+     */
+    @Test
+    void fontEditWithoutSubset() throws IOException {
+        Path fontFile = Paths.get("../ofdrw-font/src/test/resources/font_13132_0_edit.ttf");
+        Path src = Paths.get("target/FontEditWithoutSubset_src.ofd").toAbsolutePath();
+        Path out = Paths.get("target/FontEditWithoutSubset_out.ofd").toAbsolutePath();
+        Font font = new Font("font_13132_0_edit", fontFile);
+        try (OFDDoc ofdDoc = new OFDDoc(src)) {
+            ofdDoc.setFontSubset(true);
+            ofdDoc.add(new Paragraph().add(new Span(font, 8d, "Hello")));
+        }
+        byte[] embedded = embeddedFont(src, "Doc_0/Res/font_13132_0_edit.ttf");
+
+        try (OFDReader reader = new OFDReader(src);
+             OFDDoc ofdDoc = new OFDDoc(reader, out)) {
+            AdditionVPage avp = ofdDoc.getAVPage(1);
+            Paragraph p = new Paragraph().add(new Span(font, 8d, "World 2024"));
+            p.setPosition(Position.Absolute).setX(20d).setY(60d).setWidth(100d);
+            avp.add(p);
+        }
+        assertArrayEquals(embedded, embeddedFont(out, "Doc_0/Res/font_13132_0_edit.ttf"));
+    }
+
+    private static byte[] embeddedFont(Path ofd, String entryName) throws IOException {
+        try (ZipFile zip = new ZipFile(ofd.toFile())) {
+            ZipEntry entry = zip.getEntry(entryName);
+            assertNotNull(entry, entryName);
+            try (InputStream in = zip.getInputStream(entry)) {
+                ByteArrayOutputStream bout = new ByteArrayOutputStream();
+                byte[] buf = new byte[8192];
+                int n;
+                while ((n = in.read(buf)) != -1) {
+                    bout.write(buf, 0, n);
+                }
+                return bout.toByteArray();
+            }
+        }
+    }
+
+    private static void assertGlyphs(byte[] font, String... texts) throws IOException {
+        TTFSubsetter subsetter = new TTFSubsetter(font);
+        for (String text : texts) {
+            text.codePoints().filter(c -> !Character.isWhitespace(c))
+                    .forEach(c -> assertTrue(subsetter.hasGlyph(c), "缺少字形: " + new String(Character.toChars(c))));
+        }
+    }
+
+    /**
+     * 流式打包与工作区打包的生成时间对比
+     */
+    @Test
+    void streamPack() throws IOException {
+        final int pageNum = 300;
+        Path img = Paths.get("src/test/resources/eg_tulip.jpg");
+        // 交替执行两轮，第一轮包含JVM预热时间
+        for (boolean stream : new boolean[]{false, true, false, true}) {
+            Path path = Paths.get("target/StreamPack_" + stream + ".ofd").toAbsolutePath();
+            long start = System.currentTimeMillis();
+            try (OFDDoc ofdDoc = new OFDDoc(path)) {
+                ofdDoc.setStreamPack(stream);
+                for (int i = 0; i < pageNum; i++) {
+                    VirtualPage vPage = new VirtualPage(ofdDoc.getPageLayout());
+                    for (int j = 0; j < 40; j++) {
+                        Paragraph p = new Paragraph(String.format("第 %d 页 第 %d 行 OFD Reader & Writer 报表数据 %08d", i + 1, j + 1, i * 40 + j), 4d);
+                        p.setPosition(Position.Absolute).setX(20d).setY(20d + j * 6).setWidth(170d);
+                        vPage.add(p);
+                    }
+                    Img image = new Img(20, 10, img);
+                    image.setPosition(Position.Absolute).setX(20d).setY(270d);
+                    vPage.add(image);
+                    ofdDoc.addVPage(vPage);
+                }
+            }
+            long elapsed = System.currentTimeMillis() - start;
+            // 统计页面描述文件的大小，流式打包时这部分内容不再写入工作区
+            long pageBytes = 0;
+            try (ZipFile zip = new ZipFile(path.toFile())) {
+                Enumeration<? extends ZipEntry> entries = zip.entries();
+                while (entries.hasMoreElements()) {
+                    ZipEntry entry = entries.nextElement();
+                    if (entry.getName().endsWith(PageDir.ContentFileName)) {
+                        pageBytes += entry.getSize();
+                    }
+                }
+            }
+            try (OFDReader reader = new OFDReader(path)) {
+                assertEquals(pageNum, reader.getNumberOfPages());
+                assertNotNull(reader.getPage(pageNum));
+            }
+            System.out.printf(">> 流式打包: %s 文档大小: %d bytes 页面描述: %d bytes 花费: %dms%n",
+                    stream, path.toFile().length(), pageBytes, elapsed);
+        }
+        assertThrows(IllegalStateException.class, () -> {
+            try (OFDReader reader = new OFDReader(Paths.get("target/StreamPack_true.ofd"));
+                 OFDDoc ofdDoc = new OFDDoc(reader, Paths.get("target/StreamPack_edit.ofd"))) {
+                ofdDoc.setStreamPack(true);
+            }
+        });
+    }
+
+    /**
+     * 流式打包失败时不在输出位置留下不完整的文档
+     */
+    @Test
+    void streamPackFailed() throws IOException {
+        Path path = Paths.get("target/StreamPack_failed.ofd").toAbsolutePath();
+        Files.deleteIfExists(path);
+        assertThrows(IllegalStateException.class, () -> {
+            try (OFDDoc ofdDoc = new OFDDoc(path)) {
+                ofdDoc.setStreamPack(true);
+                ofdDoc.add(new Paragraph("你好呀，OFD Reader&Writer！", 8d));
+                // 页面已经写入压缩包后生成失败
+                ofdDoc.onRenderFinish((maxUnitID, ofdDir, index) -> {
+                    throw new IllegalStateException("生成失败");
+                });
+            }
+        });
+        assertFalse(Files.exists(path));
+        try (Stream<Path> files = Files.list(path.getParent())) {
+            assertFalse(files.anyMatch(f -> f.getFileName().toString().startsWith(path.getFileName().toString())));
+        }
+    }
+
     /**
      * 在生成文档的过程中获取文档信息
      */
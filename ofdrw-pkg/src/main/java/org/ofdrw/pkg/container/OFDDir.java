@@ -81,6 +81,20 @@ public class OFDDir extends VirtualContainer {
         initContainer();
     }
 
+    /**
+     * 通过压缩包随机访问数据源创建OFD文档容器
+     * <p>
+     * 容器中的文件将在被访问时才从压缩包中读取，不会预先解压整个文档
+     *
+     * @param zipSource 压缩包随机访问数据源，数据源的关闭由调用者负责
+     * @throws IllegalArgumentException 参数异常
+     */
+    public OFDDir(ZipSource zipSource) throws IllegalArgumentException {
+        super(zipSource == null ? null : zipSource.getWorkDir());
+        this.setZipSource(zipSource);
+        initContainer();
+    }
+
     /**
      * 容器初始化
      */
@@ -280,6 +294,8 @@ public class OFDDir extends VirtualContainer {
         }
         // 刷入缓存中的内容
         this.flush();
+        // 解压尚未从压缩包中读取的文件
+        extractAll();
         //打包
         ZipOutputStream zip = new ZipOutputStream(outStream);
         FileTime fileTime = FileTime.fromMillis(System.currentTimeMillis());
@@ -366,6 +382,8 @@ public class OFDDir extends VirtualContainer {
         }
         // 刷入缓存中的内容
         this.flush();
+        // 解压尚未从压缩包中读取的文件
+        extractAll();
         String fullOfFilePath = filePath.toAbsolutePath().toString();
         // 打包OFD文件
         this.zip(getSysAbsPath(), fullOfFilePath);
@@ -393,6 +411,56 @@ public class OFDDir extends VirtualContainer {
         }
     }
 
+    /**
+     * 打包OFD到压缩包写出目标
+     * <p>
+     * 缓存中的对象直接序列化为压缩包条目，不再写入工作目录，
+     * 工作目录中的文件中已经写入压缩包的条目将被跳过。
+     * <p>
+     * 压缩包写出目标的关闭由调用者负责。
+     *
+     * @param sink 压缩包写出目标
+     * @throws IOException IO异常
+     */
+    public void jar(ZipSink sink) throws IOException {
+        if (sink == null) {
+            throw new IllegalArgumentException("压缩包写出目标(sink)不能为空");
+        }
+        // 缓存中的对象直接写入压缩包
+        this.flushTo(sink);
+        // 解压尚未从压缩包中读取的文件
+        extractAll();
+        // 工作目录中的资源文件
+        try {
+            walk((absPath, file) -> {
+                if (!sink.exist(absPath)) {
+                    try {
+                        sink.putFile(absPath, file);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                return true;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * 将压缩包数据源中尚未读取的文件全部解压到容器目录
+     * <p>
+     * 若容器不是由压缩包数据源创建，那么不做任何操作
+     *
+     * @throws IOException 文件解压异常
+     */
+    private void extractAll() throws IOException {
+        ZipSource src = getZipSource();
+        if (src != null) {
+            src.extractAll();
+        }
+    }
+
     /**
      * 遍历OFD文件包内的所有文件
      *
@@ -403,6 +471,8 @@ public class OFDDir extends VirtualContainer {
         if (iterator == null) {
             throw new IllegalArgumentException("包内文件迭代器(iterator)为空");
         }
+        // 解压尚未从压缩包中读取的文件
+        extractAll();
         String sysRoot = FilenameUtils.separatorsToUnix(this.getSysAbsPath());
         Files.walkFileTree(this.getContainerPath(), new SimpleFileVisitor<Path>() {
             @Override
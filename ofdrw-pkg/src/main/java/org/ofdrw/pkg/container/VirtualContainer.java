@@ -5,6 +5,7 @@ import org.bouncycastle.jcajce.provider.digest.SM3;
 import org.dom4j.DocumentException;
 import org.dom4j.Element;
 import org.ofdrw.core.DefaultElementProxy;
+import org.ofdrw.core.TrackedElement;
 import org.ofdrw.core.basicType.ST_Loc;
 import org.ofdrw.pkg.tool.ElemCup;
 
@@ -55,11 +56,26 @@ public class VirtualContainer implements Closeable {
     private Map<String, byte[]> fileSrcHash;
     private MessageDigest digest;
 
+    /**
+     * 用于保存读取到的对象的修改计数
+     * <p>
+     * 可追踪修改的对象（见 {@link TrackedElement}）通过修改计数判断是否改动，
+     * 无需序列化计算Hash，无法追踪修改的对象仍使用 {@link #fileSrcHash}。
+     */
+    private Map<String, Integer> fileModStamp;
+
     /**
      * 目录中的虚拟容器缓存
      */
     private Map<String, VirtualContainer> dirCache;
 
+    /**
+     * 压缩包随机访问数据源
+     * <p>
+     * 仅在根容器上设置，为null时表示容器内容已经完整存在于文件系统中
+     */
+    private ZipSource zipSource;
+
 
     /**
      * 获取虚拟容器的名称
@@ -74,6 +90,7 @@ public class VirtualContainer implements Closeable {
         fileCache = new HashMap<>(7);
         dirCache = new HashMap<>(5);
         fileSrcHash = new HashMap<>(7);
+        fileModStamp = new HashMap<>(7);
         digest = null;
         this.parent = this;
     }
@@ -225,6 +242,9 @@ public class VirtualContainer implements Closeable {
             element = ((DefaultElementProxy) element).getProxy();
         }
         fileCache.put(fileName, element);
+        // 替换为新的对象，原有的改动记录失效
+        fileModStamp.remove(fileName);
+        fileSrcHash.remove(fileName);
         return this;
     }
 
@@ -236,18 +256,35 @@ public class VirtualContainer implements Closeable {
      * @throws FileNotFoundException 文件不存在
      * @throws DocumentException     元素序列化异常
      */
-    public Element getObj(String fileName) throws FileNotFoundException, DocumentException {
+    public synchronized Element getObj(String fileName) throws FileNotFoundException, DocumentException {
         if (fileName == null || fileName.length() == 0) {
             throw new IllegalArgumentException("文件名不能为空");
         }
         Element element = fileCache.get(fileName);
         if (element == null) {
-            // 缓存中不存在，从文件目录中尝试读取
-            Path file = getFile(fileName);
-            // 反序列化文件为对象
-            element = ElemCup.inject(file);
-            // 计算并存储刚读取到对象序列化后的Hash
-            fileSrcHash.put(fileName, objectHash(element));
+            Path file = Paths.get(fullPath, fileName);
+            ZipSource src = getZipSource();
+            if (src != null && !Files.exists(file) && src.exist(file)) {
+                // 直接从压缩包中解析，不解压到文件系统
+                try (InputStream in = src.open(file)) {
+                    element = ElemCup.inject(in, fileName);
+                } catch (IOException e) {
+                    throw new DocumentException(e);
+                }
+            } else {
+                // 缓存中不存在，从文件目录中尝试读取
+                file = getFile(fileName);
+                // 反序列化文件为对象
+                element = ElemCup.inject(file);
+            }
+            final int modCount = TrackedElement.modCountOf(element);
+            if (modCount >= 0) {
+                // 记录刚读取到对象的修改计数
+                fileModStamp.put(fileName, modCount);
+            } else {
+                // 无法追踪修改，计算并存储刚读取到对象序列化后的Hash
+                fileSrcHash.put(fileName, objectHash(element));
+            }
             // 从文件加载元素，那么缓存该元素对象
             fileCache.put(fileName, element);
         }
@@ -261,7 +298,7 @@ public class VirtualContainer implements Closeable {
      * @return Hash
      * @throws DocumentException 文档读取和计算过程中异常
      */
-    private byte[] objectHash(Element element) throws DocumentException {
+    private synchronized byte[] objectHash(Element element) throws DocumentException {
         try {
             if (digest == null) {
                 digest = new SM3.Digest();
@@ -283,6 +320,11 @@ public class VirtualContainer implements Closeable {
      * @return true - 已经被改动;false - 未改动
      */
     private boolean fileChanged(String filename, Element element) {
+        Integer modCount = fileModStamp.get(filename);
+        if (modCount != null) {
+            // 可追踪修改的对象只需比较修改计数，对象变得无法追踪时计数为-1
+            return TrackedElement.modCountOf(element) != modCount;
+        }
         if (digest == null) {
             return true;
         }
@@ -310,12 +352,50 @@ public class VirtualContainer implements Closeable {
             throw new IllegalArgumentException("文件名为空");
         }
         Path res = Paths.get(fullPath, fileName);
+        if (Files.notExists(res)) {
+            ZipSource src = getZipSource();
+            if (src != null && src.exist(res)) {
+                // 按需从压缩包中解压该文件
+                try {
+                    return src.extract(res);
+                } catch (IOException e) {
+                    throw new RuntimeException("无法从压缩包中解压文件 [ " + fileName + " ]", e);
+                }
+            }
+        }
         if (Files.isDirectory(res) || Files.notExists(res)) {
             throw new FileNotFoundException("无法在目录: " + fullPath + "中找到，文件 [ " + fileName + " ]");
         }
         return res;
     }
 
+    /**
+     * 获取容器的压缩包随机访问数据源
+     * <p>
+     * 子容器将使用根容器的数据源
+     *
+     * @return 数据源，不存在时返还null
+     */
+    public ZipSource getZipSource() {
+        if (zipSource != null || parent == this) {
+            return zipSource;
+        }
+        return parent.getZipSource();
+    }
+
+    /**
+     * 设置压缩包随机访问数据源
+     * <p>
+     * 设置后容器内不存在于文件系统中的文件将按需从压缩包中读取
+     *
+     * @param zipSource 数据源
+     * @return this
+     */
+    protected VirtualContainer setZipSource(ZipSource zipSource) {
+        this.zipSource = zipSource;
+        return this;
+    }
+
 
     /**
      * 获取一个虚拟容器对象
@@ -329,7 +409,7 @@ public class VirtualContainer implements Closeable {
      * @param <R>    容器子类
      * @return 新建或已经存在的容器
      */
-    public <R extends VirtualContainer> R obtainContainer(String name, Function<Path, R> mapper) {
+    public synchronized <R extends VirtualContainer> R obtainContainer(String name, Function<Path, R> mapper) {
         if (name == null || name.length() == 0) {
             throw new IllegalArgumentException("容器名称（name）为空");
         }
@@ -361,7 +441,7 @@ public class VirtualContainer implements Closeable {
      * @return 容器对象
      * @throws FileNotFoundException 文件不存在
      */
-    public <R extends VirtualContainer> R getContainer(String name, Function<Path, R> mapper) throws FileNotFoundException {
+    public synchronized <R extends VirtualContainer> R getContainer(String name, Function<Path, R> mapper) throws FileNotFoundException {
         Path p = Paths.get(fullPath, name);
         if (Files.notExists(p) || !Files.isDirectory(p)) {
             throw new FileNotFoundException("容器内无法找名为：" + name + "目录");
@@ -426,7 +506,8 @@ public class VirtualContainer implements Closeable {
             // 缓存中不存在，从文件目录中尝试读取
             Path res = Paths.get(fullPath, fileName);
             if (Files.isDirectory(res) || Files.notExists(res)) {
-                return false;
+                ZipSource src = getZipSource();
+                return src != null && src.exist(res);
             } else {
                 return true;
             }
@@ -438,10 +519,16 @@ public class VirtualContainer implements Closeable {
 
     /**
      * 删除整个虚拟容器
+     * <p>
+     * 容器由压缩包数据源创建时，同时从数据源中删除容器内的文件，打包时不会再出现。
      */
     public void clean() {
         try {
             Path path = getContainerPath();
+            ZipSource src = getZipSource();
+            if (src != null) {
+                src.delete(path);
+            }
             // 删除整个文件目录
             if (Files.exists(path)) {
                 FileUtils.deleteDirectory(path.toFile());
@@ -476,6 +563,36 @@ public class VirtualContainer implements Closeable {
         }
         fileCache.clear();
         dirCache.clear();
+        fileModStamp.clear();
+        fileSrcHash.clear();
+    }
+
+    /**
+     * 将缓存中的对象直接写入压缩包
+     * <p>
+     * 递归的写入容器中包含的其他容器，对象不经过文件系统，
+     * 写入后从缓存中移除，此后无法再通过容器读取这些对象。
+     * <p>
+     * 容器目录中已经存在的文件不受影响，由 {@link OFDDir#jar(ZipSink)} 打包。
+     *
+     * @param sink 压缩包写出目标
+     * @throws IOException 写入IO异常
+     */
+    public void flushTo(ZipSink sink) throws IOException {
+        if (sink == null) {
+            throw new IllegalArgumentException("压缩包写出目标(sink)为空");
+        }
+        final ST_Loc absLoc = getAbsLoc();
+        for (Map.Entry<String, Element> kv : fileCache.entrySet()) {
+            sink.putObj(absLoc.cat(kv.getKey()).getLoc(), kv.getValue());
+        }
+        for (VirtualContainer container : dirCache.values()) {
+            container.flushTo(sink);
+        }
+        fileCache.clear();
+        dirCache.clear();
+        fileModStamp.clear();
+        fileSrcHash.clear();
     }
 
     /**
@@ -513,11 +630,37 @@ public class VirtualContainer implements Closeable {
             // 检查文件是否被修改，只有被修改的文件才能够非flush
             if (fileChanged(name, element)) {
                 ElemCup.dumpUpNS(element, filePath);
+                final int modCount = TrackedElement.modCountOf(element);
+                if (modCount >= 0 && fileModStamp.containsKey(name)) {
+                    // 已经与文件同步
+                    fileModStamp.put(name, modCount);
+                }
             }
         }
         return this;
     }
 
+    /**
+     * 从缓存中移除指定对象
+     * <p>
+     * 对象已被改动时先写入文件系统，此后再次获取将重新从文件中加载。
+     * 用于逐页处理大文档时释放已经处理完成的页面，避免所有页面同时驻留内存。
+     *
+     * @param name 文件名称
+     * @return this
+     * @throws IOException 写入文件IO异常
+     */
+    public synchronized VirtualContainer releaseObj(String name) throws IOException {
+        if (name == null || !fileCache.containsKey(name)) {
+            return this;
+        }
+        flushFileByName(name);
+        fileCache.remove(name);
+        fileModStamp.remove(name);
+        fileSrcHash.remove(name);
+        return this;
+    }
+
     /**
      * 获取在容器中的绝对路径
      *
@@ -0,0 +1,302 @@
+package org.ofdrw.pkg.container;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.CountingOutputStream;
+import org.dom4j.Element;
+import org.ofdrw.core.DefaultElementProxy;
+import org.ofdrw.pkg.tool.ElemCup;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * OFD压缩包顺序写出目标
+ * <p>
+ * 与 {@link ZipSource} 相对，对象与文件直接序列化为压缩包条目，
+ * 不经过工作目录，适用于大量页面的文档生成，页面在生成后即可写出并释放。
+ * <p>
+ * 条目的父目录条目将在写入条目前自动写入，同名条目仅写入一次。
+ *
+ * @author agent
+ * @since 2026-10-17 13:40:59
+ */
+public class ZipSink implements Closeable {
+
+    /**
+     * 压缩包输出流
+     */
+    private final ZipOutputStream zip;
+
+    /**
+     * 统计写出字节数的输出流
+     */
+    private final CountingOutputStream counter;
+
+    /**
+     * 是否由本对象负责关闭目标流
+     */
+    private final boolean ownStream;
+
+    /**
+     * 已经写入的条目名称
+     */
+    private final Set<String> entries = new HashSet<>();
+
+    /**
+     * 条目修改时间
+     * <p>
+     * 仅设置DOS格式的修改时间，不写入扩展时间戳，避免每个条目增加额外字段
+     */
+    private final long time = System.currentTimeMillis();
+
+    /**
+     * 是否已经关闭
+     */
+    private boolean closed = false;
+
+    /**
+     * 创建OFD文件并写入
+     * <p>
+     * 若文件已经存在那么将会被覆盖
+     *
+     * @param ofdFile OFD文件路径
+     * @throws IOException 文件创建异常
+     */
+    public ZipSink(Path ofdFile) throws IOException {
+        if (ofdFile == null) {
+            throw new IllegalArgumentException("OFD文件路径(ofdFile)为空");
+        }
+        this.counter = new CountingOutputStream(new BufferedOutputStream(Files.newOutputStream(ofdFile)));
+        this.zip = new ZipOutputStream(counter);
+        this.ownStream = true;
+    }
+
+    /**
+     * 写入到输出流
+     *
+     * @param out 输出流，关闭时仅结束压缩包写入并刷新，流的关闭由调用者负责
+     */
+    public ZipSink(OutputStream out) {
+        if (out == null) {
+            throw new IllegalArgumentException("输出流(out)为空");
+        }
+        this.counter = new CountingOutputStream(out);
+        this.zip = new ZipOutputStream(counter);
+        this.ownStream = false;
+    }
+
+    /**
+     * 判断条目是否已经写入
+     *
+     * @param absPath 包内绝对路径，如 /Doc_0/Document.xml
+     * @return true - 已经写入；false - 未写入
+     */
+    public synchronized boolean exist(String absPath) {
+        return entries.contains(entryName(absPath));
+    }
+
+    /**
+     * 序列化元素对象为压缩包条目
+     *
+     * @param absPath 包内绝对路径，如 /Doc_0/Pages/Page_0/Content.xml
+     * @param element 元素对象
+     * @throws IOException IO异常
+     */
+    public synchronized void putObj(String absPath, Element element) throws IOException {
+        if (element == null) {
+            return;
+        }
+        while (element instanceof DefaultElementProxy) {
+            element = ((DefaultElementProxy) element).getProxy();
+        }
+        if (!putEntry(absPath)) {
+            return;
+        }
+        ElemCup.dumpUpNS(element, zip);
+        zip.closeEntry();
+    }
+
+    /**
+     * 写入文件为压缩包条目
+     *
+     * @param absPath 包内绝对路径，如 /Doc_0/Res/image_1.png
+     * @param file    文件路径
+     * @throws IOException IO异常
+     */
+    public synchronized void putFile(String absPath, Path file) throws IOException {
+        if (file == null || !Files.isRegularFile(file)) {
+            return;
+        }
+        if (!putEntry(absPath)) {
+            return;
+        }
+        Files.copy(file, zip);
+        zip.closeEntry();
+    }
+
+    /**
+     * 写入输入流内容为压缩包条目
+     *
+     * @param absPath 包内绝对路径，如 /Doc_0/Res/image_1.png
+     * @param in      输入流，读取至末尾，流的关闭由调用者负责
+     * @throws IOException IO异常
+     */
+    public synchronized void putStream(String absPath, InputStream in) throws IOException {
+        if (in == null) {
+            return;
+        }
+        if (!putEntry(absPath)) {
+            return;
+        }
+        IOUtils.copy(in, zip);
+        zip.closeEntry();
+    }
+
+    /**
+     * 以不压缩（STORED）的方式写入条目
+     * <p>
+     * 适用于无法压缩的内容，如 密文、已经压缩的图片，可以省去压缩计算
+     *
+     * @param absPath 包内绝对路径，如 /Doc_0/Res/image_1.dat
+     * @param data    条目内容
+     * @param off     起始位置
+     * @param len     长度
+     * @throws IOException IO异常
+     */
+    public synchronized void putStored(String absPath, byte[] data, int off, int len) throws IOException {
+        if (data == null) {
+            return;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(data, off, len);
+        if (!putEntry(absPath, ZipEntry.STORED, len, crc.getValue())) {
+            return;
+        }
+        zip.write(data, off, len);
+        zip.closeEntry();
+    }
+
+    /**
+     * 获取已经写出的字节数（压缩后）
+     *
+     * @return 字节数
+     */
+    public synchronized long getWrittenBytes() {
+        return counter.getByteCount();
+    }
+
+    /**
+     * 获取已经写入的条目数量（含目录）
+     *
+     * @return 条目数量
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * 开始写入条目
+     *
+     * @param absPath 包内绝对路径
+     * @return true - 可以写入内容；false - 条目已经存在
+     * @throws IOException IO异常
+     */
+    private boolean putEntry(String absPath) throws IOException {
+        return putEntry(absPath, -1, -1, -1);
+    }
+
+    /**
+     * 开始写入条目
+     *
+     * @param absPath 包内绝对路径
+     * @param method  压缩方法，-1 表示使用默认方法
+     * @param size    条目大小，仅在不压缩时需要
+     * @param crc     条目CRC32，仅在不压缩时需要
+     * @return true - 可以写入内容；false - 条目已经存在
+     * @throws IOException IO异常
+     */
+    private boolean putEntry(String absPath, int method, long size, long crc) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("压缩包已经关闭，无法写入 " + absPath);
+        }
+        String name = entryName(absPath);
+        if (name.isEmpty()) {
+            throw new IllegalArgumentException("条目路径(absPath)为空");
+        }
+        if (entries.contains(name)) {
+            return false;
+        }
+        // 按顺序写入尚未写入的父目录条目
+        int i = name.indexOf('/');
+        while (i != -1) {
+            String dir = name.substring(0, i + 1);
+            if (entries.add(dir)) {
+                newEntry(dir);
+                zip.closeEntry();
+            }
+            i = name.indexOf('/', i + 1);
+        }
+        entries.add(name);
+        ZipEntry entry = new ZipEntry(name);
+        entry.setTime(time);
+        if (method == ZipEntry.STORED) {
+            entry.setMethod(ZipEntry.STORED);
+            entry.setSize(size);
+            entry.setCompressedSize(size);
+            entry.setCrc(crc);
+        }
+        zip.putNextEntry(entry);
+        return true;
+    }
+
+    private void newEntry(String name) throws IOException {
+        ZipEntry entry = new ZipEntry(name);
+        entry.setTime(time);
+        zip.putNextEntry(entry);
+    }
+
+    /**
+     * 包内绝对路径转换为条目名称
+     *
+     * @param absPath 包内绝对路径
+     * @return 条目名称（不以 / 开头）
+     */
+    private static String entryName(String absPath) {
+        if (absPath == null) {
+            return "";
+        }
+        String name = absPath.replace('\\', '/');
+        int start = 0;
+        while (start < name.length() && name.charAt(start) == '/') {
+            start++;
+        }
+        return name.substring(start);
+    }
+
+    /**
+     * 结束压缩包写入
+     * <p>
+     * 通过文件路径创建时将同时关闭文件
+     *
+     * @throws IOException IO异常
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (ownStream) {
+            zip.close();
+        } else {
+            zip.finish();
+            counter.flush();
+        }
+    }
+}
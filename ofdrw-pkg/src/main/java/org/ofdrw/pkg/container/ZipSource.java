@@ -0,0 +1,518 @@
+package org.ofdrw.pkg.container;
+
+import org.apache.commons.io.FilenameUtils;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
+
+/**
+ * OFD压缩包随机访问数据源
+ * <p>
+ * 通过ZIP中央目录建立包内文件索引，不预先解压整个文档，
+ * 虚拟容器在需要时才按需读取或解压指定的条目。
+ * <p>
+ * 打开时仅在工作目录中创建目录结构（不写入任何文件内容），
+ * 使基于文件系统的目录判断保持可用。
+ * <p>
+ * 读取操作可以在多个线程中并发执行，删除、映射、解压操作互斥执行。
+ *
+ * @author agent
+ * @since 2026-10-17 12:55:21
+ */
+public class ZipSource implements Closeable {
+
+    /**
+     * ZIP文件
+     */
+    private final ZipFile zipFile;
+
+    /**
+     * 工作目录（按需解压的文件存放目录）
+     */
+    private final Path workDir;
+
+    /**
+     * 包内文件索引
+     * <p>
+     * Key: 包内绝对路径，如 /Doc_0/Document.xml
+     */
+    private final Map<String, ZipEntry> index;
+
+    /**
+     * 条目解码器
+     * <p>
+     * Key: 包内绝对路径
+     */
+    private final Map<String, EntryDecoder> decoders = new ConcurrentHashMap<>();
+
+    /**
+     * 已经解压到工作目录中的条目
+     */
+    private final Set<String> extracted;
+
+    /**
+     * 单次操作解压许可最大字节数，为了防止 ZIP炸弹攻击
+     */
+    private final long maxSize;
+
+    /**
+     * 数据源打开以来累计解压（读取）的字节数，仅用于统计
+     */
+    private final AtomicLong inflatedBytes = new AtomicLong(0);
+
+    /**
+     * 累计写入磁盘的字节数
+     */
+    private volatile long writtenBytes = 0;
+
+    /**
+     * 打开OFD文件建立随机访问数据源
+     *
+     * @param ofdFile OFD文件
+     * @param workDir 工作目录，按需解压的文件将存放于此
+     * @param maxSize 单次操作解压许可最大字节数，小于等于0表示不限制
+     * @throws IOException 文件读取异常或文件不是一个合法的ZIP文件
+     */
+    public ZipSource(Path ofdFile, Path workDir, long maxSize) throws IOException {
+        if (ofdFile == null || Files.notExists(ofdFile)) {
+            throw new IllegalArgumentException("文件位置(ofdFile)不正确");
+        }
+        if (workDir == null) {
+            throw new IllegalArgumentException("工作目录(workDir)为空");
+        }
+        this.workDir = workDir.toAbsolutePath();
+        this.maxSize = maxSize;
+        this.zipFile = openZip(ofdFile.toFile());
+        this.index = new ConcurrentHashMap<>();
+        this.extracted = Collections.synchronizedSet(new HashSet<>());
+        buildIndex();
+    }
+
+    /**
+     * 打开ZIP文件
+     * <p>
+     * 优先使用UTF-8解析文件名，失败时尝试使用GBK（Windows下生成的中文目录）
+     *
+     * @param file 文件
+     * @return ZIP文件
+     * @throws IOException 无法解析
+     */
+    private static ZipFile openZip(File file) throws IOException {
+        try {
+            return new ZipFile(file, StandardCharsets.UTF_8);
+        } catch (ZipException e) {
+            return new ZipFile(file, Charset.forName("GBK"));
+        }
+    }
+
+    /**
+     * 读取中央目录建立索引，并在工作目录中创建目录结构
+     *
+     * @throws IOException 路径不合法或目录创建失败
+     */
+    private void buildIndex() throws IOException {
+        String root = workDir.toFile().getCanonicalPath();
+        Enumeration<? extends ZipEntry> entries = zipFile.entries();
+        while (entries.hasMoreElements()) {
+            ZipEntry entry = entries.nextElement();
+            File f = new File(root, entry.getName()).getCanonicalFile();
+            // 校验路径合法性
+            if (!f.getAbsolutePath().startsWith(root)) {
+                throw new IOException(String.format("不合法的路径：%s", f.getAbsolutePath()));
+            }
+            File dir = entry.isDirectory() ? f : f.getParentFile();
+            if (!dir.isDirectory() && !dir.mkdirs()) {
+                throw new IOException("failed to create directory " + dir);
+            }
+            if (!entry.isDirectory()) {
+                index.put(toPkgPath(entry.getName()), entry);
+            }
+        }
+    }
+
+    /**
+     * 转换为包内绝对路径
+     *
+     * @param name 条目名称或相对路径
+     * @return 包内绝对路径
+     */
+    private static String toPkgPath(String name) {
+        name = FilenameUtils.separatorsToUnix(name);
+        return name.startsWith("/") ? name : "/" + name;
+    }
+
+    /**
+     * 文件系统路径转换为包内绝对路径
+     *
+     * @param sysPath 工作目录中的文件系统路径
+     * @return 包内绝对路径，不在工作目录中时返还null
+     */
+    private String toPkgPath(Path sysPath) {
+        Path abs = sysPath.toAbsolutePath().normalize();
+        if (!abs.startsWith(workDir)) {
+            return null;
+        }
+        return toPkgPath(workDir.relativize(abs).toString());
+    }
+
+    /**
+     * 获取工作目录
+     *
+     * @return 工作目录
+     */
+    public Path getWorkDir() {
+        return workDir;
+    }
+
+    /**
+     * 包内是否存在该文件
+     *
+     * @param sysPath 工作目录中的文件系统路径
+     * @return true - 存在；false - 不存在
+     */
+    public boolean exist(Path sysPath) {
+        String pkgPath = toPkgPath(sysPath);
+        return pkgPath != null && index.containsKey(pkgPath) && !removed(pkgPath);
+    }
+
+    /**
+     * 包内是否存在该文件
+     *
+     * @param pkgAbsPath 包内绝对路径，如 /Doc_0/Document.xml
+     * @return true - 存在；false - 不存在
+     */
+    public boolean exist(String pkgAbsPath) {
+        if (pkgAbsPath == null) {
+            return false;
+        }
+        String pkgPath = toPkgPath(pkgAbsPath);
+        return index.containsKey(pkgPath) && !removed(pkgPath);
+    }
+
+    /**
+     * 已经解压到工作目录的文件是否被删除
+     *
+     * @param pkgPath 包内绝对路径
+     * @return true - 已解压且工作目录中已不存在
+     */
+    private boolean removed(String pkgPath) {
+        return extracted.contains(pkgPath) && Files.notExists(workDir.resolve(pkgPath.substring(1)));
+    }
+
+    /**
+     * 从数据源中删除文件或目录
+     * <p>
+     * 删除的条目从索引中移除，此后不能再读取，打包、遍历时也不会再解压这些条目。
+     * 工作目录中的文件由调用者删除。
+     *
+     * @param sysPath 工作目录中的文件或目录的文件系统路径
+     */
+    public synchronized void delete(Path sysPath) {
+        String pkgPath = toPkgPath(sysPath);
+        if (pkgPath == null) {
+            return;
+        }
+        String dirPrefix = pkgPath.endsWith("/") ? pkgPath : pkgPath + "/";
+        index.keySet().removeIf(name -> name.equals(pkgPath) || name.startsWith(dirPrefix));
+        decoders.keySet().removeIf(name -> name.equals(pkgPath) || name.startsWith(dirPrefix));
+        extracted.removeIf(name -> name.equals(pkgPath) || name.startsWith(dirPrefix));
+    }
+
+    /**
+     * 获取包内文件解压后的大小
+     *
+     * @param pkgAbsPath 包内绝对路径，如 /Doc_0/Res/image_1.png
+     * @return 文件大小，未知时返还 -1
+     * @throws FileNotFoundException 文件不存在
+     */
+    public long size(String pkgAbsPath) throws FileNotFoundException {
+        ZipEntry entry = pkgAbsPath == null ? null : index.get(toPkgPath(pkgAbsPath));
+        if (entry == null) {
+            throw new FileNotFoundException("压缩包中不存在文件 [ " + pkgAbsPath + " ]");
+        }
+        return entry.getSize();
+    }
+
+    /**
+     * 获取中央目录中记录的包内文件CRC32校验值
+     *
+     * @param pkgAbsPath 包内绝对路径，如 /Doc_0/Res/image_1.png
+     * @return CRC32校验值，未知时返还 -1
+     * @throws FileNotFoundException 文件不存在
+     */
+    public long crc(String pkgAbsPath) throws FileNotFoundException {
+        ZipEntry entry = pkgAbsPath == null ? null : index.get(toPkgPath(pkgAbsPath));
+        if (entry == null) {
+            throw new FileNotFoundException("压缩包中不存在文件 [ " + pkgAbsPath + " ]");
+        }
+        return entry.getCrc();
+    }
+
+    /**
+     * 获取包内所有文件的绝对路径
+     * <p>
+     * 返还调用时刻的快照，之后的删除、映射操作不会反映到返还的集合中
+     *
+     * @return 包内绝对路径集合
+     */
+    public Set<String> entryNames() {
+        return Collections.unmodifiableSet(new HashSet<>(index.keySet()));
+    }
+
+    /**
+     * 直接从压缩包中打开文件流
+     * <p>
+     * 若该文件已经被解压到工作目录（可能已被修改），那么以工作目录中的文件为准。
+     * <p>
+     * 流的关闭由调用者负责
+     *
+     * @param sysPath 工作目录中的文件系统路径
+     * @return 文件输入流
+     * @throws IOException 文件不存在或读取异常
+     */
+    public InputStream open(Path sysPath) throws IOException {
+        if (Files.isRegularFile(sysPath)) {
+            return Files.newInputStream(sysPath);
+        }
+        String pkgPath = toPkgPath(sysPath);
+        ZipEntry entry = pkgPath == null || removed(pkgPath) ? null : index.get(pkgPath);
+        if (entry == null) {
+            throw new FileNotFoundException("压缩包中不存在文件 [ " + sysPath + " ]");
+        }
+        return openEntry(pkgPath, entry, new Budget());
+    }
+
+    /**
+     * 直接从压缩包中打开文件流
+     * <p>
+     * 若该文件已经被解压到工作目录（可能已被修改），那么以工作目录中的文件为准。
+     * <p>
+     * 流的关闭由调用者负责
+     *
+     * @param pkgAbsPath 包内绝对路径，如 /Doc_0/Signs/Sign_0/SignedValue.dat
+     * @return 文件输入流
+     * @throws IOException 文件不存在或读取异常
+     */
+    public InputStream open(String pkgAbsPath) throws IOException {
+        if (pkgAbsPath == null) {
+            throw new FileNotFoundException("包内路径(pkgAbsPath)为空");
+        }
+        return open(workDir.resolve(toPkgPath(pkgAbsPath).substring(1)));
+    }
+
+    /**
+     * 打开条目，存在解码器时返还解码后的流
+     *
+     * @param pkgPath 包内绝对路径
+     * @param entry   条目
+     * @param budget  本次操作的解压许可
+     * @return 条目内容输入流
+     * @throws IOException 读取异常
+     */
+    private InputStream openEntry(String pkgPath, ZipEntry entry, Budget budget) throws IOException {
+        InputStream in = zipFile.getInputStream(entry);
+        EntryDecoder decoder = decoders.get(pkgPath);
+        if (decoder != null) {
+            in = decoder.decode(pkgPath, in);
+        }
+        return new LimitedInputStream(in, budget);
+    }
+
+    /**
+     * 将包内路径映射到另一个条目，读取时使用解码器转换条目内容
+     * <p>
+     * 用于读取经过转换的包，如 加密包中明文路径映射到密文条目，在读取时解密。
+     * <p>
+     * 映射后条目将不能通过原路径访问，映射需要在读取任何文件之前完成。
+     *
+     * @param pkgAbsPath   包内绝对路径，如 /Doc_0/Document.xml
+     * @param entryAbsPath 条目的包内绝对路径，如 /Doc_0/document.dat
+     * @param decoder      条目解码器，为null时表示不做转换
+     * @throws FileNotFoundException 条目不存在
+     */
+    public synchronized void remap(String pkgAbsPath, String entryAbsPath, EntryDecoder decoder) throws FileNotFoundException {
+        if (pkgAbsPath == null || entryAbsPath == null) {
+            throw new IllegalArgumentException("包内路径(pkgAbsPath)或条目路径(entryAbsPath)为空");
+        }
+        String from = toPkgPath(entryAbsPath);
+        String to = toPkgPath(pkgAbsPath);
+        ZipEntry entry = index.remove(from);
+        if (entry == null) {
+            throw new FileNotFoundException("压缩包中不存在文件 [ " + entryAbsPath + " ]");
+        }
+        index.put(to, entry);
+        decoders.remove(from);
+        if (decoder != null) {
+            decoders.put(to, decoder);
+        } else {
+            decoders.remove(to);
+        }
+    }
+
+    /**
+     * 解压指定文件到工作目录
+     * <p>
+     * 若文件已经解压，那么直接返还
+     *
+     * @param sysPath 工作目录中的文件系统路径
+     * @return 解压后的文件路径
+     * @throws IOException 文件不存在或解压异常
+     */
+    public synchronized Path extract(Path sysPath) throws IOException {
+        return extract(sysPath, new Budget());
+    }
+
+    /**
+     * 解压指定文件到工作目录
+     *
+     * @param sysPath 工作目录中的文件系统路径
+     * @param budget  本次操作的解压许可
+     * @return 解压后的文件路径
+     * @throws IOException 文件不存在或解压异常
+     */
+    private Path extract(Path sysPath, Budget budget) throws IOException {
+        String pkgPath = toPkgPath(sysPath);
+        if (pkgPath == null || extracted.contains(pkgPath) || Files.isRegularFile(sysPath)) {
+            return sysPath;
+        }
+        ZipEntry entry = index.get(pkgPath);
+        if (entry == null) {
+            throw new FileNotFoundException("压缩包中不存在文件 [ " + pkgPath + " ]");
+        }
+        try (InputStream in = openEntry(pkgPath, entry, budget);
+             OutputStream out = Files.newOutputStream(sysPath)) {
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                out.write(buffer, 0, n);
+                writtenBytes += n;
+            }
+        }
+        extracted.add(pkgPath);
+        return sysPath;
+    }
+
+    /**
+     * 解压所有尚未解压的文件到工作目录
+     * <p>
+     * 打包、遍历等需要完整目录的操作前调用，已删除的条目不会被解压。
+     * 本次解压的所有条目共用一个解压许可。
+     *
+     * @throws IOException 解压异常
+     */
+    public synchronized void extractAll() throws IOException {
+        Budget budget = new Budget();
+        for (String pkgPath : index.keySet()) {
+            if (!extracted.contains(pkgPath)) {
+                extract(workDir.resolve(pkgPath.substring(1)), budget);
+            }
+        }
+    }
+
+    /**
+     * 获取数据源打开以来累计解压（读取）的字节数
+     * <p>
+     * 该值只增不减，仅用于统计，解压许可按单次操作计算，不受该值影响。
+     *
+     * @return 字节数
+     */
+    public long getInflatedBytes() {
+        return inflatedBytes.get();
+    }
+
+    /**
+     * 获取累计写入工作目录的字节数
+     *
+     * @return 字节数
+     */
+    public long getWrittenBytes() {
+        return writtenBytes;
+    }
+
+    /**
+     * 累加读取字节数，超出本次操作的许可时抛出异常
+     *
+     * @param n      本次读取字节数
+     * @param budget 本次操作的解压许可
+     * @throws IOException 超出解压许可最大字节数
+     */
+    private void count(int n, Budget budget) throws IOException {
+        inflatedBytes.addAndGet(n);
+        budget.used += n;
+        if (maxSize > 0 && budget.used > maxSize) {
+            throw new IOException(String.format("写入数据超出ZIP解压最大字节数(%s)限制！", maxSize));
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        zipFile.close();
+    }
+
+    /**
+     * 条目解码器
+     * <p>
+     * 在读取条目时对内容进行转换，如 解密
+     */
+    @FunctionalInterface
+    public interface EntryDecoder {
+        /**
+         * 转换条目内容
+         *
+         * @param pkgPath 包内绝对路径
+         * @param raw     条目原始内容输入流
+         * @return 转换后的输入流，关闭时需要同时关闭原始流
+         * @throws IOException 转换异常
+         */
+        InputStream decode(String pkgPath, InputStream raw) throws IOException;
+    }
+
+    /**
+     * 单次操作（读取一个文件或解压全部文件）已解压的字节数
+     * <p>
+     * 每次操作独享，仅在执行该操作的线程中访问
+     */
+    private static final class Budget {
+        private long used = 0;
+    }
+
+    /**
+     * 统计解压字节数的输入流，用于防止ZIP炸弹
+     */
+    private class LimitedInputStream extends FilterInputStream {
+
+        private final Budget budget;
+
+        LimitedInputStream(InputStream in, Budget budget) {
+            super(in);
+            this.budget = budget;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count(1, budget);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count(n, budget);
+            }
+            return n;
+        }
+    }
+}
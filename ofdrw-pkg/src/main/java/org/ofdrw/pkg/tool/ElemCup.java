@@ -3,6 +3,7 @@ package org.ofdrw.pkg.tool;
 import org.dom4j.*;
 import org.dom4j.io.SAXReader;
 import org.dom4j.io.XMLWriter;
+import org.ofdrw.core.TrackedDocumentFactory;
 
 import java.io.*;
 import java.nio.file.Files;
@@ -27,6 +28,35 @@ public class ElemCup {
      */
     private static final OFDNameSpaceModifier SpaceModifier = new OFDNameSpaceModifier();
 
+    /**
+     * 解析XML
+     * <p>
+     * 使用线程复用的解析器（见 {@link SAXReaderFactory#acquire()}），未自定义文档工厂时，
+     * 使用可追踪修改的文档工厂，以便容器在刷新时仅写入被修改的对象。
+     *
+     * @param in       输入流，流的关闭由调用者负责
+     * @param fileName 文件名，开启解析统计时用于区分文件类型，可以为null
+     * @return 根元素
+     * @throws DocumentException 文件解析异常
+     */
+    private static Element read(InputStream in, String fileName) throws DocumentException {
+        final boolean metrics = ParseMetrics.isEnabled();
+        final long start = metrics ? System.nanoTime() : 0;
+        final SAXReader reader = SAXReaderFactory.acquire();
+        try {
+            if (reader.getDocumentFactory() == DocumentFactory.getInstance()) {
+                reader.setDocumentFactory(TrackedDocumentFactory.getInstance());
+            }
+            Document document = reader.read(in);
+            return document.getRootElement();
+        } finally {
+            SAXReaderFactory.release(reader);
+            if (metrics) {
+                ParseMetrics.record(fileName, System.nanoTime() - start);
+            }
+        }
+    }
+
     /**
      * 从文件加载反序列化元素对象
      *
@@ -35,15 +65,40 @@ public class ElemCup {
      * @throws DocumentException 文件解析异常
      */
     public static Element inject(Path file) throws DocumentException {
-        SAXReader reader = SAXReaderFactory.create();
         try (InputStream in = Files.newInputStream(file)) {
-            Document document = reader.read(in);
-            return document.getRootElement();
+            return read(in, file.getFileName() == null ? null : file.getFileName().toString());
         } catch (IOException e) {
             throw new DocumentException(e);
         }
     }
 
+    /**
+     * 从输入流加载反序列化元素对象
+     * <p>
+     * 流的关闭由调用者负责
+     *
+     * @param in 输入流
+     * @return 反序列化的元素对象
+     * @throws DocumentException 文件解析异常
+     */
+    public static Element inject(InputStream in) throws DocumentException {
+        return read(in, null);
+    }
+
+    /**
+     * 从输入流加载反序列化元素对象
+     * <p>
+     * 流的关闭由调用者负责
+     *
+     * @param in       输入流
+     * @param fileName 流对应的文件名，用于按文件类型统计解析耗时（见 {@link ParseMetrics}）
+     * @return 反序列化的元素对象
+     * @throws DocumentException 文件解析异常
+     */
+    public static Element inject(InputStream in, String fileName) throws DocumentException {
+        return read(in, fileName);
+    }
+
     /**
      * 序列化文档对象
      *
@@ -100,7 +155,27 @@ public class ElemCup {
             }
             Files.createFile(to);
         }
+        try (OutputStream out = Files.newOutputStream(to)) {
+            dumpUpNS(e, out);
+        }
+    }
 
+    /**
+     * 序列化元素并升级命名空间到输出流
+     * <p>
+     * 命名空间为 {@link org.ofdrw.core.Const#OFD_NAMESPACE}
+     *
+     * @param e   元素
+     * @param out 输出流，写入后不会关闭，流的关闭由调用者负责
+     * @throws IOException IO异常
+     */
+    public static void dumpUpNS(Element e, OutputStream out) throws IOException {
+        if (e == null) {
+            return;
+        }
+        if (out == null) {
+            throw new IllegalArgumentException("文档元素序列化输出流（out）为空");
+        }
         Document doc = DocumentHelper.createDocument();
         if (e.getDocument() != null) {
             // 如果元素所属文档不为空，说明是从文件中加载得到，此时需要Clone这个对象以放入新的Document中
@@ -108,11 +183,10 @@ public class ElemCup {
         }
         doc.add(e);
         doc.accept(SpaceModifier);
-        try (OutputStream out = Files.newOutputStream(to)) {
-            XMLWriter writeToFile = new XMLWriter(out);
-            writeToFile.write(doc);
-            writeToFile.close();
-        }
+        XMLWriter writer = new XMLWriter(out);
+        writer.write(doc);
+        // 仅刷新缓冲区，不关闭输出流
+        writer.flush();
     }
 
     /**
@@ -0,0 +1,68 @@
+package org.ofdrw.pkg.tool;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 输出文件工具
+ * <p>
+ * 生成的文件先写入输出位置同目录下的临时文件，成功后再移动到输出位置，
+ * 失败时不会在输出位置留下不完整的文件，输出位置与源文件相同时也不会在读取过程中破坏源文件。
+ * <p>
+ * 与 {@link Files#createTempFile(Path, String, String)} 不同，临时文件的权限不固定为仅所有者可读写：
+ * 新建的文件权限由umask决定，覆盖已经存在的文件时沿用原文件的权限。
+ *
+ * @author agent
+ * @since 2026-10-17 18:12:06
+ */
+public final class OutputFiles {
+
+    private OutputFiles() {
+    }
+
+    /**
+     * 在输出位置同目录下创建临时文件
+     *
+     * @param dest 输出位置
+     * @return 临时文件路径（绝对路径）
+     * @throws IOException 文件创建异常
+     */
+    public static Path createTemp(Path dest) throws IOException {
+        final Path abs = dest.toAbsolutePath();
+        final String prefix = abs.getFileName().toString();
+        while (true) {
+            Path tmp = abs.resolveSibling(prefix + Long.toUnsignedString(ThreadLocalRandom.current().nextLong()) + ".tmp");
+            try {
+                // 不指定文件属性，权限由umask决定
+                return Files.createFile(tmp);
+            } catch (FileAlreadyExistsException e) {
+                // 文件名冲突，重新生成
+            }
+        }
+    }
+
+    /**
+     * 将临时文件移动到输出位置
+     * <p>
+     * 输出位置已经存在时替换该文件，并沿用其权限
+     *
+     * @param tmp  临时文件
+     * @param dest 输出位置
+     * @throws IOException 文件移动异常
+     */
+    public static void replace(Path tmp, Path dest) throws IOException {
+        final Path abs = dest.toAbsolutePath();
+        if (Files.exists(abs)) {
+            PosixFileAttributeView view = Files.getFileAttributeView(abs, PosixFileAttributeView.class);
+            if (view != null) {
+                Files.setPosixFilePermissions(tmp, view.readAttributes().permissions());
+            }
+        }
+        Files.move(tmp, abs, StandardCopyOption.REPLACE_EXISTING);
+    }
+}
@@ -0,0 +1,182 @@
+package org.ofdrw.pkg.tool;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * XML解析统计
+ * <p>
+ * 按文件类型记录 {@link ElemCup} 反序列化文件的次数与耗时，
+ * 文件类型为文件名中的数字替换为“N”后的结果，如 Content.xml、Sign_N.xml。
+ * <p>
+ * 统计默认关闭，需要时通过 {@link #setEnabled(boolean)} 开启，关闭时解析过程不产生任何统计开销。
+ * 统计数据为进程内全局数据，所有方法线程安全。
+ *
+ * @author agent
+ * @since 2026-10-17 14:38:15
+ */
+public final class ParseMetrics {
+
+    /**
+     * 无法获知文件名时的文件类型
+     */
+    public static final String UNKNOWN = "(stream)";
+
+    /**
+     * 是否开启统计
+     */
+    private static volatile boolean Enabled = false;
+
+    /**
+     * 文件类型与统计数据
+     */
+    private static final ConcurrentHashMap<String, Stat> Stats = new ConcurrentHashMap<>();
+
+    /**
+     * 单一文件类型的统计数据
+     */
+    public static final class Stat {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+
+        private Stat() {
+        }
+
+        private Stat(long count, long nanos) {
+            this.count.add(count);
+            this.nanos.add(nanos);
+        }
+
+        /**
+         * @return 解析次数
+         */
+        public long getCount() {
+            return count.sum();
+        }
+
+        /**
+         * @return 解析总耗时（纳秒）
+         */
+        public long getTotalNanos() {
+            return nanos.sum();
+        }
+
+        /**
+         * @return 平均每次解析耗时（纳秒），没有解析时为0
+         */
+        public long getAverageNanos() {
+            long c = getCount();
+            return c == 0 ? 0 : getTotalNanos() / c;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("count=%d, total=%.2fms, avg=%.1fus",
+                    getCount(), getTotalNanos() / 1e6, getAverageNanos() / 1e3);
+        }
+    }
+
+    private ParseMetrics() {
+    }
+
+    /**
+     * 设置是否开启统计
+     * <p>
+     * 默认关闭，关闭后已有的统计数据保留，可以通过 {@link #reset()} 清空。
+     *
+     * @param enabled true - 开启；false - 关闭
+     */
+    public static void setEnabled(boolean enabled) {
+        Enabled = enabled;
+    }
+
+    /**
+     * @return true - 统计已开启
+     */
+    public static boolean isEnabled() {
+        return Enabled;
+    }
+
+    /**
+     * 记录一次解析
+     *
+     * @param fileName 文件名，可以为null
+     * @param nanos    解析耗时（纳秒）
+     */
+    static void record(String fileName, long nanos) {
+        Stat stat = Stats.computeIfAbsent(typeOf(fileName), k -> new Stat());
+        stat.count.increment();
+        stat.nanos.add(nanos);
+    }
+
+    /**
+     * 获取文件类型，将文件名中连续的数字替换为“N”
+     *
+     * @param fileName 文件名，可以为null
+     * @return 文件类型
+     */
+    static String typeOf(String fileName) {
+        if (fileName == null) {
+            return UNKNOWN;
+        }
+        int i = 0;
+        final int len = fileName.length();
+        while (i < len && !isDigit(fileName.charAt(i))) {
+            i++;
+        }
+        if (i == len) {
+            // 不含数字的文件名（如 Content.xml）直接作为文件类型
+            return fileName;
+        }
+        StringBuilder sb = new StringBuilder(len).append(fileName, 0, i);
+        while (i < len) {
+            char c = fileName.charAt(i++);
+            if (!isDigit(c)) {
+                sb.append(c);
+                continue;
+            }
+            sb.append('N');
+            while (i < len && isDigit(fileName.charAt(i))) {
+                i++;
+            }
+        }
+        return sb.toString();
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * 获取统计数据快照
+     *
+     * @return 文件类型与统计数据，按文件类型排序
+     */
+    public static Map<String, Stat> snapshot() {
+        Map<String, Stat> res = new TreeMap<>();
+        Stats.forEach((k, v) -> res.put(k, new Stat(v.getCount(), v.getTotalNanos())));
+        return res;
+    }
+
+    /**
+     * 获取所有文件类型的解析次数之和
+     *
+     * @return 解析次数
+     */
+    public static long getTotalCount() {
+        long sum = 0;
+        for (Stat stat : Stats.values()) {
+            sum += stat.getCount();
+        }
+        return sum;
+    }
+
+    /**
+     * 清空统计数据
+     */
+    public static void reset() {
+        Stats.clear();
+    }
+}
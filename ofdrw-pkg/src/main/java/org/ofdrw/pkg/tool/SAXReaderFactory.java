@@ -3,9 +3,15 @@ package org.ofdrw.pkg.tool;
 import java.util.function.Supplier;
 
 import org.dom4j.io.SAXReader;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
 
 /**
  * SAXReader 工厂
+ * <p>
+ * 除每次创建新实例的 {@link #create()} 外，还提供按线程复用的 {@link #acquire()}、{@link #release(SAXReader)}，
+ * 避免每次解析都重新查找JAXP工厂、构造解析器并设置安全特性。
  *
  * @author gongxiangyang
  * @since 2022/5/7 11:29
@@ -17,6 +23,41 @@ public class SAXReaderFactory {
      */
     private static Supplier<SAXReader> CustomizeProducer = null;
 
+    /**
+     * 是否按线程复用 SAXReader
+     */
+    private static volatile boolean Reuse = true;
+
+    /**
+     * 清除解析器中对上一次解析结果的引用
+     */
+    private static final DefaultHandler EmptyHandler = new DefaultHandler();
+
+    /**
+     * 线程复用的解析器
+     */
+    private static final ThreadLocal<Slot> Local = new ThreadLocal<>();
+
+    /**
+     * 线程复用的解析器槽位
+     */
+    private static final class Slot {
+        /**
+         * 创建解析器时使用的生成器，生成器变更后重新创建
+         */
+        final Supplier<SAXReader> producer;
+        final SAXReader reader;
+        /**
+         * 是否正在使用，嵌套解析时不复用
+         */
+        boolean inUse = false;
+
+        Slot(Supplier<SAXReader> producer, SAXReader reader) {
+            this.producer = producer;
+            this.reader = reader;
+        }
+    }
+
 
     /**
      * 设置用户自定义的 SAXReader 生成器
@@ -29,6 +70,20 @@ public class SAXReaderFactory {
         }
     }
 
+    /**
+     * 设置是否按线程复用 SAXReader
+     * <p>
+     * 默认复用，关闭后 {@link #acquire()} 每次都创建新实例。
+     *
+     * @param reuse true - 复用；false - 每次创建
+     */
+    public static void setReuse(boolean reuse) {
+        Reuse = reuse;
+        if (!reuse) {
+            Local.remove();
+        }
+    }
+
 
     /**
      * 创建 SAXReader 实例
@@ -43,4 +98,55 @@ public class SAXReaderFactory {
             return CustomizeProducer.get();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 获取当前线程复用的 SAXReader 实例
+     * <p>
+     * 实例在线程内首次使用时通过 {@link #create()} 创建，安全特性只设置一次。
+     * 使用完成后必须调用 {@link #release(SAXReader)} 归还，归还前不得交给其它线程使用。
+     * <p>
+     * 未开启复用或当前线程的实例正在使用（嵌套解析）时，返还新创建的实例。
+     *
+     * @return SAXReader 对象
+     */
+    public static SAXReader acquire() {
+        if (!Reuse) {
+            return create();
+        }
+        final Supplier<SAXReader> producer = CustomizeProducer;
+        Slot slot = Local.get();
+        if (slot == null || slot.producer != producer) {
+            slot = new Slot(producer, create());
+            Local.set(slot);
+        }
+        if (slot.inUse) {
+            return create();
+        }
+        slot.inUse = true;
+        return slot.reader;
+    }
+
+    /**
+     * 归还由 {@link #acquire()} 获取的 SAXReader 实例
+     * <p>
+     * 归还时清除解析器对上一次解析结果的引用，以免线程长期持有已解析的文档。
+     *
+     * @param reader SAXReader 对象
+     */
+    public static void release(SAXReader reader) {
+        final Slot slot = Local.get();
+        if (slot == null || slot.reader != reader) {
+            return;
+        }
+        try {
+            XMLReader xmlReader = reader.getXMLReader();
+            xmlReader.setContentHandler(EmptyHandler);
+            xmlReader.setDTDHandler(EmptyHandler);
+            xmlReader.setProperty("http://xml.org/sax/properties/lexical-handler", null);
+        } catch (SAXException | RuntimeException e) {
+            // 无法清除引用时不再复用该实例
+            Local.remove();
+        }
+        slot.inUse = false;
+    }
+}
@@ -0,0 +1,265 @@
+package org.ofdrw.pkg.tool;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 共享的有界工作线程池
+ * <p>
+ * 签名杂凑计算、完整性校验、流式加密等可并行处理包内文件的操作共用该线程池，
+ * 不为每次操作创建线程。线程数量不超过可用处理器数量，均为守护线程，空闲线程在超时后回收。
+ * <p>
+ * 任务通过 {@link #submit(Executor, Callable)} 提交，通过 {@link #get(FutureTask, String)} 获取结果：
+ * 线程池拒绝或尚未开始执行的任务在获取结果时由调用线程执行，已经开始或完成的任务不会重复执行，
+ * 因此线程池繁忙或调用线程本身就是池中的线程时也不会死锁。
+ * <p>
+ * 需要按提交顺序处理结果时使用 {@link OrderedWindow}，同时处理中的任务数量有限。
+ *
+ * @author agent
+ * @since 2026-10-17 17:05:42
+ */
+public final class WorkerPool {
+
+    /**
+     * 工作线程编号
+     */
+    private static final AtomicInteger threadNo = new AtomicInteger(0);
+
+    /**
+     * 共享线程池，首次使用时创建
+     */
+    private static volatile ExecutorService shared;
+
+    private WorkerPool() {
+    }
+
+    /**
+     * 获取共享线程池
+     *
+     * @return 共享线程池
+     */
+    public static Executor shared() {
+        ExecutorService pool = shared;
+        if (pool == null) {
+            synchronized (WorkerPool.class) {
+                pool = shared;
+                if (pool == null) {
+                    int n = Runtime.getRuntime().availableProcessors();
+                    ThreadPoolExecutor tpe = new ThreadPoolExecutor(n, n,
+                            30L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+                        Thread t = new Thread(r, "ofdrw-worker-" + threadNo.incrementAndGet());
+                        t.setDaemon(true);
+                        return t;
+                    });
+                    tpe.allowCoreThreadTimeOut(true);
+                    shared = pool = tpe;
+                }
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * 获取执行任务的线程池
+     *
+     * @param executor    调用者提供的线程池，为null时使用共享线程池
+     * @param parallelism 并行数量
+     * @return 线程池，并行数量小于等于1时返还null，表示在调用线程中执行
+     */
+    public static Executor pool(Executor executor, int parallelism) {
+        if (parallelism <= 1) {
+            return null;
+        }
+        return executor != null ? executor : shared();
+    }
+
+    /**
+     * 提交任务
+     * <p>
+     * 没有线程池时在调用线程中立即执行；线程池拒绝时在获取结果时由调用线程执行。
+     *
+     * @param executor 线程池，可以为null
+     * @param task     任务
+     * @param <T>      任务结果类型
+     * @return 任务，通过 {@link #get(FutureTask, String)} 获取结果
+     */
+    public static <T> FutureTask<T> submit(Executor executor, Callable<T> task) {
+        FutureTask<T> f = new FutureTask<>(task);
+        if (executor == null) {
+            f.run();
+            return f;
+        }
+        try {
+            executor.execute(f);
+        } catch (RejectedExecutionException e) {
+            // 在获取结果时由调用线程执行
+        }
+        return f;
+    }
+
+    /**
+     * 获取任务结果，任务尚未开始执行时由调用线程执行
+     *
+     * @param future 任务
+     * @param action 操作名称，用于异常信息，如 “文件校验”
+     * @param <T>    任务结果类型
+     * @return 任务结果
+     * @throws IOException 任务执行过程中的IO异常或其它受检异常，或等待被中断
+     */
+    public static <T> T get(FutureTask<T> future, String action) throws IOException {
+        return get(future, action, IOException.class);
+    }
+
+    /**
+     * 获取任务结果，任务尚未开始执行时由调用线程执行
+     * <p>
+     * 任务抛出的指定类型异常原样抛出，不包装为IO异常
+     *
+     * @param future  任务
+     * @param action  操作名称，用于异常信息，如 “文件加密”
+     * @param checked 原样抛出的受检异常类型
+     * @param <T>     任务结果类型
+     * @param <E>     原样抛出的受检异常类型
+     * @return 任务结果
+     * @throws IOException 任务执行过程中的IO异常或其它受检异常，或等待被中断
+     * @throws E           任务执行过程中的指定类型异常
+     */
+    public static <T, E extends Exception> T get(FutureTask<T> future, String action, Class<E> checked) throws IOException, E {
+        future.run();
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(action + "被中断");
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause(), action, checked);
+        }
+    }
+
+    /**
+     * 抛出任务执行过程中的异常
+     * <p>
+     * IO异常、运行时异常、错误以及指定类型的异常原样抛出，其它异常包装为IO异常
+     *
+     * @param cause   任务执行过程中的异常
+     * @param action  操作名称，用于异常信息
+     * @param checked 原样抛出的受检异常类型
+     * @param <E>     原样抛出的受检异常类型
+     * @return 不会返还，便于调用者使用 {@code throw} 语句
+     * @throws IOException 任务执行过程中的IO异常或其它受检异常
+     * @throws E           任务执行过程中的指定类型异常
+     */
+    public static <E extends Exception> IOException rethrow(Throwable cause, String action, Class<E> checked) throws IOException, E {
+        if (cause instanceof IOException) {
+            throw (IOException) cause;
+        } else if (checked.isInstance(cause)) {
+            throw checked.cast(cause);
+        } else if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        } else if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        throw new IOException(action + "异常", cause);
+    }
+
+    /**
+     * 按提交顺序取出结果的有界任务窗口
+     * <p>
+     * 任务提交到线程池并行执行，结果按照提交顺序取出，
+     * 窗口已满时调用者应先取出最早的结果再提交新的任务，使处理中的任务数量不超过上限。
+     * <p>
+     * 窗口不是线程安全的，仅在提交任务的线程中使用。
+     *
+     * @param <T> 任务结果类型
+     */
+    public static final class OrderedWindow<T> implements AutoCloseable {
+
+        /**
+         * 处理中的任务，按提交顺序排列
+         */
+        private final ArrayDeque<FutureTask<T>> tasks = new ArrayDeque<>();
+
+        /**
+         * 线程池，为null时在调用线程中执行
+         */
+        private final Executor pool;
+
+        /**
+         * 处理中的任务数量上限
+         */
+        private final int maxInFlight;
+
+        /**
+         * 创建任务窗口
+         *
+         * @param pool        线程池，为null时在提交时由调用线程执行
+         * @param maxInFlight 处理中的任务数量上限
+         */
+        public OrderedWindow(Executor pool, int maxInFlight) {
+            this.pool = pool;
+            this.maxInFlight = Math.max(1, maxInFlight);
+        }
+
+        /**
+         * 提交任务
+         *
+         * @param task 任务
+         */
+        public void submit(Callable<T> task) {
+            tasks.add(WorkerPool.submit(pool, task));
+        }
+
+        /**
+         * @return 处理中的任务数量是否已经达到上限
+         */
+        public boolean isFull() {
+            return tasks.size() >= maxInFlight;
+        }
+
+        /**
+         * @return 是否没有处理中的任务
+         */
+        public boolean isEmpty() {
+            return tasks.isEmpty();
+        }
+
+        /**
+         * 取出最早提交的任务结果
+         *
+         * @param action 操作名称，用于异常信息
+         * @return 任务结果
+         * @throws IOException 任务执行过程中的异常，或等待被中断
+         */
+        public T next(String action) throws IOException {
+            return get(tasks.poll(), action);
+        }
+
+        /**
+         * 取出最早提交的任务结果
+         *
+         * @param action  操作名称，用于异常信息
+         * @param checked 原样抛出的受检异常类型
+         * @param <E>     原样抛出的受检异常类型
+         * @return 任务结果
+         * @throws IOException 任务执行过程中的异常，或等待被中断
+         * @throws E           任务执行过程中的指定类型异常
+         */
+        public <E extends Exception> T next(String action, Class<E> checked) throws IOException, E {
+            return get(tasks.poll(), action, checked);
+        }
+
+        /**
+         * 取消尚未取出的任务
+         */
+        @Override
+        public void close() {
+            for (FutureTask<T> f : tasks) {
+                f.cancel(true);
+            }
+            tasks.clear();
+        }
+    }
+}
@@ -9,10 +9,12 @@ import org.ofdrw.pkg.container.content.PageContent;
 import org.ofdrw.pkg.container.content.PublicResContent;
 
 
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.zip.ZipFile;
 
 
 class OFDDirTest {
@@ -60,6 +62,35 @@ class OFDDirTest {
     }
 
 
+    @Test
+    void jarSink() throws IOException {
+        final OFDDir ofdDir = build();
+        Path img = Paths.get("target/sink-res.bin");
+        Files.write(img, new byte[4096]);
+        ofdDir.getDocByIndex(0).addResource(img);
+        Path res = Paths.get("target/helloworld-sink.ofd");
+        try (ZipSink sink = new ZipSink(res)) {
+            // 页面先行写入，写入后从容器中释放
+            ofdDir.getDocByIndex(0).getPages().getByIndex(0).flushTo(sink);
+            Assertions.assertTrue(sink.exist("/Doc_0/Pages/Page_0/Content.xml"));
+            Assertions.assertThrows(FileNotFoundException.class, () ->
+                    ofdDir.getDocByIndex(0).getPages().getByIndex(0).getContent());
+            ofdDir.jar(sink);
+            Assertions.assertTrue(sink.exist("Doc_0/Res/sink-res.bin"));
+        }
+        ofdDir.clean();
+        Assertions.assertTrue(Files.notExists(p));
+
+        try (ZipFile zip = new ZipFile(res.toFile())) {
+            Assertions.assertNotNull(zip.getEntry("OFD.xml"));
+            Assertions.assertNotNull(zip.getEntry("Doc_0/"));
+            Assertions.assertNotNull(zip.getEntry("Doc_0/Document.xml"));
+            Assertions.assertNotNull(zip.getEntry("Doc_0/PublicRes.xml"));
+            Assertions.assertNotNull(zip.getEntry("Doc_0/Pages/Page_0/Content.xml"));
+            Assertions.assertEquals(4096, zip.getEntry("Doc_0/Res/sink-res.bin").getSize());
+        }
+    }
+
     @Test
     void jarChinese() throws IOException {
         final OFDDir ofdDir = build2();
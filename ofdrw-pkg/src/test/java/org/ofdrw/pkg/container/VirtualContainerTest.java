@@ -15,6 +15,7 @@ import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
 import java.util.Arrays;
 
 /**
@@ -149,4 +150,49 @@ class VirtualContainerTest {
         Assertions.assertTrue(Arrays.equals(before, after));
 
     }
-}
\ No newline at end of file
+
+    /**
+     * 测试读取后修改深层节点，刷新时写入文件
+     */
+    @Test
+    void testReadFileChanged() throws IOException, DocumentException {
+        Path path = Paths.get("src/test/resources/Content.xml");
+        vc.putFile(path);
+        Element page = vc.getObj("Content.xml");
+        Element textCode = page.element("Content").element("Layer").element("TextObject").element("TextCode");
+        textCode.setText("Changed");
+        vc.flush();
+
+        String after = new String(Files.readAllBytes(Paths.get(target, "Content.xml")), "UTF-8");
+        Assertions.assertTrue(after.contains(">Changed<"));
+    }
+
+    /**
+     * 测试仅修改一个对象时刷新只写入修改过的文件
+     */
+    @Test
+    void flushOneChanged() throws IOException, DocumentException {
+        final int pages = 3;
+        Path content = Paths.get("src/test/resources/Content.xml");
+        for (int i = 0; i < pages; i++) {
+            Path dir = Files.createDirectories(Paths.get(target, "Page_" + i));
+            Files.copy(content, dir.resolve("Content.xml"));
+        }
+        VirtualContainer root = new VirtualContainer(Paths.get(target));
+        for (int i = 0; i < pages; i++) {
+            root.obtainContainer("Page_" + i, VirtualContainer::new).getObj("Content.xml");
+        }
+        Path changed = Paths.get(target, "Page_1", "Content.xml");
+        Path unchanged = Paths.get(target, "Page_2", "Content.xml");
+        // 使用固定的修改时间，避免文件系统时间精度导致误判
+        FileTime past = FileTime.fromMillis(1_000_000_000_000L);
+        Files.setLastModifiedTime(unchanged, past);
+        root.obtainContainer("Page_1", VirtualContainer::new).getObj("Content.xml")
+                .element("Content").element("Layer").addAttribute("ID", "200");
+
+        root.flush();
+
+        Assertions.assertTrue(new String(Files.readAllBytes(changed), "UTF-8").contains("ID=\"200\""));
+        Assertions.assertEquals(past, Files.getLastModifiedTime(unchanged));
+    }
+}
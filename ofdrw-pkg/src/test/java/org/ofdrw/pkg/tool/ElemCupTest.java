@@ -0,0 +1,87 @@
+package org.ofdrw.pkg.tool;
+
+import org.dom4j.DocumentException;
+import org.dom4j.Element;
+import org.dom4j.io.SAXReader;
+import org.junit.jupiter.api.Test;
+import org.ofdrw.core.TrackedElement;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 元素反序列化与解析器复用测试
+ *
+ * @author agent
+ * @since 2026-10-17 14:38:15
+ */
+class ElemCupTest {
+
+    /**
+     * 同一线程复用解析器，嵌套获取时创建新实例
+     */
+    @Test
+    void reuse() {
+        SAXReader a = SAXReaderFactory.acquire();
+        SAXReader nested = SAXReaderFactory.acquire();
+        assertNotSame(a, nested);
+        SAXReaderFactory.release(nested);
+        SAXReaderFactory.release(a);
+        SAXReader b = SAXReaderFactory.acquire();
+        SAXReaderFactory.release(b);
+        assertSame(a, b);
+
+        SAXReaderFactory.setReuse(false);
+        try {
+            SAXReader c = SAXReaderFactory.acquire();
+            SAXReaderFactory.release(c);
+            assertNotSame(a, c);
+        } finally {
+            SAXReaderFactory.setReuse(true);
+        }
+    }
+
+    /**
+     * 复用解析器的解析结果与统计
+     */
+    @Test
+    void inject() throws DocumentException, IOException {
+        ParseMetrics.reset();
+        // 统计默认关闭
+        ElemCup.inject(new ByteArrayInputStream("<a/>".getBytes()));
+        assertEquals(0, ParseMetrics.getTotalCount());
+        ParseMetrics.setEnabled(true);
+        Path content = Paths.get("src/test/resources/Content.xml");
+        Element e1 = ElemCup.inject(content);
+        Element e2 = ElemCup.inject(content);
+        assertNotSame(e1, e2);
+        assertEquals(e1.asXML(), e2.asXML());
+        // 复用的解析器同样使用可追踪修改的文档工厂
+        assertTrue(TrackedElement.modCountOf(e2) >= 0);
+
+        // 解析失败后解析器仍可继续使用
+        assertThrows(DocumentException.class, () -> ElemCup.inject(new ByteArrayInputStream("<a>".getBytes())));
+        byte[] bin = Files.readAllBytes(Paths.get("src/test/resources/Document.xml"));
+        assertEquals("Document", ElemCup.inject(new ByteArrayInputStream(bin), "Document.xml").getName());
+        ElemCup.inject(new ByteArrayInputStream("<Sign/>".getBytes()), "Sign_12.xml");
+
+        Map<String, ParseMetrics.Stat> stats = ParseMetrics.snapshot();
+        stats.forEach((k, v) -> System.out.println(">> " + k + ": " + v));
+        assertEquals(2, stats.get("Content.xml").getCount());
+        assertEquals(1, stats.get("Document.xml").getCount());
+        assertEquals(1, stats.get("Sign_N.xml").getCount());
+        assertEquals(1, stats.get(ParseMetrics.UNKNOWN).getCount());
+        assertEquals(5, ParseMetrics.getTotalCount());
+        ParseMetrics.setEnabled(false);
+
+        assertEquals("Content.xml", ParseMetrics.typeOf("Content.xml"));
+        assertEquals("Page_N/Content.xml", ParseMetrics.typeOf("Page_10/Content.xml"));
+        assertEquals("NaN.xml", ParseMetrics.typeOf("1a22.xml"));
+    }
+}
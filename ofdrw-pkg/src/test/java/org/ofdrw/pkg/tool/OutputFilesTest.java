@@ -0,0 +1,69 @@
+package org.ofdrw.pkg.tool;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * 输出文件临时写入与替换测试
+ *
+ * @author agent
+ * @since 2026-10-17 18:14:30
+ */
+class OutputFilesTest {
+
+    /**
+     * 新建的输出文件权限由umask决定
+     */
+    @Test
+    void createFollowsUmask() throws IOException {
+        Path dir = Files.createDirectories(Paths.get("target/OutputFiles"));
+        assumeTrue(Files.getFileAttributeView(dir, PosixFileAttributeView.class) != null);
+        Path dest = dir.resolve("new.ofd");
+        Path probe = dir.resolve("probe.ofd");
+        Files.deleteIfExists(dest);
+        Files.deleteIfExists(probe);
+        Files.createFile(probe);
+
+        Path tmp = OutputFiles.createTemp(dest);
+        assertEquals(dir.toAbsolutePath(), tmp.getParent());
+        Files.write(tmp, "OFD".getBytes(StandardCharsets.UTF_8));
+        OutputFiles.replace(tmp, dest);
+
+        assertFalse(Files.exists(tmp));
+        assertEquals("OFD", new String(Files.readAllBytes(dest), StandardCharsets.UTF_8));
+        assertEquals(Files.getPosixFilePermissions(probe), Files.getPosixFilePermissions(dest));
+    }
+
+    /**
+     * 替换已经存在的文件时沿用原文件的权限
+     */
+    @Test
+    void replaceKeepsPermissions() throws IOException {
+        Path dir = Files.createDirectories(Paths.get("target/OutputFiles"));
+        assumeTrue(Files.getFileAttributeView(dir, PosixFileAttributeView.class) != null);
+        Path dest = dir.resolve("exist.ofd");
+        Files.deleteIfExists(dest);
+        Files.createFile(dest);
+        Set<PosixFilePermission> perms = PosixFilePermissions.fromString("rw-r-----");
+        Files.setPosixFilePermissions(dest, perms);
+
+        Path tmp = OutputFiles.createTemp(dest);
+        Files.write(tmp, "OFD".getBytes(StandardCharsets.UTF_8));
+        OutputFiles.replace(tmp, dest);
+
+        assertEquals("OFD", new String(Files.readAllBytes(dest), StandardCharsets.UTF_8));
+        assertEquals(perms, Files.getPosixFilePermissions(dest));
+    }
+}
@@ -1,5 +1,7 @@
 package org.ofdrw.reader;
 
+import org.dom4j.DocumentException;
+import org.ofdrw.core.basicStructure.doc.Document;
 import org.ofdrw.core.basicStructure.pageObj.Content;
 import org.ofdrw.core.basicStructure.pageObj.layer.CT_Layer;
 import org.ofdrw.core.basicStructure.pageObj.layer.PageBlockType;
@@ -7,7 +9,13 @@ import org.ofdrw.core.basicStructure.pageObj.layer.block.CT_PageBlock;
 import org.ofdrw.core.basicStructure.pageObj.layer.block.TextObject;
 import org.ofdrw.core.text.TextCode;
 import org.ofdrw.reader.extractor.ExtractorFilter;
+import org.ofdrw.reader.extractor.RegionTextExtractorFilter;
+import org.ofdrw.reader.spatial.IndexedObject;
 
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
@@ -41,6 +49,18 @@ public class ContentExtractor {
      * 文本抽取过滤器
      */
     private ExtractorFilter filter;
+    /**
+     * 是否使用流式解析
+     */
+    private boolean streaming = false;
+    /**
+     * 矩形框过滤器是否通过页面空间索引抽取
+     */
+    private boolean useSpatialIndex = false;
+    /**
+     * 各页面内容文件的绝对路径，流式解析时使用
+     */
+    private List<String> pageLocs;
 
     private ContentExtractor() {
     }
@@ -65,6 +85,41 @@ public class ContentExtractor {
         this.filter = filter;
     }
 
+    /**
+     * 构造文字抽取器
+     * <p>
+     * 流式解析时使用StAX逐个事件读取页面内容，不构造页面的DOM树，也不缓存页面对象，
+     * 适用于大批量文档的全文检索等只需要文字内容的场景。
+     * 流式解析时过滤器得到的文字对象与文字定位只含有属性，不含子元素。
+     *
+     * @param reader    OFD解析器
+     * @param filter    文本抽取过滤器，可以为null
+     * @param streaming 是否使用流式解析
+     */
+    public ContentExtractor(OFDReader reader, ExtractorFilter filter, boolean streaming) {
+        this.reader = reader;
+        this.filter = filter;
+        this.streaming = streaming;
+    }
+
+    /**
+     * 设置矩形框过滤器是否通过页面空间索引抽取
+     * <p>
+     * 开启后使用矩形框过滤器（{@link RegionTextExtractorFilter}）时，
+     * 通过页面空间索引（{@link OFDReader#getPageIndex(int)}）仅处理与矩形框相交的文字对象，
+     * 结果与遍历整个页面一致。适用于对同一页面反复进行区域抽取的场景，
+     * 索引的构造需要解析页面模板与注释，并由解析器缓存最近使用的页面。
+     * <p>
+     * 默认关闭，逐页遍历页面内容。
+     *
+     * @param useSpatialIndex true - 使用空间索引；false - 遍历页面
+     * @return this
+     */
+    public ContentExtractor setUseSpatialIndex(boolean useSpatialIndex) {
+        this.useSpatialIndex = useSpatialIndex;
+        return this;
+    }
+
     /**
      * 抽取指定页面内的所有文字
      *
@@ -72,6 +127,12 @@ public class ContentExtractor {
      * @return 页面内容的所有文本内容序列
      */
     public List<String> getPageContent(int pageNum) {
+        if (streaming) {
+            return streamPageContent(pageNum);
+        }
+        if (useSpatialIndex && filter instanceof RegionTextExtractorFilter) {
+            return regionPageContent(pageNum, (RegionTextExtractorFilter) filter);
+        }
         Content ofdContentObj = reader.getPage(pageNum).getContent();
         if (ofdContentObj == null) {
             return Collections.emptyList();
@@ -87,6 +148,81 @@ public class ContentExtractor {
         return txtContentList;
     }
 
+    /**
+     * 通过空间索引抽取矩形框内的文字
+     *
+     * @param pageNum 页码，从1开始
+     * @param region  矩形框过滤器
+     * @return 页面内容的所有文本内容序列
+     */
+    private List<String> regionPageContent(int pageNum, RegionTextExtractorFilter region) {
+        List<String> txtContentList = new ArrayList<>();
+        // 查询结果为文档顺序，与遍历页面的顺序一致
+        for (IndexedObject o : reader.getPageIndex(pageNum).query(region.getRectangle())) {
+            if (o.getType() != IndexedObject.Type.TEXT || o.isTemplate()) {
+                continue;
+            }
+            TextObject text = (TextObject) o.getObject();
+            for (TextCode code : text.getTextCodes()) {
+                String allowText = region.getAllowText(text, code);
+                if (allowText != null && !"".equals(allowText.trim())) {
+                    txtContentList.add(allowText);
+                }
+            }
+        }
+        return txtContentList;
+    }
+
+    /**
+     * 流式抽取指定页面内的所有文字
+     *
+     * @param pageNum 页码，从1开始
+     * @return 页面内容的所有文本内容序列
+     */
+    private List<String> streamPageContent(int pageNum) {
+        if (pageLocs == null) {
+            pageLocs = loadPageLocs();
+        }
+        if (pageNum <= 0) {
+            throw new NumberFormatException("页码(pageNum)不能小于0");
+        }
+        if (pageNum > pageLocs.size()) {
+            throw new NumberFormatException(pageNum + "超过最大页码:" + pageLocs.size());
+        }
+        List<String> txtContentList = new ArrayList<>();
+        try (InputStream in = reader.getResourceLocator().open(pageLocs.get(pageNum - 1))) {
+            PageTextScanner.scan(in, filter, txtContentList);
+        } catch (IOException e) {
+            throw new RuntimeException("OFD解析失败，原因:" + e.getMessage(), e);
+        }
+        return txtContentList;
+    }
+
+    /**
+     * 获取默认文档中各页面内容文件的绝对路径
+     *
+     * @return 页面内容文件绝对路径序列
+     */
+    private List<String> loadPageLocs() {
+        ResourceLocator rl = reader.getResourceLocator();
+        rl.save();
+        try {
+            Document document = reader.cdDefaultDoc();
+            List<org.ofdrw.core.basicStructure.pageTree.Page> pages = document.getPages().getPages();
+            List<String> locs = new ArrayList<>(pages.size());
+            for (org.ofdrw.core.basicStructure.pageTree.Page page : pages) {
+                locs.add(rl.toAbsolutePath(page.getBaseLoc()));
+            }
+            return locs;
+        } catch (FileNotFoundException | DocumentException e) {
+            throw new BadOFDException("OFD解析失败，原因:" + e.getMessage(), e);
+        } finally {
+            // cdDefaultDoc 保存了一次工作区
+            rl.restore();
+            rl.restore();
+        }
+    }
+
     /**
      * 页块处理
      *
@@ -122,7 +258,7 @@ public class ContentExtractor {
      * @return OFD中所有文本内容
      */
     public List<String> extractAll() {
-        int numberOfPages = reader.getNumberOfPages();
+        int numberOfPages = numberOfPages();
         List<String> txtContentList = new LinkedList<>();
         for (int pageNum = 1; pageNum <= numberOfPages; pageNum++) {
             List<String> pageContent = getPageContent(pageNum);
@@ -139,7 +275,7 @@ public class ContentExtractor {
      * @param e 接受
      */
     public void traverse(Receiver e) {
-        int numberOfPages = reader.getNumberOfPages();
+        int numberOfPages = numberOfPages();
         for (int pageNum = 1; pageNum <= numberOfPages; pageNum++) {
             List<String> pageContent = getPageContent(pageNum);
             if (pageContent != null && !pageContent.isEmpty() && e != null) {
@@ -147,4 +283,19 @@ public class ContentExtractor {
             }
         }
     }
+
+    /**
+     * 获取页面数量
+     *
+     * @return 页面数量
+     */
+    private int numberOfPages() {
+        if (streaming) {
+            if (pageLocs == null) {
+                pageLocs = loadPageLocs();
+            }
+            return pageLocs.size();
+        }
+        return reader.getNumberOfPages();
+    }
 }
@@ -1,5 +1,6 @@
 package org.ofdrw.reader;
 
+import org.ofdrw.core.basicType.STBase;
 import org.ofdrw.core.basicType.ST_Array;
 
 import java.util.ArrayList;
@@ -45,4 +46,53 @@ public class DeltaTool {
         return list;
     }
 
+    /**
+     * 展开Delta数据为数值数组
+     * <p>
+     * "g 3 1.5" 格式将被展开为3个1.5，不足格式的 "g" 将被忽略。
+     * 与 {@link #getDelta(ST_Array, int)} 不同，不对长度进行补齐。
+     *
+     * @param delta OFD数组对象，可以为null
+     * @return 一组坐标偏移值
+     * @throws NumberFormatException 偏移值无法解析为数字
+     */
+    public static double[] expandDelta(ST_Array delta) {
+        if (delta == null || delta.size() == 0) {
+            return new double[0];
+        }
+        final List<String> array = delta.getArray();
+        final int len = array.size();
+        // 先计算展开后的长度，避免装箱与扩容
+        int count = 0;
+        for (int i = 0; i < len; i++) {
+            if ("g".equals(array.get(i))) {
+                if (i + 2 < len) {
+                    count += Math.max(0, Integer.parseInt(array.get(i + 1)));
+                }
+                i += 2;
+            } else {
+                count++;
+            }
+        }
+        double[] res = new double[count];
+        int pos = 0;
+        for (int i = 0; i < len; i++) {
+            String item = array.get(i);
+            if ("g".equals(item)) {
+                if (i + 2 < len) {
+                    int num = Integer.parseInt(array.get(i + 1));
+                    String value = array.get(i + 2);
+                    double v = STBase.parseDouble(value, 0, value.length());
+                    for (int j = 0; j < num; j++) {
+                        res[pos++] = v;
+                    }
+                }
+                i += 2;
+            } else {
+                res[pos++] = STBase.parseDouble(item, 0, item.length());
+            }
+        }
+        return res;
+    }
+
 }
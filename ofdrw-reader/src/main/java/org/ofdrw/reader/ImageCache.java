@@ -0,0 +1,190 @@
+package org.ofdrw.reader;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.io.IOException;
+
+/**
+ * 图片缓存
+ * <p>
+ * 缓存解码后的图片（以及图片原始数据），避免模板页、印章等在每一页重复出现的图片被反复读取与解码。
+ * <p>
+ * 缓存基于 {@link WeightedLruCache}，按最近最少使用（LRU）淘汰，容量以占用的字节数计算：
+ * 图片按像素数据缓冲区大小计算，原始数据按数组长度计算。
+ * 超过容量上限的单个对象不会被缓存。
+ * <p>
+ * 缓存中的对象在多个调用者（或多个渲染线程）之间共享，只允许读取，不允许修改。
+ * 所有方法线程安全。
+ *
+ * @author agent
+ * @since 2026-10-17 14:31:48
+ */
+public class ImageCache {
+
+    /**
+     * 默认缓存容量 64MB
+     */
+    public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+
+    /**
+     * 缓存对象加载器
+     *
+     * @param <V> 缓存对象类型
+     */
+    @FunctionalInterface
+    public interface Loader<V> {
+        /**
+         * 加载对象
+         *
+         * @return 对象，返还null时不缓存
+         * @throws IOException 读取或解码异常
+         */
+        V load() throws IOException;
+    }
+
+    /**
+     * 缓存，容量以字节计
+     */
+    private final WeightedLruCache<String, Object> cache;
+
+    /**
+     * 创建默认容量的图片缓存
+     */
+    public ImageCache() {
+        this(DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * 创建图片缓存
+     *
+     * @param maxBytes 容量上限（字节），0表示不缓存
+     */
+    public ImageCache(long maxBytes) {
+        checkMaxBytes(maxBytes);
+        this.cache = new WeightedLruCache<>(maxBytes);
+    }
+
+    /**
+     * 获取缓存对象，不存在时通过加载器加载并缓存
+     * <p>
+     * 加载过程不持有锁，多个线程同时加载同一对象时可能重复加载，以先放入的对象为准。
+     *
+     * @param key    缓存键
+     * @param loader 加载器
+     * @param <V>    缓存对象类型
+     * @return 缓存对象，加载器返还null时返还null
+     * @throws IOException 加载异常
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V get(String key, Loader<V> loader) throws IOException {
+        Object value = cache.get(key);
+        if (value != null) {
+            return (V) value;
+        }
+        value = loader.load();
+        if (value == null) {
+            return null;
+        }
+        return (V) cache.putIfAbsent(key, value, weigh(value));
+    }
+
+    /**
+     * 计算对象占用的字节数
+     *
+     * @param value 缓存对象
+     * @return 字节数
+     */
+    private static long weigh(Object value) {
+        if (value instanceof byte[]) {
+            return ((byte[]) value).length;
+        }
+        if (value instanceof BufferedImage) {
+            DataBuffer buf = ((BufferedImage) value).getRaster().getDataBuffer();
+            return (long) buf.getSize() * buf.getNumBanks() * DataBuffer.getDataTypeSize(buf.getDataType()) / 8;
+        }
+        throw new IllegalArgumentException("不支持的缓存对象类型：" + value.getClass().getName());
+    }
+
+    /**
+     * 清空缓存，统计数据保留
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    /**
+     * 设置容量上限，超出部分立即淘汰
+     *
+     * @param maxBytes 容量上限（字节），0表示不缓存
+     */
+    public void setMaxBytes(long maxBytes) {
+        checkMaxBytes(maxBytes);
+        cache.setMaxWeight(maxBytes);
+    }
+
+    /**
+     * 检查容量上限
+     *
+     * @param maxBytes 容量上限（字节）
+     */
+    private static void checkMaxBytes(long maxBytes) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("缓存容量(maxBytes)不能小于0");
+        }
+    }
+
+    /**
+     * @return 容量上限（字节）
+     */
+    public long getMaxBytes() {
+        return cache.getMaxWeight();
+    }
+
+    /**
+     * @return 当前占用（字节）
+     */
+    public long getCurrentBytes() {
+        return cache.getWeight();
+    }
+
+    /**
+     * @return 缓存对象数量
+     */
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     * @return 命中次数
+     */
+    public long getHitCount() {
+        return cache.getHitCount();
+    }
+
+    /**
+     * @return 未命中次数
+     */
+    public long getMissCount() {
+        return cache.getMissCount();
+    }
+
+    /**
+     * @return 淘汰次数
+     */
+    public long getEvictionCount() {
+        return cache.getEvictionCount();
+    }
+
+    /**
+     * @return 命中率，没有任何访问时为0
+     */
+    public double getHitRate() {
+        return cache.getHitRate();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ImageCache{size=%d, bytes=%d/%d, hit=%d, miss=%d, eviction=%d, hitRate=%.2f}",
+                size(), getCurrentBytes(), getMaxBytes(), getHitCount(), getMissCount(), getEvictionCount(), getHitRate());
+    }
+}
@@ -3,6 +3,7 @@ package org.ofdrw.reader;
 import org.apache.commons.io.FileUtils;
 import org.dom4j.DocumentException;
 import org.ofdrw.core.annotation.Annotations;
+import org.ofdrw.core.annotation.pageannot.Annot;
 import org.ofdrw.core.annotation.pageannot.AnnPage;
 import org.ofdrw.core.annotation.pageannot.PageAnnot;
 import org.ofdrw.core.attachment.Attachments;
@@ -25,9 +26,11 @@ import org.ofdrw.gm.ses.parse.SESVersionHolder;
 import org.ofdrw.gm.ses.parse.VersionParser;
 import org.ofdrw.pkg.container.DocDir;
 import org.ofdrw.pkg.container.OFDDir;
+import org.ofdrw.pkg.container.ZipSource;
 import org.ofdrw.reader.model.AnnotionEntity;
 import org.ofdrw.reader.model.StampAnnotEntity;
 import org.ofdrw.reader.model.TemplatePageEntity;
+import org.ofdrw.reader.spatial.PageIndex;
 
 import java.io.*;
 import java.nio.file.Files;
@@ -74,6 +77,27 @@ public class OFDReader implements Closeable {
      */
     private ResourceManage resMgt;
 
+    /**
+     * 压缩包随机访问数据源
+     * <p>
+     * 仅在按需解压模式下存在
+     */
+    private ZipSource zipSource;
+
+    /**
+     * 页面空间索引缓存默认容纳的页面数量
+     */
+    public static final int DEFAULT_PAGE_INDEX_CACHE_PAGES = 8;
+
+    /**
+     * 页面空间索引缓存
+     * <p>
+     * 索引持有页面的DOM对象，按最近最少使用淘汰，每个页面的权重为1。
+     * <p>
+     * Key: 页码，从1起
+     */
+    private final WeightedLruCache<Integer, PageIndex> pageIndexes = new WeightedLruCache<>(DEFAULT_PAGE_INDEX_CACHE_PAGES);
+
     private OFDReader() {
     }
 
@@ -99,13 +123,62 @@ public class OFDReader implements Closeable {
      * @throws IOException OFD文件操作IO异常
      */
     public OFDReader(Path ofdFile) throws IOException {
+        this(ofdFile, false);
+    }
+
+    /**
+     * 构造一个 OFDReader
+     * <p>
+     * 按需解压模式下，打开文档时只读取ZIP中央目录，
+     * XML文件直接从压缩包中解析，资源文件在被访问时才解压到工作目录，
+     * 适合只读取部分页面的场景。
+     * <p>
+     * 打包、遍历包内文件等操作会解压剩余的全部文件。
+     *
+     * @param ofdFile   OFD文件
+     * @param lazyUnzip 是否按需解压，true - 按需解压；false - 打开时解压全部文件
+     * @throws IOException OFD文件操作IO异常
+     */
+    public OFDReader(Path ofdFile, boolean lazyUnzip) throws IOException {
         if (ofdFile == null || Files.notExists(ofdFile)) {
             throw new IllegalArgumentException("文件位置(ofdFile)不正确");
         }
         workDir = Files.createTempDirectory("ofd-tmp-");
-        // 解压文档，到临时的工作目录
-        ZipUtil.unZipFileByApacheCommonCompress(ofdFile.toFile(), workDir.toAbsolutePath().toString() + File.separator);
-        ofdDir = new OFDDir(workDir);
+        if (lazyUnzip) {
+            try {
+                // 读取ZIP中央目录，建立包内文件索引
+                zipSource = new ZipSource(ofdFile, workDir, ZipUtil.getMaxSize());
+            } catch (IOException e) {
+                FileUtils.deleteQuietly(workDir.toFile());
+                throw e;
+            }
+            ofdDir = new OFDDir(zipSource);
+        } else {
+            // 解压文档，到临时的工作目录
+            ZipUtil.unZipFileByApacheCommonCompress(ofdFile.toFile(), workDir.toAbsolutePath().toString() + File.separator);
+            ofdDir = new OFDDir(workDir);
+        }
+        // 创建资源定位器
+        rl = new ResourceLocator(ofdDir);
+        resMgt = new ResourceManage(this);
+    }
+
+    /**
+     * 使用已经打开的压缩包数据源构造 OFDReader
+     * <p>
+     * 用于读取经过转换的包（如 加密包），读取方式与按需解压模式相同。
+     * <p>
+     * 关闭时同时关闭数据源，并删除数据源的工作目录。
+     *
+     * @param zipSource 压缩包随机访问数据源
+     */
+    public OFDReader(ZipSource zipSource) {
+        if (zipSource == null) {
+            throw new IllegalArgumentException("压缩包数据源(zipSource)为空");
+        }
+        this.zipSource = zipSource;
+        workDir = zipSource.getWorkDir();
+        ofdDir = new OFDDir(zipSource);
         // 创建资源定位器
         rl = new ResourceLocator(ofdDir);
         resMgt = new ResourceManage(this);
@@ -162,6 +235,15 @@ public class OFDReader implements Closeable {
         resMgt = new ResourceManage(this);
     }
 
+    /**
+     * 获取压缩包随机访问数据源
+     *
+     * @return 数据源，非按需解压模式下返还null
+     */
+    public ZipSource getZipSource() {
+        return zipSource;
+    }
+
     /**
      * 获取文档虚拟容器
      *
@@ -742,6 +824,47 @@ public class OFDReader implements Closeable {
         }
     }
 
+    /**
+     * 获取页面对象的空间索引
+     * <p>
+     * 索引包含页面、页面模板中的所有图元以及页面上的注释，
+     * 构造后缓存最近使用的若干页面（见 {@link #setPageIndexCacheSize(int)}），
+     * 之后的点选、区域查询无需再遍历页面。
+     *
+     * @param pageNum 页码，从1起
+     * @return 页面空间索引
+     */
+    public PageIndex getPageIndex(int pageNum) {
+        PageIndex index = pageIndexes.get(pageNum);
+        if (index != null) {
+            return index;
+        }
+        PageInfo pageInfo = getPageInfo(pageNum);
+        String pageId = pageInfo.getId().toString();
+        List<Annot> annots = new ArrayList<>();
+        for (AnnotionEntity entity : getAnnotationEntities()) {
+            if (pageId.equals(entity.getPageId())) {
+                annots.addAll(entity.getAnnots());
+            }
+        }
+        index = PageIndex.build(pageInfo, annots);
+        return pageIndexes.putIfAbsent(pageNum, index, 1);
+    }
+
+    /**
+     * 设置页面空间索引缓存容纳的页面数量
+     * <p>
+     * 每个索引持有页面的DOM对象，缓存的页面越多占用的内存越大，
+     * 默认缓存 {@link #DEFAULT_PAGE_INDEX_CACHE_PAGES} 个页面。
+     *
+     * @param pages 页面数量，小于等于0表示不缓存
+     * @return this
+     */
+    public OFDReader setPageIndexCacheSize(int pages) {
+        pageIndexes.setMaxWeight(pages);
+        return this;
+    }
+
     /**
      * 获取资源管理器
      * <p>
@@ -763,10 +886,15 @@ public class OFDReader implements Closeable {
      */
     @Override
     public void close() throws IOException {
+        if (zipSource != null) {
+            zipSource.close();
+            zipSource = null;
+        }
         if (closed) {
             return;
         }
         closed = true;
+        pageIndexes.clear();
         if (workDir != null && Files.exists(workDir)) {
             try {
                 FileUtils.forceDelete(workDir.toFile());
@@ -0,0 +1,170 @@
+package org.ofdrw.reader;
+
+import org.dom4j.DocumentHelper;
+import org.dom4j.Element;
+import org.dom4j.QName;
+import org.ofdrw.core.Const;
+import org.ofdrw.core.basicStructure.pageObj.layer.block.TextObject;
+import org.ofdrw.core.text.TextCode;
+import org.ofdrw.reader.extractor.ExtractorFilter;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * 页面文字流式扫描
+ * <p>
+ * 使用StAX逐个事件读取页面的Content.xml，只收集 Page/Content/Layer 下（含嵌套PageBlock）
+ * 文字对象的文字定位内容，不构造页面的DOM树。
+ * <p>
+ * 使用过滤器时，仅为文字对象与文字定位构造只含属性的代理对象供过滤器判断，
+ * 文字对象的子元素（如填充颜色、字形变换）不会被构造。
+ *
+ * @author agent
+ * @since 2026-10-17 14:26:11
+ */
+final class PageTextScanner {
+
+    private static final XMLInputFactory InputFactory;
+
+    static {
+        InputFactory = XMLInputFactory.newInstance();
+        // 禁止DTD与外部实体，防止XXE
+        InputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        InputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        InputFactory.setProperty(XMLInputFactory.IS_COALESCING, true);
+    }
+
+    /**
+     * 元素所处层次：页面内容之外
+     */
+    private static final int OUTSIDE = 0;
+    /**
+     * 元素所处层次：Page/Content
+     */
+    private static final int CONTENT = 1;
+    /**
+     * 元素所处层次：图层或页块内，可以直接包含文字对象
+     */
+    private static final int BLOCK = 2;
+    /**
+     * 元素所处层次：文字对象内
+     */
+    private static final int TEXT_OBJECT = 3;
+    /**
+     * 元素所处层次：文字定位内
+     */
+    private static final int TEXT_CODE = 4;
+    /**
+     * 元素所处层次：与文字无关的元素内
+     */
+    private static final int IGNORED = 5;
+
+    private PageTextScanner() {
+    }
+
+    /**
+     * 扫描页面文字
+     *
+     * @param in     页面内容输入流，流的关闭由调用者负责
+     * @param filter 文本抽取过滤器，可以为null
+     * @param out    文字内容输出，按文档顺序追加
+     * @throws IOException XML读取或解析异常
+     */
+    static void scan(InputStream in, ExtractorFilter filter, List<String> out) throws IOException {
+        XMLStreamReader reader = null;
+        try {
+            reader = InputFactory.createXMLStreamReader(in);
+            // 各层元素所处层次，下标为元素深度
+            int[] levels = new int[32];
+            int depth = 0;
+            TextObject textObject = null;
+            Element textCodeAttrs = null;
+            StringBuilder text = new StringBuilder();
+            while (reader.hasNext()) {
+                final int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    final int parent = depth == 0 ? OUTSIDE : levels[depth - 1];
+                    final String name = reader.getLocalName();
+                    int level = IGNORED;
+                    if (depth == 0) {
+                        level = OUTSIDE;
+                    } else if (parent == OUTSIDE && depth == 1 && "Content".equals(name)) {
+                        level = CONTENT;
+                    } else if (parent == CONTENT && "Layer".equals(name)) {
+                        level = BLOCK;
+                    } else if (parent == BLOCK && "PageBlock".equals(name)) {
+                        level = BLOCK;
+                    } else if (parent == BLOCK && "TextObject".equals(name)) {
+                        level = TEXT_OBJECT;
+                        if (filter != null) {
+                            textObject = new TextObject(copyAttributes(reader, "TextObject"));
+                        }
+                    } else if (parent == TEXT_OBJECT && "TextCode".equals(name)) {
+                        level = TEXT_CODE;
+                        text.setLength(0);
+                        if (filter != null) {
+                            textCodeAttrs = copyAttributes(reader, "TextCode");
+                        }
+                    }
+                    if (depth == levels.length) {
+                        int[] grow = new int[levels.length * 2];
+                        System.arraycopy(levels, 0, grow, 0, levels.length);
+                        levels = grow;
+                    }
+                    levels[depth++] = level;
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    final int level = levels[--depth];
+                    if (level == TEXT_CODE) {
+                        if (filter == null) {
+                            out.add(text.toString());
+                        } else {
+                            textCodeAttrs.setText(text.toString());
+                            String allowText = filter.getAllowText(textObject, new TextCode(textCodeAttrs));
+                            if (allowText != null && !"".equals(allowText.trim())) {
+                                out.add(allowText);
+                            }
+                        }
+                    } else if (level == TEXT_OBJECT) {
+                        textObject = null;
+                    }
+                } else if (depth > 0 && levels[depth - 1] == TEXT_CODE
+                        && (event == XMLStreamConstants.CHARACTERS
+                        || event == XMLStreamConstants.CDATA
+                        || event == XMLStreamConstants.SPACE)) {
+                    text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                }
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("页面内容解析失败，原因：" + e.getMessage(), e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException e) {
+                    // ignore
+                }
+            }
+        }
+    }
+
+    /**
+     * 构造只含属性的元素
+     *
+     * @param reader 当前位于开始标签的读取器
+     * @param name   元素名称
+     * @return 元素
+     */
+    private static Element copyAttributes(XMLStreamReader reader, String name) {
+        Element e = DocumentHelper.createElement(new QName(name, Const.OFD_NAMESPACE));
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            e.addAttribute(reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+        }
+        return e;
+    }
+}
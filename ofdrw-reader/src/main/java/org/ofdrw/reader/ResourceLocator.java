@@ -6,6 +6,8 @@ import org.ofdrw.core.basicType.ST_Loc;
 import org.ofdrw.pkg.container.*;
 
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -251,7 +253,13 @@ public class ResourceLocator {
             // 相对路径
             fullPath = Paths.get(ofwTmp, pwd(), path).toAbsolutePath().toString();
         }
-        return Files.exists(Paths.get(fullPath));
+        Path sysPath = Paths.get(fullPath);
+        if (Files.exists(sysPath)) {
+            return true;
+        }
+        // 文件可能尚未从压缩包中解压
+        ZipSource zipSource = ofdDir.getZipSource();
+        return zipSource != null && zipSource.exist(sysPath);
     }
 
     /**
@@ -264,7 +272,11 @@ public class ResourceLocator {
         String pwd = pwd(workDir);
         String ofwTmp = ofdDir.getSysAbsPath();
         Path path = Paths.get(ofwTmp + pwd);
-        return Files.exists(path);
+        if (Files.exists(path)) {
+            return true;
+        }
+        ZipSource zipSource = ofdDir.getZipSource();
+        return zipSource != null && zipSource.exist(path);
     }
 
 
@@ -357,6 +369,30 @@ public class ResourceLocator {
         return new ST_Loc(loc);
     }
 
+    /**
+     * 从容器缓存中释放路径对应的资源对象
+     * <p>
+     * 对象已被改动时先写入文件，此后再次获取将重新加载，
+     * 用于逐页处理大文档时释放已经处理完成的页面。
+     *
+     * @param loc 路径地址
+     * @throws IOException 文件写入异常或容器不存在
+     */
+    public void release(ST_Loc loc) throws IOException {
+        if (loc == null || loc.getLoc().trim().isEmpty()) {
+            return;
+        }
+        String path = loc.getLoc();
+        LinkedList<String> wd = new LinkedList<>(this.workDir);
+        String fileName = path;
+        int indexOf = path.lastIndexOf('/');
+        if (indexOf != -1) {
+            this.cd(wd, path.substring(0, indexOf + 1));
+            fileName = path.substring(indexOf + 1);
+        }
+        getContainer(wd).releaseObj(fileName);
+    }
+
     /**
      * 根据路径获取获取对应的资源对象
      *
@@ -444,6 +480,49 @@ public class ResourceLocator {
     }
 
 
+    /**
+     * 打开路径下的文件流
+     * <p>
+     * 按需解压模式下直接从压缩包中读取，不解压到工作目录。
+     * <p>
+     * 流的关闭由调用者负责
+     *
+     * @param stLoc 路径
+     * @return 文件输入流
+     * @throws IOException 文件或路径不存在，或读取异常
+     */
+    public InputStream open(ST_Loc stLoc) throws IOException {
+        if (stLoc == null) {
+            throw new FileNotFoundException("路径为空（stLoc）");
+        }
+        return open(stLoc.getLoc());
+    }
+
+    /**
+     * 打开路径下的文件流
+     * <p>
+     * 按需解压模式下直接从压缩包中读取，不解压到工作目录。
+     * <p>
+     * 流的关闭由调用者负责
+     *
+     * @param loc 路径
+     * @return 文件输入流
+     * @throws IOException 文件或路径不存在，或读取异常
+     */
+    public InputStream open(String loc) throws IOException {
+        if (loc == null || loc.trim().equals("")) {
+            throw new FileNotFoundException("路径为空（loc）");
+        }
+        ZipSource src = ofdDir.getZipSource();
+        if (src != null) {
+            String absPath = toAbsolutePath(loc);
+            if (src.exist(absPath)) {
+                return src.open(absPath);
+            }
+        }
+        return Files.newInputStream(getFile(loc));
+    }
+
     /**
      * 通过路径获取容器
      *
@@ -80,6 +80,11 @@ public class ResourceManage {
      */
     private CT_CommonData commonData;
 
+    /**
+     * 图片缓存，缓存解码后的图片、蒙板后的图片以及图片原始数据
+     */
+    private final ImageCache imageCache = new ImageCache();
+
 
     private final OFDReader ofdReader;
 
@@ -262,6 +267,8 @@ public class ResourceManage {
 
     /**
      * 获取图片资源的图片对象
+     * <p>
+     * 解码后的图片被缓存，返还的图片在多次调用之间共享，不允许修改。
      *
      * @param refID 引用ID
      * @return 图片对象
@@ -275,10 +282,9 @@ public class ResourceManage {
         // 该路径在解析是已经被映射成绝对路径
         ST_Loc loc = multiMedia.getMediaFile();
         if (loc == null) return null;
-        final ResourceLocator rl = ofdReader.getResourceLocator();
-        rl.save();
-        try {
-            final Path imgPath = rl.getFile(loc);
+        return imageCache.get("img:" + refID, () -> {
+            // 使用独立的资源定位器，避免多线程渲染时修改共享定位器的工作目录
+            final Path imgPath = new ResourceLocator(ofdReader.getOFDDir()).getFile(loc);
             try (InputStream in = Files.newInputStream(imgPath)) {
                 final String fileName = loc.getFileName().toLowerCase();
                 if (fileName.endsWith(".jb2") || fileName.endsWith(".gbig2")) {
@@ -287,13 +293,13 @@ public class ResourceManage {
                     return ImageIO.read(in);
                 }
             }
-        } finally {
-            rl.restore();
-        }
+        });
     }
 
     /**
      * 获取图片资源的图片对象
+     * <p>
+     * 返还的数据在多次调用之间共享，不允许修改。
      *
      * @param refID 引用ID
      * @return byte[]
@@ -307,22 +313,20 @@ public class ResourceManage {
         // 该路径在解析是已经被映射成绝对路径
         ST_Loc loc = multiMedia.getMediaFile();
         if (loc == null) return null;
-        final ResourceLocator rl = ofdReader.getResourceLocator();
-        rl.save();
-        try {
-            final Path imgPath = rl.getFile(loc);
+        return imageCache.get("raw:" + refID, () -> {
+            final Path imgPath = new ResourceLocator(ofdReader.getOFDDir()).getFile(loc);
             try (InputStream in = Files.newInputStream(imgPath)) {
                 return IOUtils.toByteArray(in);
             }
-        } finally {
-            rl.restore();
-        }
+        });
     }
 
     /**
      * 获取图片对象的图像
      * <p>
      * 如果图片存在蒙板，那么返回蒙板后的图像
+     * <p>
+     * 蒙板后的图像被缓存，返还的图片在多次调用之间共享，不允许修改。
      *
      * @param imageObject 图片对象
      * @return 图片对象（蒙板后的图像）
@@ -336,12 +340,29 @@ public class ResourceManage {
         BufferedImage image = getImage(resourceID.toString());
         if (image == null) return null;
         if (imageObject.getImageMask() != null) {
-            BufferedImage mask = getImage(imageObject.getImageMask().toString());
-            if (mask != null) image = ImageUtils.renderMask(image, mask);
+            final String maskID = imageObject.getImageMask().toString();
+            final BufferedImage src = image;
+            // 蒙板后的图像单独缓存，避免每次重新合成；蒙板不存在时不缓存，直接使用原图
+            BufferedImage masked = imageCache.get("mask:" + resourceID + "/" + maskID, () -> {
+                BufferedImage mask = getImage(maskID);
+                return mask == null ? null : ImageUtils.renderMask(src, mask);
+            });
+            if (masked != null) image = masked;
         }
         return image;
     }
 
+    /**
+     * 获取图片缓存
+     * <p>
+     * 可用于调整缓存容量或获取命中率等统计数据。
+     *
+     * @return 图片缓存
+     */
+    public ImageCache getImageCache() {
+        return imageCache;
+    }
+
     /**
      * 获取 字形
      * <p>
@@ -413,6 +434,7 @@ public class ResourceManage {
         fontMap.clear();
         multiMediaMap.clear();
         compositeGraphicUnitMap.clear();
+        imageCache.clear();
         // 重新加载资源
         loadDocRes(docBody);
         return this;
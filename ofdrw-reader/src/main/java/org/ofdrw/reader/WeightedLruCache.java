@@ -0,0 +1,205 @@
+package org.ofdrw.reader;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 按权重限制容量的LRU缓存
+ * <p>
+ * 每个缓存对象带有权重（通常为估算的字节数），缓存对象的权重之和超过容量上限时，
+ * 按最近最少使用（LRU）的顺序淘汰；权重超过容量上限的单个对象不会被缓存。
+ * <p>
+ * 图片缓存、字体缓存、路径缓存等均基于该类实现。
+ * 所有方法线程安全。
+ *
+ * @param <K> 缓存键类型
+ * @param <V> 缓存对象类型
+ * @author agent
+ * @since 2026-10-17 16:10:26
+ */
+public class WeightedLruCache<K, V> {
+
+    /**
+     * 缓存项
+     */
+    private static final class Entry<V> {
+        final V value;
+        final long weight;
+
+        Entry(V value, long weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * 缓存，按访问顺序排列，首个元素最久未被访问
+     */
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    /**
+     * 容量上限
+     */
+    private long maxWeight;
+
+    /**
+     * 当前缓存对象的权重之和
+     */
+    private long weight = 0;
+
+    /**
+     * 命中次数
+     */
+    private long hitCount = 0;
+
+    /**
+     * 未命中次数
+     */
+    private long missCount = 0;
+
+    /**
+     * 淘汰次数
+     */
+    private long evictionCount = 0;
+
+    /**
+     * 创建缓存
+     *
+     * @param maxWeight 容量上限，小于等于0表示不缓存
+     */
+    public WeightedLruCache(long maxWeight) {
+        this(maxWeight, 16);
+    }
+
+    /**
+     * 创建缓存
+     *
+     * @param maxWeight       容量上限，小于等于0表示不缓存
+     * @param initialCapacity 缓存表初始大小
+     */
+    public WeightedLruCache(long maxWeight, int initialCapacity) {
+        this.maxWeight = maxWeight;
+        this.entries = new LinkedHashMap<>(initialCapacity, 0.75f, true);
+    }
+
+    /**
+     * 获取缓存对象，并记录命中或未命中
+     *
+     * @param key 缓存键
+     * @return 缓存对象，不存在时返还null
+     */
+    public synchronized V get(K key) {
+        Entry<V> e = entries.get(key);
+        if (e == null) {
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        return e.value;
+    }
+
+    /**
+     * 缓存对象，已经存在时保留已缓存的对象
+     * <p>
+     * 加载过程通常不持有锁，多个线程可能同时加载同一对象，以先放入的对象为准。
+     *
+     * @param key    缓存键
+     * @param value  缓存对象，不能为null
+     * @param weight 对象权重，超过容量上限时不缓存
+     * @return 缓存中的对象，未被缓存时返还 value
+     */
+    public synchronized V putIfAbsent(K key, V value, long weight) {
+        Entry<V> exist = entries.get(key);
+        if (exist != null) {
+            return exist.value;
+        }
+        if (maxWeight <= 0 || weight > maxWeight) {
+            return value;
+        }
+        entries.put(key, new Entry<>(value, weight));
+        this.weight += weight;
+        trim();
+        return value;
+    }
+
+    /**
+     * 淘汰最久未使用的对象直至不超过容量上限
+     */
+    private void trim() {
+        Iterator<Map.Entry<K, Entry<V>>> it = entries.entrySet().iterator();
+        while (weight > maxWeight && it.hasNext()) {
+            weight -= it.next().getValue().weight;
+            it.remove();
+            evictionCount++;
+        }
+    }
+
+    /**
+     * 清空缓存，统计数据保留
+     */
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    /**
+     * 设置容量上限，超出部分立即淘汰
+     *
+     * @param maxWeight 容量上限，小于等于0表示不缓存
+     */
+    public synchronized void setMaxWeight(long maxWeight) {
+        this.maxWeight = maxWeight;
+        trim();
+    }
+
+    /**
+     * @return 容量上限
+     */
+    public synchronized long getMaxWeight() {
+        return maxWeight;
+    }
+
+    /**
+     * @return 当前缓存对象的权重之和
+     */
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+    /**
+     * @return 缓存对象数量
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return 命中次数
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return 未命中次数
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return 淘汰次数
+     */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * @return 命中率，没有任何访问时为0
+     */
+    public synchronized double getHitRate() {
+        long total = hitCount + missCount;
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+}
@@ -34,6 +34,15 @@ public class ZipUtil {
         MaxSize = size;
     }
 
+    /**
+     * 获取 解压许可最大字节数
+     *
+     * @return 压缩文件解压最大大小
+     */
+    public static long getMaxSize() {
+        return MaxSize;
+    }
+
     /**
      * 解压到指定目录
      *
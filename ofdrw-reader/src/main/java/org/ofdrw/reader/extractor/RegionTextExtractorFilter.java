@@ -27,6 +27,13 @@ public class RegionTextExtractorFilter implements ExtractorFilter {
         this.rectangle = rectangle;
     }
 
+    /**
+     * @return 文本提取矩形框
+     */
+    public Rectangle getRectangle() {
+        return rectangle;
+    }
+
     /**
      * 提取对象在矩形区域内的文本
      *
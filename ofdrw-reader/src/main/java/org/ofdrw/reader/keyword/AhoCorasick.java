@@ -0,0 +1,163 @@
+package org.ofdrw.reader.keyword;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Aho-Corasick 多模式匹配
+ * <p>
+ * 一次扫描文本即可找出所有关键字的出现位置，匹配耗时与关键字数量无关。
+ * 构造完成后状态机不可变，可以在多个线程中共享。
+ *
+ * @author agent
+ * @since 2026-10-17 14:23:50
+ */
+final class AhoCorasick {
+
+    /**
+     * 匹配回调
+     */
+    @FunctionalInterface
+    interface Hit {
+        /**
+         * 找到关键字
+         *
+         * @param pattern 关键字序号
+         * @param end     关键字最后一个字符在文本中的位置（含）
+         */
+        void accept(int pattern, int end);
+    }
+
+    /**
+     * 各状态的转移字符，升序
+     */
+    private final char[][] keys;
+
+    /**
+     * 各状态的转移目标，与 keys 一一对应
+     */
+    private final int[][] next;
+
+    /**
+     * 失配转移
+     */
+    private final int[] fail;
+
+    /**
+     * 到达该状态时匹配成功的关键字序号（含失配链上的关键字）
+     */
+    private final int[][] outputs;
+
+    /**
+     * 构造状态机
+     *
+     * @param patterns 关键字列表
+     * @throws IllegalArgumentException 关键字为空
+     */
+    AhoCorasick(String[] patterns) {
+        // 构造字典树
+        List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+        List<List<Integer>> out = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        out.add(new ArrayList<>(0));
+        for (int p = 0; p < patterns.length; p++) {
+            String pattern = patterns[p];
+            if (pattern == null || pattern.isEmpty()) {
+                throw new IllegalArgumentException("关键字不能为空");
+            }
+            int state = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                Integer child = trie.get(state).get(pattern.charAt(i));
+                if (child == null) {
+                    child = trie.size();
+                    trie.add(new TreeMap<>());
+                    out.add(new ArrayList<>(0));
+                    trie.get(state).put(pattern.charAt(i), child);
+                }
+                state = child;
+            }
+            out.get(state).add(p);
+        }
+
+        final int n = trie.size();
+        keys = new char[n][];
+        next = new int[n][];
+        fail = new int[n];
+        outputs = new int[n][];
+        for (int s = 0; s < n; s++) {
+            TreeMap<Character, Integer> children = trie.get(s);
+            keys[s] = new char[children.size()];
+            next[s] = new int[children.size()];
+            int i = 0;
+            for (Map.Entry<Character, Integer> e : children.entrySet()) {
+                keys[s][i] = e.getKey();
+                next[s][i] = e.getValue();
+                i++;
+            }
+        }
+
+        // 广度优先计算失配转移，父状态的输出先于子状态确定
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        outputs[0] = new int[0];
+        for (int child : next[0]) {
+            fail[child] = 0;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int s = queue.poll();
+            int[] own = out.get(s).stream().mapToInt(Integer::intValue).toArray();
+            int[] inherited = outputs[fail[s]];
+            int[] merged = Arrays.copyOf(own, own.length + inherited.length);
+            System.arraycopy(inherited, 0, merged, own.length, inherited.length);
+            outputs[s] = merged;
+            for (int i = 0; i < keys[s].length; i++) {
+                int child = next[s][i];
+                char c = keys[s][i];
+                int f = fail[s];
+                int t;
+                while ((t = transit(f, c)) == -1 && f != 0) {
+                    f = fail[f];
+                }
+                fail[child] = t == -1 ? 0 : t;
+                queue.add(child);
+            }
+        }
+    }
+
+    /**
+     * 扫描文本
+     *
+     * @param text 文本
+     * @param from 起始位置（含）
+     * @param to   结束位置（不含）
+     * @param hit  匹配回调，同一结束位置的多个关键字按关键字从长到短的顺序回调
+     */
+    void scan(char[] text, int from, int to, Hit hit) {
+        int state = 0;
+        for (int i = from; i < to; i++) {
+            final char c = text[i];
+            int t;
+            while ((t = transit(state, c)) == -1 && state != 0) {
+                state = fail[state];
+            }
+            state = t == -1 ? 0 : t;
+            for (int p : outputs[state]) {
+                hit.accept(p, i);
+            }
+        }
+    }
+
+    /**
+     * 状态转移
+     *
+     * @return 目标状态，不存在时返还-1
+     */
+    private int transit(int state, char c) {
+        int idx = Arrays.binarySearch(keys[state], c);
+        return idx < 0 ? -1 : next[state][idx];
+    }
+}
@@ -4,16 +4,7 @@ import org.dom4j.DocumentException;
 import org.ofdrw.core.Const;
 import org.ofdrw.core.basicStructure.doc.Document;
 import org.ofdrw.core.basicStructure.ofd.OFD;
-import org.ofdrw.core.basicStructure.pageObj.CT_TemplatePage;
-import org.ofdrw.core.basicStructure.pageObj.Content;
 import org.ofdrw.core.basicStructure.pageObj.Page;
-import org.ofdrw.core.basicStructure.pageObj.Template;
-import org.ofdrw.core.basicStructure.pageObj.layer.CT_Layer;
-import org.ofdrw.core.basicStructure.pageObj.layer.PageBlockType;
-import org.ofdrw.core.basicStructure.pageObj.layer.block.CT_PageBlock;
-import org.ofdrw.core.basicStructure.pageObj.layer.block.TextObject;
-import org.ofdrw.core.basicStructure.res.Res;
-import org.ofdrw.core.basicStructure.res.resources.Fonts;
 import org.ofdrw.core.basicType.*;
 import org.ofdrw.core.text.TextCode;
 import org.ofdrw.core.text.font.CT_Font;
@@ -22,10 +13,6 @@ import org.ofdrw.reader.DeltaTool;
 import org.ofdrw.reader.OFDReader;
 import org.ofdrw.reader.ResourceLocator;
 
-import java.awt.*;
-import java.awt.font.FontRenderContext;
-import java.awt.font.TextAttribute;
-import java.awt.geom.AffineTransform;
 import java.io.FileNotFoundException;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -41,12 +28,6 @@ import java.util.Map;
 @SuppressWarnings("unchecked")
 public class KeywordExtractor {
 
-    /**
-     * 每毫米的point单位
-     * 1 point / 2.83464567 ≈ 0.35277778 mm
-     */
-    private static final float POINT_PER_MM = 72 / 25.4f;
-
     /**
      * 获取关键字坐标列表(坐标单位毫米mm)
      *
@@ -87,6 +68,21 @@ public class KeywordExtractor {
         return getKeyWordPositionList(reader, new String[]{keyword}, pages);
     }
 
+    /**
+     * 通过文字索引获取关键字坐标列表(坐标单位毫米mm)
+     * <p>
+     * 同一文档需要多次检索或检索大量关键字时，先通过 {@link TextIndex#build(OFDReader)}
+     * 构造索引，之后的检索不再重复解析页面。
+     *
+     * @param index    文档文字索引
+     * @param keywords 关键字列表
+     * @param pages    要检索的页码，从1开始，不超过最大页码；为null时检索全部页面
+     * @return 关键字坐标列表
+     */
+    public static List<KeywordPosition> getKeyWordPositionList(TextIndex index, String[] keywords, int[] pages) {
+        return index.search(keywords, pages);
+    }
+
     /**
      * 获取关键字坐标列表(坐标单位毫米mm)
      *
@@ -109,10 +105,10 @@ public class KeywordExtractor {
         String dataDir = docFile.split("/")[0];
 
         //获取字体映射对象
-        Map<ST_ID, CT_Font> fontMapping = getFontMapping(locator, dataDir, document);
+        Map<ST_ID, CT_Font> fontMapping = KeywordTool.getFontMapping(locator, dataDir, document);
 
         //获取模板字典
-        Map<ST_ID, Page> templatePage = getTemplatePage(locator, dataDir, document);
+        Map<ST_ID, Page> templatePage = KeywordTool.getTemplatePage(locator, dataDir, document);
 
         //创建文字定位列表
         List<TextCode> textCodeList = new ArrayList<>();
@@ -130,12 +126,12 @@ public class KeywordExtractor {
             if (hasPageLimit) {
                 for (int i : pages) {
                     if (i == page) {
-                        preparedContextData(reader, textCodeList, boundaryMapping, fontMapping, templatePage, page);
+                        KeywordTool.preparedContextData(reader, textCodeList, boundaryMapping, fontMapping, templatePage, page);
                         break;
                     }
                 }
             } else {
-                preparedContextData(reader, textCodeList, boundaryMapping, fontMapping, templatePage, page);
+                KeywordTool.preparedContextData(reader, textCodeList, boundaryMapping, fontMapping, templatePage, page);
             }
         }
 
@@ -315,7 +311,7 @@ public class KeywordExtractor {
                 boolean hasNextKeyword = true;
 
                 while (hasNextKeyword) {
-                    double fHeight = strHeight(keyword, getFont(ctText, kr.getFont()));
+                    double fHeight = KeywordTool.strHeight(keyword, KeywordTool.getFont(ctText, kr.getFont()));
                     List<Float> deltaX = DeltaTool.getDelta(textCode.getDeltaX(), textCode.getContent().length());
                     List<Float> deltaY = DeltaTool.getDelta(textCode.getDeltaY(), textCode.getContent().length());
 
@@ -355,7 +351,7 @@ public class KeywordExtractor {
     private static KeywordPosition getCtmKeywordPosition(TextCode textCode, int textIndex, int page, CT_Text ctText, double height,
                                                          ST_Array ctm, List<Float> deltaX, List<Float> deltaY, int keywordLength) {
 
-        double[] matrix = getMatrix(ctm);
+        double[] matrix = KeywordTool.getMatrix(ctm);
         double x = textCode.getX();
         double y = textCode.getY();
 
@@ -370,12 +366,12 @@ public class KeywordExtractor {
 
         double stringWidth = getStringWidth(textIndex, keywordLength, deltaX, ctText.getSize());
 
-        ST_Pos leftTop = transform(matrix, x, y - height);
-        ST_Pos leftBottom = transform(matrix, x, y);
-        ST_Pos rightTop = transform(matrix, x + stringWidth, y - height);
-        ST_Pos rightBottom = transform(matrix, x + stringWidth, y);
+        ST_Pos leftTop = KeywordTool.transform(matrix, x, y - height);
+        ST_Pos leftBottom = KeywordTool.transform(matrix, x, y);
+        ST_Pos rightTop = KeywordTool.transform(matrix, x + stringWidth, y - height);
+        ST_Pos rightBottom = KeywordTool.transform(matrix, x + stringWidth, y);
 
-        ST_Box ctmBox = mergePos(leftTop, leftBottom, rightTop, rightBottom);
+        ST_Box ctmBox = KeywordTool.mergePos(leftTop, leftBottom, rightTop, rightBottom);
 
         ctmBox.setTopLeftX(ctmBox.getTopLeftX() + ctText.getBoundary().getTopLeftX());
         ctmBox.setTopLeftY(ctmBox.getTopLeftY() + ctText.getBoundary().getTopLeftY());
@@ -383,65 +379,8 @@ public class KeywordExtractor {
         return new KeywordPosition(page, ctmBox);
     }
 
-    /**
-     * 合并坐标
-     *
-     * @param posList 坐标列表
-     * @return 矩形框
-     */
-    private static ST_Box mergePos(ST_Pos... posList) {
-        double topLeftX = 0, topLeftY = 0, bottomRightX = 0, bottomRightY = 0;
-
-        for (int i = 0; i < posList.length; i++) {
-            ST_Pos pos = posList[i];
-            if (i == 0) {
-                topLeftX = bottomRightX = pos.getX();
-                topLeftY = bottomRightY = pos.getY();
-            }
-            if (topLeftX > pos.getX()) {
-                topLeftX = pos.getX();
-            }
-            if (topLeftY > pos.getY()) {
-                topLeftY = pos.getY();
-            }
-            if (bottomRightX < pos.getX()) {
-                bottomRightX = pos.getX();
-            }
-            if (bottomRightY < pos.getY()) {
-                bottomRightY = pos.getY();
-            }
-        }
-        return new ST_Box(topLeftX, topLeftY, bottomRightX - topLeftX, bottomRightY - topLeftY);
-    }
 
-    /**
-     * 坐标转换
-     *
-     * @param matrix 矩阵数组
-     * @param sx     原始X
-     * @param sy     原始Y
-     * @return 计算后位置
-     */
-    private static ST_Pos transform(double[] matrix, double sx, double sy) {
-        double x = matrix[0] * sx + matrix[2] * sy + matrix[4];
-        double y = matrix[1] * sx + matrix[3] * sy + matrix[5];
-        return new ST_Pos(x, y);
-    }
 
-    /**
-     * 获取Matrix数据
-     *
-     * @param ctm ctm对象
-     * @return 矩阵对象
-     */
-    private static double[] getMatrix(ST_Array ctm) {
-        List<String> ctmArray = ctm.getArray();
-        double[] matrix = new double[ctmArray.size()];
-        for (int i = 0; i < ctmArray.size(); i++) {
-            matrix[i] = Double.parseDouble(ctmArray.get(i));
-        }
-        return matrix;
-    }
 
     /**
      * 合并关键字位置对象
@@ -492,12 +431,12 @@ public class KeywordExtractor {
                         width = kr.getText().getSize();
                     }
 
-                    double height = strHeight(keyword, getFont(ctText, kr.getFont()));
+                    double height = KeywordTool.strHeight(keyword, KeywordTool.getFont(ctText, kr.getFont()));
 
                     ST_Pos basePoint;
                     ST_Array ctm = ctText.getCTM();
                     if (ctm != null) {
-                        double[] matrix = getMatrix(ctm);
+                        double[] matrix = KeywordTool.getMatrix(ctm);
                         double x = textCode.getX() == null ? 0 : textCode.getX();
                         double y = textCode.getY() == null ? 0 : textCode.getY();
                         if (i == 0 && firstStartIndex > 0 && deltaX.size() > 0) {
@@ -510,12 +449,12 @@ public class KeywordExtractor {
                                 y += deltaY.get(j);
                             }
                         }
-                        ST_Pos leftBottom = transform(matrix, x, y);
-                        ST_Pos rightTop = transform(matrix, x + width, y - height);
+                        ST_Pos leftBottom = KeywordTool.transform(matrix, x, y);
+                        ST_Pos rightTop = KeywordTool.transform(matrix, x + width, y - height);
 
                         ST_Pos position = ctText.getBoundary().getTopLeftPos();
 
-                        ST_Box box = mergePos(leftBottom, rightTop);
+                        ST_Box box = KeywordTool.mergePos(leftBottom, rightTop);
                         box.setTopLeftX(position.getX() + box.getTopLeftX());
                         box.setTopLeftY(position.getY() + box.getTopLeftY());
 
@@ -538,64 +477,11 @@ public class KeywordExtractor {
             }
         }
         if (boxList.size() > 0) {
-            positionList.add(new KeywordPosition(page, mergeBox(boxList)));
-        }
-    }
-
-    /**
-     * 合并Box
-     *
-     * @param boxList 盒子列表
-     */
-    private static ST_Box mergeBox(List<ST_Box> boxList) {
-        double topLeftX = 0, topLeftY = 0, bottomRightX = 0, bottomRightY = 0;
-
-        for (int i = 0; i < boxList.size(); i++) {
-            ST_Box box = boxList.get(i);
-            if (i == 0) {
-                topLeftX = box.getTopLeftX();
-                topLeftY = box.getTopLeftY();
-            } else {
-                if (box.getTopLeftX() < topLeftX) {
-                    topLeftX = box.getTopLeftX();
-                }
-                if (box.getTopLeftY() < topLeftY) {
-                    topLeftY = box.getTopLeftY();
-                }
-            }
-            if ((box.getTopLeftX() + box.getWidth()) > bottomRightX) {
-                bottomRightX = box.getTopLeftX() + box.getWidth();
-            }
-            if ((box.getTopLeftY() + box.getHeight()) > bottomRightY) {
-                bottomRightY = box.getTopLeftY() + box.getHeight();
-            }
+            positionList.add(new KeywordPosition(page, KeywordTool.mergeBox(boxList)));
         }
-
-        return new ST_Box(topLeftX, topLeftY, bottomRightX - topLeftX, bottomRightY - topLeftY);
     }
 
-    /**
-     * 获取模板页数据
-     *
-     * @param locator  资源定位器
-     * @param dataDir  Document File路径
-     * @param document 文档对象
-     * @throws FileNotFoundException 文件不存在异常
-     * @throws DocumentException     文档解析异常
-     */
-    private static Map<ST_ID, Page> getTemplatePage(ResourceLocator locator, String dataDir, Document document)
-            throws FileNotFoundException, DocumentException {
-        Map<ST_ID, Page> templatePage = new HashMap<>(8);
-
-        //创建模板字体对象
-        for (CT_TemplatePage tp : document.getCommonData().getTemplatePages()) {
-            String templateFile = dataDir + "/" + tp.getBaseLoc();
-            Page page = locator.get(templateFile, Page::new);
-            templatePage.put(tp.getID(), page);
-        }
 
-        return templatePage;
-    }
 
     /**
      * 创建关键字位置对象
@@ -652,18 +538,6 @@ public class KeywordExtractor {
         return new KeywordPosition(page, new ST_Box(tlx, tly, w, h));
     }
 
-    /**
-     * 获取字体高度
-     *
-     * @param str  待测量文字
-     * @param font 字体
-     * @return 高度
-     */
-    private static Double strHeight(String str, Font font) {
-        FontRenderContext frc =
-                new FontRenderContext(new AffineTransform(), true, true);
-        return font.getStringBounds(str, frc).getHeight() / POINT_PER_MM;
-    }
 
     /**
      * 获取文本宽度，单位毫米(mm)
@@ -682,37 +556,6 @@ public class KeywordExtractor {
         return width;
     }
 
-    /**
-     * 获取字体
-     *
-     * @param ctText 文字对象
-     * @param ctFont 字形对象
-     * @return 字体对象
-     */
-    private static Font getFont(CT_Text ctText, CT_Font ctFont) {
-        if (ctFont == null) {
-            ctFont = new CT_Font("黑体");
-        }
-
-        Font font;
-        int fontSize = (int) (ctText.getSize() * POINT_PER_MM);
-        if (ctText.getItalic()) {
-            font = new Font(ctFont.getFontName(), Font.ITALIC, fontSize);
-        } else {
-            font = new Font(ctFont.getFontName(), Font.PLAIN, fontSize);
-        }
-
-        Map attributes = font.getAttributes();
-        if (ctText.getHScale() != null) {
-            attributes.put(TextAttribute.WIDTH, ctText.getHScale());
-        }
-
-        if (ctText.getWeight() != null) {
-            attributes.put(TextAttribute.WEIGHT, ctText.getWeight().getWeight() / 100);
-        }
-
-        return Font.getFont(attributes);
-    }
 
     /**
      * 获取左下角位置
@@ -745,109 +588,7 @@ public class KeywordExtractor {
         return ST_Pos.getInstance(x, y);
     }
 
-    /**
-     * 预处理数据
-     *
-     * @param reader          OFD解析器
-     * @param textCodeList    文本列表
-     * @param boundaryMapping 外接矩形映射
-     * @param fontMapping     字体映射对象
-     * @param templatePageMap 模板数据
-     * @param pageNumber      页码
-     */
-    private static void preparedContextData(OFDReader reader, List<TextCode> textCodeList, Map<TextCode, KeywordResource> boundaryMapping,
-                                            Map<ST_ID, CT_Font> fontMapping, Map<ST_ID, Page> templatePageMap, int pageNumber) {
-        Page page = reader.getPage(pageNumber);
-        List<CT_Layer> layers = new ArrayList<>(0);
-        Content content = page.getContent();
-        if (content != null) {
-            // 获取模板页正文层
-            layers = content.getLayers();
-        }
-
-        for (Template tpl : page.getTemplates()) {
-            //获取模板页
-            Page templatePage = null;
-            if (tpl != null) {
-                ST_ID templateId = tpl.getTemplateID().getRefId();
-                if (templatePageMap.containsKey(templateId)) {
-                    templatePage = templatePageMap.get(templateId);
-                }
-            }
-
-            //添加模板层
-            if (templatePage != null) {
-                Content tplContent = templatePage.getContent();
-                if (tplContent != null) {
-                    layers.addAll(tplContent.getLayers());
-                }
-            }
-        }
-        //创建字型映射关系
-        for (CT_Layer layer : layers) {
-            pageBlockHandle(textCodeList, boundaryMapping, fontMapping, pageNumber, layer.getPageBlocks());
-        }
-    }
 
-    /**
-     * 页面块处理
-     *
-     * @param textCodeList    文本列表
-     * @param boundaryMapping 外接矩形映射
-     * @param fontMapping     字体映射对象
-     * @param pageNumber      页码
-     * @param pageBlocks      页块列表
-     */
-    private static void pageBlockHandle(List<TextCode> textCodeList, Map<TextCode, KeywordResource> boundaryMapping, Map<ST_ID, CT_Font> fontMapping,
-                                        int pageNumber, List<PageBlockType> pageBlocks) {
-        for (PageBlockType block : pageBlocks) {
-            if (block instanceof TextObject) {
-                TextObject text = (TextObject) block;
-                CT_Font font = fontMapping.get(text.getFont().getRefId());
-                KeywordResource kr;
-
-                for (TextCode code : text.getTextCodes()) {
-                    kr = new KeywordResource();
-                    kr.setPage(pageNumber);
-                    kr.setFont(font);
-                    kr.setText(text);
-
-                    textCodeList.add(code);
-                    boundaryMapping.put(code, kr);
-                }
-            } else if (block instanceof CT_PageBlock) {
-                CT_PageBlock ctPageBlock = (CT_PageBlock) block;
-                pageBlockHandle(textCodeList, boundaryMapping, fontMapping, pageNumber, ctPageBlock.getPageBlocks());
-            }
-        }
-    }
 
-    /**
-     * 获取字体映射对象
-     *
-     * @param locator  资源定位器
-     * @param dataDir  Document File路径
-     * @param document 文档对象
-     * @throws FileNotFoundException 文件不存在异常
-     * @throws DocumentException     文档解析异常
-     */
-    private static Map<ST_ID, CT_Font> getFontMapping(ResourceLocator locator, String dataDir, Document document)
-            throws FileNotFoundException, DocumentException {
-        Map<ST_ID, CT_Font> fontMapping = new HashMap<>(8);
-        //资源位置
-        ST_Loc publicRes = document.getCommonData().getPublicRes();
-        if (publicRes != null) {
-            String resFile = dataDir + "/" + publicRes.getLoc();
-            Res res = locator.get(resFile, Res::new);
-            List<Fonts> fontsList = res.getFonts();
-            for (Fonts font : fontsList) {
-                List<CT_Font> ctFontList = font.getFonts();
-                for (CT_Font ctFont : ctFontList) {
-                    fontMapping.put(ctFont.getID(), ctFont);
-                }
-            }
-        }
-        return fontMapping;
-    }
 
 }
@@ -0,0 +1,316 @@
+package org.ofdrw.reader.keyword;
+
+import org.dom4j.DocumentException;
+import org.ofdrw.core.basicStructure.doc.Document;
+import org.ofdrw.core.basicStructure.pageObj.CT_TemplatePage;
+import org.ofdrw.core.basicStructure.pageObj.Content;
+import org.ofdrw.core.basicStructure.pageObj.Page;
+import org.ofdrw.core.basicStructure.pageObj.Template;
+import org.ofdrw.core.basicStructure.pageObj.layer.CT_Layer;
+import org.ofdrw.core.basicStructure.pageObj.layer.PageBlockType;
+import org.ofdrw.core.basicStructure.pageObj.layer.block.CT_PageBlock;
+import org.ofdrw.core.basicStructure.pageObj.layer.block.TextObject;
+import org.ofdrw.core.basicStructure.res.Res;
+import org.ofdrw.core.basicStructure.res.resources.Fonts;
+import org.ofdrw.core.basicType.*;
+import org.ofdrw.core.text.TextCode;
+import org.ofdrw.core.text.font.CT_Font;
+import org.ofdrw.core.text.text.CT_Text;
+import org.ofdrw.reader.OFDReader;
+import org.ofdrw.reader.ResourceLocator;
+
+import java.awt.*;
+import java.awt.font.FontRenderContext;
+import java.awt.font.TextAttribute;
+import java.awt.geom.AffineTransform;
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 关键字检索工具
+ * <p>
+ * {@link KeywordExtractor} 与 {@link TextIndex} 共用的页面遍历、字体测量以及坐标计算方法。
+ *
+ * @author agent
+ * @since 2026-10-17 16:06:40
+ */
+@SuppressWarnings("unchecked")
+final class KeywordTool {
+
+    /**
+     * 每毫米的point单位
+     * 1 point / 2.83464567 ≈ 0.35277778 mm
+     */
+    private static final float POINT_PER_MM = 72 / 25.4f;
+
+    private KeywordTool() {
+    }
+
+    /**
+     * 合并坐标
+     *
+     * @param posList 坐标列表
+     * @return 矩形框
+     */
+    static ST_Box mergePos(ST_Pos... posList) {
+        double topLeftX = 0, topLeftY = 0, bottomRightX = 0, bottomRightY = 0;
+
+        for (int i = 0; i < posList.length; i++) {
+            ST_Pos pos = posList[i];
+            if (i == 0) {
+                topLeftX = bottomRightX = pos.getX();
+                topLeftY = bottomRightY = pos.getY();
+            }
+            if (topLeftX > pos.getX()) {
+                topLeftX = pos.getX();
+            }
+            if (topLeftY > pos.getY()) {
+                topLeftY = pos.getY();
+            }
+            if (bottomRightX < pos.getX()) {
+                bottomRightX = pos.getX();
+            }
+            if (bottomRightY < pos.getY()) {
+                bottomRightY = pos.getY();
+            }
+        }
+        return new ST_Box(topLeftX, topLeftY, bottomRightX - topLeftX, bottomRightY - topLeftY);
+    }
+
+    /**
+     * 坐标转换
+     *
+     * @param matrix 矩阵数组
+     * @param sx     原始X
+     * @param sy     原始Y
+     * @return 计算后位置
+     */
+    static ST_Pos transform(double[] matrix, double sx, double sy) {
+        double x = matrix[0] * sx + matrix[2] * sy + matrix[4];
+        double y = matrix[1] * sx + matrix[3] * sy + matrix[5];
+        return new ST_Pos(x, y);
+    }
+
+    /**
+     * 获取Matrix数据
+     *
+     * @param ctm ctm对象
+     * @return 矩阵对象
+     */
+    static double[] getMatrix(ST_Array ctm) {
+        List<String> ctmArray = ctm.getArray();
+        double[] matrix = new double[ctmArray.size()];
+        for (int i = 0; i < ctmArray.size(); i++) {
+            matrix[i] = Double.parseDouble(ctmArray.get(i));
+        }
+        return matrix;
+    }
+
+    /**
+     * 合并Box
+     *
+     * @param boxList 盒子列表
+     */
+    static ST_Box mergeBox(List<ST_Box> boxList) {
+        double topLeftX = 0, topLeftY = 0, bottomRightX = 0, bottomRightY = 0;
+
+        for (int i = 0; i < boxList.size(); i++) {
+            ST_Box box = boxList.get(i);
+            if (i == 0) {
+                topLeftX = box.getTopLeftX();
+                topLeftY = box.getTopLeftY();
+            } else {
+                if (box.getTopLeftX() < topLeftX) {
+                    topLeftX = box.getTopLeftX();
+                }
+                if (box.getTopLeftY() < topLeftY) {
+                    topLeftY = box.getTopLeftY();
+                }
+            }
+            if ((box.getTopLeftX() + box.getWidth()) > bottomRightX) {
+                bottomRightX = box.getTopLeftX() + box.getWidth();
+            }
+            if ((box.getTopLeftY() + box.getHeight()) > bottomRightY) {
+                bottomRightY = box.getTopLeftY() + box.getHeight();
+            }
+        }
+
+        return new ST_Box(topLeftX, topLeftY, bottomRightX - topLeftX, bottomRightY - topLeftY);
+    }
+
+    /**
+     * 获取模板页数据
+     *
+     * @param locator  资源定位器
+     * @param dataDir  Document File路径
+     * @param document 文档对象
+     * @throws FileNotFoundException 文件不存在异常
+     * @throws DocumentException     文档解析异常
+     */
+    static Map<ST_ID, Page> getTemplatePage(ResourceLocator locator, String dataDir, Document document)
+            throws FileNotFoundException, DocumentException {
+        Map<ST_ID, Page> templatePage = new HashMap<>(8);
+
+        //创建模板字体对象
+        for (CT_TemplatePage tp : document.getCommonData().getTemplatePages()) {
+            String templateFile = dataDir + "/" + tp.getBaseLoc();
+            Page page = locator.get(templateFile, Page::new);
+            templatePage.put(tp.getID(), page);
+        }
+
+        return templatePage;
+    }
+
+    /**
+     * 获取字体高度
+     *
+     * @param str  待测量文字
+     * @param font 字体
+     * @return 高度
+     */
+    static Double strHeight(String str, Font font) {
+        FontRenderContext frc =
+                new FontRenderContext(new AffineTransform(), true, true);
+        return font.getStringBounds(str, frc).getHeight() / POINT_PER_MM;
+    }
+
+    /**
+     * 获取字体
+     *
+     * @param ctText 文字对象
+     * @param ctFont 字形对象
+     * @return 字体对象
+     */
+    static Font getFont(CT_Text ctText, CT_Font ctFont) {
+        if (ctFont == null) {
+            ctFont = new CT_Font("黑体");
+        }
+
+        Font font;
+        int fontSize = (int) (ctText.getSize() * POINT_PER_MM);
+        if (ctText.getItalic()) {
+            font = new Font(ctFont.getFontName(), Font.ITALIC, fontSize);
+        } else {
+            font = new Font(ctFont.getFontName(), Font.PLAIN, fontSize);
+        }
+
+        Map attributes = font.getAttributes();
+        if (ctText.getHScale() != null) {
+            attributes.put(TextAttribute.WIDTH, ctText.getHScale());
+        }
+
+        if (ctText.getWeight() != null) {
+            attributes.put(TextAttribute.WEIGHT, ctText.getWeight().getWeight() / 100);
+        }
+
+        return Font.getFont(attributes);
+    }
+
+    /**
+     * 预处理数据
+     *
+     * @param reader          OFD解析器
+     * @param textCodeList    文本列表
+     * @param boundaryMapping 外接矩形映射
+     * @param fontMapping     字体映射对象
+     * @param templatePageMap 模板数据
+     * @param pageNumber      页码
+     */
+    static void preparedContextData(OFDReader reader, List<TextCode> textCodeList, Map<TextCode, KeywordResource> boundaryMapping,
+                                    Map<ST_ID, CT_Font> fontMapping, Map<ST_ID, Page> templatePageMap, int pageNumber) {
+        Page page = reader.getPage(pageNumber);
+        List<CT_Layer> layers = new ArrayList<>(0);
+        Content content = page.getContent();
+        if (content != null) {
+            // 获取模板页正文层
+            layers = content.getLayers();
+        }
+
+        for (Template tpl : page.getTemplates()) {
+            //获取模板页
+            Page templatePage = null;
+            if (tpl != null) {
+                ST_ID templateId = tpl.getTemplateID().getRefId();
+                if (templatePageMap.containsKey(templateId)) {
+                    templatePage = templatePageMap.get(templateId);
+                }
+            }
+
+            //添加模板层
+            if (templatePage != null) {
+                Content tplContent = templatePage.getContent();
+                if (tplContent != null) {
+                    layers.addAll(tplContent.getLayers());
+                }
+            }
+        }
+        //创建字型映射关系
+        for (CT_Layer layer : layers) {
+            pageBlockHandle(textCodeList, boundaryMapping, fontMapping, pageNumber, layer.getPageBlocks());
+        }
+    }
+
+    /**
+     * 页面块处理
+     *
+     * @param textCodeList    文本列表
+     * @param boundaryMapping 外接矩形映射
+     * @param fontMapping     字体映射对象
+     * @param pageNumber      页码
+     * @param pageBlocks      页块列表
+     */
+    private static void pageBlockHandle(List<TextCode> textCodeList, Map<TextCode, KeywordResource> boundaryMapping, Map<ST_ID, CT_Font> fontMapping,
+                                        int pageNumber, List<PageBlockType> pageBlocks) {
+        for (PageBlockType block : pageBlocks) {
+            if (block instanceof TextObject) {
+                TextObject text = (TextObject) block;
+                CT_Font font = fontMapping.get(text.getFont().getRefId());
+                KeywordResource kr;
+
+                for (TextCode code : text.getTextCodes()) {
+                    kr = new KeywordResource();
+                    kr.setPage(pageNumber);
+                    kr.setFont(font);
+                    kr.setText(text);
+
+                    textCodeList.add(code);
+                    boundaryMapping.put(code, kr);
+                }
+            } else if (block instanceof CT_PageBlock) {
+                CT_PageBlock ctPageBlock = (CT_PageBlock) block;
+                pageBlockHandle(textCodeList, boundaryMapping, fontMapping, pageNumber, ctPageBlock.getPageBlocks());
+            }
+        }
+    }
+
+    /**
+     * 获取字体映射对象
+     *
+     * @param locator  资源定位器
+     * @param dataDir  Document File路径
+     * @param document 文档对象
+     * @throws FileNotFoundException 文件不存在异常
+     * @throws DocumentException     文档解析异常
+     */
+    static Map<ST_ID, CT_Font> getFontMapping(ResourceLocator locator, String dataDir, Document document)
+            throws FileNotFoundException, DocumentException {
+        Map<ST_ID, CT_Font> fontMapping = new HashMap<>(8);
+        //资源位置
+        ST_Loc publicRes = document.getCommonData().getPublicRes();
+        if (publicRes != null) {
+            String resFile = dataDir + "/" + publicRes.getLoc();
+            Res res = locator.get(resFile, Res::new);
+            List<Fonts> fontsList = res.getFonts();
+            for (Fonts font : fontsList) {
+                List<CT_Font> ctFontList = font.getFonts();
+                for (CT_Font ctFont : ctFontList) {
+                    fontMapping.put(ctFont.getID(), ctFont);
+                }
+            }
+        }
+        return fontMapping;
+    }
+}
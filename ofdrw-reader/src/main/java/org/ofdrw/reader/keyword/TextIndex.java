@@ -0,0 +1,583 @@
+package org.ofdrw.reader.keyword;
+
+import org.dom4j.DocumentException;
+import org.ofdrw.core.Const;
+import org.ofdrw.core.basicStructure.doc.CT_CommonData;
+import org.ofdrw.core.basicStructure.doc.Document;
+import org.ofdrw.core.basicStructure.ofd.OFD;
+import org.ofdrw.core.basicStructure.pageObj.CT_TemplatePage;
+import org.ofdrw.core.basicStructure.pageObj.Page;
+import org.ofdrw.core.basicType.ST_Array;
+import org.ofdrw.core.basicType.ST_Box;
+import org.ofdrw.core.basicType.ST_ID;
+import org.ofdrw.core.basicType.ST_Loc;
+import org.ofdrw.core.basicType.ST_Pos;
+import org.ofdrw.core.text.TextCode;
+import org.ofdrw.core.text.font.CT_Font;
+import org.ofdrw.core.text.text.CT_Text;
+import org.ofdrw.reader.DeltaTool;
+import org.ofdrw.reader.OFDReader;
+import org.ofdrw.reader.ResourceLocator;
+
+import java.awt.Font;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * 文档文字索引
+ * <p>
+ * 对文档中所有文字对象只解析一次，将每个字形的位置、所属文字对象的外接矩形、字号、
+ * 字体行高以及变换矩阵以数组的形式紧凑保存，之后可以反复检索关键字而无需再次遍历页面。
+ * <p>
+ * 检索时使用 Aho-Corasick 状态机对每页文字进行一次扫描，多个关键字的检索代价与单个关键字相同；
+ * 跨越多个文字定位（TextCode）的关键字同样能够被检索到。
+ * <p>
+ * 索引可以通过 {@link #save(Path)} 保存为文档旁的索引文件，通过 {@link #open(OFDReader, Path)}
+ * 在文档未改变时直接加载。
+ *
+ * @author agent
+ * @since 2026-10-17 14:23:50
+ */
+public final class TextIndex {
+
+    /**
+     * 索引文件魔数 "OFTI"
+     */
+    private static final int MAGIC = 0x4F465449;
+
+    /**
+     * 索引文件格式版本
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * 文档指纹，页面及模板页面内容的CRC32
+     */
+    private final long fingerprint;
+
+    /**
+     * 各页文字，下标为页码-1
+     */
+    private final PageText[] pages;
+
+    private TextIndex(long fingerprint, PageText[] pages) {
+        this.fingerprint = fingerprint;
+        this.pages = pages;
+    }
+
+    /**
+     * 单页文字
+     * <p>
+     * 页面中所有非空白的文字定位按出现顺序首尾相接为一段文本，
+     * 每个字形记录其在文字对象坐标空间中的位置，
+     * 每个文字定位（下称“段”）记录其所属文字对象的属性。
+     */
+    private static final class PageText {
+        /**
+         * 页面文字
+         */
+        final char[] text;
+        /**
+         * 字形X坐标（文字对象坐标空间）
+         */
+        final float[] x;
+        /**
+         * 字形Y坐标（文字对象坐标空间）
+         */
+        final float[] y;
+        /**
+         * 段的起始字形位置，升序
+         */
+        final int[] runStart;
+        /**
+         * 段的字号
+         */
+        final float[] size;
+        /**
+         * 段的字体行高，按段的文字测量
+         */
+        final float[] lineHeight;
+        /**
+         * 段所属文字对象外接矩形左上角X
+         */
+        final float[] bx;
+        /**
+         * 段所属文字对象外接矩形左上角Y
+         */
+        final float[] by;
+        /**
+         * 段所属文字对象的变换矩阵，没有变换矩阵时为null
+         */
+        final double[][] ctm;
+
+        PageText(char[] text, float[] x, float[] y, int[] runStart,
+                 float[] size, float[] lineHeight, float[] bx, float[] by, double[][] ctm) {
+            this.text = text;
+            this.x = x;
+            this.y = y;
+            this.runStart = runStart;
+            this.size = size;
+            this.lineHeight = lineHeight;
+            this.bx = bx;
+            this.by = by;
+            this.ctm = ctm;
+        }
+
+        /**
+         * 获取字形所在的段
+         *
+         * @param glyph 字形位置
+         * @return 段序号
+         */
+        int runOf(int glyph) {
+            int idx = Arrays.binarySearch(runStart, glyph);
+            return idx >= 0 ? idx : -idx - 2;
+        }
+
+        /**
+         * 段的结束字形位置（不含）
+         */
+        int runEnd(int run) {
+            return run + 1 < runStart.length ? runStart[run + 1] : text.length;
+        }
+    }
+
+    /**
+     * 构造文档的文字索引
+     *
+     * @param reader OFD解析器
+     * @return 文字索引
+     * @throws IOException       文件读取异常
+     * @throws DocumentException 文档解析异常
+     */
+    public static TextIndex build(OFDReader reader) throws IOException, DocumentException {
+        ResourceLocator locator = reader.getResourceLocator();
+        OFD ofd = locator.get(Const.INDEX_FILE, OFD::new);
+        String docFile = ofd.getDocBody().getDocRoot().getLoc();
+        Document document = locator.get(docFile, Document::new);
+        String dataDir = docFile.split("/")[0];
+
+        Map<ST_ID, CT_Font> fontMapping = KeywordTool.getFontMapping(locator, dataDir, document);
+        Map<ST_ID, Page> templatePage = KeywordTool.getTemplatePage(locator, dataDir, document);
+
+        int numberOfPages = reader.getNumberOfPages();
+        PageText[] pages = new PageText[numberOfPages];
+        List<TextCode> textCodeList = new ArrayList<>();
+        Map<TextCode, KeywordResource> boundaryMapping = new HashMap<>();
+        for (int page = 1; page <= numberOfPages; page++) {
+            textCodeList.clear();
+            boundaryMapping.clear();
+            KeywordTool.preparedContextData(reader, textCodeList, boundaryMapping, fontMapping, templatePage, page);
+            pages[page - 1] = compact(textCodeList, boundaryMapping);
+        }
+        return new TextIndex(fingerprint(locator, dataDir, document), pages);
+    }
+
+    /**
+     * 打开文档的文字索引
+     * <p>
+     * 索引文件存在且与文档内容一致时直接加载，否则重新构造索引并写入索引文件。
+     *
+     * @param reader  OFD解析器
+     * @param sidecar 索引文件路径
+     * @return 文字索引
+     * @throws IOException       文件读写异常
+     * @throws DocumentException 文档解析异常
+     */
+    public static TextIndex open(OFDReader reader, Path sidecar) throws IOException, DocumentException {
+        if (sidecar == null) {
+            throw new IllegalArgumentException("索引文件路径(sidecar)为空");
+        }
+        if (Files.exists(sidecar)) {
+            ResourceLocator locator = reader.getResourceLocator();
+            OFD ofd = locator.get(Const.INDEX_FILE, OFD::new);
+            String docFile = ofd.getDocBody().getDocRoot().getLoc();
+            Document document = locator.get(docFile, Document::new);
+            long expect = fingerprint(locator, docFile.split("/")[0], document);
+            try {
+                TextIndex index = load(sidecar);
+                if (index.fingerprint == expect) {
+                    return index;
+                }
+            } catch (IOException e) {
+                // 索引文件损坏或版本不符，重新构造
+                System.err.println(">> 无法加载文字索引文件，重新构造索引: " + e.getMessage());
+            }
+        }
+        TextIndex index = build(reader);
+        index.save(sidecar);
+        return index;
+    }
+
+    /**
+     * 从索引文件加载文字索引
+     *
+     * @param file 索引文件路径
+     * @return 文字索引
+     * @throws IOException 文件读取异常或文件格式错误
+     */
+    public static TextIndex load(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("非文字索引文件：" + file);
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("不支持的文字索引版本：" + version);
+            }
+            long fingerprint = in.readLong();
+            PageText[] pages = new PageText[in.readInt()];
+            for (int p = 0; p < pages.length; p++) {
+                int glyphs = in.readInt();
+                char[] text = new char[glyphs];
+                float[] x = new float[glyphs];
+                float[] y = new float[glyphs];
+                for (int i = 0; i < glyphs; i++) {
+                    text[i] = in.readChar();
+                    x[i] = in.readFloat();
+                    y[i] = in.readFloat();
+                }
+                int runs = in.readInt();
+                int[] runStart = new int[runs];
+                float[] size = new float[runs];
+                float[] lineHeight = new float[runs];
+                float[] bx = new float[runs];
+                float[] by = new float[runs];
+                double[][] ctm = new double[runs][];
+                for (int r = 0; r < runs; r++) {
+                    runStart[r] = in.readInt();
+                    size[r] = in.readFloat();
+                    lineHeight[r] = in.readFloat();
+                    bx[r] = in.readFloat();
+                    by[r] = in.readFloat();
+                    if (in.readBoolean()) {
+                        ctm[r] = new double[6];
+                        for (int k = 0; k < 6; k++) {
+                            ctm[r][k] = in.readDouble();
+                        }
+                    }
+                }
+                pages[p] = new PageText(text, x, y, runStart, size, lineHeight, bx, by, ctm);
+            }
+            return new TextIndex(fingerprint, pages);
+        }
+    }
+
+    /**
+     * 保存文字索引到索引文件
+     *
+     * @param file 索引文件路径，文件已经存在时覆盖
+     * @throws IOException 文件写入异常
+     */
+    public void save(Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(fingerprint);
+            out.writeInt(pages.length);
+            for (PageText pt : pages) {
+                out.writeInt(pt.text.length);
+                for (int i = 0; i < pt.text.length; i++) {
+                    out.writeChar(pt.text[i]);
+                    out.writeFloat(pt.x[i]);
+                    out.writeFloat(pt.y[i]);
+                }
+                out.writeInt(pt.runStart.length);
+                for (int r = 0; r < pt.runStart.length; r++) {
+                    out.writeInt(pt.runStart[r]);
+                    out.writeFloat(pt.size[r]);
+                    out.writeFloat(pt.lineHeight[r]);
+                    out.writeFloat(pt.bx[r]);
+                    out.writeFloat(pt.by[r]);
+                    out.writeBoolean(pt.ctm[r] != null);
+                    if (pt.ctm[r] != null) {
+                        for (int k = 0; k < 6; k++) {
+                            out.writeDouble(pt.ctm[r][k]);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 获取索引的页面数量
+     *
+     * @return 页面数量
+     */
+    public int getNumberOfPages() {
+        return pages.length;
+    }
+
+    /**
+     * 获取页面的文字
+     * <p>
+     * 页面中所有非空白的文字定位按出现顺序首尾相接。
+     *
+     * @param pageNum 页码，从1开始
+     * @return 页面文字
+     */
+    public String getPageText(int pageNum) {
+        if (pageNum < 1 || pageNum > pages.length) {
+            throw new IllegalArgumentException(String.format("页码不正确，支持范围[%d-%d]", 1, pages.length));
+        }
+        return new String(pages[pageNum - 1].text);
+    }
+
+    /**
+     * 检索关键字坐标列表(坐标单位毫米mm)
+     *
+     * @param keywords 关键字列表
+     * @return 关键字坐标列表，按页码及出现顺序排列
+     */
+    public List<KeywordPosition> search(String... keywords) {
+        return search(keywords, null);
+    }
+
+    /**
+     * 检索关键字坐标列表(坐标单位毫米mm)
+     * <p>
+     * 同一关键字在同一页内的出现位置互不重叠。
+     *
+     * @param keywords 关键字列表
+     * @param pages    要检索的页码，从1开始，不超过最大页码；为null或空时检索全部页面
+     * @return 关键字坐标列表，按页码及出现顺序排列
+     * @throws IllegalArgumentException 关键字为空或页码不正确
+     */
+    public List<KeywordPosition> search(String[] keywords, int[] pages) {
+        boolean[] selected = new boolean[this.pages.length];
+        if (pages == null || pages.length == 0) {
+            Arrays.fill(selected, true);
+        } else {
+            for (int page : pages) {
+                if (page < 1 || page > this.pages.length) {
+                    throw new IllegalArgumentException(String.format("页码不正确，支持范围[%d-%d]", 1, this.pages.length));
+                }
+                selected[page - 1] = true;
+            }
+        }
+        List<KeywordPosition> positionList = new ArrayList<>();
+        if (keywords == null || keywords.length == 0) {
+            return positionList;
+        }
+        AhoCorasick matcher = new AhoCorasick(keywords);
+        // 各关键字在本页上一次出现的结束位置（不含）
+        int[] lastEnd = new int[keywords.length];
+        for (int p = 0; p < this.pages.length; p++) {
+            if (!selected[p]) {
+                continue;
+            }
+            final int pageNum = p + 1;
+            final PageText pt = this.pages[p];
+            Arrays.fill(lastEnd, 0);
+            matcher.scan(pt.text, 0, pt.text.length, (k, end) -> {
+                int start = end - keywords[k].length() + 1;
+                if (start < lastEnd[k]) {
+                    return;
+                }
+                lastEnd[k] = end + 1;
+                KeywordPosition position = new KeywordPosition(pageNum, locate(pt, start, end));
+                position.setKeyword(keywords[k]);
+                positionList.add(position);
+            });
+        }
+        return positionList;
+    }
+
+    /**
+     * 计算文字区间的外接矩形
+     *
+     * @param pt    页面文字
+     * @param start 起始字形（含）
+     * @param end   结束字形（含）
+     * @return 外接矩形
+     */
+    private static ST_Box locate(PageText pt, int start, int end) {
+        final int first = pt.runOf(start);
+        final int last = pt.runOf(end);
+        if (first == last) {
+            return locateInRun(pt, first, start, end);
+        }
+        List<ST_Box> boxList = new ArrayList<>(last - first + 1);
+        for (int r = first; r <= last; r++) {
+            int s = Math.max(start, pt.runStart[r]);
+            int e = Math.min(end, pt.runEnd(r) - 1);
+            if (s > e) {
+                continue;
+            }
+            double width = pt.size[r] + pt.x[e] - pt.x[s];
+            if (width == 0) {
+                width = pt.size[r];
+            }
+            double height = pt.lineHeight[r];
+            double x = pt.x[s];
+            double y = pt.y[s];
+            if (pt.ctm[r] != null) {
+                ST_Pos leftBottom = KeywordTool.transform(pt.ctm[r], x, y);
+                ST_Pos rightTop = KeywordTool.transform(pt.ctm[r], x + width, y - height);
+                ST_Box box = KeywordTool.mergePos(leftBottom, rightTop);
+                box.setTopLeftX(pt.bx[r] + box.getTopLeftX());
+                box.setTopLeftY(pt.by[r] + box.getTopLeftY());
+                boxList.add(box);
+            } else {
+                boxList.add(new ST_Box(pt.bx[r] + x, pt.by[r] + y - height, width, height));
+            }
+        }
+        return KeywordTool.mergeBox(boxList);
+    }
+
+    /**
+     * 计算同一段内文字区间的外接矩形
+     */
+    private static ST_Box locateInRun(PageText pt, int run, int start, int end) {
+        final double height = pt.lineHeight[run];
+        final double size = pt.size[run];
+        final double[] ctm = pt.ctm[run];
+        if (ctm != null) {
+            double x = pt.x[start];
+            double y = pt.y[start];
+            double width = size + pt.x[end] - pt.x[start];
+            ST_Box box = KeywordTool.mergePos(
+                    KeywordTool.transform(ctm, x, y - height),
+                    KeywordTool.transform(ctm, x, y),
+                    KeywordTool.transform(ctm, x + width, y - height),
+                    KeywordTool.transform(ctm, x + width, y));
+            box.setTopLeftX(box.getTopLeftX() + pt.bx[run]);
+            box.setTopLeftY(box.getTopLeftY() + pt.by[run]);
+            return box;
+        }
+        double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE;
+        double maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+        for (int i = start; i <= end; i++) {
+            minX = Math.min(minX, pt.x[i]);
+            minY = Math.min(minY, pt.y[i]);
+            maxX = Math.max(maxX, pt.x[i]);
+            maxY = Math.max(maxY, pt.y[i]);
+        }
+        minX += pt.bx[run];
+        minY += pt.by[run];
+        maxX += pt.bx[run];
+        maxY += pt.by[run];
+        return new ST_Box(minX, minY - height, maxX - minX + size, maxY - minY + height);
+    }
+
+    /**
+     * 将页面的文字定位压缩为数组形式
+     * <p>
+     * 空白的文字定位以及没有外接矩形的文字对象不参与检索。
+     *
+     * @param textCodeList    页面文字定位列表
+     * @param boundaryMapping 文字定位所属资源
+     * @return 页面文字
+     */
+    private static PageText compact(List<TextCode> textCodeList, Map<TextCode, KeywordResource> boundaryMapping) {
+        List<TextCode> codes = new ArrayList<>(textCodeList.size());
+        int glyphs = 0;
+        for (TextCode code : textCodeList) {
+            String content = code.getContent();
+            KeywordResource kr = boundaryMapping.get(code);
+            if (content == null || content.trim().isEmpty() || kr == null || kr.getText().getBoundary() == null) {
+                continue;
+            }
+            codes.add(code);
+            glyphs += content.length();
+        }
+
+        char[] text = new char[glyphs];
+        float[] x = new float[glyphs];
+        float[] y = new float[glyphs];
+        int runs = codes.size();
+        int[] runStart = new int[runs];
+        float[] size = new float[runs];
+        float[] lineHeight = new float[runs];
+        float[] bx = new float[runs];
+        float[] by = new float[runs];
+        double[][] ctm = new double[runs][];
+        // 同一文字对象内的段共享字体与变换矩阵
+        Map<CT_Text, Font> fontCache = new IdentityHashMap<>();
+        Map<CT_Text, double[]> ctmCache = new IdentityHashMap<>();
+
+        int pos = 0;
+        for (int r = 0; r < runs; r++) {
+            TextCode code = codes.get(r);
+            KeywordResource kr = boundaryMapping.get(code);
+            CT_Text ctText = kr.getText();
+            String content = code.getContent();
+
+            runStart[r] = pos;
+            size[r] = ctText.getSize().floatValue();
+            Font font = fontCache.computeIfAbsent(ctText, t -> KeywordTool.getFont(t, kr.getFont()));
+            lineHeight[r] = KeywordTool.strHeight(content, font).floatValue();
+            ST_Box boundary = ctText.getBoundary();
+            bx[r] = boundary.getTopLeftX() == null ? 0 : boundary.getTopLeftX().floatValue();
+            by[r] = boundary.getTopLeftY() == null ? 0 : boundary.getTopLeftY().floatValue();
+            ST_Array ctmArr = ctText.getCTM();
+            if (ctmArr != null) {
+                ctm[r] = ctmCache.computeIfAbsent(ctText, t -> KeywordTool.getMatrix(ctmArr));
+            }
+
+            List<Float> deltaX = DeltaTool.getDelta(code.getDeltaX(), content.length());
+            List<Float> deltaY = DeltaTool.getDelta(code.getDeltaY(), content.length());
+            double cx = code.getX() == null ? 0 : code.getX();
+            double cy = code.getY() == null ? 0 : code.getY();
+            for (int i = 0; i < content.length(); i++, pos++) {
+                text[pos] = content.charAt(i);
+                x[pos] = (float) cx;
+                y[pos] = (float) cy;
+                if (deltaX.size() > i) {
+                    cx += deltaX.get(i);
+                }
+                if (deltaY.size() > i) {
+                    cy += deltaY.get(i);
+                }
+            }
+        }
+        return new PageText(text, x, y, runStart, size, lineHeight, bx, by, ctm);
+    }
+
+    /**
+     * 计算文档指纹
+     * <p>
+     * 对页面、模板页面的内容文件以及公共资源、文档资源文件计算CRC32，用于判断索引文件是否过期，
+     * 资源文件中的字体描述会影响文字的行高。
+     *
+     * @param locator  资源定位器
+     * @param dataDir  Document File路径
+     * @param document 文档对象
+     * @return 文档指纹
+     * @throws IOException 文件读取异常
+     */
+    private static long fingerprint(ResourceLocator locator, String dataDir, Document document) throws IOException {
+        CRC32 crc = new CRC32();
+        byte[] buf = new byte[8192];
+        List<String> files = new ArrayList<>();
+        for (org.ofdrw.core.basicStructure.pageTree.Page page : document.getPages().getPages()) {
+            files.add(page.getBaseLoc().getLoc());
+        }
+        for (CT_TemplatePage tp : document.getCommonData().getTemplatePages()) {
+            files.add(tp.getBaseLoc().getLoc());
+        }
+        CT_CommonData commonData = document.getCommonData();
+        for (ST_Loc res : commonData.getPublicResList()) {
+            files.add(res.getLoc());
+        }
+        for (ST_Loc res : commonData.getDocumentResList()) {
+            files.add(res.getLoc());
+        }
+        for (String loc : files) {
+            String file = loc.startsWith("/") ? loc : dataDir + "/" + loc;
+            crc.update(file.getBytes(StandardCharsets.UTF_8));
+            try (InputStream in = locator.open(file)) {
+                int len;
+                while ((len = in.read(buf)) != -1) {
+                    crc.update(buf, 0, len);
+                }
+            }
+        }
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,166 @@
+package org.ofdrw.reader.spatial;
+
+import org.ofdrw.core.annotation.pageannot.Annot;
+import org.ofdrw.core.basicStructure.pageObj.layer.PageBlockType;
+import org.ofdrw.core.basicType.ST_Box;
+
+import java.awt.geom.Rectangle2D;
+
+/**
+ * 空间索引中的页面对象
+ * <p>
+ * 记录对象在页面坐标系下的外接矩形（单位毫米），
+ * 文字对象的外接矩形由各字形的起点与字号计算得到，已应用变换矩阵（CTM），
+ * 其它图元使用其外接矩形（Boundary），注释使用外观的外接矩形。
+ *
+ * @author agent
+ * @since 2026-10-17 15:10:13
+ */
+public final class IndexedObject {
+
+    /**
+     * 对象类型
+     */
+    public enum Type {
+        /**
+         * 文字对象
+         */
+        TEXT,
+        /**
+         * 图形对象
+         */
+        PATH,
+        /**
+         * 图像对象
+         */
+        IMAGE,
+        /**
+         * 复合对象
+         */
+        COMPOSITE,
+        /**
+         * 注释
+         */
+        ANNOT
+    }
+
+    private final Type type;
+
+    /**
+     * 页面图元，注释时为null
+     */
+    private final PageBlockType object;
+
+    /**
+     * 注释，非注释时为null
+     */
+    private final Annot annot;
+
+    /**
+     * 是否来自页面模板
+     */
+    private final boolean template;
+
+    /**
+     * 对象在页面中的序号，即页面、模板、注释依次遍历的文档顺序
+     */
+    private final int order;
+
+    final double minX;
+    final double minY;
+    final double maxX;
+    final double maxY;
+
+    IndexedObject(Type type, PageBlockType object, Annot annot, boolean template, int order,
+                  double minX, double minY, double maxX, double maxY) {
+        this.type = type;
+        this.object = object;
+        this.annot = annot;
+        this.template = template;
+        this.order = order;
+        this.minX = minX;
+        this.minY = minY;
+        this.maxX = maxX;
+        this.maxY = maxY;
+    }
+
+    /**
+     * @return 对象类型
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * @return 页面图元，注释时为null
+     */
+    public PageBlockType getObject() {
+        return object;
+    }
+
+    /**
+     * @return 注释，非注释时为null
+     */
+    public Annot getAnnot() {
+        return annot;
+    }
+
+    /**
+     * @return true - 对象来自页面模板
+     */
+    public boolean isTemplate() {
+        return template;
+    }
+
+    /**
+     * @return 对象在页面中的序号，从0起
+     */
+    public int getOrder() {
+        return order;
+    }
+
+    /**
+     * @return 页面坐标系下的外接矩形
+     */
+    public ST_Box getBox() {
+        return new ST_Box(minX, minY, maxX - minX, maxY - minY);
+    }
+
+    /**
+     * 外接矩形是否包含点（含边界）
+     *
+     * @param x 横坐标，单位毫米
+     * @param y 纵坐标，单位毫米
+     * @return true - 包含
+     */
+    public boolean contains(double x, double y) {
+        return x >= minX && x <= maxX && y >= minY && y <= maxY;
+    }
+
+    /**
+     * 外接矩形是否与矩形相交（含边界）
+     *
+     * @param rect 矩形，单位毫米
+     * @return true - 相交
+     */
+    public boolean intersects(Rectangle2D rect) {
+        return minX <= rect.getMaxX() && maxX >= rect.getMinX()
+                && minY <= rect.getMaxY() && maxY >= rect.getMinY();
+    }
+
+    /**
+     * 点到外接矩形的距离的平方，点在矩形内时为0
+     *
+     * @param x 横坐标，单位毫米
+     * @param y 纵坐标，单位毫米
+     * @return 距离的平方
+     */
+    public double distanceSq(double x, double y) {
+        return PageIndex.distanceSq(x, y, minX, minY, maxX, maxY);
+    }
+
+    @Override
+    public String toString() {
+        return type + "#" + order + " [" + minX + " " + minY + " " + (maxX - minX) + " " + (maxY - minY) + "]";
+    }
+}
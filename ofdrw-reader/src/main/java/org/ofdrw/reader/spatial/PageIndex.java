@@ -0,0 +1,433 @@
+package org.ofdrw.reader.spatial;
+
+import org.ofdrw.core.annotation.pageannot.Annot;
+import org.ofdrw.core.annotation.pageannot.Appearance;
+import org.ofdrw.core.basicStructure.pageObj.Content;
+import org.ofdrw.core.basicStructure.pageObj.Page;
+import org.ofdrw.core.basicStructure.pageObj.layer.CT_Layer;
+import org.ofdrw.core.basicStructure.pageObj.layer.PageBlockType;
+import org.ofdrw.core.basicStructure.pageObj.layer.block.*;
+import org.ofdrw.core.basicType.ST_Array;
+import org.ofdrw.core.basicType.ST_Box;
+import org.ofdrw.core.pageDescription.CT_GraphicUnit;
+import org.ofdrw.core.text.TextCode;
+import org.ofdrw.reader.DeltaTool;
+import org.ofdrw.reader.PageInfo;
+
+import java.awt.geom.Rectangle2D;
+import java.util.*;
+
+/**
+ * 页面对象空间索引
+ * <p>
+ * 以STR（Sort-Tile-Recursive）方式批量构造的静态R树，索引页面、页面模板中的所有图元以及页面上的注释，
+ * 支持点选、矩形区域查询以及最近文字查询，查询耗时与页面对象数量呈对数关系，
+ * 适用于区域文字抽取、点击命中检测等需要反复查询同一页面的场景。
+ * <p>
+ * 索引构造完成后不可修改，可以在多个线程间共享；
+ * 页面内容发生变化后需要重新构造索引。
+ * <p>
+ * 通常通过 {@link org.ofdrw.reader.OFDReader#getPageIndex(int)} 获取，该方法会缓存最近使用的若干页面的索引。
+ *
+ * @author agent
+ * @since 2026-10-17 15:10:13
+ */
+public final class PageIndex {
+
+    /**
+     * 节点容量，即每个节点的子节点数量
+     */
+    static final int NODE_CAPACITY = 16;
+
+    /**
+     * 按叶节点顺序排列的索引对象
+     */
+    private final IndexedObject[] items;
+
+    /**
+     * 各层节点的外接矩形，每个节点依次为 minX minY maxX maxY
+     * <p>
+     * 第0层为索引对象，最后一层为根节点
+     */
+    private final double[][] levels;
+
+    /**
+     * 按文档顺序排列的索引对象
+     */
+    private final List<IndexedObject> objects;
+
+    /**
+     * 由索引对象构造空间索引
+     *
+     * @param objects 索引对象
+     */
+    PageIndex(List<IndexedObject> objects) {
+        this.objects = Collections.unmodifiableList(new ArrayList<>(objects));
+        this.items = objects.toArray(new IndexedObject[0]);
+        sortTileRecursive(items);
+
+        List<double[]> levelList = new ArrayList<>();
+        double[] level = new double[items.length * 4];
+        for (int i = 0; i < items.length; i++) {
+            IndexedObject o = items[i];
+            level[i * 4] = o.minX;
+            level[i * 4 + 1] = o.minY;
+            level[i * 4 + 2] = o.maxX;
+            level[i * 4 + 3] = o.maxY;
+        }
+        levelList.add(level);
+        // 自底向上逐层合并，直到只剩一个根节点
+        while (level.length > 4) {
+            int count = level.length / 4;
+            int parents = (count + NODE_CAPACITY - 1) / NODE_CAPACITY;
+            double[] parent = new double[parents * 4];
+            for (int p = 0; p < parents; p++) {
+                int from = p * NODE_CAPACITY;
+                int to = Math.min(from + NODE_CAPACITY, count);
+                double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+                double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+                for (int c = from; c < to; c++) {
+                    minX = Math.min(minX, level[c * 4]);
+                    minY = Math.min(minY, level[c * 4 + 1]);
+                    maxX = Math.max(maxX, level[c * 4 + 2]);
+                    maxY = Math.max(maxY, level[c * 4 + 3]);
+                }
+                parent[p * 4] = minX;
+                parent[p * 4 + 1] = minY;
+                parent[p * 4 + 2] = maxX;
+                parent[p * 4 + 3] = maxY;
+            }
+            levelList.add(parent);
+            level = parent;
+        }
+        this.levels = levelList.toArray(new double[0][]);
+    }
+
+    /**
+     * 构造页面的空间索引
+     * <p>
+     * 依次索引页面内容、页面模板（按Z轴顺序）以及注释，该顺序即为对象的文档顺序，
+     * 页面内容部分的文档顺序与 {@link org.ofdrw.reader.ContentExtractor} 的遍历顺序一致。
+     *
+     * @param pageInfo 页面信息
+     * @param annots   页面上的注释，可以为null
+     * @return 空间索引
+     */
+    public static PageIndex build(PageInfo pageInfo, List<Annot> annots) {
+        List<IndexedObject> objects = new ArrayList<>();
+        Page body = pageInfo.getObj();
+        collectPage(objects, body, false);
+        for (Page page : pageInfo.getOrderRelatedPageList()) {
+            if (page != body) {
+                collectPage(objects, page, true);
+            }
+        }
+        if (annots != null) {
+            for (Annot annot : annots) {
+                Appearance appearance = annot.getAppearance();
+                ST_Box box = appearance == null ? null : appearance.getBoundary();
+                if (box == null) {
+                    continue;
+                }
+                double x = box.getTopLeftX(), y = box.getTopLeftY();
+                objects.add(new IndexedObject(IndexedObject.Type.ANNOT, null, annot, false, objects.size(),
+                        x, y, x + box.getWidth(), y + box.getHeight()));
+            }
+        }
+        return new PageIndex(objects);
+    }
+
+    /**
+     * 点选查询
+     *
+     * @param x 横坐标，单位毫米
+     * @param y 纵坐标，单位毫米
+     * @return 外接矩形包含该点的所有对象，按文档顺序排列
+     */
+    public List<IndexedObject> query(double x, double y) {
+        return query(x, y, x, y);
+    }
+
+    /**
+     * 矩形区域查询
+     *
+     * @param rect 查询区域，单位毫米
+     * @return 外接矩形与区域相交的所有对象，按文档顺序排列
+     */
+    public List<IndexedObject> query(Rectangle2D rect) {
+        return query(rect.getMinX(), rect.getMinY(), rect.getMaxX(), rect.getMaxY());
+    }
+
+    /**
+     * 查询距离点最近的文字对象
+     *
+     * @param x 横坐标，单位毫米
+     * @param y 纵坐标，单位毫米
+     * @return 最近的文字对象，页面中没有文字对象时返回null
+     */
+    public IndexedObject nearestText(double x, double y) {
+        return nearest(x, y, IndexedObject.Type.TEXT);
+    }
+
+    /**
+     * 查询距离点最近的对象
+     * <p>
+     * 距离为点到对象外接矩形的距离，点在外接矩形内时距离为0，
+     * 距离相同时返回任意一个。
+     *
+     * @param x    横坐标，单位毫米
+     * @param y    纵坐标，单位毫米
+     * @param type 对象类型，null表示任意类型
+     * @return 最近的对象，没有符合条件的对象时返回null
+     */
+    public IndexedObject nearest(double x, double y, IndexedObject.Type type) {
+        if (items.length == 0) {
+            return null;
+        }
+        // 按距离由近到远展开节点，节点的距离不大于其子节点的距离，因此第一个出队的对象即为最近对象
+        PriorityQueue<double[]> queue = new PriorityQueue<>(Comparator.comparingDouble(e -> e[0]));
+        int top = levels.length - 1;
+        offerAll(queue, x, y, top, 0, levels[top].length / 4, type);
+        double[] e;
+        while ((e = queue.poll()) != null) {
+            int level = (int) e[1];
+            int node = (int) e[2];
+            if (level == 0) {
+                return items[node];
+            }
+            int from = node * NODE_CAPACITY;
+            int to = Math.min(from + NODE_CAPACITY, levels[level - 1].length / 4);
+            offerAll(queue, x, y, level - 1, from, to, type);
+        }
+        return null;
+    }
+
+    /**
+     * @return 按文档顺序排列的所有对象
+     */
+    public List<IndexedObject> getObjects() {
+        return objects;
+    }
+
+    /**
+     * @return 索引对象数量
+     */
+    public int size() {
+        return items.length;
+    }
+
+    private List<IndexedObject> query(double minX, double minY, double maxX, double maxY) {
+        List<IndexedObject> res = new ArrayList<>();
+        if (items.length == 0) {
+            return res;
+        }
+        int top = levels.length - 1;
+        for (int i = 0, count = levels[top].length / 4; i < count; i++) {
+            search(top, i, minX, minY, maxX, maxY, res);
+        }
+        res.sort(Comparator.comparingInt(IndexedObject::getOrder));
+        return res;
+    }
+
+    /**
+     * 递归查找与区域相交的对象
+     */
+    private void search(int level, int node, double minX, double minY, double maxX, double maxY,
+                        List<IndexedObject> res) {
+        double[] boxes = levels[level];
+        int i = node * 4;
+        if (boxes[i] > maxX || boxes[i + 2] < minX || boxes[i + 1] > maxY || boxes[i + 3] < minY) {
+            return;
+        }
+        if (level == 0) {
+            res.add(items[node]);
+            return;
+        }
+        int from = node * NODE_CAPACITY;
+        int to = Math.min(from + NODE_CAPACITY, levels[level - 1].length / 4);
+        for (int c = from; c < to; c++) {
+            search(level - 1, c, minX, minY, maxX, maxY, res);
+        }
+    }
+
+    private void offerAll(PriorityQueue<double[]> queue, double x, double y,
+                          int level, int from, int to, IndexedObject.Type type) {
+        double[] boxes = levels[level];
+        for (int c = from; c < to; c++) {
+            if (level == 0 && type != null && items[c].getType() != type) {
+                continue;
+            }
+            int i = c * 4;
+            double d = distanceSq(x, y, boxes[i], boxes[i + 1], boxes[i + 2], boxes[i + 3]);
+            queue.offer(new double[]{d, level, c});
+        }
+    }
+
+    /**
+     * 点到矩形的距离的平方
+     */
+    static double distanceSq(double x, double y, double minX, double minY, double maxX, double maxY) {
+        double dx = x < minX ? minX - x : (x > maxX ? x - maxX : 0);
+        double dy = y < minY ? minY - y : (y > maxY ? y - maxY : 0);
+        return dx * dx + dy * dy;
+    }
+
+    /**
+     * STR排序：按中心横坐标切分为若干竖条，竖条内按中心纵坐标排序，
+     * 使相邻的对象在空间上也相邻，每连续的 {@link #NODE_CAPACITY} 个对象构成一个叶节点
+     */
+    private static void sortTileRecursive(IndexedObject[] items) {
+        int n = items.length;
+        if (n <= NODE_CAPACITY) {
+            return;
+        }
+        int leaves = (n + NODE_CAPACITY - 1) / NODE_CAPACITY;
+        int slices = (int) Math.ceil(Math.sqrt(leaves));
+        int sliceSize = slices * NODE_CAPACITY;
+        Arrays.sort(items, Comparator.comparingDouble(o -> o.minX + o.maxX));
+        for (int from = 0; from < n; from += sliceSize) {
+            Arrays.sort(items, from, Math.min(from + sliceSize, n), Comparator.comparingDouble(o -> o.minY + o.maxY));
+        }
+    }
+
+    /**
+     * 收集页面中的所有图元
+     */
+    private static void collectPage(List<IndexedObject> objects, Page page, boolean template) {
+        if (page == null) {
+            return;
+        }
+        Content content = page.getContent();
+        if (content == null) {
+            return;
+        }
+        for (CT_Layer layer : content.getLayers()) {
+            collect(objects, layer.getPageBlocks(), template);
+        }
+    }
+
+    /**
+     * 递归收集页块中的图元
+     */
+    private static void collect(List<IndexedObject> objects, List<PageBlockType> blocks, boolean template) {
+        for (PageBlockType block : blocks) {
+            if (block instanceof CT_PageBlock) {
+                collect(objects, ((CT_PageBlock) block).getPageBlocks(), template);
+                continue;
+            }
+            IndexedObject.Type type;
+            if (block instanceof TextObject) {
+                type = IndexedObject.Type.TEXT;
+            } else if (block instanceof PathObject) {
+                type = IndexedObject.Type.PATH;
+            } else if (block instanceof ImageObject) {
+                type = IndexedObject.Type.IMAGE;
+            } else if (block instanceof CompositeObject) {
+                type = IndexedObject.Type.COMPOSITE;
+            } else {
+                continue;
+            }
+            double[] box = type == IndexedObject.Type.TEXT
+                    ? textBox((TextObject) block)
+                    : boundary(((CT_GraphicUnit<?>) block).getBoundary());
+            if (box == null) {
+                continue;
+            }
+            objects.add(new IndexedObject(type, block, null, template, objects.size(),
+                    box[0], box[1], box[2], box[3]));
+        }
+    }
+
+    /**
+     * 外接矩形转换为 minX minY maxX maxY
+     */
+    private static double[] boundary(ST_Box box) {
+        if (box == null) {
+            return null;
+        }
+        double x = box.getTopLeftX() == null ? 0 : box.getTopLeftX();
+        double y = box.getTopLeftY() == null ? 0 : box.getTopLeftY();
+        double w = box.getWidth() == null ? 0 : box.getWidth();
+        double h = box.getHeight() == null ? 0 : box.getHeight();
+        return new double[]{x, y, x + w, y + h};
+    }
+
+    /**
+     * 计算文字对象在页面坐标系下的外接矩形
+     * <p>
+     * 字形起点的计算方式与 {@link org.ofdrw.reader.extractor.RegionTextExtractorFilter} 一致，
+     * 每个字形占据起点右上方边长为字号的正方形，因此外接矩形总是包含所有字形起点。
+     * 没有文字时使用文字对象的外接矩形。
+     */
+    private static double[] textBox(TextObject text) {
+        ST_Box boundary = text.getBoundary();
+        double[] bound = boundary(boundary);
+        double left = bound == null ? 0 : bound[0];
+        double top = bound == null ? 0 : bound[1];
+        double[] m = matrix(text.getCTM());
+        double size = text.getSize() == null ? 0 : text.getSize();
+        // 字号在变换后的宽高
+        double w = m == null ? size : size * Math.hypot(m[0], m[1]);
+        double h = m == null ? size : size * Math.hypot(m[2], m[3]);
+
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        for (TextCode code : text.getTextCodes()) {
+            String content = code.getContent();
+            if (content == null || content.isEmpty()) {
+                continue;
+            }
+            int len = content.length();
+            List<Float> deltaX = DeltaTool.getDelta(code.getDeltaX(), len);
+            List<Float> deltaY = DeltaTool.getDelta(code.getDeltaY(), len);
+            double sx = code.getX() == null ? 0 : code.getX();
+            double sy = code.getY() == null ? 0 : code.getY();
+            for (int i = 0; i < len; i++) {
+                double px = sx, py = sy;
+                if (m != null) {
+                    px = m[0] * sx + m[2] * sy + m[4];
+                    py = m[1] * sx + m[3] * sy + m[5];
+                }
+                px += left;
+                py += top;
+                minX = Math.min(minX, px);
+                minY = Math.min(minY, py - h);
+                maxX = Math.max(maxX, px + w);
+                maxY = Math.max(maxY, py);
+                if (i < deltaX.size()) {
+                    sx += deltaX.get(i);
+                }
+                if (i < deltaY.size()) {
+                    sy += deltaY.get(i);
+                }
+            }
+        }
+        if (minX > maxX) {
+            return bound;
+        }
+        return new double[]{minX, minY, maxX, maxY};
+    }
+
+    /**
+     * 解析变换矩阵，不存在或格式错误时返回null
+     */
+    private static double[] matrix(ST_Array ctm) {
+        if (ctm == null) {
+            return null;
+        }
+        List<String> arr = ctm.getArray();
+        if (arr.size() < 6) {
+            return null;
+        }
+        double[] m = new double[6];
+        try {
+            for (int i = 0; i < 6; i++) {
+                m[i] = Double.parseDouble(arr.get(i));
+            }
+        } catch (NumberFormatException | NullPointerException e) {
+            // 格式错误的变换矩阵忽略，与不存在时相同
+            return null;
+        }
+        return m;
+    }
+}
@@ -101,4 +101,34 @@ class ContentExtractorTest {
             });
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 流式解析提取文字，结果与DOM解析一致
+     */
+    @Test
+    void extractStreaming() throws IOException {
+        for (String file : new String[]{"helloworld.ofd", "helloworld_with_pageblock.ofd", "keyword.ofd", "发票示例.ofd"}) {
+            Path p = Paths.get("src/test/resources", file);
+            try (OFDReader reader = new OFDReader(p)) {
+                List<String> expect = new ContentExtractor(reader).extractAll();
+                List<String> actual = new ContentExtractor(reader, null, true).extractAll();
+                System.out.println(">> " + file + " " + actual.size());
+                assertEquals(expect, actual);
+            }
+        }
+
+        try (OFDReader reader = new OFDReader("src/test/resources/keyword.ofd")) {
+            ExtractorFilter filter = new RegionTextExtractorFilter(new Rectangle(0, 0, 283, 120));
+            List<String> expect = new ContentExtractor(reader, filter).getPageContent(1);
+            List<String> actual = new ContentExtractor(reader, filter, true).getPageContent(1);
+            assertEquals(expect, actual);
+        }
+
+        try (OFDReader reader = new OFDReader(src, true)) {
+            new ContentExtractor(reader, null, true).traverse((pageNum, contents) -> {
+                assertEquals(contents.size(), 1);
+                assertEquals("你好呀，OFD Reader&Writer！", contents.get(0));
+            });
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package org.ofdrw.reader;
+
+import org.junit.jupiter.api.Test;
+import org.ofdrw.core.basicType.ST_Array;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author agent
+ * @since 2026-10-17 13:28:54
+ */
+class DeltaToolTest {
+
+    @Test
+    void expandDelta() {
+        assertArrayEquals(new double[]{1.5, 1.5, 1.5, 2, 0.25},
+                DeltaTool.expandDelta(ST_Array.getInstance("g 3 1.5 2 0.25")));
+        assertArrayEquals(new double[]{1, 2}, DeltaTool.expandDelta(ST_Array.getInstance("1 2 g 3")));
+        assertEquals(0, DeltaTool.expandDelta(null).length);
+    }
+}
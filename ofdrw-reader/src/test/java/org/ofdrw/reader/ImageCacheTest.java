@@ -0,0 +1,80 @@
+package org.ofdrw.reader;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 图片缓存测试
+ *
+ * @author agent
+ * @since 2026-10-17 14:31:48
+ */
+class ImageCacheTest {
+
+    /**
+     * 按容量淘汰最久未使用的图片
+     */
+    @Test
+    void eviction() throws IOException {
+        // 100x100 RGB 图片占用 40000 字节
+        ImageCache cache = new ImageCache(100_000);
+        AtomicInteger loads = new AtomicInteger();
+        ImageCache.Loader<BufferedImage> loader = () -> {
+            loads.incrementAndGet();
+            return new BufferedImage(100, 100, BufferedImage.TYPE_INT_RGB);
+        };
+        BufferedImage a = cache.get("a", loader);
+        cache.get("b", loader);
+        assertSame(a, cache.get("a", loader));
+        // 放入c时淘汰最久未使用的b
+        cache.get("c", loader);
+        assertEquals(2, cache.size());
+        assertEquals(80_000, cache.getCurrentBytes());
+        cache.get("a", loader);
+        assertEquals(3, loads.get());
+        cache.get("b", loader);
+        assertEquals(4, loads.get());
+        assertEquals(2, cache.getEvictionCount());
+
+        // 超过容量的对象不缓存
+        cache.get("big", () -> new byte[200_000]);
+        assertEquals(2, cache.size());
+        // 加载器返还null时不缓存，也不占用容量
+        assertNull(cache.get("none", () -> null));
+        assertEquals(2, cache.size());
+        assertEquals(80_000, cache.getCurrentBytes());
+
+        cache.setMaxBytes(0);
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getCurrentBytes());
+        System.out.println(">> " + cache);
+        assertEquals(2.0 / 8, cache.getHitRate(), 1e-9);
+    }
+
+    /**
+     * 重复获取文档中的图片只解码一次
+     */
+    @Test
+    void resourceManage() throws IOException {
+        try (OFDReader reader = new OFDReader(Paths.get("src/test/resources/发票示例.ofd"))) {
+            ResourceManage resMgt = reader.getResMgt();
+            ImageCache cache = resMgt.getImageCache();
+            BufferedImage first = resMgt.getImage("106");
+            assertNotNull(first);
+            for (int i = 0; i < 299; i++) {
+                assertSame(first, resMgt.getImage("106"));
+            }
+            byte[] raw = resMgt.getImageByteArray("106");
+            assertSame(raw, resMgt.getImageByteArray("106"));
+            System.out.println(">> " + cache);
+            assertEquals(2, cache.getMissCount());
+            assertEquals(300, cache.getHitCount());
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package org.ofdrw.reader;
 
+import org.apache.commons.io.FileUtils;
 import org.dom4j.DocumentException;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -23,6 +24,8 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Set;
+import java.util.zip.ZipFile;
 
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -185,4 +188,71 @@ class OFDReaderTest {
         }
 
     }
-}
\ No newline at end of file
+
+    /**
+     * 按需解压模式与完整解压模式对比
+     * <p>
+     * 首页加载耗时以及写入磁盘的字节数
+     */
+    @Test
+    void lazyUnzip() throws IOException {
+        Path path = Paths.get("src/test/resources/发票示例.ofd");
+        long start = System.nanoTime();
+        long fullBytes;
+        int fullLayers;
+        int stampNum;
+        try (OFDReader reader = new OFDReader(path)) {
+            fullLayers = reader.getPage(1).getContent().getLayers().size();
+            System.out.printf(">> 完整解压 首页耗时: %.2fms%n", (System.nanoTime() - start) / 1e6);
+            fullBytes = FileUtils.sizeOfDirectory(reader.getWorkDir().toFile());
+            stampNum = reader.getStampAnnots().size();
+        }
+        start = System.nanoTime();
+        Path workDir;
+        try (OFDReader reader = new OFDReader(path, true)) {
+            workDir = reader.getWorkDir();
+            assertEquals(fullLayers, reader.getPage(1).getContent().getLayers().size());
+            System.out.printf(">> 按需解压 首页耗时: %.2fms%n", (System.nanoTime() - start) / 1e6);
+            long lazyBytes = FileUtils.sizeOfDirectory(workDir.toFile());
+            System.out.printf(">> 写入磁盘字节数 完整解压: %d 按需解压: %d%n", fullBytes, lazyBytes);
+            assertEquals(0, lazyBytes);
+            assertEquals(lazyBytes, reader.getZipSource().getWrittenBytes());
+
+            // 签名文件按需解压后可正常解析
+            assertEquals(stampNum, reader.getStampAnnots().size());
+            assertTrue(reader.getZipSource().getWrittenBytes() > 0);
+            assertTrue(reader.getZipSource().getWrittenBytes() < fullBytes);
+        }
+        assertTrue(Files.notExists(workDir));
+    }
+
+    /**
+     * 按需解压模式下删除的文件不会出现在打包结果中
+     */
+    @Test
+    void lazyUnzipDelete() throws IOException {
+        Path path = Paths.get("src/test/resources/发票示例.ofd");
+        Path out = Paths.get("target/lazyUnzipDelete.ofd");
+        try (OFDReader reader = new OFDReader(path, true)) {
+            ResourceLocator rl = reader.getResourceLocator();
+            Set<String> before = reader.getZipSource().entryNames();
+            // 删除整个签名目录，目录中的文件尚未解压
+            rl.getContainer("/Doc_0/Signs").clean();
+            // 删除已经解压的单个文件
+            Files.delete(rl.getFile("/Doc_0/Res/qr.png"));
+            assertFalse(reader.getZipSource().exist("/Doc_0/Signs/Signatures.xml"));
+            assertFalse(reader.getZipSource().exist("/Doc_0/Res/qr.png"));
+            // 之前获取的条目集合为快照，不受删除影响
+            assertTrue(before.contains("/Doc_0/Signs/Signatures.xml"));
+            assertFalse(reader.getZipSource().entryNames().contains("/Doc_0/Signs/Signatures.xml"));
+            reader.getOFDDir().jar(out);
+        }
+        try (ZipFile zip = new ZipFile(out.toFile())) {
+            assertNull(zip.getEntry("Doc_0/Signs/Signatures.xml"));
+            assertNull(zip.getEntry("Doc_0/Signs/Sign_0/SignedValue.dat"));
+            assertNull(zip.getEntry("Doc_0/Res/qr.png"));
+            assertNotNull(zip.getEntry("Doc_0/Tpls/Tpl_0/Content.xml"));
+            assertNotNull(zip.getEntry("Doc_0/Pages/Page_0/Content.xml"));
+        }
+    }
+}
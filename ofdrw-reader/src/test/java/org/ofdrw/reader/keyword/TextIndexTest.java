@@ -0,0 +1,114 @@
+package org.ofdrw.reader.keyword;
+
+import org.dom4j.DocumentException;
+import org.junit.jupiter.api.Test;
+import org.ofdrw.core.basicType.ST_Box;
+import org.ofdrw.reader.OFDReader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 文档文字索引测试
+ *
+ * @author agent
+ * @since 2026-10-17 14:23:50
+ */
+class TextIndexTest {
+
+    /**
+     * 索引检索结果与逐次检索一致
+     */
+    @Test
+    void search() throws IOException, DocumentException {
+        Path src = Paths.get("src/test/resources/keyword.ofd");
+        String[] keywords = {"办理", "不动产权"};
+        try (OFDReader reader = new OFDReader(src)) {
+            List<KeywordPosition> expect = KeywordExtractor.getKeyWordPositionList(reader, keywords);
+            TextIndex index = TextIndex.build(reader);
+            List<KeywordPosition> actual = KeywordExtractor.getKeyWordPositionList(index, keywords, null);
+            assertEquals(expect.size(), actual.size());
+            for (KeywordPosition pos : actual) {
+                System.out.println(">> " + pos);
+                assertTrue(expect.stream().anyMatch(e -> same(e, pos)), "坐标不一致: " + pos);
+            }
+        }
+
+        src = Paths.get("src/test/resources/multiKeywordInTextCode.ofd");
+        try (OFDReader reader = new OFDReader(src)) {
+            TextIndex index = TextIndex.build(reader);
+            assertEquals(7, index.search("打发").size());
+            assertEquals(index.search("打发").size(), index.search(new String[]{"打发"}, new int[]{1}).size());
+            assertThrows(IllegalArgumentException.class, () -> index.search(new String[]{"打发"}, new int[]{99}));
+            assertThrows(IllegalArgumentException.class, () -> index.search(""));
+        }
+    }
+
+    /**
+     * 关键字跨越多个文字定位
+     */
+    @Test
+    void crossTextCode() throws IOException, DocumentException {
+        Path src = Paths.get("src/test/resources/keyword.ofd");
+        try (OFDReader reader = new OFDReader(src)) {
+            TextIndex index = TextIndex.build(reader);
+            String text = index.getPageText(1);
+            System.out.println(">> " + text);
+            // 取相邻两个字符作为关键字，检索结果数量应与文本中的出现次数一致
+            String keyword = text.substring(0, 2);
+            int count = 0;
+            for (int i = text.indexOf(keyword); i != -1; i = text.indexOf(keyword, i + keyword.length())) {
+                count++;
+            }
+            assertEquals(count, index.search(keyword).size());
+        }
+    }
+
+    /**
+     * 索引文件保存与加载
+     */
+    @Test
+    void sidecar() throws IOException, DocumentException {
+        Path src = Paths.get("src/test/resources/keyword.ofd");
+        Path sidecar = Paths.get("target/keyword.ofd.idx");
+        Files.deleteIfExists(sidecar);
+        String[] keywords = {"办理", "不动产权"};
+        try (OFDReader reader = new OFDReader(src)) {
+            TextIndex built = TextIndex.open(reader, sidecar);
+            assertTrue(Files.exists(sidecar));
+            System.out.println(">> sidecar " + Files.size(sidecar) + " bytes");
+
+            TextIndex loaded = TextIndex.open(reader, sidecar);
+            List<KeywordPosition> a = built.search(keywords);
+            List<KeywordPosition> b = loaded.search(keywords);
+            assertEquals(a.size(), b.size());
+            for (int i = 0; i < a.size(); i++) {
+                assertTrue(same(a.get(i), b.get(i)));
+            }
+        }
+
+        // 损坏的索引文件将被重建
+        Files.write(sidecar, new byte[]{1, 2, 3});
+        assertThrows(IOException.class, () -> TextIndex.load(sidecar));
+        try (OFDReader reader = new OFDReader(src)) {
+            assertEquals(3, TextIndex.open(reader, sidecar).search(keywords).size());
+        }
+    }
+
+    private static boolean same(KeywordPosition a, KeywordPosition b) {
+        if (a.getPage() != b.getPage() || !a.getKeyword().equals(b.getKeyword())) {
+            return false;
+        }
+        ST_Box x = a.getBox();
+        ST_Box y = b.getBox();
+        return Math.abs(x.getTopLeftX() - y.getTopLeftX()) < 0.01
+                && Math.abs(x.getTopLeftY() - y.getTopLeftY()) < 0.01
+                && Math.abs(x.getWidth() - y.getWidth()) < 0.01
+                && Math.abs(x.getHeight() - y.getHeight()) < 0.01;
+    }
+}
@@ -0,0 +1,133 @@
+package org.ofdrw.reader.spatial;
+
+import org.junit.jupiter.api.Test;
+import org.ofdrw.core.basicStructure.pageObj.layer.block.TextObject;
+import org.ofdrw.core.basicType.ST_Box;
+import org.ofdrw.reader.ContentExtractor;
+import org.ofdrw.reader.OFDReader;
+import org.ofdrw.reader.PageInfo;
+import org.ofdrw.reader.extractor.RegionTextExtractorFilter;
+
+import java.awt.Rectangle;
+import java.awt.geom.Rectangle2D;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 页面空间索引测试
+ *
+ * @author agent
+ * @since 2026-10-17 15:10:13
+ */
+class PageIndexTest {
+
+    private final Path[] docs = {
+            Paths.get("src/test/resources/keyword.ofd"),
+            Paths.get("src/test/resources/helloworld_with_pageblock.ofd"),
+            Paths.get("src/test/resources/multiKeywordInTextCode.ofd"),
+    };
+
+    /**
+     * 索引查询结果与遍历所有对象的结果一致
+     */
+    @Test
+    void queryMatchesScan() throws IOException {
+        Random random = new Random(1);
+        for (Path doc : docs) {
+            try (OFDReader reader = new OFDReader(doc)) {
+                for (int p = 1; p <= reader.getNumberOfPages(); p++) {
+                    PageIndex index = reader.getPageIndex(p);
+                    assertSame(index, reader.getPageIndex(p));
+                    assertTrue(index.size() > 0);
+                    ST_Box size = reader.getPageInfo(p).getSize();
+                    for (int i = 0; i < 200; i++) {
+                        double x = random.nextDouble() * size.getWidth();
+                        double y = random.nextDouble() * size.getHeight();
+                        Rectangle2D rect = new Rectangle2D.Double(x, y,
+                                random.nextDouble() * size.getWidth() / 2, random.nextDouble() * size.getHeight() / 2);
+                        assertEquals(scan(index, o -> o.intersects(rect)), index.query(rect));
+                        assertEquals(scan(index, o -> o.contains(x, y)), index.query(x, y));
+
+                        IndexedObject nearest = index.nearestText(x, y);
+                        double min = index.getObjects().stream()
+                                .filter(o -> o.getType() == IndexedObject.Type.TEXT)
+                                .mapToDouble(o -> o.distanceSq(x, y)).min().orElse(-1);
+                        assertEquals(min, nearest == null ? -1 : nearest.distanceSq(x, y), 1e-9);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 区域文字抽取结果与遍历整个页面的结果一致
+     */
+    @Test
+    void regionExtractMatchesScan() throws IOException {
+        Random random = new Random(2);
+        for (Path doc : docs) {
+            try (OFDReader reader = new OFDReader(doc)) {
+                for (int p = 1; p <= reader.getNumberOfPages(); p++) {
+                    ST_Box size = reader.getPageInfo(p).getSize();
+                    for (int i = 0; i < 50; i++) {
+                        Rectangle rectangle = new Rectangle(
+                                random.nextInt(size.getWidth().intValue()), random.nextInt(size.getHeight().intValue()),
+                                random.nextInt(size.getWidth().intValue()), random.nextInt(size.getHeight().intValue()));
+                        RegionTextExtractorFilter region = new RegionTextExtractorFilter(rectangle);
+                        // 未开启空间索引时遍历整个页面
+                        List<String> expect = new ContentExtractor(reader, region).getPageContent(p);
+                        List<String> actual = new ContentExtractor(reader, region).setUseSpatialIndex(true).getPageContent(p);
+                        assertEquals(expect, actual);
+                    }
+                }
+                Rectangle all = new Rectangle(0, 0, 1000, 1000);
+                assertEquals(new ContentExtractor(reader).getPageContent(1),
+                        new ContentExtractor(reader, new RegionTextExtractorFilter(all)).setUseSpatialIndex(true).getPageContent(1));
+                System.out.println(">> " + doc.getFileName() + " " + reader.getPageIndex(1).getObjects());
+            }
+        }
+    }
+
+    /**
+     * 索引缓存只保留最近使用的页面
+     */
+    @Test
+    void cacheBounded() throws IOException {
+        try (OFDReader reader = new OFDReader(docs[0])) {
+            reader.setPageIndexCacheSize(1);
+            PageIndex first = reader.getPageIndex(1);
+            assertSame(first, reader.getPageIndex(1));
+            reader.setPageIndexCacheSize(0);
+            assertNotSame(first, reader.getPageIndex(1));
+        }
+    }
+
+    /**
+     * 变换矩阵格式错误的文字对象按照没有变换矩阵处理，不影响索引构造
+     */
+    @Test
+    void malformedCTM() throws IOException {
+        try (OFDReader reader = new OFDReader(docs[0])) {
+            PageInfo pageInfo = reader.getPageInfo(1);
+            TextObject text = (TextObject) PageIndex.build(pageInfo, null).getObjects().stream()
+                    .filter(o -> o.getType() == IndexedObject.Type.TEXT)
+                    .findFirst().orElseThrow(IllegalStateException::new)
+                    .getObject();
+            text.removeAttr("CTM");
+            int expect = PageIndex.build(pageInfo, null).size();
+            text.addAttribute("CTM", "1 0 0 x 0 0");
+            assertEquals(expect, PageIndex.build(pageInfo, null).size());
+        }
+    }
+
+    private static List<IndexedObject> scan(PageIndex index, Predicate<IndexedObject> test) {
+        return index.getObjects().stream().filter(test).collect(Collectors.toList());
+    }
+}
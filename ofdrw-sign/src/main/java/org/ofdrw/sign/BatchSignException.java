@@ -0,0 +1,55 @@
+package org.ofdrw.sign;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 批量签章异常
+ * <p>
+ * 批量签章中有文档签章失败时，在全部文档处理完成后抛出，
+ * 包含每个失败文档的失败原因，失败原因同时作为被抑制的异常（{@link #getSuppressed()}）记录。
+ *
+ * @author agent
+ * @since 2026-10-17 15:48:08
+ */
+public class BatchSignException extends SignatureException {
+
+    /**
+     * 签章成功的文档数量
+     */
+    private final int signedCount;
+
+    /**
+     * 签章失败的文档及失败原因
+     */
+    private final Map<Path, Exception> failures;
+
+    public BatchSignException(int signedCount, Map<Path, Exception> failures) {
+        super(String.format("批量签章失败 %d 个文档，成功 %d 个文档", failures.size(), signedCount));
+        this.signedCount = signedCount;
+        this.failures = Collections.unmodifiableMap(new LinkedHashMap<>(failures));
+        for (Exception e : this.failures.values()) {
+            addSuppressed(e);
+        }
+    }
+
+    /**
+     * 获取签章成功的文档数量
+     *
+     * @return 文档数量
+     */
+    public int getSignedCount() {
+        return signedCount;
+    }
+
+    /**
+     * 获取签章失败的文档及失败原因
+     *
+     * @return 待签章文件 到 失败原因 的映射，顺序与输入序列一致
+     */
+    public Map<Path, Exception> getFailures() {
+        return failures;
+    }
+}
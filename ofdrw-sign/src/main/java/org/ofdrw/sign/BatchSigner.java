@@ -0,0 +1,395 @@
+package org.ofdrw.sign;
+
+import org.ofdrw.reader.OFDReader;
+import org.ofdrw.sign.stamppos.StampAppearance;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * OFD文档批量签章引擎
+ * <p>
+ * 使用同一个签名实现容器（共享已经解析的印章、证书与私钥）并发的对大量文档签章，
+ * 每个文档签章完成后立即写出到各自的输出位置，不在内存中累积。
+ * <p>
+ * 签名实现容器将被多个线程同时调用，请确保容器的 {@link ExtendSignatureContainer#sign}
+ * 是线程安全的（如 {@link org.ofdrw.sign.signContainer.SESV4Container}）。
+ * <p>
+ * 使用方式：
+ * <pre>{@code
+ * try (BatchSigner batch = new BatchSigner(signContainer)) {
+ *     batch.addApPos(new NormalStampPos(1, 50, 50, 40, 40));
+ *     batch.signAll(inputs, in -> outDir.resolve(in.getFileName()));
+ *     System.out.println(batch);
+ * }
+ * }</pre>
+ *
+ * @author agent
+ * @since 2026-10-17 13:48:36
+ */
+public class BatchSigner implements Closeable {
+
+    /**
+     * 签名实现容器（共享）
+     */
+    private final ExtendSignatureContainer signContainer;
+
+    /**
+     * 签章执行线程池
+     */
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * 签名ID提供者的构造器，每个文档使用独立的ID提供者
+     */
+    private Supplier<SignIDProvider> idProviderFactory = StandFormatAtomicSignID::new;
+
+    /**
+     * 数字签名模式
+     */
+    private SignMode signMode = SignMode.WholeProtected;
+
+    /**
+     * 签章外观列表，应用于每个文档
+     */
+    private final List<StampAppearance> apList = new CopyOnWriteArrayList<>();
+
+    /**
+     * 待保护的文件的过滤器
+     */
+    private ProtectFileFilter protectFileFilter;
+
+    /**
+     * 签章成功的文档数量
+     */
+    private final AtomicInteger signedCount = new AtomicInteger(0);
+
+    /**
+     * 签章失败的文档数量
+     */
+    private final AtomicInteger failedCount = new AtomicInteger(0);
+
+    /**
+     * 第一个文档开始签章的时间（纳秒）
+     */
+    private final AtomicLong startNanos = new AtomicLong(0);
+
+    /**
+     * 最后一个文档完成签章的时间（纳秒）
+     */
+    private final AtomicLong endNanos = new AtomicLong(0);
+
+    /**
+     * 使用可用处理器数量作为并行度创建批量签章引擎
+     *
+     * @param signContainer 签名实现容器，将被多个线程共享
+     */
+    public BatchSigner(ExtendSignatureContainer signContainer) {
+        this(signContainer, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * 创建批量签章引擎
+     *
+     * @param signContainer 签名实现容器，将被多个线程共享
+     * @param parallelism   并行度（同时签章的文档数量）
+     */
+    public BatchSigner(ExtendSignatureContainer signContainer, int parallelism) {
+        if (signContainer == null) {
+            throw new IllegalArgumentException("签名实现容器（signContainer）为空");
+        }
+        this.signContainer = signContainer;
+        parallelism = Math.max(1, parallelism);
+        final AtomicInteger threadNo = new AtomicInteger(0);
+        // 有界队列，队列已满时由提交线程执行，避免一次性读入过多的待签章文档；
+        // 引擎关闭后拒绝新的任务，而不是静默丢弃
+        this.executor = new ThreadPoolExecutor(parallelism, parallelism,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(parallelism * 2),
+                r -> {
+                    Thread t = new Thread(r, "ofdrw-batch-sign-" + threadNo.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                (r, pool) -> {
+                    if (pool.isShutdown()) {
+                        throw new RejectedExecutionException("批量签章引擎已关闭");
+                    }
+                    r.run();
+                });
+    }
+
+    /**
+     * 检查批量签章引擎是否已经关闭
+     *
+     * @throws IllegalStateException 引擎已关闭
+     */
+    private void ensureOpen() {
+        if (executor.isShutdown()) {
+            throw new IllegalStateException("批量签章引擎已关闭，无法提交新的签章任务");
+        }
+    }
+
+    /**
+     * 设置签名ID提供者的构造器
+     * <p>
+     * 默认使用 {@link StandFormatAtomicSignID}
+     *
+     * @param idProviderFactory 签名ID提供者构造器，每个文档调用一次
+     * @return this
+     */
+    public BatchSigner setIdProviderFactory(Supplier<SignIDProvider> idProviderFactory) {
+        if (idProviderFactory == null) {
+            throw new IllegalArgumentException("签名ID提供者构造器（idProviderFactory）为空");
+        }
+        this.idProviderFactory = idProviderFactory;
+        return this;
+    }
+
+    /**
+     * 设置签章模式
+     *
+     * @param signMode 签章模式
+     * @return this
+     */
+    public BatchSigner setSignMode(SignMode signMode) {
+        this.signMode = signMode == null ? SignMode.WholeProtected : signMode;
+        return this;
+    }
+
+    /**
+     * 增加签章外观位置，每个文档均使用相同的外观位置
+     *
+     * @param sa 签章外观位置
+     * @return this
+     */
+    public BatchSigner addApPos(StampAppearance sa) {
+        if (sa != null) {
+            apList.add(sa);
+        }
+        return this;
+    }
+
+    /**
+     * 设置 文件过滤器
+     *
+     * @param filter 过滤器
+     * @return this
+     */
+    public BatchSigner setProtectFileFilter(ProtectFileFilter filter) {
+        this.protectFileFilter = filter;
+        return this;
+    }
+
+    /**
+     * 提交一个文档签章任务
+     *
+     * @param src 待签章的OFD文件
+     * @param out 签章后文件保存位置
+     * @return 签章结果，完成时返还签章后文件保存位置
+     * @throws IllegalStateException 引擎已关闭
+     */
+    public Future<Path> submit(Path src, Path out) {
+        if (src == null || out == null) {
+            throw new IllegalArgumentException("待签章文件（src）或保存位置（out）为空");
+        }
+        ensureOpen();
+        return executor.submit(() -> {
+            signOne(src, reader -> new OFDSigner(reader, out, idProviderFactory.get()));
+            return out;
+        });
+    }
+
+    /**
+     * 提交一个文档签章任务
+     *
+     * @param src       待签章的OFD文件
+     * @param outStream 签章后文件输出流，流的关闭由调用者负责
+     * @return 签章结果，完成时返还输出流
+     * @throws IllegalStateException 引擎已关闭
+     */
+    public Future<OutputStream> submit(Path src, OutputStream outStream) {
+        if (src == null || outStream == null) {
+            throw new IllegalArgumentException("待签章文件（src）或输出流（outStream）为空");
+        }
+        ensureOpen();
+        return executor.submit(() -> {
+            signOne(src, reader -> new OFDSigner(reader, outStream, idProviderFactory.get()));
+            return outStream;
+        });
+    }
+
+    /**
+     * 对输入的文档序列签章并等待全部完成
+     * <p>
+     * 输入序列按需读取，失败的文档不影响其它文档的签章，
+     * 全部文档处理完成后，若存在失败的文档则抛出 {@link BatchSignException}，
+     * 其中包含每个失败文档的失败原因。
+     *
+     * @param inputs    待签章的OFD文件序列
+     * @param outMapper 根据待签章文件获取签章后文件保存位置
+     * @return 本次签章成功的文档数量
+     * @throws BatchSignException   存在签章失败的文档
+     * @throws InterruptedException 等待过程中被中断
+     * @throws IllegalStateException 引擎已关闭
+     */
+    public int signAll(Iterable<Path> inputs, Function<Path, Path> outMapper) throws BatchSignException, InterruptedException {
+        if (inputs == null || outMapper == null) {
+            throw new IllegalArgumentException("待签章文件序列（inputs）或保存位置映射（outMapper）为空");
+        }
+        ensureOpen();
+        final Phaser phaser = new Phaser(1);
+        final AtomicInteger success = new AtomicInteger(0);
+        // 以输入序号排序，保持失败文档与输入序列的顺序一致
+        final ConcurrentSkipListMap<Integer, Path> failedSrc = new ConcurrentSkipListMap<>();
+        final Map<Integer, Exception> failedCause = new ConcurrentHashMap<>();
+        int index = 0;
+        for (Path src : inputs) {
+            final int no = index++;
+            final Path out = outMapper.apply(src);
+            phaser.register();
+            // 队列已满时由当前线程执行，输入序列随签章进度读取
+            try {
+                executor.execute(() -> {
+                    try {
+                        signOne(src, reader -> new OFDSigner(reader, out, idProviderFactory.get()));
+                        success.incrementAndGet();
+                    } catch (Exception e) {
+                        failedCause.put(no, e);
+                        failedSrc.put(no, src);
+                    } finally {
+                        phaser.arriveAndDeregister();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // 签章过程中引擎被关闭，注销未提交任务的参与方
+                phaser.arriveAndDeregister();
+                throw new IllegalStateException("批量签章引擎已关闭，无法提交新的签章任务", e);
+            }
+        }
+        // 等待全部文档完成
+        phaser.awaitAdvanceInterruptibly(phaser.arrive());
+        if (!failedSrc.isEmpty()) {
+            Map<Path, Exception> failures = new LinkedHashMap<>();
+            for (Map.Entry<Integer, Path> entry : failedSrc.entrySet()) {
+                failures.put(entry.getValue(), failedCause.get(entry.getKey()));
+            }
+            throw new BatchSignException(success.get(), failures);
+        }
+        return success.get();
+    }
+
+    /**
+     * 签章单个文档
+     *
+     * @param src     待签章的OFD文件
+     * @param factory 签名引擎构造器
+     * @throws IOException              IO异常
+     * @throws GeneralSecurityException 签名异常
+     */
+    private void signOne(Path src, SignerFactory factory) throws IOException, GeneralSecurityException {
+        startNanos.compareAndSet(0, System.nanoTime());
+        OFDReader reader = null;
+        OFDSigner signer = null;
+        try {
+            reader = new OFDReader(src);
+            signer = factory.create(reader);
+            // 文档之间已经并行，单个文档的杂凑值在当前线程中顺序计算
+            signer.setSignMode(signMode)
+                    .setSignContainer(signContainer)
+                    .setProtectFileFilter(protectFileFilter)
+                    .setDigestExecutor(null, 1);
+            for (StampAppearance sa : apList) {
+                signer.addApPos(sa);
+            }
+            signer.exeSign();
+            // 打包写出签章后的文档，同时关闭解析器
+            signer.close();
+            signedCount.incrementAndGet();
+        } catch (IOException | GeneralSecurityException | RuntimeException e) {
+            failedCount.incrementAndGet();
+            if (reader != null) {
+                reader.close();
+            }
+            throw e;
+        } finally {
+            endNanos.set(System.nanoTime());
+        }
+    }
+
+    /**
+     * 签名引擎构造器
+     */
+    @FunctionalInterface
+    private interface SignerFactory {
+        OFDSigner create(OFDReader reader) throws SignatureTerminateException;
+    }
+
+    /**
+     * 获取签章成功的文档数量
+     *
+     * @return 文档数量
+     */
+    public int getSignedCount() {
+        return signedCount.get();
+    }
+
+    /**
+     * 获取签章失败的文档数量
+     *
+     * @return 文档数量
+     */
+    public int getFailedCount() {
+        return failedCount.get();
+    }
+
+    /**
+     * 获取签章吞吐量
+     *
+     * @return 每秒签章的文档数量，尚未完成任何文档时返还0
+     */
+    public double getDocsPerSecond() {
+        long elapsed = endNanos.get() - startNanos.get();
+        if (startNanos.get() == 0 || elapsed <= 0) {
+            return 0;
+        }
+        return signedCount.get() / (elapsed / 1e9);
+    }
+
+    /**
+     * 等待已提交的文档全部完成并释放线程
+     *
+     * @throws IOException 等待过程中被中断
+     */
+    @Override
+    public void close() throws IOException {
+        executor.shutdown();
+        try {
+            while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                // 等待剩余的文档完成签章
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("批量签章等待过程中被中断");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BatchSigner{signed=%d, failed=%d, docs/s=%.1f}",
+                getSignedCount(), getFailedCount(), getDocsPerSecond());
+    }
+}
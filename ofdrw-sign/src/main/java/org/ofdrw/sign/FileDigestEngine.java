@@ -0,0 +1,346 @@
+package org.ofdrw.sign;
+
+import org.ofdrw.pkg.tool.WorkerPool;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 文件杂凑值并行计算引擎
+ * <p>
+ * 签名与验证时需要计算大量被保护文件的杂凑值，
+ * 引擎将文件分配给多个工作者计算，每个工作者持有杂凑函数的副本（{@link MessageDigest#clone()}）
+ * 与直接内存缓冲区，通过 {@link FileChannel} 读取文件，计算结果与文件列表顺序一致。
+ * <p>
+ * 也可以计算输入流的杂凑值（见 {@link #digestStreams(List)}），如 直接从压缩包中读取的文件条目。
+ * <p>
+ * 工作者运行在调用者提供的线程池中，未提供时使用共享的有界线程池（{@link WorkerPool}），
+ * 引擎不会为每次计算创建线程。调用线程同样参与计算，线程池繁忙时不会阻塞等待。
+ * <p>
+ * 默认（并行度为1）、杂凑函数不支持复制或文件数量较少时，在调用线程中顺序计算。
+ *
+ * @author agent
+ * @since 2026-10-17 13:43:49
+ */
+public class FileDigestEngine {
+
+    /**
+     * 读取缓冲区大小
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * 杂凑函数原型
+     */
+    private final MessageDigest prototype;
+
+    /**
+     * 工作者运行的线程池，为null时使用共享线程池
+     */
+    private final Executor executor;
+
+    /**
+     * 并行度
+     */
+    private final int parallelism;
+
+    /**
+     * 创建在调用线程中顺序计算的杂凑计算引擎
+     *
+     * @param md 杂凑函数原型，计算过程中不会修改原型的状态
+     */
+    public FileDigestEngine(MessageDigest md) {
+        this(md, null, 1);
+    }
+
+    /**
+     * 创建使用共享线程池的杂凑计算引擎
+     *
+     * @param md          杂凑函数原型，计算过程中不会修改原型的状态
+     * @param parallelism 并行度（同时计算的工作者数量），小于等于1时表示在调用线程中顺序计算
+     */
+    public FileDigestEngine(MessageDigest md, int parallelism) {
+        this(md, null, parallelism);
+    }
+
+    /**
+     * 创建使用指定线程池的杂凑计算引擎
+     * <p>
+     * 引擎不会关闭线程池，线程池的生命周期由调用者管理
+     *
+     * @param md          杂凑函数原型，计算过程中不会修改原型的状态
+     * @param executor    工作者运行的线程池，为null时使用共享线程池
+     * @param parallelism 并行度（同时计算的工作者数量），小于等于1时表示在调用线程中顺序计算
+     */
+    public FileDigestEngine(MessageDigest md, Executor executor, int parallelism) {
+        if (md == null) {
+            throw new IllegalArgumentException("杂凑函数(md)为空");
+        }
+        this.prototype = md;
+        this.executor = executor;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * 获取杂凑算法名称
+     *
+     * @return 算法名称
+     */
+    public String getAlgorithm() {
+        return prototype.getAlgorithm();
+    }
+
+    /**
+     * 计算文件列表中每个文件的杂凑值
+     *
+     * @param files 文件列表
+     * @return 杂凑值列表，顺序与文件列表一致
+     * @throws IOException 文件读取异常
+     */
+    public List<byte[]> digest(List<Path> files) throws IOException {
+        if (files == null || files.isEmpty()) {
+            return new ArrayList<>(0);
+        }
+        final Path[] paths = files.toArray(new Path[0]);
+        return run(paths.length, (i, w) -> digest(w.md, paths[i], w.direct()));
+    }
+
+    /**
+     * 计算每个输入流的杂凑值
+     * <p>
+     * 输入流在工作线程中打开，读取完成后关闭
+     *
+     * @param sources 输入流来源列表
+     * @return 杂凑值列表，顺序与来源列表一致
+     * @throws IOException 读取异常
+     */
+    public List<byte[]> digestStreams(List<? extends StreamSource> sources) throws IOException {
+        if (sources == null || sources.isEmpty()) {
+            return new ArrayList<>(0);
+        }
+        final StreamSource[] arr = sources.toArray(new StreamSource[0]);
+        return run(arr.length, (i, w) -> {
+            try (InputStream in = arr[i].open()) {
+                return digest(w.md, in, w.heap());
+            }
+        });
+    }
+
+    /**
+     * 执行计算任务
+     *
+     * @param n   任务数量
+     * @param job 计算任务
+     * @return 计算结果，与任务序号一致
+     * @throws IOException 读取异常
+     */
+    private List<byte[]> run(int n, Job job) throws IOException {
+        final byte[][] result = new byte[n][];
+        final int workers = Math.min(parallelism, n);
+        MessageDigest[] mds = workers > 1 ? cloneDigests(workers) : null;
+        if (mds == null) {
+            // 顺序计算
+            Worker w = new Worker(copyOrPrototype());
+            for (int i = 0; i < n; i++) {
+                result[i] = job.run(i, w);
+            }
+        } else {
+            parallel(n, result, mds, job);
+        }
+        List<byte[]> res = new ArrayList<>(n);
+        for (byte[] b : result) {
+            res.add(b);
+        }
+        return res;
+    }
+
+    /**
+     * 多线程计算
+     * <p>
+     * 工作者从共享的序号中依次领取任务，计算结果写入对应序号的位置。
+     * 调用线程作为其中一个工作者参与计算，线程池中的工作者未能及时运行时由调用线程完成剩余任务。
+     */
+    private void parallel(int n, byte[][] result, MessageDigest[] mds, Job job) throws IOException {
+        final AtomicInteger next = new AtomicInteger(0);
+        final CountDownLatch done = new CountDownLatch(n);
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+        final Executor pool = executor != null ? executor : WorkerPool.shared();
+        for (int k = 1; k < mds.length; k++) {
+            final Worker w = new Worker(mds[k]);
+            try {
+                pool.execute(() -> work(w, n, next, done, error, result, job));
+            } catch (RejectedExecutionException e) {
+                // 线程池拒绝时由调用线程完成
+                break;
+            }
+        }
+        work(new Worker(mds[0]), n, next, done, error, result, job);
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            // 停止领取剩余的任务
+            next.set(n);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("文件杂凑值计算被中断");
+        }
+        Throwable cause = error.get();
+        if (cause != null) {
+            throw WorkerPool.rethrow(cause, "文件杂凑值计算", IOException.class);
+        }
+    }
+
+    /**
+     * 工作者循环领取并执行任务，出现异常后跳过剩余的任务
+     */
+    private static void work(Worker w, int n, AtomicInteger next, CountDownLatch done,
+                             AtomicReference<Throwable> error, byte[][] result, Job job) {
+        int i;
+        while ((i = next.getAndIncrement()) < n) {
+            try {
+                if (error.get() == null) {
+                    result[i] = job.run(i, w);
+                }
+            } catch (Throwable e) {
+                error.compareAndSet(null, e);
+            } finally {
+                done.countDown();
+            }
+        }
+    }
+
+    /**
+     * 为每个工作线程复制杂凑函数
+     *
+     * @param n 数量
+     * @return 杂凑函数副本，不支持复制时返还null
+     */
+    private MessageDigest[] cloneDigests(int n) {
+        MessageDigest[] mds = new MessageDigest[n];
+        try {
+            for (int i = 0; i < n; i++) {
+                mds[i] = (MessageDigest) prototype.clone();
+                mds[i].reset();
+            }
+            return mds;
+        } catch (CloneNotSupportedException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 复制杂凑函数，不支持复制时使用原型
+     */
+    private MessageDigest copyOrPrototype() {
+        try {
+            MessageDigest md = (MessageDigest) prototype.clone();
+            md.reset();
+            return md;
+        } catch (CloneNotSupportedException e) {
+            prototype.reset();
+            return prototype;
+        }
+    }
+
+    /**
+     * 计算文件杂凑值
+     * <p>
+     * 计算完成后杂凑函数被重置，可以继续使用
+     *
+     * @param md     杂凑函数
+     * @param path   文件路径
+     * @param buffer 读取缓冲区
+     * @return 杂凑值
+     * @throws IOException 文件读取异常
+     */
+    public static byte[] digest(MessageDigest md, Path path, ByteBuffer buffer) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ((Buffer) buffer).clear();
+            while (channel.read(buffer) != -1) {
+                ((Buffer) buffer).flip();
+                md.update(buffer);
+                ((Buffer) buffer).clear();
+            }
+            return md.digest();
+        }
+    }
+
+    /**
+     * 计算输入流的杂凑值
+     * <p>
+     * 计算完成后杂凑函数被重置，可以继续使用，输入流不会被关闭
+     *
+     * @param md     杂凑函数
+     * @param in     输入流
+     * @param buffer 读取缓冲区
+     * @return 杂凑值
+     * @throws IOException 读取异常
+     */
+    public static byte[] digest(MessageDigest md, InputStream in, byte[] buffer) throws IOException {
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+            md.update(buffer, 0, n);
+        }
+        return md.digest();
+    }
+
+    /**
+     * 输入流来源
+     */
+    @FunctionalInterface
+    public interface StreamSource {
+        /**
+         * 打开输入流
+         *
+         * @return 输入流
+         * @throws IOException 打开异常
+         */
+        InputStream open() throws IOException;
+    }
+
+    /**
+     * 计算任务
+     */
+    @FunctionalInterface
+    private interface Job {
+        byte[] run(int index, Worker worker) throws IOException;
+    }
+
+    /**
+     * 工作线程持有的杂凑函数与缓冲区
+     */
+    private static final class Worker {
+        final MessageDigest md;
+        private ByteBuffer direct;
+        private byte[] heap;
+
+        Worker(MessageDigest md) {
+            this.md = md;
+        }
+
+        ByteBuffer direct() {
+            if (direct == null) {
+                direct = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            }
+            return direct;
+        }
+
+        byte[] heap() {
+            if (heap == null) {
+                heap = new byte[BUFFER_SIZE];
+            }
+            return heap;
+        }
+    }
+}
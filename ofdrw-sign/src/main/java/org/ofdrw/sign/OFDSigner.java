@@ -1,7 +1,6 @@
 package org.ofdrw.sign;
 
 
-import org.apache.commons.io.FilenameUtils;
 import org.dom4j.DocumentException;
 import org.ofdrw.core.basicType.ST_Loc;
 import org.ofdrw.core.signatures.SigType;
@@ -24,14 +23,13 @@ import org.ofdrw.sign.stamppos.StampAppearance;
 
 import java.io.*;
 import java.nio.file.*;
-import java.nio.file.attribute.BasicFileAttributes;
-import java.security.DigestInputStream;
 import java.security.GeneralSecurityException;
-import java.security.MessageDigest;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 /**
  * OFD文档数字签章引擎
@@ -133,6 +131,16 @@ public class OFDSigner implements Closeable {
      */
     private String relativeID = null;
 
+    /**
+     * 计算被保护文件杂凑值使用的线程池，为null时使用共享线程池
+     */
+    private Executor digestExecutor = null;
+
+    /**
+     * 计算被保护文件杂凑值的并行度，默认为可用处理器数量
+     */
+    private int digestParallelism = Runtime.getRuntime().availableProcessors();
+
 
     /**
      * 不允许调用无参数构造器
@@ -352,37 +360,25 @@ public class OFDSigner implements Closeable {
      * @return 文件信息流
      */
     private List<ToDigestFileInfo> toBeDigestFileList() throws IOException {
-        List<ToDigestFileInfo> res = new LinkedList<>();
-
-        // 获取OFD容器在文件系统中的路径
-        Path containerPath = ofdDir.getContainerPath();
-        // 文件系统中的容器Unix类型绝对路径，如："/home/root/tmp"
-        String sysRoot = FilenameUtils.separatorsToUnix(containerPath.toAbsolutePath().toString());
-        // 遍历OFD文件目录中的所有文件
-        Files.walkFileTree(containerPath, new SimpleFileVisitor<Path>() {
-            @Override
-            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
-                // 路径转换为Unix类型的绝对路径
-                String abxFilePath = FilenameUtils.separatorsToUnix(file.toAbsolutePath().toString());
-                // 替换文件系统的根路径，这样就为容器系统中的绝对路径
-                abxFilePath = abxFilePath.replace(sysRoot, "");
-                final ToDigestFileInfo fileInfo = new ToDigestFileInfo(abxFilePath, file);
-                // 执行文件的过滤行为通过过滤器选择出需要保护的文档。
-                try {
-                    if (protectFileFilter != null && !protectFileFilter.filter(fileInfo.getAbsPath())) {
-                        return FileVisitResult.CONTINUE;
-                    }
-                } catch (Exception ignore) {
-                }
-                // 如果采用继续签章模式，那么跳过对 Signatures.xml 的文件
-                if (signMode == SignMode.ContinueSign
-                        && abxFilePath.equals(signaturesLoc.getLoc())) {
-                    return FileVisitResult.CONTINUE;
+        List<ToDigestFileInfo> res = new ArrayList<>();
+        // 遍历OFD文件目录中的所有文件（按需解压模式下将解压剩余的文件）
+        ofdDir.walk((abxFilePath, file) -> {
+            final ToDigestFileInfo fileInfo = new ToDigestFileInfo(abxFilePath, file);
+            // 执行文件的过滤行为通过过滤器选择出需要保护的文档。
+            try {
+                if (protectFileFilter != null && !protectFileFilter.filter(fileInfo.getAbsPath())) {
+                    return true;
                 }
-                // 构造加入文件信息列表
-                res.add(fileInfo);
-                return FileVisitResult.CONTINUE;
+            } catch (Exception ignore) {
+            }
+            // 如果采用继续签章模式，那么跳过对 Signatures.xml 的文件
+            if (signMode == SignMode.ContinueSign
+                    && abxFilePath.equals(signaturesLoc.getLoc())) {
+                return true;
             }
+            // 构造加入文件信息列表
+            res.add(fileInfo);
+            return true;
         });
         return res;
     }
@@ -545,20 +541,22 @@ public class OFDSigner implements Closeable {
         /*
          * 计算并设置所保护的所有文件的摘要
          */
-        MessageDigest md = signContainer.getDigestFnc();
+        FileDigestEngine digestEngine = new FileDigestEngine(signContainer.getDigestFnc(), digestExecutor, digestParallelism);
         References references = new References()
                 // 设置摘要方法
-                .setCheckMethod(md.getAlgorithm());
+                .setCheckMethod(digestEngine.getAlgorithm());
         // 获取要被保护的文件信息序列
         List<ToDigestFileInfo> toDigestFileInfos = toBeDigestFileList();
+        List<Path> files = new ArrayList<>(toDigestFileInfos.size());
         for (ToDigestFileInfo fileInfo : toDigestFileInfos) {
-            // 计算文件杂凑值
-            byte[] digest = calculateFileDigest(md, fileInfo.getSysPath());
-            // 重置杂凑函数
-            md.reset();
+            files.add(fileInfo.getSysPath());
+        }
+        // 并行计算文件杂凑值，结果与文件顺序一致
+        List<byte[]> digests = digestEngine.digest(files);
+        for (int i = 0; i < toDigestFileInfos.size(); i++) {
             Reference ref = new Reference()
-                    .setFileRef(fileInfo.getAbsPath())
-                    .setCheckValue(digest);
+                    .setFileRef(toDigestFileInfos.get(i).getAbsPath())
+                    .setCheckValue(digests.get(i));
             references.addReference(ref);
         }
         // 设置摘要列表，完成"签名要保护的原文及本次签名相关的信息"的构造
@@ -580,27 +578,6 @@ public class OFDSigner implements Closeable {
         return Paths.get(signDir.getSysAbsPath(), SignDir.SignatureFileName);
     }
 
-    /**
-     * 使用多次读取计算文件杂凑值
-     * <p>
-     * 减少内存使用
-     *
-     * @param md   杂凑计算函数
-     * @param path 文件路径
-     * @return 杂凑值
-     * @throws IOException IO读写异常
-     */
-    private byte[] calculateFileDigest(MessageDigest md, Path path) throws IOException {
-        try (InputStream in = Files.newInputStream(path);
-             DigestInputStream dis = new DigestInputStream(in, md)) {
-            byte[] buffer = new byte[4096];
-            // 根据缓存读入
-            while (dis.read(buffer) > -1) ;
-            // 计算最终文件杂凑值
-            return md.digest();
-        }
-    }
-
     /**
      * 进行签名/章
      * <p>
@@ -662,4 +639,20 @@ public class OFDSigner implements Closeable {
         this.parameters = parameters;
         return this;
     }
+
+    /**
+     * 设置计算被保护文件杂凑值使用的线程池与并行度
+     * <p>
+     * 默认使用共享线程池，并行度为可用处理器数量，签名器不会关闭传入的线程池。
+     * 同时处理多个文档时（如 {@link BatchSigner}）可设置并行度为1，在调用线程中顺序计算。
+     *
+     * @param executor    线程池，为null时使用共享线程池
+     * @param parallelism 并行度，小于等于1时表示在调用线程中顺序计算
+     * @return this
+     */
+    public OFDSigner setDigestExecutor(Executor executor, int parallelism) {
+        this.digestExecutor = executor;
+        this.digestParallelism = Math.max(1, parallelism);
+        return this;
+    }
 }
@@ -47,6 +47,18 @@ public class SESV1Container implements ExtendSignatureContainer {
      */
     private final Certificate certificate;
 
+    /**
+     * 电子印章DER编码缓存
+     * <p>
+     * 印章在容器生命周期内不变，批量签章时避免每个文档重复编码
+     */
+    private volatile byte[] sealEncoded;
+
+    /**
+     * 签名算法提供者，线程安全可以在多次签名间共享
+     */
+    private static final BouncyCastleProvider BC = new BouncyCastleProvider();
+
 
     /**
      * V1版本的电子签章容器构造
@@ -115,7 +127,7 @@ public class SESV1Container implements ExtendSignatureContainer {
                 .setPropertyInfo(new DERIA5String(propertyInfo))
                 .setCert(new DEROctetString(certificate.getEncoded()))
                 .setSignatureAlgorithm(GMObjectIdentifiers.sm2sign_with_sm3);
-        Signature signature = Signature.getInstance("SM3withSm2", new BouncyCastleProvider());
+        Signature signature = Signature.getInstance("SM3withSm2", BC);
         signature.initSign(privateKey);
         signature.update(tbsSign.getEncoded("DER"));
         byte[] sign = signature.sign();
@@ -133,7 +145,12 @@ public class SESV1Container implements ExtendSignatureContainer {
      */
     @Override
     public byte[] getSeal() throws IOException {
-        return seal.getEncoded("DER");
+        byte[] encoded = sealEncoded;
+        if (encoded == null) {
+            encoded = seal.getEncoded("DER");
+            sealEncoded = encoded;
+        }
+        return encoded.clone();
     }
 
     /**
@@ -50,6 +50,18 @@ public class SESV4Container implements ExtendSignatureContainer {
      */
     private final Certificate certificate;
 
+    /**
+     * 电子印章DER编码缓存
+     * <p>
+     * 印章在容器生命周期内不变，批量签章时避免每个文档重复编码
+     */
+    private volatile byte[] sealEncoded;
+
+    /**
+     * 签名算法提供者，线程安全可以在多次签名间共享
+     */
+    private static final BouncyCastleProvider BC = new BouncyCastleProvider();
+
     /**
      * 时间戳hook对象
      */
@@ -140,7 +152,7 @@ public class SESV4Container implements ExtendSignatureContainer {
                 .setDataHash(dataHash)
                 .setPropertyInfo(propertyInfo);
 
-        Signature sg = Signature.getInstance("SM3WithSM2", new BouncyCastleProvider());
+        Signature sg = Signature.getInstance("SM3WithSM2", BC);
         sg.initSign(privateKey);
         sg.update(toSign.getEncoded("DER"));
         final byte[] sigVal = sg.sign();
@@ -179,7 +191,12 @@ public class SESV4Container implements ExtendSignatureContainer {
      */
     @Override
     public byte[] getSeal() throws IOException {
-        return seal.getEncoded("DER");
+        byte[] encoded = sealEncoded;
+        if (encoded == null) {
+            encoded = seal.getEncoded("DER");
+            sealEncoded = encoded;
+        }
+        return encoded.clone();
     }
 
     /**
@@ -1,5 +1,6 @@
 package org.ofdrw.sign.verify;
 
+import org.apache.commons.io.IOUtils;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
 import org.dom4j.DocumentException;
 import org.ofdrw.core.basicType.ST_Loc;
@@ -16,9 +17,11 @@ import org.ofdrw.gm.ses.parse.VersionParser;
 import org.ofdrw.gm.ses.v4.SES_Signature;
 import org.ofdrw.gm.ses.v4.SESeal;
 import org.ofdrw.pkg.container.OFDDir;
+import org.ofdrw.pkg.container.ZipSource;
 import org.ofdrw.reader.BadOFDException;
 import org.ofdrw.reader.OFDReader;
 import org.ofdrw.reader.ResourceLocator;
+import org.ofdrw.sign.FileDigestEngine;
 import org.ofdrw.sign.verify.exceptions.DocNotSignException;
 import org.ofdrw.sign.verify.exceptions.FileIntegrityException;
 import org.ofdrw.sign.verify.exceptions.OFDVerifyException;
@@ -31,11 +34,16 @@ import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.security.*;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 /**
  * OFD 电子签名验证引擎
+ * <p>
+ * 当解析器以按需解压模式打开时（{@link OFDReader#OFDReader(Path, boolean)}），
+ * 签名文件、签名值以及所有被保护文件均直接从压缩包中读取并计算杂凑值，不会解压到工作目录。
  *
  * @author 权观宇
  * @since 2020-04-22 10:33:26
@@ -65,6 +73,16 @@ public class OFDValidator implements Closeable {
      */
     private SignedDataValidateContainer validator;
 
+    /**
+     * 计算被保护文件杂凑值使用的线程池，为null时使用共享线程池
+     */
+    private Executor digestExecutor = null;
+
+    /**
+     * 计算被保护文件杂凑值的并行度，默认为可用处理器数量
+     */
+    private int digestParallelism = Runtime.getRuntime().availableProcessors();
+
     /**
      * 创建一个OFD验证引擎
      *
@@ -77,6 +95,18 @@ public class OFDValidator implements Closeable {
         provider = new BouncyCastleProvider();
     }
 
+    /**
+     * 创建一个OFD验证引擎
+     * <p>
+     * 以按需解压模式打开文档，验证过程中的文件直接从压缩包中读取，不写入磁盘
+     *
+     * @param ofdFile OFD文件路径
+     * @throws IOException 文件读取异常
+     */
+    public OFDValidator(Path ofdFile) throws IOException {
+        this(new OFDReader(ofdFile, true));
+    }
+
 
     /**
      * 执行OFD电子签名验证
@@ -108,15 +138,15 @@ public class OFDValidator implements Closeable {
                 SigType type = sigRecord.getType();
                 // 获取 Signature.xml 文件路径
                 ST_Loc signFileLoc = sigRecord.getBaseLoc();
-                Path signatureFilePath = rl.getFile(signFileLoc);
+                byte[] signatureBin = readAll(signFileLoc);
                 Signature sig = rl.get(signFileLoc, Signature::new);
                 // 1. 检查文件完整性
                 checkFileIntegrity(sig);
                 rl.save();
                 try {
                     rl.cd(signFileLoc.parent());
-                    // 获取 SignedValue.dat 文件路径
-                    Path signedValueFilePath = rl.getFile(sig.getSignedValue());
+                    // 读取 SignedValue.dat
+                    byte[] signedValueBin = readAll(sig.getSignedValue());
                     if (type == null || type == SigType.Seal) {
                         Seal seal = sig.getSignedInfo().getSeal();
                         /*
@@ -124,10 +154,10 @@ public class OFDValidator implements Closeable {
                          * 所以这里只有在该元素存在的情况在进行匹配检查。
                          */
                         if (seal != null) {
-                            // 获取电子印章 Seal.esl 文件路径
-                            Path sealFilePath = rl.getFile(seal.getBaseLoc());
+                            // 读取电子印章 Seal.esl
+                            byte[] sealBin = readAll(seal.getBaseLoc());
                             // 2. 检查印章匹配
-                             boolean sealMatch = checkSealMatch(sealFilePath, signedValueFilePath);
+                             boolean sealMatch = checkSealMatch(sealBin, signedValueBin);
                              if (!sealMatch){
                                  throw new GeneralSecurityException("印章(Seal.esl)与电子签章数据(SignedValue.dat)中的印章不匹配");
                              }
@@ -136,7 +166,7 @@ public class OFDValidator implements Closeable {
                     // 签名算法名称
                     String alg = sig.getSignedInfo().getSignatureMethod();
                     // 3. 验证电子签名或签章数据
-                    checkSignedValue(type, alg, signatureFilePath, signedValueFilePath);
+                    checkSignedValue(type, alg, signatureBin, signedValueBin);
                 } finally {
                     rl.restore();
                 }
@@ -162,6 +192,22 @@ public class OFDValidator implements Closeable {
         return this;
     }
 
+    /**
+     * 设置计算被保护文件杂凑值使用的线程池与并行度
+     * <p>
+     * 默认使用共享线程池，并行度为可用处理器数量，验证器不会关闭传入的线程池。
+     * 同时处理多个文档时（如 {@link org.ofdrw.sign.BatchSigner}）可设置并行度为1，在调用线程中顺序计算。
+     *
+     * @param executor    线程池，为null时使用共享线程池
+     * @param parallelism 并行度，小于等于1时表示在调用线程中顺序计算
+     * @return this
+     */
+    public OFDValidator setDigestExecutor(Executor executor, int parallelism) {
+        this.digestExecutor = executor;
+        this.digestParallelism = Math.max(1, parallelism);
+        return this;
+    }
+
     /**
      * 检查电子签章数据
      *
@@ -173,16 +219,27 @@ public class OFDValidator implements Closeable {
      * @throws IOException                 IO异常
      */
     public void checkSignedValue(SigType type, String alg, Path signatureFilePath, Path signedValuePath) throws IOException, GeneralSecurityException {
+        checkSignedValue(type, alg, Files.readAllBytes(signatureFilePath), Files.readAllBytes(signedValuePath));
+    }
+
+    /**
+     * 检查电子签章数据
+     *
+     * @param type           验证类型 数字签名/电子签章
+     * @param alg            算法名称
+     * @param signatureBin   签名文件（Signature.xml）内容
+     * @param signedValueBin 签名值文件（SignedValue.dat）内容
+     * @throws InvalidSignedValueException 电子签章数据失效
+     * @throws IOException                 IO异常
+     */
+    public void checkSignedValue(SigType type, String alg, byte[] signatureBin, byte[] signedValueBin) throws IOException, GeneralSecurityException {
         if (validator == null) {
             throw new IllegalArgumentException("电子签章数据验证容器（validator）为空,Call #setValidator");
         }
         if (type == null) {
             type = SigType.Seal;
         }
-        validator.validate(type,
-                alg,
-                Files.readAllBytes(signatureFilePath),
-                Files.readAllBytes(signedValuePath));
+        validator.validate(type, alg, signatureBin, signedValueBin);
     }
 
     /**
@@ -202,25 +259,35 @@ public class OFDValidator implements Closeable {
             final String checkMethod = references.getCheckMethod();
             // 根据摘要算法名称获取摘要算法
             MessageDigest md = MessageDigest.getInstance(checkMethod, provider);
-            for (Reference ref : references.getReferences()) {
-                ST_Loc fileRef = ref.getFileRef();
-                Path file = rl.getFile(fileRef);
+            final List<Reference> refList = references.getReferences();
+            final FileDigestEngine engine = new FileDigestEngine(md, digestExecutor, digestParallelism);
+            final ZipSource zipSource = ofdDir.getZipSource();
+            List<byte[]> digests;
+            if (zipSource != null) {
+                // 按需解压模式：直接从压缩包中读取，边解压边计算杂凑值
+                List<FileDigestEngine.StreamSource> sources = new ArrayList<>(refList.size());
+                for (Reference ref : refList) {
+                    final String absPath = rl.toAbsolutePath(ref.getFileRef());
+                    sources.add(() -> zipSource.open(absPath));
+                }
+                digests = engine.digestStreams(sources);
+            } else {
+                List<Path> files = new ArrayList<>(refList.size());
+                for (Reference ref : refList) {
+                    files.add(rl.getFile(ref.getFileRef()));
+                }
+                digests = engine.digest(files);
+            }
+            // 按照Reference顺序比对
+            for (int i = 0; i < refList.size(); i++) {
+                Reference ref = refList.get(i);
                 // 获取预期的文件杂凑值
                 byte[] expectDataHash = ref.getCheckValue();
-                try (InputStream in = Files.newInputStream(file);
-                     DigestInputStream dis = new DigestInputStream(in, md)) {
-                    byte[] buffer = new byte[4096];
-                    // 根据缓存读入
-                    while (dis.read(buffer) > -1) ;
-                    // 计算最终文件杂凑值
-                    byte[] actualDataHash = md.digest();
-                    // 比对杂凑值是否一致
-                    if (!Arrays.equals(expectDataHash, actualDataHash)) {
-                        throw new FileIntegrityException(fileRef, expectDataHash, actualDataHash);
-                    }
+                byte[] actualDataHash = digests.get(i);
+                // 比对杂凑值是否一致
+                if (!Arrays.equals(expectDataHash, actualDataHash)) {
+                    throw new FileIntegrityException(ref.getFileRef(), expectDataHash, actualDataHash);
                 }
-                // 重置摘要算法
-                md.reset();
             }
         } finally {
             rl.restore();
@@ -228,17 +295,31 @@ public class OFDValidator implements Closeable {
     }
 
 
+    /**
+     * 读取文件全部内容
+     * <p>
+     * 按需解压模式下直接从压缩包中读取
+     *
+     * @param loc 文件路径
+     * @return 文件内容
+     * @throws IOException 文件不存在或读取异常
+     */
+    private byte[] readAll(ST_Loc loc) throws IOException {
+        try (InputStream in = rl.open(loc)) {
+            return IOUtils.toByteArray(in);
+        }
+    }
+
     /**
      * 电子印章与电子签章数据的匹配性检查
      *
-     * @param sealPath        电子印章文件路径
-     * @param signedValuePath 电子签章数据路径
+     * @param sealBin         电子印章
+     * @param sesSignatureBin 电子签章数据
      * @return true - 匹配；false - 不匹配
      * @throws IOException        文件流操作异常
      * @throws OFDVerifyException 未知的电子签章数据版本，无法解析
      */
-    private boolean checkSealMatch(Path sealPath, Path signedValuePath) throws IOException, OFDVerifyException {
-        final byte[] sesSignatureBin = Files.readAllBytes(signedValuePath);
+    private boolean checkSealMatch(byte[] sealBin, byte[] sesSignatureBin) throws IOException, OFDVerifyException {
         byte[] expect = null;
         // 解析电子印章版本
         SESVersionHolder v = VersionParser.parseSES_SignatureVersion(sesSignatureBin);
@@ -254,7 +335,6 @@ public class OFDValidator implements Closeable {
         } else {
             throw new OFDVerifyException("未知的电子签章数据版本，无法解析");
         }
-        byte[] sealBin = Files.readAllBytes(sealPath);
         return Arrays.equals(expect, sealBin);
     }
 
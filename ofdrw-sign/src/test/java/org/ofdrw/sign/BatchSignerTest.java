@@ -0,0 +1,158 @@
+package org.ofdrw.sign;
+
+import org.junit.jupiter.api.Test;
+import org.ofdrw.gm.cert.PKCS12Tools;
+import org.ofdrw.gm.ses.v4.SESeal;
+import org.ofdrw.reader.OFDReader;
+import org.ofdrw.sign.signContainer.SESV4Container;
+import org.ofdrw.sign.stamppos.NormalStampPos;
+import org.ofdrw.sign.verify.OFDValidator;
+import org.ofdrw.sign.verify.container.SESV4ValidateContainer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.GeneralSecurityException;
+import java.security.PrivateKey;
+import java.security.cert.Certificate;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author agent
+ * @since 2026-10-17 13:48:36
+ */
+class BatchSignerTest {
+
+    private static final Path userP12Path = Paths.get("src/test/resources", "USER.p12");
+    private static final Path sealPath = Paths.get("src/test/resources", "UserV4.esl");
+
+    /**
+     * 准备待签章的文档（相同模板的发票）
+     */
+    static List<Path> inputs(int n) throws IOException {
+        Path dir = Paths.get("target/BatchSign/in");
+        Files.createDirectories(dir);
+        Path src = Paths.get("src/test/resources", "helloworld.ofd");
+        List<Path> res = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            Path p = dir.resolve("invoice_" + i + ".ofd");
+            if (Files.notExists(p)) {
+                Files.copy(src, p);
+            }
+            res.add(p);
+        }
+        return res;
+    }
+
+    @Test
+    void signAll() throws Exception {
+        PrivateKey prvKey = PKCS12Tools.ReadPrvKey(userP12Path, "private", "777777");
+        Certificate signCert = PKCS12Tools.ReadUserCert(userP12Path, "private", "777777");
+        SESeal seal = SESeal.getInstance(Files.readAllBytes(sealPath));
+        Path outDir = Files.createDirectories(Paths.get("target/BatchSign/out"));
+
+        List<Path> inputs = inputs(20);
+        try (BatchSigner batch = new BatchSigner(new SESV4Container(prvKey, seal, signCert), 4)) {
+            batch.addApPos(new NormalStampPos(1, 50, 50, 40, 40));
+            int n = batch.signAll(inputs, in -> outDir.resolve(in.getFileName()));
+            assertEquals(inputs.size(), n);
+            assertEquals(0, batch.getFailedCount());
+
+            // 单个提交，文档不存在时签章失败
+            Future<Path> f = batch.submit(Paths.get("target/BatchSign/not_exist.ofd"), outDir.resolve("not_exist.ofd"));
+            assertThrows(Exception.class, f::get);
+            assertEquals(1, batch.getFailedCount());
+
+            // 批量签章中部分文档失败，其它文档照常签章，失败原因逐个返还
+            Path missing = Paths.get("target/BatchSign/not_exist_2.ofd");
+            List<Path> withMissing = new ArrayList<>(inputs.subList(0, 5));
+            withMissing.add(2, missing);
+            BatchSignException e = assertThrows(BatchSignException.class,
+                    () -> batch.signAll(withMissing, in -> outDir.resolve("partial_" + in.getFileName())));
+            assertEquals(5, e.getSignedCount());
+            assertEquals(1, e.getFailures().size());
+            assertNotNull(e.getFailures().get(missing));
+            assertEquals(1, e.getSuppressed().length);
+            assertEquals(2, batch.getFailedCount());
+            System.out.println(">> " + e.getMessage() + " " + e.getFailures());
+            System.out.println(batch);
+        }
+        // 签章结果可以通过验证
+        for (Path in : inputs.subList(0, 3)) {
+            try (OFDReader reader = new OFDReader(outDir.resolve(in.getFileName()));
+                 OFDValidator validator = new OFDValidator(reader)) {
+                validator.setValidator(new SESV4ValidateContainer());
+                validator.exeValidate();
+            }
+        }
+    }
+
+    /**
+     * 引擎关闭后提交的任务被拒绝，而不是被静默丢弃导致调用者一直等待
+     */
+    @Test
+    void rejectAfterClose() throws Exception {
+        PrivateKey prvKey = PKCS12Tools.ReadPrvKey(userP12Path, "private", "777777");
+        Certificate signCert = PKCS12Tools.ReadUserCert(userP12Path, "private", "777777");
+        SESeal seal = SESeal.getInstance(Files.readAllBytes(sealPath));
+        Path outDir = Files.createDirectories(Paths.get("target/BatchSign/out"));
+        List<Path> inputs = inputs(2);
+
+        BatchSigner batch = new BatchSigner(new SESV4Container(prvKey, seal, signCert), 1);
+        batch.close();
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+            assertThrows(IllegalStateException.class,
+                    () -> batch.signAll(inputs, in -> outDir.resolve("closed_" + in.getFileName())));
+            assertThrows(IllegalStateException.class,
+                    () -> batch.submit(inputs.get(0), outDir.resolve("closed.ofd")));
+        });
+        assertEquals(0, batch.getSignedCount());
+    }
+
+    /**
+     * 逐个文档签章（每个文档重新读取印章与密钥）与批量签章的吞吐量对比
+     */
+    @Test
+    void throughput() throws Exception {
+        List<Path> inputs = inputs(60);
+        Path outDir = Files.createDirectories(Paths.get("target/BatchSign/out"));
+        for (int round = 0; round < 2; round++) {
+            long start = System.nanoTime();
+            for (Path in : inputs) {
+                signOne(in, outDir.resolve("single_" + in.getFileName()));
+            }
+            double single = inputs.size() / ((System.nanoTime() - start) / 1e9);
+
+            PrivateKey prvKey = PKCS12Tools.ReadPrvKey(userP12Path, "private", "777777");
+            Certificate signCert = PKCS12Tools.ReadUserCert(userP12Path, "private", "777777");
+            SESeal seal = SESeal.getInstance(Files.readAllBytes(sealPath));
+            try (BatchSigner batch = new BatchSigner(new SESV4Container(prvKey, seal, signCert))) {
+                batch.addApPos(new NormalStampPos(1, 50, 50, 40, 40));
+                batch.signAll(inputs, in -> outDir.resolve(in.getFileName()));
+                System.out.printf(">> round %d 逐个签章: %.1f docs/s 批量签章: %.1f docs/s (%s)%n",
+                        round, single, batch.getDocsPerSecond(), batch);
+            }
+        }
+    }
+
+    /**
+     * 改造前的使用方式，用于对照
+     */
+    private static void signOne(Path src, Path out) throws IOException, GeneralSecurityException {
+        PrivateKey prvKey = PKCS12Tools.ReadPrvKey(userP12Path, "private", "777777");
+        Certificate signCert = PKCS12Tools.ReadUserCert(userP12Path, "private", "777777");
+        SESeal seal = SESeal.getInstance(Files.readAllBytes(sealPath));
+        try (OFDReader reader = new OFDReader(src);
+             OFDSigner signer = new OFDSigner(reader, out)) {
+            signer.setSignContainer(new SESV4Container(prvKey, seal, signCert));
+            signer.addApPos(new NormalStampPos(1, 50, 50, 40, 40));
+            signer.exeSign();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package org.ofdrw.sign;
+
+import org.bouncycastle.jcajce.provider.digest.SM3;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author agent
+ * @since 2026-10-17 13:43:49
+ */
+class FileDigestEngineTest {
+
+    /**
+     * 生成约1000个资源文件（类似含大量图片的OFD包）
+     */
+    static List<Path> resources() throws IOException {
+        Path dir = Paths.get("target/DigestEngine");
+        Files.createDirectories(dir);
+        Random random = new Random(1000);
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            Path f = dir.resolve("image_" + i + ".png");
+            if (Files.notExists(f)) {
+                byte[] bin = new byte[8 * 1024 + random.nextInt(56 * 1024)];
+                random.nextBytes(bin);
+                Files.write(f, bin);
+            }
+            files.add(f);
+        }
+        return files;
+    }
+
+    /**
+     * 改造前的计算方式（共享杂凑函数、4KB缓冲区顺序计算），用于对照
+     */
+    static List<byte[]> legacy(MessageDigest md, List<Path> files) throws IOException {
+        List<byte[]> res = new ArrayList<>(files.size());
+        for (Path path : files) {
+            try (InputStream in = Files.newInputStream(path);
+                 DigestInputStream dis = new DigestInputStream(in, md)) {
+                byte[] buffer = new byte[4096];
+                while (dis.read(buffer) > -1) ;
+                res.add(md.digest());
+            }
+            md.reset();
+        }
+        return res;
+    }
+
+    @Test
+    void digest() throws Exception {
+        List<Path> files = resources();
+        List<byte[]> expect = legacy(new SM3.Digest(), files);
+        for (int parallelism : new int[]{1, 4}) {
+            MessageDigest prototype = new SM3.Digest();
+            List<byte[]> actual = new FileDigestEngine(prototype, parallelism).digest(files);
+            assertEquals(expect.size(), actual.size());
+            for (int i = 0; i < expect.size(); i++) {
+                assertArrayEquals(expect.get(i), actual.get(i));
+            }
+        }
+        // 调用者提供的线程池，调用线程本身就是池中唯一的线程时不会死锁
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            FileDigestEngine engine = new FileDigestEngine(new SM3.Digest(), executor, 4);
+            List<byte[]> actual = executor.submit(() -> engine.digest(files)).get(60, TimeUnit.SECONDS);
+            for (int i = 0; i < expect.size(); i++) {
+                assertArrayEquals(expect.get(i), actual.get(i));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        // 文件不存在
+        List<Path> missing = new ArrayList<>(files.subList(0, 10));
+        missing.add(Paths.get("target/DigestEngine/not_exist.png"));
+        assertThrows(NoSuchFileException.class, () -> new FileDigestEngine(new SM3.Digest(), 4).digest(missing));
+    }
+}
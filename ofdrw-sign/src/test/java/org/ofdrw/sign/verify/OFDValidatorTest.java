@@ -0,0 +1,129 @@
+package org.ofdrw.sign.verify;
+
+import org.junit.jupiter.api.Test;
+import org.ofdrw.gm.cert.PKCS12Tools;
+import org.ofdrw.gm.ses.v4.SESeal;
+import org.ofdrw.reader.OFDReader;
+import org.ofdrw.sign.OFDSigner;
+import org.ofdrw.sign.signContainer.SESV4Container;
+import org.ofdrw.sign.stamppos.NormalStampPos;
+import org.ofdrw.sign.verify.container.SESV4ValidateContainer;
+import org.ofdrw.sign.verify.exceptions.FileIntegrityException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.PrivateKey;
+import java.security.cert.Certificate;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author agent
+ * @since 2026-10-17 13:57:23
+ */
+class OFDValidatorTest {
+
+    private static final Path userP12Path = Paths.get("src/test/resources", "USER.p12");
+    private static final Path sealPath = Paths.get("src/test/resources", "UserV4.esl");
+
+    /**
+     * 生成含有大量资源文件的已签章文档
+     *
+     * @param n 资源文件数量
+     * @return 已签章文档路径
+     */
+    static Path signedDoc(int n) throws Exception {
+        Path dir = Files.createDirectories(Paths.get("target/ZipValidate"));
+        Path src = dir.resolve("res_" + n + ".ofd");
+        Path out = dir.resolve("res_" + n + "_signed.ofd");
+        if (Files.exists(out)) {
+            return out;
+        }
+        // 在 helloworld.ofd 中加入资源文件
+        Random random = new Random(n);
+        try (ZipInputStream zin = new ZipInputStream(Files.newInputStream(Paths.get("src/test/resources", "helloworld.ofd")));
+             ZipOutputStream zout = new ZipOutputStream(Files.newOutputStream(src))) {
+            ZipEntry entry;
+            while ((entry = zin.getNextEntry()) != null) {
+                zout.putNextEntry(new ZipEntry(entry.getName()));
+                copy(zin, zout);
+                zout.closeEntry();
+            }
+            for (int i = 0; i < n; i++) {
+                zout.putNextEntry(new ZipEntry("Doc_0/Res/image_" + i + ".png"));
+                byte[] bin = new byte[8 * 1024 + random.nextInt(56 * 1024)];
+                random.nextBytes(bin);
+                zout.write(bin);
+                zout.closeEntry();
+            }
+        }
+        PrivateKey prvKey = PKCS12Tools.ReadPrvKey(userP12Path, "private", "777777");
+        Certificate signCert = PKCS12Tools.ReadUserCert(userP12Path, "private", "777777");
+        SESeal seal = SESeal.getInstance(Files.readAllBytes(sealPath));
+        try (OFDReader reader = new OFDReader(src);
+             OFDSigner signer = new OFDSigner(reader, out)) {
+            signer.setSignContainer(new SESV4Container(prvKey, seal, signCert));
+            signer.addApPos(new NormalStampPos(1, 50, 50, 40, 40));
+            signer.exeSign();
+        }
+        return out;
+    }
+
+    private static void copy(InputStream in, OutputStream out) throws IOException {
+        byte[] buf = new byte[8192];
+        int len;
+        while ((len = in.read(buf)) != -1) {
+            out.write(buf, 0, len);
+        }
+    }
+
+    @Test
+    void validateFromZip() throws Exception {
+        Path doc = signedDoc(200);
+        try (OFDReader reader = new OFDReader(doc, true);
+             OFDValidator validator = new OFDValidator(reader)) {
+            validator.setValidator(new SESV4ValidateContainer());
+            validator.exeValidate();
+            // 验证过程中没有文件写入工作目录
+            assertEquals(0, reader.getZipSource().getWrittenBytes());
+            System.out.printf(">> 验证通过 解压: %d bytes 写入磁盘: %d bytes%n",
+                    reader.getZipSource().getInflatedBytes(), reader.getZipSource().getWrittenBytes());
+        }
+        try (OFDValidator validator = new OFDValidator(doc)) {
+            validator.setValidator(new SESV4ValidateContainer());
+            validator.exeValidate();
+        }
+    }
+
+    @Test
+    void tamperedFromZip() throws Exception {
+        Path doc = signedDoc(20);
+        // 修改一个被保护的资源文件
+        Path tampered = Paths.get("target/ZipValidate/tampered.ofd");
+        try (ZipInputStream zin = new ZipInputStream(Files.newInputStream(doc));
+             ZipOutputStream zout = new ZipOutputStream(Files.newOutputStream(tampered))) {
+            ZipEntry entry;
+            while ((entry = zin.getNextEntry()) != null) {
+                zout.putNextEntry(new ZipEntry(entry.getName()));
+                if (entry.getName().equals("Doc_0/Res/image_7.png")) {
+                    zout.write(new byte[]{1, 2, 3});
+                } else {
+                    copy(zin, zout);
+                }
+                zout.closeEntry();
+            }
+        }
+        try (OFDValidator validator = new OFDValidator(tampered)) {
+            validator.setValidator(new SESV4ValidateContainer());
+            assertThrows(FileIntegrityException.class, validator::exeValidate);
+        }
+    }
+}
@@ -140,6 +140,8 @@ public class BareOFDDoc implements Closeable {
         }
 
         try {
+            // 写入等待嵌入的字体文件
+            prm.flushFonts();
             // 设置最大对象ID
             cdata.setMaxUnitID(MaxUnitID.get());
             // final. 执行打包程序
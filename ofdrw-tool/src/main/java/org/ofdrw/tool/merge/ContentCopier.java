@@ -0,0 +1,279 @@
+package org.ofdrw.tool.merge;
+
+import org.dom4j.Attribute;
+import org.dom4j.Element;
+import org.dom4j.Node;
+
+import javax.xml.stream.*;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * 页面内容流式复制
+ * <p>
+ * 使用StAX逐个事件读取页面（或模板页面）的Content.xml并写出，
+ * 复制过程中通过 {@link AttrMapper} 替换对象ID与资源引用，不构造DOM树。
+ *
+ * @author agent
+ * @since 2026-10-17 14:19:42
+ */
+final class ContentCopier {
+
+    private static final XMLInputFactory InputFactory;
+
+    private static final XMLOutputFactory OutputFactory = XMLOutputFactory.newInstance();
+
+    /**
+     * 属性映射结果：去除该属性
+     * <p>
+     * 以引用比较，不与任何属性值相等
+     */
+    @SuppressWarnings("StringOperationCanBeSimplified")
+    static final String REMOVE = new String("");
+
+    static {
+        InputFactory = XMLInputFactory.newInstance();
+        // 禁止DTD与外部实体，防止XXE
+        InputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        InputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        InputFactory.setProperty(XMLInputFactory.IS_COALESCING, true);
+    }
+
+    /**
+     * 属性值映射
+     */
+    @FunctionalInterface
+    interface AttrMapper {
+        /**
+         * 映射属性值
+         *
+         * @param element 元素名称（不含前缀）
+         * @param attr    属性名称（不含前缀）
+         * @param value   原属性值
+         * @return 新属性值，返还原值表示不替换，返还 {@link #REMOVE} 表示去除该属性，返还null表示丢弃该元素（含子元素）
+         * @throws IOException 资源迁移异常
+         */
+        String map(String element, String attr, String value) throws IOException;
+    }
+
+    private ContentCopier() {
+    }
+
+    /**
+     * 复制页面内容
+     *
+     * @param in     页面内容输入流，流的关闭由调用者负责
+     * @param out    输出流，流的关闭由调用者负责
+     * @param mapper 属性值映射
+     * @param area   页面不含页面区域（Area）时插入的区域，可以为null
+     * @throws IOException XML解析或写出异常
+     */
+    static void copy(InputStream in, OutputStream out, AttrMapper mapper, Element area) throws IOException {
+        XMLStreamReader reader = null;
+        XMLStreamWriter writer = null;
+        // 复制过程中的异常，关闭时的异常附加到该异常上
+        Throwable failure = null;
+        try {
+            reader = InputFactory.createXMLStreamReader(in);
+            writer = OutputFactory.createXMLStreamWriter(out, "UTF-8");
+            writer.writeStartDocument("UTF-8", "1.0");
+            int depth = 0;
+            // 被丢弃的元素所处深度，-1表示没有丢弃
+            int skipDepth = -1;
+            // 页面区域是否已经存在或已经插入
+            boolean hasArea = area == null;
+            while (reader.hasNext()) {
+                final int event = reader.next();
+                if (skipDepth != -1) {
+                    if (event == XMLStreamConstants.START_ELEMENT) {
+                        depth++;
+                    } else if (event == XMLStreamConstants.END_ELEMENT && --depth == skipDepth) {
+                        skipDepth = -1;
+                    }
+                    continue;
+                }
+                switch (event) {
+                    case XMLStreamConstants.START_ELEMENT: {
+                        final String name = reader.getLocalName();
+                        final String[] values = mapAttributes(reader, mapper);
+                        if (values == null) {
+                            skipDepth = depth++;
+                            break;
+                        }
+                        if (depth == 1 && !hasArea) {
+                            if ("Area".equals(name)) {
+                                hasArea = true;
+                            } else if (!"Template".equals(name) && !"PageRes".equals(name)) {
+                                // Area 位于 Template、PageRes 之后，其它元素之前
+                                writeElement(writer, area);
+                                hasArea = true;
+                            }
+                        }
+                        writeStartElement(reader, writer, values);
+                        depth++;
+                        break;
+                    }
+                    case XMLStreamConstants.END_ELEMENT:
+                        depth--;
+                        if (depth == 0 && !hasArea) {
+                            writeElement(writer, area);
+                            hasArea = true;
+                        }
+                        writer.writeEndElement();
+                        break;
+                    case XMLStreamConstants.CHARACTERS:
+                    case XMLStreamConstants.SPACE:
+                        if (depth > 0) {
+                            writer.writeCharacters(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                        }
+                        break;
+                    case XMLStreamConstants.CDATA:
+                        writer.writeCData(reader.getText());
+                        break;
+                    default:
+                        // 忽略注释、处理指令等
+                        break;
+                }
+            }
+            writer.writeEndDocument();
+            writer.flush();
+        } catch (XMLStreamException e) {
+            failure = new IOException("页面内容复制失败，原因：" + e.getMessage(), e);
+            throw (IOException) failure;
+        } catch (IOException | RuntimeException | Error e) {
+            failure = e;
+            throw e;
+        } finally {
+            close(writer, reader, failure);
+        }
+    }
+
+    /**
+     * 关闭XML读写器
+     * <p>
+     * 复制已经失败时关闭异常作为被抑制的异常附加到原异常上，否则抛出
+     *
+     * @param writer  写出器，可以为null
+     * @param reader  读取器，可以为null
+     * @param failure 复制过程中的异常，没有时为null
+     * @throws IOException 复制成功但关闭失败
+     */
+    private static void close(XMLStreamWriter writer, XMLStreamReader reader, Throwable failure) throws IOException {
+        XMLStreamException error = null;
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (XMLStreamException e) {
+                error = e;
+            }
+        }
+        if (reader != null) {
+            try {
+                reader.close();
+            } catch (XMLStreamException e) {
+                if (error == null) {
+                    error = e;
+                } else {
+                    error.addSuppressed(e);
+                }
+            }
+        }
+        if (error == null) {
+            return;
+        }
+        if (failure != null) {
+            failure.addSuppressed(error);
+            return;
+        }
+        throw new IOException("页面内容复制失败，无法关闭XML流，原因：" + error.getMessage(), error);
+    }
+
+    /**
+     * 映射元素的属性值
+     *
+     * @return 新属性值，元素需要丢弃时返还null
+     */
+    private static String[] mapAttributes(XMLStreamReader reader, AttrMapper mapper) throws IOException {
+        final String name = reader.getLocalName();
+        final String[] values = new String[reader.getAttributeCount()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = mapper.map(name, reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+            if (values[i] == null) {
+                return null;
+            }
+        }
+        return values;
+    }
+
+    /**
+     * 写出开始标签
+     */
+    private static void writeStartElement(XMLStreamReader reader, XMLStreamWriter writer, String[] values) throws XMLStreamException {
+        final String name = reader.getLocalName();
+        final String prefix = reader.getPrefix();
+        final String ns = reader.getNamespaceURI();
+        if (ns == null || ns.isEmpty()) {
+            writer.writeStartElement(name);
+        } else {
+            writer.writeStartElement(prefix == null ? "" : prefix, name, ns);
+        }
+        for (int i = 0; i < reader.getNamespaceCount(); i++) {
+            String p = reader.getNamespacePrefix(i);
+            String uri = reader.getNamespaceURI(i);
+            if (p == null || p.isEmpty()) {
+                writer.writeDefaultNamespace(uri);
+            } else {
+                writer.setPrefix(p, uri);
+                writer.writeNamespace(p, uri);
+            }
+        }
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            final String attr = reader.getAttributeLocalName(i);
+            final String value = values[i];
+            if (value == REMOVE) {
+                continue;
+            }
+            final String attrNs = reader.getAttributeNamespace(i);
+            if (attrNs == null || attrNs.isEmpty()) {
+                writer.writeAttribute(attr, value);
+            } else {
+                writer.writeAttribute(reader.getAttributePrefix(i), attrNs, attr, value);
+            }
+        }
+    }
+
+    /**
+     * 写出DOM元素
+     *
+     * @param writer  输出
+     * @param element DOM元素
+     * @throws XMLStreamException 写出异常
+     */
+    private static void writeElement(XMLStreamWriter writer, Element element) throws XMLStreamException {
+        final String ns = element.getNamespaceURI();
+        if (ns == null || ns.isEmpty()) {
+            writer.writeStartElement(element.getName());
+        } else {
+            String prefix = writer.getPrefix(ns);
+            if (prefix == null) {
+                prefix = element.getNamespacePrefix();
+                writer.writeStartElement(prefix, element.getName(), ns);
+                writer.writeNamespace(prefix, ns);
+            } else {
+                writer.writeStartElement(prefix, element.getName(), ns);
+            }
+        }
+        for (Attribute attribute : element.attributes()) {
+            writer.writeAttribute(attribute.getName(), attribute.getValue());
+        }
+        for (Node node : element.content()) {
+            if (node instanceof Element) {
+                writeElement(writer, (Element) node);
+            } else if (node.getNodeType() == Node.TEXT_NODE || node.getNodeType() == Node.CDATA_SECTION_NODE) {
+                writer.writeCharacters(node.getText());
+            }
+        }
+        writer.writeEndElement();
+    }
+}
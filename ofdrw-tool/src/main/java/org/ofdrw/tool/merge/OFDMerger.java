@@ -35,6 +35,9 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 文档合并工具
+ * <p>
+ * 流式合并模式（见 {@link #OFDMerger(Path, boolean)}）下，添加文档时直接从其压缩包中读取页面，
+ * 替换ID后立即写入合并结果，资源文件按照内容摘要在所有文档间去重，适合合并大量小文档。
  *
  * @author 权观宇
  * @since 2021-11-08 20:49:36
@@ -82,6 +85,16 @@ public class OFDMerger implements Closeable {
     private final Map<String, CT_TemplatePage> tplPageMap;
 
     private final AtomicInteger resFileCounter;
+
+    /**
+     * 是否使用流式合并
+     */
+    private final boolean streaming;
+
+    /**
+     * 流式合并引擎，在第一次添加页面时创建
+     */
+    private StreamMergeEngine engine;
     /**
      * - Layer 的 DrawParam
      * - 每个图像对象都可能含有 DrawParam 引用
@@ -101,6 +114,16 @@ public class OFDMerger implements Closeable {
     }};
 
     public OFDMerger(Path dest) {
+        this(dest, false);
+    }
+
+    /**
+     * 创建文档合并工具
+     *
+     * @param dest      合并结果路径
+     * @param streaming true - 流式合并，添加时即写入页面，不解压文档；false - 关闭时解压并合并所有文档
+     */
+    public OFDMerger(Path dest, boolean streaming) {
         if (dest == null) {
             throw new IllegalArgumentException("合并结果路径(dest)为空");
         }
@@ -114,6 +137,7 @@ public class OFDMerger implements Closeable {
         resFileHashTable = new HashMap<>(3);
         tplPageMap = new HashMap<>(2);
         resFileCounter = new AtomicInteger(0);
+        this.streaming = streaming;
     }
 
 
@@ -126,6 +150,14 @@ public class OFDMerger implements Closeable {
      * @throws IOException 页面读写异常
      */
     public OFDMerger add(Path filepath, int... pageIndexes) throws IOException {
+        if (streaming) {
+            if (engine == null) {
+                engine = new StreamMergeEngine(dest);
+            }
+            // 流式合并时页面立即写入合并结果
+            engine.add(filepath, pageIndexes);
+            return this;
+        }
         String key = filepath.toAbsolutePath().getFileName().toString();
         DocContext ctx = docCtxMap.get(key);
         // 缓存中没有该文件映射
@@ -433,6 +465,10 @@ public class OFDMerger implements Closeable {
 
     @Override
     public void close() throws IOException {
+        if (engine != null) {
+            engine.close();
+            return;
+        }
         // 只有在新文档中含有页面时才允许运行合并进程
         if (!pageArr.isEmpty()) {
             try {
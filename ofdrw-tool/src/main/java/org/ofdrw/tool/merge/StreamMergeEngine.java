@@ -0,0 +1,699 @@
+package org.ofdrw.tool.merge;
+
+import org.apache.commons.io.IOUtils;
+import org.bouncycastle.jcajce.provider.digest.SM3;
+import org.bouncycastle.util.encoders.Hex;
+import org.dom4j.DocumentException;
+import org.dom4j.Element;
+import org.ofdrw.core.OFDElement;
+import org.ofdrw.core.basicStructure.doc.CT_CommonData;
+import org.ofdrw.core.basicStructure.doc.CT_PageArea;
+import org.ofdrw.core.basicStructure.doc.Document;
+import org.ofdrw.core.basicStructure.ofd.DocBody;
+import org.ofdrw.core.basicStructure.ofd.OFD;
+import org.ofdrw.core.basicStructure.ofd.docInfo.CT_DocInfo;
+import org.ofdrw.core.basicStructure.pageObj.CT_TemplatePage;
+import org.ofdrw.core.basicStructure.pageTree.Page;
+import org.ofdrw.core.basicStructure.pageTree.Pages;
+import org.ofdrw.core.basicStructure.res.CT_MultiMedia;
+import org.ofdrw.core.basicStructure.res.Res;
+import org.ofdrw.core.basicStructure.res.resources.*;
+import org.ofdrw.core.basicType.ST_ID;
+import org.ofdrw.core.basicType.ST_Loc;
+import org.ofdrw.core.compositeObj.CT_VectorG;
+import org.ofdrw.core.pageDescription.color.colorSpace.CT_ColorSpace;
+import org.ofdrw.core.pageDescription.drawParam.CT_DrawParam;
+import org.ofdrw.core.text.font.CT_Font;
+import org.ofdrw.gv.GlobalVar;
+import org.ofdrw.layout.PageLayout;
+import org.ofdrw.pkg.container.ZipSink;
+import org.ofdrw.pkg.container.ZipSource;
+import org.ofdrw.pkg.tool.OutputFiles;
+import org.ofdrw.reader.OFDReader;
+import org.ofdrw.reader.ResourceLocator;
+import org.ofdrw.reader.ResourceManage;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * 流式文档合并引擎
+ * <p>
+ * 每添加一个文档，就以按需解压的方式打开，将选中的页面与模板页面通过 {@link ContentCopier}
+ * 流式复制并替换ID后立即写入目标压缩包，随后关闭该文档。
+ * <p>
+ * 字体、图像等资源文件与资源描述按照内容摘要（SM3）在所有文档间去重，
+ * 合并过程中只保留去重后的资源描述与页面列表，内存占用不随合并的文档数量增长。
+ * <p>
+ * 合并结果先写入目标目录下的临时文件，关闭时移动到目标位置；
+ * 没有合并任何页面时不生成文件，添加文档或完成合并失败时删除临时文件，合并不能继续。
+ * 引用了不存在的模板或可选资源时丢弃该引用并输出警告，引用了不存在的必选资源（字体、图像等）时合并失败。
+ *
+ * @author agent
+ * @since 2026-10-17 14:19:42
+ */
+final class StreamMergeEngine implements Closeable {
+
+    /**
+     * 引用资源的属性
+     * <p>
+     * - Text 中 Font
+     * - Image、Composite 中 ResourceID、Substitution、ImageMask
+     * - Pattern、CompositeGraphUnit 中 Thumbnail
+     * - 图元对象、Layer 中 DrawParam
+     * - Color 中 ColorSpace
+     * - DrawParam 中 Relative
+     */
+    private static final Set<String> RefAttrs = new HashSet<>(Arrays.asList(
+            "Font", "ResourceID", "Substitution", "ImageMask", "Thumbnail", "DrawParam", "ColorSpace", "Relative"));
+
+    /**
+     * 可选的引用资源属性
+     * <p>
+     * 引用的资源不存在时去除该属性（阅读器同样忽略无效的引用），
+     * 其余属性（Font、ResourceID）为必选属性，引用的资源不存在时合并失败。
+     */
+    private static final Set<String> OptionalRefAttrs = new HashSet<>(Arrays.asList(
+            "Substitution", "ImageMask", "Thumbnail", "DrawParam", "ColorSpace", "Relative"));
+
+    /**
+     * 文档根目录
+     */
+    private static final String DocRoot = "/Doc_0/";
+
+    /**
+     * 合并结果路径
+     */
+    private final Path dest;
+
+    /**
+     * 合并过程中写入的临时文件
+     */
+    private final Path tmp;
+
+    /**
+     * 目标压缩包
+     */
+    private final ZipSink sink;
+
+    /**
+     * 新文档
+     */
+    private final Document document;
+
+    /**
+     * 公共资源：颜色空间、绘制参数、字体
+     */
+    private final Res publicRes;
+
+    /**
+     * 文档资源：多媒体、矢量图形
+     */
+    private final Res documentRes;
+
+    private ColorSpaces colorSpaces;
+    private DrawParams drawParams;
+    private Fonts fonts;
+    private MultiMedias multiMedias;
+    private CompositeGraphicUnits compositeGraphicUnits;
+
+    /**
+     * 资源描述摘要映射
+     * <p>
+     * Key: 替换引用并去除ID后的资源描述摘要
+     * Value: 资源在新文档中的ID
+     */
+    private final Map<String, Long> resHashTable = new HashMap<>();
+
+    /**
+     * 资源文件摘要映射
+     * <p>
+     * Key: 文件SM3 Hash Hex
+     * Value: 文件在新文档资源目录中的文件名
+     */
+    private final Map<String, String> resFileHashTable = new HashMap<>();
+
+    /**
+     * 模板页面摘要映射
+     * <p>
+     * Key: 模板页面内容摘要
+     * Value: 模板页面在新文档中的ID
+     */
+    private final Map<String, Long> tplHashTable = new HashMap<>();
+
+    /**
+     * 页面内容缓冲区，重复使用
+     */
+    private final ByteArrayOutputStream pageBuf = new ByteArrayOutputStream(64 * 1024);
+
+    private final MessageDigest md = new SM3.Digest();
+
+    private long maxUnitID = 0;
+
+    private int pageCounter = 0;
+
+    private int tplCounter = 0;
+
+    private int resFileCounter = 0;
+
+    private boolean closed = false;
+
+    /**
+     * 合并是否已经失败
+     */
+    private boolean failed = false;
+
+    /**
+     * 创建流式合并引擎
+     *
+     * @param dest 合并结果路径
+     * @throws IOException 文件创建异常
+     */
+    StreamMergeEngine(Path dest) throws IOException {
+        this.dest = dest.toAbsolutePath();
+        this.tmp = OutputFiles.createTemp(this.dest);
+        try {
+            this.sink = new ZipSink(tmp);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        final CT_CommonData cdata = new CT_CommonData();
+        cdata.setPageArea(PageLayout.A4().getPageArea());
+        this.document = new Document();
+        this.document.setCommonData(cdata).setPages(new Pages());
+        this.publicRes = new Res().setBaseLoc(ST_Loc.getInstance("Res"));
+        this.documentRes = new Res().setBaseLoc(ST_Loc.getInstance("Res"));
+    }
+
+    /**
+     * 合并文档页面
+     * <p>
+     * 页面立即写入目标压缩包，方法返回时文档已经关闭。
+     * 添加失败时已经写入的部分页面无法撤回，合并随之失败，关闭时删除临时文件。
+     *
+     * @param filepath    待合并的OFD文件路径
+     * @param pageIndexes 页面序序列，如果为空表示所有页面（页码从1开始）
+     * @throws IOException 文件读写异常，或引用的模板、资源不存在
+     */
+    void add(Path filepath, int... pageIndexes) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("合并已经完成，无法继续添加页面");
+        }
+        if (failed) {
+            throw new IllegalStateException("合并已经失败，无法继续添加页面");
+        }
+        boolean success = false;
+        try (OFDReader reader = new OFDReader(filepath, true)) {
+            new Source(filepath, reader).copyPages(pageIndexes);
+            success = true;
+        } catch (DocumentException e) {
+            throw new IOException("无法解析文档 " + filepath + "，原因：" + e.getMessage(), e);
+        } finally {
+            if (!success) {
+                failed = true;
+            }
+        }
+    }
+
+    /**
+     * 待合并的文档
+     * <p>
+     * 仅在合并该文档的页面时存在，ID映射表随之释放
+     */
+    private final class Source {
+        /**
+         * 文档路径
+         */
+        final Path file;
+        final OFDReader reader;
+        final ResourceManage resMgt;
+        final ResourceLocator rl;
+        /**
+         * 文档默认页面区域
+         */
+        final CT_PageArea defaultArea;
+        /**
+         * 页面在包内的绝对路径
+         */
+        final List<ST_Loc> pageLocs = new ArrayList<>();
+        /**
+         * 模板页面
+         * <p>
+         * Key: 原ID
+         */
+        final Map<String, CT_TemplatePage> tplMap = new HashMap<>();
+        /**
+         * 资源ID映射（原ID → 新ID）
+         */
+        final Map<String, Long> resIdMap = new HashMap<>();
+        /**
+         * 模板ID映射（原ID → 新ID）
+         */
+        final Map<String, Long> tplIdMap = new HashMap<>();
+        /**
+         * 已经输出过警告的无效引用
+         */
+        final Set<String> invalidRefs = new HashSet<>();
+
+        Source(Path file, OFDReader reader) throws IOException, DocumentException {
+            this.file = file;
+            this.reader = reader;
+            this.resMgt = reader.getResMgt();
+            this.rl = reader.getResourceLocator();
+            try {
+                final Document doc = reader.cdDefaultDoc();
+                CT_PageArea area = doc.getCommonData().getPageArea();
+                if (area == null) {
+                    area = PageLayout.A4().getPageArea();
+                }
+                this.defaultArea = area;
+                final String docDir = rl.pwd();
+                for (Page page : doc.getPages().getPages()) {
+                    pageLocs.add(resolve(docDir, page.getBaseLoc()));
+                }
+                for (CT_TemplatePage tpl : doc.getCommonData().getTemplatePages()) {
+                    final ST_Loc loc = resolve(docDir, tpl.getBaseLoc());
+                    if (loc != null) {
+                        CT_TemplatePage item = new CT_TemplatePage((Element) tpl.clone());
+                        item.setBaseLoc(loc);
+                        tplMap.put(tpl.getID().toString(), item);
+                    }
+                }
+            } finally {
+                rl.restore();
+            }
+        }
+
+        /**
+         * 解析文档内路径为包内绝对路径
+         * <p>
+         * 路径大小写与压缩包条目不一致时（如 TPLS/Tpl_0 与 Tpls/Tpl_0），以忽略大小写匹配到的条目为准
+         *
+         * @param docDir 文档根目录
+         * @param loc    相对于文档根目录的路径
+         * @return 包内绝对路径，不存在时返还null
+         */
+        private ST_Loc resolve(String docDir, ST_Loc loc) {
+            if (loc == null) {
+                return null;
+            }
+            final ZipSource zipSource = reader.getZipSource();
+            String abs = loc.isRootPath() ? loc.getLoc() : ST_Loc.getInstance(docDir).cat(loc).getLoc();
+            if (zipSource.exist(abs)) {
+                return ST_Loc.getInstance(abs);
+            }
+            for (String name : zipSource.entryNames()) {
+                if (name.equalsIgnoreCase(abs)) {
+                    return ST_Loc.getInstance(name);
+                }
+            }
+            return null;
+        }
+
+        /**
+         * 复制页面到目标压缩包
+         *
+         * @param pageIndexes 页码，为空表示所有页面
+         * @throws IOException 文件读写异常
+         */
+        void copyPages(int... pageIndexes) throws IOException {
+            if (pageIndexes == null || pageIndexes.length == 0) {
+                pageIndexes = new int[pageLocs.size()];
+                for (int i = 0; i < pageIndexes.length; i++) {
+                    pageIndexes[i] = i + 1;
+                }
+            }
+            final CT_PageArea pageArea = new CT_PageArea((Element) defaultArea.clone());
+            pageArea.setOFDName("Area");
+            final Element area = pageArea.getProxy();
+            for (int pageIndex : pageIndexes) {
+                if (pageIndex <= 0 || pageIndex > pageLocs.size() || pageLocs.get(pageIndex - 1) == null) {
+                    // 忽略页码非法的页面复制
+                    continue;
+                }
+                pageBuf.reset();
+                try (InputStream in = rl.open(pageLocs.get(pageIndex - 1))) {
+                    ContentCopier.copy(in, pageBuf, (element, attr, value) -> {
+                        if ("ID".equals(attr)) {
+                            return Long.toString(++maxUnitID);
+                        }
+                        return mapRef(element, attr, value);
+                    }, area);
+                }
+                final int index = pageCounter++;
+                final String pageLoc = String.format("Pages/Page_%d/Content.xml", index);
+                sink.putStream(DocRoot + pageLoc, new ByteArrayInputStream(pageBuf.toByteArray()));
+                document.getPages().addPage(new Page(++maxUnitID, pageLoc));
+            }
+        }
+
+        /**
+         * 映射引用属性，引用的资源或模板将被迁移到新文档
+         *
+         * @param element 元素名称
+         * @param attr    属性名称
+         * @param value   原属性值
+         * @return 新属性值；{@link ContentCopier#REMOVE} 表示去除无效的可选引用；null 表示丢弃引用了不存在模板的元素
+         * @throws IOException 资源迁移异常，或必选属性引用的资源不存在
+         */
+        String mapRef(String element, String attr, String value) throws IOException {
+            if ("TemplateID".equals(attr) && "Template".equals(element)) {
+                final Long newId = tplMigrate(value);
+                if (newId == null) {
+                    warn("页面引用的模板页面 [" + value + "] 不存在，已丢弃该模板引用");
+                    return null;
+                }
+                return Long.toString(newId);
+            }
+            if (RefAttrs.contains(attr)) {
+                final Long newId = resMigrate(value);
+                if (newId != null) {
+                    return Long.toString(newId);
+                }
+                if (!OptionalRefAttrs.contains(attr)) {
+                    throw new IOException(element + " 的 " + attr + " 属性引用的资源 [" + value + "] 不存在");
+                }
+                warn(element + " 的 " + attr + " 属性引用的资源 [" + value + "] 不存在，已去除该引用");
+                return ContentCopier.REMOVE;
+            }
+            return value;
+        }
+
+        /**
+         * 输出无效引用的警告，相同的警告只输出一次
+         *
+         * @param msg 警告信息
+         */
+        private void warn(String msg) {
+            if (invalidRefs.add(msg)) {
+                System.err.println(">> " + file + " " + msg);
+            }
+        }
+
+        /**
+         * 迁移模板页面
+         * <p>
+         * 模板内容以局部对象ID复制后计算摘要，内容相同的模板页面只写入一次
+         *
+         * @param oldId 模板原ID
+         * @return 模板在新文档中的ID，模板不存在时返还null
+         * @throws IOException 文件读写异常
+         */
+        Long tplMigrate(String oldId) throws IOException {
+            final Long cache = tplIdMap.get(oldId);
+            if (cache != null) {
+                return cache;
+            }
+            final CT_TemplatePage tpl = tplMap.get(oldId);
+            if (tpl == null) {
+                return null;
+            }
+            // 以局部ID复制，用于计算内容摘要
+            final ByteArrayOutputStream buf = new ByteArrayOutputStream();
+            final long[] localId = {0};
+            try (InputStream in = rl.open(tpl.getBaseLoc())) {
+                ContentCopier.copy(in, buf, (element, attr, value) -> {
+                    if ("ID".equals(attr)) {
+                        return Long.toString(++localId[0]);
+                    }
+                    return mapRef(element, attr, value);
+                }, null);
+            }
+            md.update(String.valueOf(tpl.attributeValue("Name")).getBytes(StandardCharsets.UTF_8));
+            md.update(String.valueOf(tpl.attributeValue("ZOrder")).getBytes(StandardCharsets.UTF_8));
+            final String hash = Hex.toHexString(md.digest(buf.toByteArray()));
+            Long newId = tplHashTable.get(hash);
+            if (newId == null) {
+                // 新的模板，以文档唯一的对象ID重新复制
+                final long base = maxUnitID;
+                maxUnitID += localId[0];
+                buf.reset();
+                final long[] seq = {base};
+                try (InputStream in = rl.open(tpl.getBaseLoc())) {
+                    ContentCopier.copy(in, buf, (element, attr, value) -> {
+                        if ("ID".equals(attr)) {
+                            return Long.toString(++seq[0]);
+                        }
+                        return mapRef(element, attr, value);
+                    }, null);
+                }
+                final String tplLoc = String.format("%sTemps/Temp_%d.xml", DocRoot, tplCounter++);
+                sink.putStream(tplLoc, new ByteArrayInputStream(buf.toByteArray()));
+                newId = ++maxUnitID;
+                final CT_TemplatePage info = new CT_TemplatePage((Element) tpl.clone());
+                info.setID(new ST_ID(newId));
+                info.setBaseLoc(ST_Loc.getInstance(tplLoc));
+                document.getCommonData().addTemplatePage(info);
+                tplHashTable.put(hash, newId);
+            }
+            tplIdMap.put(oldId, newId);
+            return newId;
+        }
+
+        /**
+         * 迁移资源
+         * <p>
+         * 资源描述中的引用与文件替换为新文档中的值后计算摘要，相同的资源只保留一份
+         *
+         * @param oldResId 资源原ID
+         * @return 资源在新文档中的ID，资源不存在时返还null
+         * @throws IOException 文件读写异常，或资源循环引用
+         */
+        Long resMigrate(String oldResId) throws IOException {
+            final Long cache = resIdMap.get(oldResId);
+            if (cache != null) {
+                if (cache == 0) {
+                    throw new IOException("资源 [" + oldResId + "] 存在循环引用");
+                }
+                return cache;
+            }
+            final OFDElement origin = resMgt.get(oldResId);
+            if (origin == null) {
+                return null;
+            }
+            // 迁移中的资源，用于发现循环引用
+            resIdMap.put(oldResId, 0L);
+            final Element res = (Element) origin.clone();
+            // 复制资源文件，资源管理器中的文件路径均为绝对路径
+            if (origin instanceof CT_ColorSpace) {
+                final CT_ColorSpace cs = new CT_ColorSpace(res);
+                if (cs.getProfile() != null) {
+                    cs.setProfile(copyResFile(cs.getProfile()));
+                }
+            } else if (origin instanceof CT_Font) {
+                final CT_Font f = new CT_Font(res);
+                if (f.getFontFile() != null) {
+                    f.setFontFile(copyResFile(f.getFontFile()));
+                }
+            } else if (origin instanceof CT_MultiMedia) {
+                final CT_MultiMedia mm = new CT_MultiMedia(res);
+                if (mm.getMediaFile() != null) {
+                    mm.setMediaFile(copyResFile(mm.getMediaFile()));
+                }
+            }
+            // 替换资源描述中的引用，去除对象ID后计算摘要
+            final List<Element> idElements = new ArrayList<>();
+            rewriteRefs(res, idElements);
+            removeID(res);
+            for (Element e : idElements) {
+                removeID(e);
+            }
+            final String hash = res.getName() + ":" + Hex.toHexString(md.digest(res.asXML().getBytes(StandardCharsets.UTF_8)));
+            Long newId = resHashTable.get(hash);
+            if (newId == null) {
+                for (Element e : idElements) {
+                    e.addAttribute("ID", Long.toString(++maxUnitID));
+                }
+                newId = ++maxUnitID;
+                res.addAttribute("ID", Long.toString(newId));
+                addRes(res);
+                resHashTable.put(hash, newId);
+            }
+            resIdMap.put(oldResId, newId);
+            return newId;
+        }
+
+        /**
+         * 替换资源描述中的引用属性
+         *
+         * @param element    资源描述元素
+         * @param idElements 含有对象ID的子元素
+         * @throws IOException 资源迁移异常
+         */
+        private void rewriteRefs(Element element, List<Element> idElements) throws IOException {
+            for (Element child : element.elements()) {
+                if (child.attribute("ID") != null) {
+                    idElements.add(child);
+                }
+                rewriteRefs(child, idElements);
+            }
+            for (org.dom4j.Attribute attribute : new ArrayList<>(element.attributes())) {
+                final String name = attribute.getName();
+                if ("ID".equals(name)) {
+                    continue;
+                }
+                final String value = mapRef(element.getName(), name, attribute.getValue());
+                if (value == ContentCopier.REMOVE || value == null) {
+                    element.remove(attribute);
+                } else if (!value.equals(attribute.getValue())) {
+                    attribute.setValue(value);
+                }
+            }
+        }
+
+        /**
+         * 复制资源文件到新文档
+         * <p>
+         * 文件内容相同时只复制一次
+         *
+         * @param absLoc 资源文件在原文档中的绝对路径
+         * @return 资源文件在新文档资源目录中的路径（相对于资源目录）
+         * @throws IOException 文件读写异常
+         */
+        private ST_Loc copyResFile(ST_Loc absLoc) throws IOException {
+            final byte[] bin;
+            try (InputStream in = rl.open(absLoc)) {
+                bin = IOUtils.toByteArray(in);
+            }
+            final String hash = Hex.toHexString(md.digest(bin));
+            String fileName = resFileHashTable.get(hash);
+            if (fileName != null) {
+                return ST_Loc.getInstance(fileName);
+            }
+            // 重命名文件为文件计数器，保留后缀名
+            final String originName = absLoc.getFileName();
+            final int off = originName.lastIndexOf('.');
+            fileName = (++resFileCounter) + (off != -1 ? originName.substring(off) : "");
+            sink.putStream(DocRoot + "Res/" + fileName, new ByteArrayInputStream(bin));
+            resFileHashTable.put(hash, fileName);
+            return ST_Loc.getInstance(fileName);
+        }
+    }
+
+    private static void removeID(Element element) {
+        final org.dom4j.Attribute id = element.attribute("ID");
+        if (id != null) {
+            element.remove(id);
+        }
+    }
+
+    /**
+     * 加入资源描述
+     *
+     * @param res 资源描述
+     */
+    private void addRes(Element res) {
+        switch (res.getName()) {
+            case "ColorSpace":
+                if (colorSpaces == null) {
+                    colorSpaces = new ColorSpaces();
+                    publicRes.addResource(colorSpaces);
+                }
+                colorSpaces.addColorSpace(new CT_ColorSpace(res));
+                break;
+            case "DrawParam":
+                if (drawParams == null) {
+                    drawParams = new DrawParams();
+                    publicRes.addResource(drawParams);
+                }
+                drawParams.addDrawParam(new CT_DrawParam(res));
+                break;
+            case "Font":
+                if (fonts == null) {
+                    fonts = new Fonts();
+                    publicRes.addResource(fonts);
+                }
+                fonts.addFont(new CT_Font(res));
+                break;
+            case "MultiMedia":
+                if (multiMedias == null) {
+                    multiMedias = new MultiMedias();
+                    documentRes.addResource(multiMedias);
+                }
+                multiMedias.addMultiMedia(new CT_MultiMedia(res));
+                break;
+            case "CompositeGraphicUnit":
+                if (compositeGraphicUnits == null) {
+                    compositeGraphicUnits = new CompositeGraphicUnits();
+                    documentRes.addResource(compositeGraphicUnits);
+                }
+                compositeGraphicUnits.addCompositeGraphicUnit(new CT_VectorG(res));
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * 写入文档描述与资源描述，完成合并
+     * <p>
+     * 没有合并任何页面或合并已经失败时，删除临时文件且不生成合并结果
+     *
+     * @throws IOException 文件写入异常
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (failed || pageCounter == 0) {
+            try {
+                sink.close();
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+            return;
+        }
+        boolean success = false;
+        try {
+            writeDocument();
+            sink.close();
+            OutputFiles.replace(tmp, dest);
+            success = true;
+        } finally {
+            if (!success) {
+                try {
+                    sink.close();
+                } finally {
+                    Files.deleteIfExists(tmp);
+                }
+            }
+        }
+    }
+
+    /**
+     * 写入文档描述、资源描述与文档入口
+     *
+     * @throws IOException 文件写入异常
+     */
+    private void writeDocument() throws IOException {
+        final CT_CommonData cdata = document.getCommonData();
+        if (colorSpaces != null || drawParams != null || fonts != null) {
+            cdata.addPublicRes(ST_Loc.getInstance("PublicRes.xml"));
+            sink.putObj(DocRoot + "PublicRes.xml", publicRes);
+        }
+        if (multiMedias != null || compositeGraphicUnits != null) {
+            cdata.addDocumentRes(ST_Loc.getInstance("DocumentRes.xml"));
+            sink.putObj(DocRoot + "DocumentRes.xml", documentRes);
+        }
+        cdata.setMaxUnitID(maxUnitID);
+        sink.putObj(DocRoot + "Document.xml", document);
+
+        CT_DocInfo docInfo = new CT_DocInfo()
+                .setDocID(UUID.randomUUID())
+                .setCreationDate(LocalDate.now())
+                .setCreator("OFD R&W")
+                .setCreatorVersion(GlobalVar.Version);
+        DocBody docBody = new DocBody()
+                .setDocInfo(docInfo)
+                .setDocRoot(new ST_Loc("Doc_0/Document.xml"));
+        sink.putObj("/OFD.xml", new OFD().addDocBody(docBody));
+    }
+}
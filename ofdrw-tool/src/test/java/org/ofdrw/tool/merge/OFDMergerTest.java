@@ -1,11 +1,18 @@
 package org.ofdrw.tool.merge;
 
+import org.apache.commons.io.FileUtils;
 import org.dom4j.DocumentHelper;
 import org.junit.jupiter.api.Test;
+import org.ofdrw.core.basicStructure.pageObj.Page;
+import org.ofdrw.reader.OFDReader;
 
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.stream.Stream;
+import java.util.zip.ZipFile;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -42,4 +49,100 @@ class OFDMergerTest {
             ofdMerger.add(d1Path);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 流式合并
+     */
+    @Test
+    void addStreaming() throws IOException {
+        Path dst = Paths.get("target/n3.ofd");
+        Path d1Path = Paths.get("../ofdrw-converter/src/test/resources/", "y.ofd");
+        Path d2Path = Paths.get("../ofdrw-converter/src/test/resources/", "发票示例.ofd");
+
+        try (OFDMerger ofdMerger = new OFDMerger(dst, true)) {
+            ofdMerger.add(d1Path, 2);
+            ofdMerger.add(d2Path, 1);
+            ofdMerger.add(d1Path, 1);
+            // 页面已经写入，不再缓存
+            assertTrue(ofdMerger.pageArr.isEmpty());
+        }
+        try (OFDReader reader = new OFDReader(dst)) {
+            assertEquals(3, reader.getNumberOfPages());
+            for (int i = 1; i <= 3; i++) {
+                Page page = reader.getPage(i);
+                assertNotNull(page.getArea());
+                assertNotNull(page.getContent());
+            }
+            assertFalse(reader.getResMgt().getFonts().isEmpty());
+        }
+        System.out.println(">> " + dst.toAbsolutePath());
+    }
+
+    /**
+     * 合并多份同一来源的单页文档（如 发票）：资源只保留一份
+     */
+    @Test
+    void manyInvoices() throws IOException {
+        Path invoice = Paths.get("../ofdrw-converter/src/test/resources/", "999.ofd");
+        Path one = Paths.get("target/n4-1.ofd");
+        try (OFDMerger ofdMerger = new OFDMerger(one, true)) {
+            ofdMerger.add(invoice);
+        }
+        // 每份文档都是独立的文件
+        final int n = 5;
+        Path srcDir = Files.createDirectories(Paths.get("target/merge-src"));
+        Path[] sources = new Path[n];
+        for (int i = 0; i < n; i++) {
+            sources[i] = srcDir.resolve("invoice_" + i + ".ofd");
+            Files.copy(invoice, sources[i], StandardCopyOption.REPLACE_EXISTING);
+        }
+        Path dst = Paths.get("target/n4-streaming.ofd");
+        try (OFDMerger ofdMerger = new OFDMerger(dst, true)) {
+            for (Path src : sources) {
+                ofdMerger.add(src, 1);
+            }
+        }
+        try (OFDReader reader = new OFDReader(dst)) {
+            assertEquals(n, reader.getNumberOfPages());
+        }
+        // 资源文件只保留一份
+        assertEquals(resFiles(one), resFiles(dst));
+    }
+
+    /**
+     * 流式合并没有页面或合并失败时不生成文件，也不遗留临时文件
+     */
+    @Test
+    void streamingNoOutput() throws IOException {
+        Path dir = Paths.get("target/merge-none");
+        FileUtils.deleteQuietly(dir.toFile());
+        Files.createDirectories(dir);
+        Path invoice = Paths.get("../ofdrw-converter/src/test/resources/", "999.ofd");
+        Path dst = dir.resolve("none.ofd");
+        Files.deleteIfExists(dst);
+        // 页码非法，没有合并任何页面
+        try (OFDMerger ofdMerger = new OFDMerger(dst, true)) {
+            ofdMerger.add(invoice, 100);
+        }
+        assertFalse(Files.exists(dst));
+
+        // 待合并的文档不是OFD文件，合并失败
+        Path broken = dir.resolve("broken.ofd");
+        Files.write(broken, "not an ofd".getBytes());
+        OFDMerger ofdMerger = new OFDMerger(dst, true);
+        ofdMerger.add(invoice);
+        assertThrows(Exception.class, () -> ofdMerger.add(broken));
+        assertThrows(IllegalStateException.class, () -> ofdMerger.add(invoice));
+        ofdMerger.close();
+        assertFalse(Files.exists(dst));
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    private static long resFiles(Path ofd) throws IOException {
+        try (ZipFile zip = new ZipFile(ofd.toFile())) {
+            return zip.stream().filter(e -> !e.isDirectory() && e.getName().startsWith("Doc_0/Res/")).count();
+        }
+    }
+}